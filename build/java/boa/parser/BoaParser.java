@@ -0,0 +1,6742 @@
+// Generated from Boa.g by ANTLR 4.5
+package boa.parser;
+
+import java.util.ArrayList;
+
+import boa.compiler.ast.*;
+import boa.compiler.ast.expressions.*;
+import boa.compiler.ast.literals.*;
+import boa.compiler.ast.statements.*;
+import boa.compiler.ast.types.*;
+
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.*;
+import org.antlr.v4.runtime.tree.*;
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class BoaParser extends Parser {
+	static { RuntimeMetaData.checkVersion("4.5", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		OF=1, IF=2, DO=3, MAP=4, STACK=5, QUEUE=6, SET=7, FOR=8, FOREACH=9, IFALL=10, 
+		EXISTS=11, NOT=12, TYPE=13, ELSE=14, CASE=15, OUTPUT=16, FORMAT=17, WHILE=18, 
+		BREAK=19, ARRAY=20, STATIC=21, SWITCH=22, RETURN=23, WEIGHT=24, DEFAULT=25, 
+		CONTINUE=26, FUNCTION=27, FIXP=28, VISITOR=29, TRAVERSAL=30, BEFORE=31, 
+		AFTER=32, STOP=33, ENUM=34, SEMICOLON=35, COLON=36, COMMA=37, DOT=38, 
+		LBRACE=39, RBRACE=40, LPAREN=41, RPAREN=42, LBRACKET=43, RBRACKET=44, 
+		OR=45, ONEOR=46, TWOOR=47, AND=48, ONEAND=49, TWOAND=50, INCR=51, DECR=52, 
+		EQEQ=53, NEQ=54, LT=55, LTEQ=56, GT=57, GTEQ=58, PLUS=59, MINUS=60, XOR=61, 
+		STAR=62, DIV=63, MOD=64, RSHIFT=65, NEG=66, INV=67, PLUSEQ=68, MINUSEQ=69, 
+		STAREQ=70, DIVEQ=71, ONEOREQ=72, XOREQ=73, MODEQ=74, ONEANDEQ=75, RSHIFTEQ=76, 
+		LSHIFTEQ=77, WILDCARD=78, QUESTION=79, DOLLAR=80, EQUALS=81, EMIT=82, 
+		RIGHT_ARROW=83, ML_STRING=84, IntegerLiteral=85, FloatingPointLiteral=86, 
+		CharacterLiteral=87, RegexLiteral=88, MultilineStringLiteral=89, StringLiteral=90, 
+		TimeLiteral=91, Identifier=92, WS=93, LINE_COMMENT=94;
+	public static final int
+		RULE_start = 0, RULE_program = 1, RULE_programStatement = 2, RULE_declaration = 3, 
+		RULE_typeDeclaration = 4, RULE_staticVariableDeclaration = 5, RULE_variableDeclaration = 6, 
+		RULE_type = 7, RULE_component = 8, RULE_enumBodyDeclaration = 9, RULE_arrayType = 10, 
+		RULE_tupleType = 11, RULE_enumType = 12, RULE_member = 13, RULE_mapType = 14, 
+		RULE_stackType = 15, RULE_queueType = 16, RULE_setType = 17, RULE_outputType = 18, 
+		RULE_functionType = 19, RULE_fixpType = 20, RULE_visitorType = 21, RULE_traversalType = 22, 
+		RULE_statement = 23, RULE_emptyStatement = 24, RULE_assignmentStatement = 25, 
+		RULE_block = 26, RULE_breakStatement = 27, RULE_continueStatement = 28, 
+		RULE_doStatement = 29, RULE_emitStatement = 30, RULE_forStatement = 31, 
+		RULE_forExpression = 32, RULE_forVariableDeclaration = 33, RULE_forExpressionStatement = 34, 
+		RULE_expressionStatement = 35, RULE_ifStatement = 36, RULE_returnStatement = 37, 
+		RULE_switchStatement = 38, RULE_switchCase = 39, RULE_foreachStatement = 40, 
+		RULE_existsStatement = 41, RULE_ifallStatement = 42, RULE_whileStatement = 43, 
+		RULE_visitStatement = 44, RULE_traverseStatement = 45, RULE_fixpStatement = 46, 
+		RULE_stopStatement = 47, RULE_expression = 48, RULE_expressionList = 49, 
+		RULE_conjunction = 50, RULE_comparison = 51, RULE_simpleExpression = 52, 
+		RULE_term = 53, RULE_factor = 54, RULE_selector = 55, RULE_index = 56, 
+		RULE_call = 57, RULE_operand = 58, RULE_unaryFactor = 59, RULE_parenExpression = 60, 
+		RULE_functionExpression = 61, RULE_fixpExpression = 62, RULE_visitorExpression = 63, 
+		RULE_traversalExpression = 64, RULE_composite = 65, RULE_pair = 66, RULE_identifier = 67, 
+		RULE_integerLiteral = 68, RULE_floatingPointLiteral = 69, RULE_characterLiteral = 70, 
+		RULE_stringLiteral = 71, RULE_timeLiteral = 72;
+	public static final String[] ruleNames = {
+		"start", "program", "programStatement", "declaration", "typeDeclaration", 
+		"staticVariableDeclaration", "variableDeclaration", "type", "component", 
+		"enumBodyDeclaration", "arrayType", "tupleType", "enumType", "member", 
+		"mapType", "stackType", "queueType", "setType", "outputType", "functionType", 
+		"fixpType", "visitorType", "traversalType", "statement", "emptyStatement", 
+		"assignmentStatement", "block", "breakStatement", "continueStatement", 
+		"doStatement", "emitStatement", "forStatement", "forExpression", "forVariableDeclaration", 
+		"forExpressionStatement", "expressionStatement", "ifStatement", "returnStatement", 
+		"switchStatement", "switchCase", "foreachStatement", "existsStatement", 
+		"ifallStatement", "whileStatement", "visitStatement", "traverseStatement", 
+		"fixpStatement", "stopStatement", "expression", "expressionList", "conjunction", 
+		"comparison", "simpleExpression", "term", "factor", "selector", "index", 
+		"call", "operand", "unaryFactor", "parenExpression", "functionExpression", 
+		"fixpExpression", "visitorExpression", "traversalExpression", "composite", 
+		"pair", "identifier", "integerLiteral", "floatingPointLiteral", "characterLiteral", 
+		"stringLiteral", "timeLiteral"
+	};
+
+	private static final String[] _LITERAL_NAMES = {
+		null, "'of'", "'if'", "'do'", "'map'", "'stack'", "'queue'", "'set'", 
+		"'for'", "'foreach'", "'ifall'", "'exists'", "'not'", "'type'", "'else'", 
+		"'case'", "'output'", "'format'", "'while'", "'break'", "'array'", "'static'", 
+		"'switch'", "'return'", "'weight'", "'default'", "'continue'", "'function'", 
+		"'fixp'", "'visitor'", "'traversal'", "'before'", "'after'", "'stop'", 
+		"'enum'", "';'", "':'", "','", "'.'", "'{'", "'}'", "'('", "')'", "'['", 
+		"']'", "'or'", "'|'", "'||'", "'and'", "'&'", "'&&'", "'++'", "'--'", 
+		"'=='", "'!='", "'<'", "'<='", "'>'", "'>='", "'+'", "'-'", "'^'", "'*'", 
+		"'/'", "'%'", "'>>'", "'~'", "'!'", "'+='", "'-='", "'*='", "'/='", "'|='", 
+		"'^='", "'%='", "'&='", "'>>='", "'<<='", "'_'", "'?'", "'$'", "'='", 
+		"'<<'", "'->'", "'\"\"\"'"
+	};
+	private static final String[] _SYMBOLIC_NAMES = {
+		null, "OF", "IF", "DO", "MAP", "STACK", "QUEUE", "SET", "FOR", "FOREACH", 
+		"IFALL", "EXISTS", "NOT", "TYPE", "ELSE", "CASE", "OUTPUT", "FORMAT", 
+		"WHILE", "BREAK", "ARRAY", "STATIC", "SWITCH", "RETURN", "WEIGHT", "DEFAULT", 
+		"CONTINUE", "FUNCTION", "FIXP", "VISITOR", "TRAVERSAL", "BEFORE", "AFTER", 
+		"STOP", "ENUM", "SEMICOLON", "COLON", "COMMA", "DOT", "LBRACE", "RBRACE", 
+		"LPAREN", "RPAREN", "LBRACKET", "RBRACKET", "OR", "ONEOR", "TWOOR", "AND", 
+		"ONEAND", "TWOAND", "INCR", "DECR", "EQEQ", "NEQ", "LT", "LTEQ", "GT", 
+		"GTEQ", "PLUS", "MINUS", "XOR", "STAR", "DIV", "MOD", "RSHIFT", "NEG", 
+		"INV", "PLUSEQ", "MINUSEQ", "STAREQ", "DIVEQ", "ONEOREQ", "XOREQ", "MODEQ", 
+		"ONEANDEQ", "RSHIFTEQ", "LSHIFTEQ", "WILDCARD", "QUESTION", "DOLLAR", 
+		"EQUALS", "EMIT", "RIGHT_ARROW", "ML_STRING", "IntegerLiteral", "FloatingPointLiteral", 
+		"CharacterLiteral", "RegexLiteral", "MultilineStringLiteral", "StringLiteral", 
+		"TimeLiteral", "Identifier", "WS", "LINE_COMMENT"
+	};
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+	@Override
+	public String getGrammarFileName() { return "Boa.g"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+
+	protected int getStartLine(final Token t) {
+		return t.getLine();
+	}
+	protected int getStartColumn(final Token t) {
+		return t.getCharPositionInLine();
+	}
+	protected int getEndLine(final Token t) {
+		return t.getLine();
+	}
+	protected int getEndColumn(final Token t) {
+		return t.getCharPositionInLine() + t.getText().length() - 1;
+	}
+
+	protected int getStartLine() {
+		return getStartLine(getCurrentToken());
+	}
+	protected int getStartColumn() {
+		return getStartColumn(getCurrentToken());
+	}
+	protected int getEndLine() {
+		Token t = _input.LT(-1);
+		if (t == null) t = getCurrentToken();
+		return getEndLine(t);
+	}
+	protected int getEndColumn() {
+		Token t = _input.LT(-1);
+		if (t == null) t = getCurrentToken();
+		return getEndColumn(t);
+	}
+	protected void isSemicolon() {
+		if (!getCurrentToken().getText().equals(";")) {
+			notifyErrorListeners("error: ';' expected");
+			return;
+		}
+		setState(getState() + 1);
+		match(SEMICOLON);
+	}
+
+	public BoaParser(TokenStream input) {
+		super(input);
+		_interp = new ParserATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+	public static class StartContext extends ParserRuleContext {
+		public Start ast;
+		public int l;
+		public int c;
+		public ProgramContext p;
+		public TerminalNode EOF() { return getToken(BoaParser.EOF, 0); }
+		public ProgramContext program() {
+			return getRuleContext(ProgramContext.class,0);
+		}
+		public StartContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_start; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterStart(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitStart(this);
+		}
+	}
+
+	public final StartContext start() throws RecognitionException {
+		StartContext _localctx = new StartContext(_ctx, getState());
+		enterRule(_localctx, 0, RULE_start);
+		 ((StartContext)_localctx).l =  getStartLine(); ((StartContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(146);
+			((StartContext)_localctx).p = program();
+			setState(147);
+			match(EOF);
+			 ((StartContext)_localctx).ast =  new Start(((StartContext)_localctx).p.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ProgramContext extends ParserRuleContext {
+		public Program ast;
+		public int l;
+		public int c;
+		public ProgramStatementContext s;
+		public List<ProgramStatementContext> programStatement() {
+			return getRuleContexts(ProgramStatementContext.class);
+		}
+		public ProgramStatementContext programStatement(int i) {
+			return getRuleContext(ProgramStatementContext.class,i);
+		}
+		public ProgramContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_program; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterProgram(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitProgram(this);
+		}
+	}
+
+	public final ProgramContext program() throws RecognitionException {
+		ProgramContext _localctx = new ProgramContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_program);
+
+				((ProgramContext)_localctx).l =  getStartLine(); ((ProgramContext)_localctx).c =  getStartColumn();
+				((ProgramContext)_localctx).ast =  new Program();
+			
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(153); 
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			do {
+				{
+				{
+				setState(150);
+				((ProgramContext)_localctx).s = programStatement();
+				 _localctx.ast.addStatement(((ProgramContext)_localctx).s.ast); 
+				}
+				}
+				setState(155); 
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << SEMICOLON) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0) );
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ProgramStatementContext extends ParserRuleContext {
+		public Statement ast;
+		public DeclarationContext d;
+		public StatementContext s;
+		public DeclarationContext declaration() {
+			return getRuleContext(DeclarationContext.class,0);
+		}
+		public StatementContext statement() {
+			return getRuleContext(StatementContext.class,0);
+		}
+		public ProgramStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_programStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterProgramStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitProgramStatement(this);
+		}
+	}
+
+	public final ProgramStatementContext programStatement() throws RecognitionException {
+		ProgramStatementContext _localctx = new ProgramStatementContext(_ctx, getState());
+		enterRule(_localctx, 4, RULE_programStatement);
+		try {
+			setState(163);
+			switch ( getInterpreter().adaptivePredict(_input,1,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(157);
+				((ProgramStatementContext)_localctx).d = declaration();
+				 ((ProgramStatementContext)_localctx).ast =  ((ProgramStatementContext)_localctx).d.ast; 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(160);
+				((ProgramStatementContext)_localctx).s = statement();
+				 ((ProgramStatementContext)_localctx).ast =  ((ProgramStatementContext)_localctx).s.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class DeclarationContext extends ParserRuleContext {
+		public Statement ast;
+		public TypeDeclarationContext t;
+		public StaticVariableDeclarationContext s;
+		public VariableDeclarationContext v;
+		public TypeDeclarationContext typeDeclaration() {
+			return getRuleContext(TypeDeclarationContext.class,0);
+		}
+		public StaticVariableDeclarationContext staticVariableDeclaration() {
+			return getRuleContext(StaticVariableDeclarationContext.class,0);
+		}
+		public VariableDeclarationContext variableDeclaration() {
+			return getRuleContext(VariableDeclarationContext.class,0);
+		}
+		public DeclarationContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_declaration; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterDeclaration(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitDeclaration(this);
+		}
+	}
+
+	public final DeclarationContext declaration() throws RecognitionException {
+		DeclarationContext _localctx = new DeclarationContext(_ctx, getState());
+		enterRule(_localctx, 6, RULE_declaration);
+		try {
+			setState(174);
+			switch ( getInterpreter().adaptivePredict(_input,2,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(165);
+				((DeclarationContext)_localctx).t = typeDeclaration();
+				 ((DeclarationContext)_localctx).ast =  ((DeclarationContext)_localctx).t.ast; 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(168);
+				((DeclarationContext)_localctx).s = staticVariableDeclaration();
+				 ((DeclarationContext)_localctx).ast =  ((DeclarationContext)_localctx).s.ast; 
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(171);
+				((DeclarationContext)_localctx).v = variableDeclaration();
+				 ((DeclarationContext)_localctx).ast =  ((DeclarationContext)_localctx).v.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TypeDeclarationContext extends ParserRuleContext {
+		public TypeDecl ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public TerminalNode TYPE() { return getToken(BoaParser.TYPE, 0); }
+		public TerminalNode EQUALS() { return getToken(BoaParser.EQUALS, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public TypeDeclarationContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_typeDeclaration; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTypeDeclaration(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTypeDeclaration(this);
+		}
+	}
+
+	public final TypeDeclarationContext typeDeclaration() throws RecognitionException {
+		TypeDeclarationContext _localctx = new TypeDeclarationContext(_ctx, getState());
+		enterRule(_localctx, 8, RULE_typeDeclaration);
+		 ((TypeDeclarationContext)_localctx).l =  getStartLine(); ((TypeDeclarationContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(176);
+			match(TYPE);
+			setState(177);
+			((TypeDeclarationContext)_localctx).id = identifier();
+			setState(178);
+			match(EQUALS);
+			setState(179);
+			((TypeDeclarationContext)_localctx).t = type();
+			 isSemicolon(); ((TypeDeclarationContext)_localctx).ast =  new TypeDecl(((TypeDeclarationContext)_localctx).id.ast, ((TypeDeclarationContext)_localctx).t.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StaticVariableDeclarationContext extends ParserRuleContext {
+		public VarDeclStatement ast;
+		public int l;
+		public int c;
+		public VariableDeclarationContext v;
+		public TerminalNode STATIC() { return getToken(BoaParser.STATIC, 0); }
+		public VariableDeclarationContext variableDeclaration() {
+			return getRuleContext(VariableDeclarationContext.class,0);
+		}
+		public StaticVariableDeclarationContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_staticVariableDeclaration; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterStaticVariableDeclaration(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitStaticVariableDeclaration(this);
+		}
+	}
+
+	public final StaticVariableDeclarationContext staticVariableDeclaration() throws RecognitionException {
+		StaticVariableDeclarationContext _localctx = new StaticVariableDeclarationContext(_ctx, getState());
+		enterRule(_localctx, 10, RULE_staticVariableDeclaration);
+		 ((StaticVariableDeclarationContext)_localctx).l =  getStartLine(); ((StaticVariableDeclarationContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(182);
+			match(STATIC);
+			setState(183);
+			((StaticVariableDeclarationContext)_localctx).v = variableDeclaration();
+			 ((StaticVariableDeclarationContext)_localctx).ast =  ((StaticVariableDeclarationContext)_localctx).v.ast; _localctx.ast.setStatic(true); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class VariableDeclarationContext extends ParserRuleContext {
+		public VarDeclStatement ast;
+		public int l;
+		public int c;
+		public ForVariableDeclarationContext v;
+		public ForVariableDeclarationContext forVariableDeclaration() {
+			return getRuleContext(ForVariableDeclarationContext.class,0);
+		}
+		public VariableDeclarationContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_variableDeclaration; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterVariableDeclaration(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitVariableDeclaration(this);
+		}
+	}
+
+	public final VariableDeclarationContext variableDeclaration() throws RecognitionException {
+		VariableDeclarationContext _localctx = new VariableDeclarationContext(_ctx, getState());
+		enterRule(_localctx, 12, RULE_variableDeclaration);
+		 ((VariableDeclarationContext)_localctx).l =  getStartLine(); ((VariableDeclarationContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(186);
+			((VariableDeclarationContext)_localctx).v = forVariableDeclaration();
+			 isSemicolon(); ((VariableDeclarationContext)_localctx).ast =  ((VariableDeclarationContext)_localctx).v.ast; 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TypeContext extends ParserRuleContext {
+		public AbstractType ast;
+		public ArrayTypeContext a;
+		public MapTypeContext m;
+		public TupleTypeContext t;
+		public OutputTypeContext o;
+		public FunctionTypeContext f;
+		public FixpTypeContext fixp;
+		public VisitorTypeContext v;
+		public TraversalTypeContext tr;
+		public StackTypeContext s;
+		public QueueTypeContext q;
+		public SetTypeContext set;
+		public EnumTypeContext e;
+		public IdentifierContext id;
+		public ArrayTypeContext arrayType() {
+			return getRuleContext(ArrayTypeContext.class,0);
+		}
+		public MapTypeContext mapType() {
+			return getRuleContext(MapTypeContext.class,0);
+		}
+		public TupleTypeContext tupleType() {
+			return getRuleContext(TupleTypeContext.class,0);
+		}
+		public OutputTypeContext outputType() {
+			return getRuleContext(OutputTypeContext.class,0);
+		}
+		public FunctionTypeContext functionType() {
+			return getRuleContext(FunctionTypeContext.class,0);
+		}
+		public FixpTypeContext fixpType() {
+			return getRuleContext(FixpTypeContext.class,0);
+		}
+		public VisitorTypeContext visitorType() {
+			return getRuleContext(VisitorTypeContext.class,0);
+		}
+		public TraversalTypeContext traversalType() {
+			return getRuleContext(TraversalTypeContext.class,0);
+		}
+		public StackTypeContext stackType() {
+			return getRuleContext(StackTypeContext.class,0);
+		}
+		public QueueTypeContext queueType() {
+			return getRuleContext(QueueTypeContext.class,0);
+		}
+		public SetTypeContext setType() {
+			return getRuleContext(SetTypeContext.class,0);
+		}
+		public EnumTypeContext enumType() {
+			return getRuleContext(EnumTypeContext.class,0);
+		}
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public TypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_type; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitType(this);
+		}
+	}
+
+	public final TypeContext type() throws RecognitionException {
+		TypeContext _localctx = new TypeContext(_ctx, getState());
+		enterRule(_localctx, 14, RULE_type);
+		try {
+			setState(228);
+			switch ( getInterpreter().adaptivePredict(_input,3,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(189);
+				((TypeContext)_localctx).a = arrayType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).a.ast; 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(192);
+				((TypeContext)_localctx).m = mapType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).m.ast; 
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(195);
+				((TypeContext)_localctx).t = tupleType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).t.ast; 
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(198);
+				((TypeContext)_localctx).o = outputType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).o.ast; 
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(201);
+				((TypeContext)_localctx).f = functionType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).f.ast; 
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(204);
+				((TypeContext)_localctx).fixp = fixpType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).fixp.ast; 
+				}
+				break;
+			case 7:
+				enterOuterAlt(_localctx, 7);
+				{
+				setState(207);
+				((TypeContext)_localctx).v = visitorType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).v.ast; 
+				}
+				break;
+			case 8:
+				enterOuterAlt(_localctx, 8);
+				{
+				setState(210);
+				((TypeContext)_localctx).tr = traversalType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).tr.ast; 
+				}
+				break;
+			case 9:
+				enterOuterAlt(_localctx, 9);
+				{
+				setState(213);
+				((TypeContext)_localctx).s = stackType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).s.ast; 
+				}
+				break;
+			case 10:
+				enterOuterAlt(_localctx, 10);
+				{
+				setState(216);
+				((TypeContext)_localctx).q = queueType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).q.ast; 
+				}
+				break;
+			case 11:
+				enterOuterAlt(_localctx, 11);
+				{
+				setState(219);
+				((TypeContext)_localctx).set = setType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).set.ast; 
+				}
+				break;
+			case 12:
+				enterOuterAlt(_localctx, 12);
+				{
+				setState(222);
+				((TypeContext)_localctx).e = enumType();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).e.ast; 
+				}
+				break;
+			case 13:
+				enterOuterAlt(_localctx, 13);
+				{
+				setState(225);
+				((TypeContext)_localctx).id = identifier();
+				 ((TypeContext)_localctx).ast =  ((TypeContext)_localctx).id.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ComponentContext extends ParserRuleContext {
+		public Component ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public ComponentContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_component; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterComponent(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitComponent(this);
+		}
+	}
+
+	public final ComponentContext component() throws RecognitionException {
+		ComponentContext _localctx = new ComponentContext(_ctx, getState());
+		enterRule(_localctx, 16, RULE_component);
+
+				((ComponentContext)_localctx).l =  getStartLine(); ((ComponentContext)_localctx).c =  getStartColumn();
+				((ComponentContext)_localctx).ast =  new Component();
+			
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(234);
+			switch ( getInterpreter().adaptivePredict(_input,4,_ctx) ) {
+			case 1:
+				{
+				setState(230);
+				((ComponentContext)_localctx).id = identifier();
+				setState(231);
+				match(COLON);
+				 _localctx.ast.setIdentifier(((ComponentContext)_localctx).id.ast); 
+				}
+				break;
+			}
+			setState(236);
+			((ComponentContext)_localctx).t = type();
+			 _localctx.ast.setType(((ComponentContext)_localctx).t.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class EnumBodyDeclarationContext extends ParserRuleContext {
+		public EnumBodyDeclaration ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public ExpressionContext e;
+		public TerminalNode EQUALS() { return getToken(BoaParser.EQUALS, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public EnumBodyDeclarationContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_enumBodyDeclaration; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterEnumBodyDeclaration(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitEnumBodyDeclaration(this);
+		}
+	}
+
+	public final EnumBodyDeclarationContext enumBodyDeclaration() throws RecognitionException {
+		EnumBodyDeclarationContext _localctx = new EnumBodyDeclarationContext(_ctx, getState());
+		enterRule(_localctx, 18, RULE_enumBodyDeclaration);
+
+				((EnumBodyDeclarationContext)_localctx).l =  getStartLine(); ((EnumBodyDeclarationContext)_localctx).c =  getStartColumn();
+			
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(239);
+			((EnumBodyDeclarationContext)_localctx).id = identifier();
+			setState(240);
+			match(EQUALS);
+			setState(241);
+			((EnumBodyDeclarationContext)_localctx).e = expression();
+			 ((EnumBodyDeclarationContext)_localctx).ast =  new EnumBodyDeclaration(((EnumBodyDeclarationContext)_localctx).id.ast, ((EnumBodyDeclarationContext)_localctx).e.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ArrayTypeContext extends ParserRuleContext {
+		public ArrayType ast;
+		public int l;
+		public int c;
+		public ComponentContext m;
+		public TerminalNode ARRAY() { return getToken(BoaParser.ARRAY, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public ComponentContext component() {
+			return getRuleContext(ComponentContext.class,0);
+		}
+		public ArrayTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_arrayType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterArrayType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitArrayType(this);
+		}
+	}
+
+	public final ArrayTypeContext arrayType() throws RecognitionException {
+		ArrayTypeContext _localctx = new ArrayTypeContext(_ctx, getState());
+		enterRule(_localctx, 20, RULE_arrayType);
+		 ((ArrayTypeContext)_localctx).l =  getStartLine(); ((ArrayTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(244);
+			match(ARRAY);
+			setState(245);
+			match(OF);
+			setState(246);
+			((ArrayTypeContext)_localctx).m = component();
+			 ((ArrayTypeContext)_localctx).ast =  new ArrayType(((ArrayTypeContext)_localctx).m.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TupleTypeContext extends ParserRuleContext {
+		public TupleType ast;
+		public int l;
+		public int c;
+		public MemberContext m;
+		public TerminalNode LBRACE() { return getToken(BoaParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(BoaParser.RBRACE, 0); }
+		public List<MemberContext> member() {
+			return getRuleContexts(MemberContext.class);
+		}
+		public MemberContext member(int i) {
+			return getRuleContext(MemberContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(BoaParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(BoaParser.COMMA, i);
+		}
+		public TupleTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_tupleType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTupleType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTupleType(this);
+		}
+	}
+
+	public final TupleTypeContext tupleType() throws RecognitionException {
+		TupleTypeContext _localctx = new TupleTypeContext(_ctx, getState());
+		enterRule(_localctx, 22, RULE_tupleType);
+
+				((TupleTypeContext)_localctx).l =  getStartLine(); ((TupleTypeContext)_localctx).c =  getStartColumn();
+				((TupleTypeContext)_localctx).ast =  new TupleType();
+			
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(249);
+			match(LBRACE);
+			setState(264);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << ENUM) | (1L << LBRACE))) != 0) || _la==Identifier) {
+				{
+				setState(250);
+				((TupleTypeContext)_localctx).m = member();
+				 _localctx.ast.addMember(((TupleTypeContext)_localctx).m.ast); 
+				setState(258);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,5,_ctx);
+				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+					if ( _alt==1 ) {
+						{
+						{
+						setState(252);
+						match(COMMA);
+						setState(253);
+						((TupleTypeContext)_localctx).m = member();
+						 _localctx.ast.addMember(((TupleTypeContext)_localctx).m.ast); 
+						}
+						} 
+					}
+					setState(260);
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,5,_ctx);
+				}
+				setState(262);
+				_la = _input.LA(1);
+				if (_la==COMMA) {
+					{
+					setState(261);
+					match(COMMA);
+					}
+				}
+
+				}
+			}
+
+			setState(266);
+			match(RBRACE);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class EnumTypeContext extends ParserRuleContext {
+		public EnumType ast;
+		public int l;
+		public int c;
+		public EnumBodyDeclarationContext m;
+		public TerminalNode ENUM() { return getToken(BoaParser.ENUM, 0); }
+		public TerminalNode LBRACE() { return getToken(BoaParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(BoaParser.RBRACE, 0); }
+		public List<EnumBodyDeclarationContext> enumBodyDeclaration() {
+			return getRuleContexts(EnumBodyDeclarationContext.class);
+		}
+		public EnumBodyDeclarationContext enumBodyDeclaration(int i) {
+			return getRuleContext(EnumBodyDeclarationContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(BoaParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(BoaParser.COMMA, i);
+		}
+		public EnumTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_enumType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterEnumType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitEnumType(this);
+		}
+	}
+
+	public final EnumTypeContext enumType() throws RecognitionException {
+		EnumTypeContext _localctx = new EnumTypeContext(_ctx, getState());
+		enterRule(_localctx, 24, RULE_enumType);
+
+				((EnumTypeContext)_localctx).l =  getStartLine(); ((EnumTypeContext)_localctx).c =  getStartColumn();
+				((EnumTypeContext)_localctx).ast =  new EnumType();
+			
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(268);
+			match(ENUM);
+			setState(269);
+			match(LBRACE);
+			setState(284);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP))) != 0) || _la==Identifier) {
+				{
+				setState(270);
+				((EnumTypeContext)_localctx).m = enumBodyDeclaration();
+				 _localctx.ast.addMember(((EnumTypeContext)_localctx).m.ast); 
+				setState(278);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,8,_ctx);
+				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+					if ( _alt==1 ) {
+						{
+						{
+						setState(272);
+						match(COMMA);
+						setState(273);
+						((EnumTypeContext)_localctx).m = enumBodyDeclaration();
+						 _localctx.ast.addMember(((EnumTypeContext)_localctx).m.ast); 
+						}
+						} 
+					}
+					setState(280);
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,8,_ctx);
+				}
+				setState(282);
+				_la = _input.LA(1);
+				if (_la==COMMA) {
+					{
+					setState(281);
+					match(COMMA);
+					}
+				}
+
+				}
+			}
+
+			setState(286);
+			match(RBRACE);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class MemberContext extends ParserRuleContext {
+		public Component ast;
+		public TypeDeclarationContext t;
+		public StaticVariableDeclarationContext s;
+		public ComponentContext c;
+		public TypeDeclarationContext typeDeclaration() {
+			return getRuleContext(TypeDeclarationContext.class,0);
+		}
+		public StaticVariableDeclarationContext staticVariableDeclaration() {
+			return getRuleContext(StaticVariableDeclarationContext.class,0);
+		}
+		public ComponentContext component() {
+			return getRuleContext(ComponentContext.class,0);
+		}
+		public MemberContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_member; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterMember(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitMember(this);
+		}
+	}
+
+	public final MemberContext member() throws RecognitionException {
+		MemberContext _localctx = new MemberContext(_ctx, getState());
+		enterRule(_localctx, 26, RULE_member);
+		try {
+			setState(293);
+			switch ( getInterpreter().adaptivePredict(_input,11,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(288);
+				((MemberContext)_localctx).t = typeDeclaration();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(289);
+				((MemberContext)_localctx).s = staticVariableDeclaration();
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(290);
+				((MemberContext)_localctx).c = component();
+				 ((MemberContext)_localctx).ast =  ((MemberContext)_localctx).c.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class MapTypeContext extends ParserRuleContext {
+		public MapType ast;
+		public int l;
+		public int c;
+		public ComponentContext key;
+		public ComponentContext value;
+		public TerminalNode MAP() { return getToken(BoaParser.MAP, 0); }
+		public TerminalNode LBRACKET() { return getToken(BoaParser.LBRACKET, 0); }
+		public TerminalNode RBRACKET() { return getToken(BoaParser.RBRACKET, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public List<ComponentContext> component() {
+			return getRuleContexts(ComponentContext.class);
+		}
+		public ComponentContext component(int i) {
+			return getRuleContext(ComponentContext.class,i);
+		}
+		public MapTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_mapType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterMapType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitMapType(this);
+		}
+	}
+
+	public final MapTypeContext mapType() throws RecognitionException {
+		MapTypeContext _localctx = new MapTypeContext(_ctx, getState());
+		enterRule(_localctx, 28, RULE_mapType);
+		 ((MapTypeContext)_localctx).l =  getStartLine(); ((MapTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(295);
+			match(MAP);
+			setState(296);
+			match(LBRACKET);
+			setState(297);
+			((MapTypeContext)_localctx).key = component();
+			setState(298);
+			match(RBRACKET);
+			setState(299);
+			match(OF);
+			setState(300);
+			((MapTypeContext)_localctx).value = component();
+			 ((MapTypeContext)_localctx).ast =  new MapType(((MapTypeContext)_localctx).key.ast, ((MapTypeContext)_localctx).value.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StackTypeContext extends ParserRuleContext {
+		public StackType ast;
+		public int l;
+		public int c;
+		public ComponentContext m;
+		public TerminalNode STACK() { return getToken(BoaParser.STACK, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public ComponentContext component() {
+			return getRuleContext(ComponentContext.class,0);
+		}
+		public StackTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_stackType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterStackType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitStackType(this);
+		}
+	}
+
+	public final StackTypeContext stackType() throws RecognitionException {
+		StackTypeContext _localctx = new StackTypeContext(_ctx, getState());
+		enterRule(_localctx, 30, RULE_stackType);
+		 ((StackTypeContext)_localctx).l =  getStartLine(); ((StackTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(303);
+			match(STACK);
+			setState(304);
+			match(OF);
+			setState(305);
+			((StackTypeContext)_localctx).m = component();
+			 ((StackTypeContext)_localctx).ast =  new StackType(((StackTypeContext)_localctx).m.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class QueueTypeContext extends ParserRuleContext {
+		public QueueType ast;
+		public int l;
+		public int c;
+		public ComponentContext m;
+		public TerminalNode QUEUE() { return getToken(BoaParser.QUEUE, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public ComponentContext component() {
+			return getRuleContext(ComponentContext.class,0);
+		}
+		public QueueTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_queueType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterQueueType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitQueueType(this);
+		}
+	}
+
+	public final QueueTypeContext queueType() throws RecognitionException {
+		QueueTypeContext _localctx = new QueueTypeContext(_ctx, getState());
+		enterRule(_localctx, 32, RULE_queueType);
+		 ((QueueTypeContext)_localctx).l =  getStartLine(); ((QueueTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(308);
+			match(QUEUE);
+			setState(309);
+			match(OF);
+			setState(310);
+			((QueueTypeContext)_localctx).m = component();
+			 ((QueueTypeContext)_localctx).ast =  new QueueType(((QueueTypeContext)_localctx).m.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class SetTypeContext extends ParserRuleContext {
+		public SetType ast;
+		public int l;
+		public int c;
+		public ComponentContext m;
+		public TerminalNode SET() { return getToken(BoaParser.SET, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public ComponentContext component() {
+			return getRuleContext(ComponentContext.class,0);
+		}
+		public SetTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_setType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterSetType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitSetType(this);
+		}
+	}
+
+	public final SetTypeContext setType() throws RecognitionException {
+		SetTypeContext _localctx = new SetTypeContext(_ctx, getState());
+		enterRule(_localctx, 34, RULE_setType);
+		 ((SetTypeContext)_localctx).l =  getStartLine(); ((SetTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(313);
+			match(SET);
+			setState(314);
+			match(OF);
+			setState(315);
+			((SetTypeContext)_localctx).m = component();
+			 ((SetTypeContext)_localctx).ast =  new SetType(((SetTypeContext)_localctx).m.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class OutputTypeContext extends ParserRuleContext {
+		public OutputType ast;
+		public int l;
+		public int c;
+		public Token tk;
+		public IdentifierContext id;
+		public ExpressionListContext el;
+		public ComponentContext m;
+		public TerminalNode OUTPUT() { return getToken(BoaParser.OUTPUT, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public List<ComponentContext> component() {
+			return getRuleContexts(ComponentContext.class);
+		}
+		public ComponentContext component(int i) {
+			return getRuleContext(ComponentContext.class,i);
+		}
+		public TerminalNode SET() { return getToken(BoaParser.SET, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public List<TerminalNode> LPAREN() { return getTokens(BoaParser.LPAREN); }
+		public TerminalNode LPAREN(int i) {
+			return getToken(BoaParser.LPAREN, i);
+		}
+		public List<TerminalNode> RPAREN() { return getTokens(BoaParser.RPAREN); }
+		public TerminalNode RPAREN(int i) {
+			return getToken(BoaParser.RPAREN, i);
+		}
+		public List<TerminalNode> LBRACKET() { return getTokens(BoaParser.LBRACKET); }
+		public TerminalNode LBRACKET(int i) {
+			return getToken(BoaParser.LBRACKET, i);
+		}
+		public List<TerminalNode> RBRACKET() { return getTokens(BoaParser.RBRACKET); }
+		public TerminalNode RBRACKET(int i) {
+			return getToken(BoaParser.RBRACKET, i);
+		}
+		public TerminalNode WEIGHT() { return getToken(BoaParser.WEIGHT, 0); }
+		public TerminalNode FORMAT() { return getToken(BoaParser.FORMAT, 0); }
+		public List<ExpressionListContext> expressionList() {
+			return getRuleContexts(ExpressionListContext.class);
+		}
+		public ExpressionListContext expressionList(int i) {
+			return getRuleContext(ExpressionListContext.class,i);
+		}
+		public OutputTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_outputType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterOutputType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitOutputType(this);
+		}
+	}
+
+	public final OutputTypeContext outputType() throws RecognitionException {
+		OutputTypeContext _localctx = new OutputTypeContext(_ctx, getState());
+		enterRule(_localctx, 36, RULE_outputType);
+		 ((OutputTypeContext)_localctx).l =  getStartLine(); ((OutputTypeContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(318);
+			match(OUTPUT);
+			setState(324);
+			switch ( getInterpreter().adaptivePredict(_input,12,_ctx) ) {
+			case 1:
+				{
+				setState(319);
+				((OutputTypeContext)_localctx).tk = match(SET);
+				 ((OutputTypeContext)_localctx).ast =  new OutputType((Identifier)new Identifier((((OutputTypeContext)_localctx).tk!=null?((OutputTypeContext)_localctx).tk.getText():null)).setPositions(getStartLine(((OutputTypeContext)_localctx).tk), getStartColumn(((OutputTypeContext)_localctx).tk), getEndLine(((OutputTypeContext)_localctx).tk), getEndColumn(((OutputTypeContext)_localctx).tk))); 
+				}
+				break;
+			case 2:
+				{
+				setState(321);
+				((OutputTypeContext)_localctx).id = identifier();
+				 ((OutputTypeContext)_localctx).ast =  new OutputType(((OutputTypeContext)_localctx).id.ast); 
+				}
+				break;
+			}
+			setState(331);
+			_la = _input.LA(1);
+			if (_la==LPAREN) {
+				{
+				setState(326);
+				match(LPAREN);
+				setState(327);
+				((OutputTypeContext)_localctx).el = expressionList();
+				setState(328);
+				match(RPAREN);
+				 _localctx.ast.setArgs(((OutputTypeContext)_localctx).el.list); 
+				}
+			}
+
+			setState(340);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==LBRACKET) {
+				{
+				{
+				setState(333);
+				match(LBRACKET);
+				setState(334);
+				((OutputTypeContext)_localctx).m = component();
+				setState(335);
+				match(RBRACKET);
+				 _localctx.ast.addIndice(((OutputTypeContext)_localctx).m.ast); 
+				}
+				}
+				setState(342);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(343);
+			match(OF);
+			setState(344);
+			((OutputTypeContext)_localctx).m = component();
+			 _localctx.ast.setType(((OutputTypeContext)_localctx).m.ast); 
+			setState(350);
+			switch ( getInterpreter().adaptivePredict(_input,15,_ctx) ) {
+			case 1:
+				{
+				setState(346);
+				match(WEIGHT);
+				setState(347);
+				((OutputTypeContext)_localctx).m = component();
+				 _localctx.ast.setWeight(((OutputTypeContext)_localctx).m.ast); 
+				}
+				break;
+			}
+			setState(357);
+			switch ( getInterpreter().adaptivePredict(_input,16,_ctx) ) {
+			case 1:
+				{
+				setState(352);
+				match(FORMAT);
+				setState(353);
+				match(LPAREN);
+				setState(354);
+				((OutputTypeContext)_localctx).el = expressionList();
+				setState(355);
+				match(RPAREN);
+				}
+				break;
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FunctionTypeContext extends ParserRuleContext {
+		public FunctionType ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public TerminalNode FUNCTION() { return getToken(BoaParser.FUNCTION, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public List<TerminalNode> COLON() { return getTokens(BoaParser.COLON); }
+		public TerminalNode COLON(int i) {
+			return getToken(BoaParser.COLON, i);
+		}
+		public List<IdentifierContext> identifier() {
+			return getRuleContexts(IdentifierContext.class);
+		}
+		public IdentifierContext identifier(int i) {
+			return getRuleContext(IdentifierContext.class,i);
+		}
+		public List<TypeContext> type() {
+			return getRuleContexts(TypeContext.class);
+		}
+		public TypeContext type(int i) {
+			return getRuleContext(TypeContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(BoaParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(BoaParser.COMMA, i);
+		}
+		public FunctionTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_functionType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFunctionType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFunctionType(this);
+		}
+	}
+
+	public final FunctionTypeContext functionType() throws RecognitionException {
+		FunctionTypeContext _localctx = new FunctionTypeContext(_ctx, getState());
+		enterRule(_localctx, 38, RULE_functionType);
+
+				((FunctionTypeContext)_localctx).l =  getStartLine(); ((FunctionTypeContext)_localctx).c =  getStartColumn();
+				((FunctionTypeContext)_localctx).ast =  new FunctionType();
+			
+		int _la;
+		try {
+			setState(421);
+			switch ( getInterpreter().adaptivePredict(_input,25,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(359);
+				match(FUNCTION);
+				setState(360);
+				match(LPAREN);
+				setState(376);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP))) != 0) || _la==Identifier) {
+					{
+					setState(361);
+					((FunctionTypeContext)_localctx).id = identifier();
+					setState(362);
+					match(COLON);
+					setState(363);
+					((FunctionTypeContext)_localctx).t = type();
+					 _localctx.ast.addArg((Component)new Component(((FunctionTypeContext)_localctx).id.ast, ((FunctionTypeContext)_localctx).t.ast).setPositions(((FunctionTypeContext)_localctx).id.ast.beginLine, ((FunctionTypeContext)_localctx).id.ast.beginColumn, ((FunctionTypeContext)_localctx).t.ast.endLine, ((FunctionTypeContext)_localctx).t.ast.endColumn)); 
+					setState(373);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+					while (_la==COMMA) {
+						{
+						{
+						setState(365);
+						match(COMMA);
+						setState(366);
+						((FunctionTypeContext)_localctx).id = identifier();
+						setState(367);
+						match(COLON);
+						setState(368);
+						((FunctionTypeContext)_localctx).t = type();
+						 _localctx.ast.addArg((Component)new Component(((FunctionTypeContext)_localctx).id.ast, ((FunctionTypeContext)_localctx).t.ast).setPositions(((FunctionTypeContext)_localctx).id.ast.beginLine, ((FunctionTypeContext)_localctx).id.ast.beginColumn, ((FunctionTypeContext)_localctx).t.ast.endLine, ((FunctionTypeContext)_localctx).t.ast.endColumn)); 
+						}
+						}
+						setState(375);
+						_errHandler.sync(this);
+						_la = _input.LA(1);
+					}
+					}
+				}
+
+				setState(378);
+				match(RPAREN);
+				setState(383);
+				switch ( getInterpreter().adaptivePredict(_input,19,_ctx) ) {
+				case 1:
+					{
+					setState(379);
+					match(COLON);
+					setState(380);
+					((FunctionTypeContext)_localctx).t = type();
+					 _localctx.ast.setType(((FunctionTypeContext)_localctx).t.ast); 
+					}
+					break;
+				}
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(385);
+				match(FUNCTION);
+				setState(386);
+				match(LPAREN);
+				setState(412);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP))) != 0) || _la==Identifier) {
+					{
+					setState(395);
+					switch ( getInterpreter().adaptivePredict(_input,20,_ctx) ) {
+					case 1:
+						{
+						setState(387);
+						((FunctionTypeContext)_localctx).id = identifier();
+						setState(388);
+						match(COLON);
+						setState(389);
+						((FunctionTypeContext)_localctx).t = type();
+						 _localctx.ast.addArg((Component)new Component(((FunctionTypeContext)_localctx).id.ast, ((FunctionTypeContext)_localctx).t.ast).setPositions(((FunctionTypeContext)_localctx).id.ast.beginLine, ((FunctionTypeContext)_localctx).id.ast.beginColumn, ((FunctionTypeContext)_localctx).t.ast.endLine, ((FunctionTypeContext)_localctx).t.ast.endColumn)); 
+						}
+						break;
+					case 2:
+						{
+						setState(392);
+						identifier();
+						 notifyErrorListeners("function arguments require an identifier and type"); 
+						}
+						break;
+					}
+					setState(409);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+					while (_la==COMMA) {
+						{
+						setState(407);
+						switch ( getInterpreter().adaptivePredict(_input,21,_ctx) ) {
+						case 1:
+							{
+							setState(397);
+							match(COMMA);
+							setState(398);
+							((FunctionTypeContext)_localctx).id = identifier();
+							setState(399);
+							match(COLON);
+							setState(400);
+							((FunctionTypeContext)_localctx).t = type();
+							 _localctx.ast.addArg((Component)new Component(((FunctionTypeContext)_localctx).id.ast, ((FunctionTypeContext)_localctx).t.ast).setPositions(((FunctionTypeContext)_localctx).id.ast.beginLine, ((FunctionTypeContext)_localctx).id.ast.beginColumn, ((FunctionTypeContext)_localctx).t.ast.endLine, ((FunctionTypeContext)_localctx).t.ast.endColumn)); 
+							}
+							break;
+						case 2:
+							{
+							setState(403);
+							match(COMMA);
+							setState(404);
+							identifier();
+							 notifyErrorListeners("function arguments require an identifier and type"); 
+							}
+							break;
+						}
+						}
+						setState(411);
+						_errHandler.sync(this);
+						_la = _input.LA(1);
+					}
+					}
+				}
+
+				setState(414);
+				match(RPAREN);
+				setState(419);
+				switch ( getInterpreter().adaptivePredict(_input,24,_ctx) ) {
+				case 1:
+					{
+					setState(415);
+					match(COLON);
+					setState(416);
+					((FunctionTypeContext)_localctx).t = type();
+					 _localctx.ast.setType(((FunctionTypeContext)_localctx).t.ast); 
+					}
+					break;
+				}
+				}
+				break;
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FixpTypeContext extends ParserRuleContext {
+		public FixPType ast;
+		public int l;
+		public int c;
+		public Token t;
+		public TerminalNode FIXP() { return getToken(BoaParser.FIXP, 0); }
+		public FixpTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_fixpType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFixpType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFixpType(this);
+		}
+	}
+
+	public final FixpTypeContext fixpType() throws RecognitionException {
+		FixpTypeContext _localctx = new FixpTypeContext(_ctx, getState());
+		enterRule(_localctx, 40, RULE_fixpType);
+		 ((FixpTypeContext)_localctx).l =  getStartLine(); ((FixpTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(423);
+			((FixpTypeContext)_localctx).t = match(FIXP);
+			 ((FixpTypeContext)_localctx).ast =  new FixPType(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class VisitorTypeContext extends ParserRuleContext {
+		public VisitorType ast;
+		public int l;
+		public int c;
+		public Token t;
+		public TerminalNode VISITOR() { return getToken(BoaParser.VISITOR, 0); }
+		public VisitorTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_visitorType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterVisitorType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitVisitorType(this);
+		}
+	}
+
+	public final VisitorTypeContext visitorType() throws RecognitionException {
+		VisitorTypeContext _localctx = new VisitorTypeContext(_ctx, getState());
+		enterRule(_localctx, 42, RULE_visitorType);
+		 ((VisitorTypeContext)_localctx).l =  getStartLine(); ((VisitorTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(426);
+			((VisitorTypeContext)_localctx).t = match(VISITOR);
+			 ((VisitorTypeContext)_localctx).ast =  new VisitorType(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TraversalTypeContext extends ParserRuleContext {
+		public TraversalType ast;
+		public int l;
+		public int c;
+		public Token t;
+		public TerminalNode TRAVERSAL() { return getToken(BoaParser.TRAVERSAL, 0); }
+		public TraversalTypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_traversalType; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTraversalType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTraversalType(this);
+		}
+	}
+
+	public final TraversalTypeContext traversalType() throws RecognitionException {
+		TraversalTypeContext _localctx = new TraversalTypeContext(_ctx, getState());
+		enterRule(_localctx, 44, RULE_traversalType);
+		 ((TraversalTypeContext)_localctx).l =  getStartLine(); ((TraversalTypeContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(429);
+			((TraversalTypeContext)_localctx).t = match(TRAVERSAL);
+			 ((TraversalTypeContext)_localctx).ast =  new TraversalType(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StatementContext extends ParserRuleContext {
+		public Statement ast;
+		public BlockContext b;
+		public AssignmentStatementContext as;
+		public BreakStatementContext br;
+		public ContinueStatementContext cnt;
+		public StopStatementContext stp;
+		public DoStatementContext ds;
+		public ForStatementContext fors;
+		public IfStatementContext ifs;
+		public ReturnStatementContext ret;
+		public SwitchStatementContext sw;
+		public ForeachStatementContext each;
+		public ExistsStatementContext exist;
+		public IfallStatementContext all;
+		public WhileStatementContext whiles;
+		public EmptyStatementContext empty;
+		public EmitStatementContext emit;
+		public ExpressionStatementContext es;
+		public BlockContext block() {
+			return getRuleContext(BlockContext.class,0);
+		}
+		public AssignmentStatementContext assignmentStatement() {
+			return getRuleContext(AssignmentStatementContext.class,0);
+		}
+		public BreakStatementContext breakStatement() {
+			return getRuleContext(BreakStatementContext.class,0);
+		}
+		public ContinueStatementContext continueStatement() {
+			return getRuleContext(ContinueStatementContext.class,0);
+		}
+		public StopStatementContext stopStatement() {
+			return getRuleContext(StopStatementContext.class,0);
+		}
+		public DoStatementContext doStatement() {
+			return getRuleContext(DoStatementContext.class,0);
+		}
+		public ForStatementContext forStatement() {
+			return getRuleContext(ForStatementContext.class,0);
+		}
+		public IfStatementContext ifStatement() {
+			return getRuleContext(IfStatementContext.class,0);
+		}
+		public ReturnStatementContext returnStatement() {
+			return getRuleContext(ReturnStatementContext.class,0);
+		}
+		public SwitchStatementContext switchStatement() {
+			return getRuleContext(SwitchStatementContext.class,0);
+		}
+		public ForeachStatementContext foreachStatement() {
+			return getRuleContext(ForeachStatementContext.class,0);
+		}
+		public ExistsStatementContext existsStatement() {
+			return getRuleContext(ExistsStatementContext.class,0);
+		}
+		public IfallStatementContext ifallStatement() {
+			return getRuleContext(IfallStatementContext.class,0);
+		}
+		public WhileStatementContext whileStatement() {
+			return getRuleContext(WhileStatementContext.class,0);
+		}
+		public EmptyStatementContext emptyStatement() {
+			return getRuleContext(EmptyStatementContext.class,0);
+		}
+		public EmitStatementContext emitStatement() {
+			return getRuleContext(EmitStatementContext.class,0);
+		}
+		public ExpressionStatementContext expressionStatement() {
+			return getRuleContext(ExpressionStatementContext.class,0);
+		}
+		public StatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_statement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitStatement(this);
+		}
+	}
+
+	public final StatementContext statement() throws RecognitionException {
+		StatementContext _localctx = new StatementContext(_ctx, getState());
+		enterRule(_localctx, 46, RULE_statement);
+		try {
+			setState(483);
+			switch ( getInterpreter().adaptivePredict(_input,26,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(432);
+				((StatementContext)_localctx).b = block();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).b.ast; 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(435);
+				((StatementContext)_localctx).as = assignmentStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).as.ast; 
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(438);
+				((StatementContext)_localctx).br = breakStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).br.ast; 
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(441);
+				((StatementContext)_localctx).cnt = continueStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).cnt.ast; 
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(444);
+				((StatementContext)_localctx).stp = stopStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).stp.ast; 
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(447);
+				((StatementContext)_localctx).ds = doStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).ds.ast; 
+				}
+				break;
+			case 7:
+				enterOuterAlt(_localctx, 7);
+				{
+				setState(450);
+				((StatementContext)_localctx).fors = forStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).fors.ast; 
+				}
+				break;
+			case 8:
+				enterOuterAlt(_localctx, 8);
+				{
+				setState(453);
+				((StatementContext)_localctx).ifs = ifStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).ifs.ast; 
+				}
+				break;
+			case 9:
+				enterOuterAlt(_localctx, 9);
+				{
+				setState(456);
+				((StatementContext)_localctx).ret = returnStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).ret.ast; 
+				}
+				break;
+			case 10:
+				enterOuterAlt(_localctx, 10);
+				{
+				setState(459);
+				((StatementContext)_localctx).sw = switchStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).sw.ast; 
+				}
+				break;
+			case 11:
+				enterOuterAlt(_localctx, 11);
+				{
+				setState(462);
+				((StatementContext)_localctx).each = foreachStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).each.ast; 
+				}
+				break;
+			case 12:
+				enterOuterAlt(_localctx, 12);
+				{
+				setState(465);
+				((StatementContext)_localctx).exist = existsStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).exist.ast; 
+				}
+				break;
+			case 13:
+				enterOuterAlt(_localctx, 13);
+				{
+				setState(468);
+				((StatementContext)_localctx).all = ifallStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).all.ast; 
+				}
+				break;
+			case 14:
+				enterOuterAlt(_localctx, 14);
+				{
+				setState(471);
+				((StatementContext)_localctx).whiles = whileStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).whiles.ast; 
+				}
+				break;
+			case 15:
+				enterOuterAlt(_localctx, 15);
+				{
+				setState(474);
+				((StatementContext)_localctx).empty = emptyStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).empty.ast; 
+				}
+				break;
+			case 16:
+				enterOuterAlt(_localctx, 16);
+				{
+				setState(477);
+				((StatementContext)_localctx).emit = emitStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).emit.ast; 
+				}
+				break;
+			case 17:
+				enterOuterAlt(_localctx, 17);
+				{
+				setState(480);
+				((StatementContext)_localctx).es = expressionStatement();
+				 ((StatementContext)_localctx).ast =  ((StatementContext)_localctx).es.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class EmptyStatementContext extends ParserRuleContext {
+		public Block ast;
+		public int l;
+		public int c;
+		public TerminalNode SEMICOLON() { return getToken(BoaParser.SEMICOLON, 0); }
+		public EmptyStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_emptyStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterEmptyStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitEmptyStatement(this);
+		}
+	}
+
+	public final EmptyStatementContext emptyStatement() throws RecognitionException {
+		EmptyStatementContext _localctx = new EmptyStatementContext(_ctx, getState());
+		enterRule(_localctx, 48, RULE_emptyStatement);
+		 ((EmptyStatementContext)_localctx).l =  getStartLine(); ((EmptyStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(485);
+			match(SEMICOLON);
+			 ((EmptyStatementContext)_localctx).ast =  new Block(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class AssignmentStatementContext extends ParserRuleContext {
+		public AssignmentStatement ast;
+		public int l;
+		public int c;
+		public FactorContext f;
+		public Token op;
+		public ExpressionContext e;
+		public FactorContext factor() {
+			return getRuleContext(FactorContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public TerminalNode EQUALS() { return getToken(BoaParser.EQUALS, 0); }
+		public TerminalNode PLUSEQ() { return getToken(BoaParser.PLUSEQ, 0); }
+		public TerminalNode MINUSEQ() { return getToken(BoaParser.MINUSEQ, 0); }
+		public TerminalNode STAREQ() { return getToken(BoaParser.STAREQ, 0); }
+		public TerminalNode DIVEQ() { return getToken(BoaParser.DIVEQ, 0); }
+		public TerminalNode ONEOREQ() { return getToken(BoaParser.ONEOREQ, 0); }
+		public TerminalNode XOREQ() { return getToken(BoaParser.XOREQ, 0); }
+		public TerminalNode MODEQ() { return getToken(BoaParser.MODEQ, 0); }
+		public TerminalNode ONEANDEQ() { return getToken(BoaParser.ONEANDEQ, 0); }
+		public TerminalNode RSHIFTEQ() { return getToken(BoaParser.RSHIFTEQ, 0); }
+		public TerminalNode LSHIFTEQ() { return getToken(BoaParser.LSHIFTEQ, 0); }
+		public AssignmentStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_assignmentStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterAssignmentStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitAssignmentStatement(this);
+		}
+	}
+
+	public final AssignmentStatementContext assignmentStatement() throws RecognitionException {
+		AssignmentStatementContext _localctx = new AssignmentStatementContext(_ctx, getState());
+		enterRule(_localctx, 50, RULE_assignmentStatement);
+		 ((AssignmentStatementContext)_localctx).l =  getStartLine(); ((AssignmentStatementContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(488);
+			((AssignmentStatementContext)_localctx).f = factor();
+			setState(489);
+			((AssignmentStatementContext)_localctx).op = _input.LT(1);
+			_la = _input.LA(1);
+			if ( !(((((_la - 68)) & ~0x3f) == 0 && ((1L << (_la - 68)) & ((1L << (PLUSEQ - 68)) | (1L << (MINUSEQ - 68)) | (1L << (STAREQ - 68)) | (1L << (DIVEQ - 68)) | (1L << (ONEOREQ - 68)) | (1L << (XOREQ - 68)) | (1L << (MODEQ - 68)) | (1L << (ONEANDEQ - 68)) | (1L << (RSHIFTEQ - 68)) | (1L << (LSHIFTEQ - 68)) | (1L << (EQUALS - 68)))) != 0)) ) {
+				((AssignmentStatementContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+			} else {
+				consume();
+			}
+			setState(490);
+			((AssignmentStatementContext)_localctx).e = expression();
+			 isSemicolon(); ((AssignmentStatementContext)_localctx).ast =  new AssignmentStatement(((AssignmentStatementContext)_localctx).f.ast, (((AssignmentStatementContext)_localctx).op!=null?((AssignmentStatementContext)_localctx).op.getText():null), ((AssignmentStatementContext)_localctx).e.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class BlockContext extends ParserRuleContext {
+		public Block ast;
+		public int l;
+		public int c;
+		public ProgramStatementContext s;
+		public TerminalNode LBRACE() { return getToken(BoaParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(BoaParser.RBRACE, 0); }
+		public List<ProgramStatementContext> programStatement() {
+			return getRuleContexts(ProgramStatementContext.class);
+		}
+		public ProgramStatementContext programStatement(int i) {
+			return getRuleContext(ProgramStatementContext.class,i);
+		}
+		public BlockContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_block; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterBlock(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitBlock(this);
+		}
+	}
+
+	public final BlockContext block() throws RecognitionException {
+		BlockContext _localctx = new BlockContext(_ctx, getState());
+		enterRule(_localctx, 52, RULE_block);
+
+				((BlockContext)_localctx).l =  getStartLine(); ((BlockContext)_localctx).c =  getStartColumn();
+				((BlockContext)_localctx).ast =  new Block();
+			
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(493);
+			match(LBRACE);
+			setState(499);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << SEMICOLON) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0)) {
+				{
+				{
+				setState(494);
+				((BlockContext)_localctx).s = programStatement();
+				 _localctx.ast.addStatement(((BlockContext)_localctx).s.ast); 
+				}
+				}
+				setState(501);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(502);
+			match(RBRACE);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class BreakStatementContext extends ParserRuleContext {
+		public BreakStatement ast;
+		public int l;
+		public int c;
+		public TerminalNode BREAK() { return getToken(BoaParser.BREAK, 0); }
+		public BreakStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_breakStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterBreakStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitBreakStatement(this);
+		}
+	}
+
+	public final BreakStatementContext breakStatement() throws RecognitionException {
+		BreakStatementContext _localctx = new BreakStatementContext(_ctx, getState());
+		enterRule(_localctx, 54, RULE_breakStatement);
+		 ((BreakStatementContext)_localctx).l =  getStartLine(); ((BreakStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(504);
+			match(BREAK);
+			 isSemicolon(); ((BreakStatementContext)_localctx).ast =  new BreakStatement(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ContinueStatementContext extends ParserRuleContext {
+		public ContinueStatement ast;
+		public int l;
+		public int c;
+		public TerminalNode CONTINUE() { return getToken(BoaParser.CONTINUE, 0); }
+		public ContinueStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_continueStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterContinueStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitContinueStatement(this);
+		}
+	}
+
+	public final ContinueStatementContext continueStatement() throws RecognitionException {
+		ContinueStatementContext _localctx = new ContinueStatementContext(_ctx, getState());
+		enterRule(_localctx, 56, RULE_continueStatement);
+		 ((ContinueStatementContext)_localctx).l =  getStartLine(); ((ContinueStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(507);
+			match(CONTINUE);
+			 isSemicolon(); ((ContinueStatementContext)_localctx).ast =  new ContinueStatement(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class DoStatementContext extends ParserRuleContext {
+		public DoStatement ast;
+		public int l;
+		public int c;
+		public StatementContext s;
+		public ExpressionContext e;
+		public TerminalNode DO() { return getToken(BoaParser.DO, 0); }
+		public TerminalNode WHILE() { return getToken(BoaParser.WHILE, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public StatementContext statement() {
+			return getRuleContext(StatementContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public DoStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_doStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterDoStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitDoStatement(this);
+		}
+	}
+
+	public final DoStatementContext doStatement() throws RecognitionException {
+		DoStatementContext _localctx = new DoStatementContext(_ctx, getState());
+		enterRule(_localctx, 58, RULE_doStatement);
+		 ((DoStatementContext)_localctx).l =  getStartLine(); ((DoStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(510);
+			match(DO);
+			setState(511);
+			((DoStatementContext)_localctx).s = statement();
+			setState(512);
+			match(WHILE);
+			setState(513);
+			match(LPAREN);
+			setState(514);
+			((DoStatementContext)_localctx).e = expression();
+			setState(515);
+			match(RPAREN);
+			 isSemicolon(); ((DoStatementContext)_localctx).ast =  new DoStatement(((DoStatementContext)_localctx).e.ast, ((DoStatementContext)_localctx).s.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class EmitStatementContext extends ParserRuleContext {
+		public EmitStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public ExpressionContext e;
+		public ExpressionContext w;
+		public TerminalNode EMIT() { return getToken(BoaParser.EMIT, 0); }
+		public TerminalNode WEIGHT() { return getToken(BoaParser.WEIGHT, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public List<ExpressionContext> expression() {
+			return getRuleContexts(ExpressionContext.class);
+		}
+		public ExpressionContext expression(int i) {
+			return getRuleContext(ExpressionContext.class,i);
+		}
+		public List<TerminalNode> LBRACKET() { return getTokens(BoaParser.LBRACKET); }
+		public TerminalNode LBRACKET(int i) {
+			return getToken(BoaParser.LBRACKET, i);
+		}
+		public List<TerminalNode> RBRACKET() { return getTokens(BoaParser.RBRACKET); }
+		public TerminalNode RBRACKET(int i) {
+			return getToken(BoaParser.RBRACKET, i);
+		}
+		public EmitStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_emitStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterEmitStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitEmitStatement(this);
+		}
+	}
+
+	public final EmitStatementContext emitStatement() throws RecognitionException {
+		EmitStatementContext _localctx = new EmitStatementContext(_ctx, getState());
+		enterRule(_localctx, 60, RULE_emitStatement);
+		 ((EmitStatementContext)_localctx).l =  getStartLine(); ((EmitStatementContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			setState(558);
+			switch ( getInterpreter().adaptivePredict(_input,31,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(518);
+				((EmitStatementContext)_localctx).id = identifier();
+				 ((EmitStatementContext)_localctx).ast =  new EmitStatement(((EmitStatementContext)_localctx).id.ast); 
+				setState(526);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==LBRACKET) {
+					{
+					{
+					setState(520);
+					match(LBRACKET);
+					setState(521);
+					((EmitStatementContext)_localctx).e = expression();
+					setState(522);
+					match(RBRACKET);
+					}
+					}
+					setState(528);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				setState(529);
+				match(EMIT);
+				 notifyErrorListeners("error: expected 'expression ' before keyword 'weight'"); 
+				setState(531);
+				match(WEIGHT);
+				setState(532);
+				((EmitStatementContext)_localctx).w = expression();
+				 isSemicolon(); 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(535);
+				((EmitStatementContext)_localctx).id = identifier();
+				 ((EmitStatementContext)_localctx).ast =  new EmitStatement(((EmitStatementContext)_localctx).id.ast); 
+				setState(544);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==LBRACKET) {
+					{
+					{
+					setState(537);
+					match(LBRACKET);
+					setState(538);
+					((EmitStatementContext)_localctx).e = expression();
+					setState(539);
+					match(RBRACKET);
+					 _localctx.ast.addIndice(((EmitStatementContext)_localctx).e.ast); 
+					}
+					}
+					setState(546);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				setState(547);
+				match(EMIT);
+				setState(548);
+				((EmitStatementContext)_localctx).e = expression();
+				 _localctx.ast.setValue(((EmitStatementContext)_localctx).e.ast); 
+				setState(554);
+				switch ( getInterpreter().adaptivePredict(_input,30,_ctx) ) {
+				case 1:
+					{
+					setState(550);
+					match(WEIGHT);
+					setState(551);
+					((EmitStatementContext)_localctx).w = expression();
+					 _localctx.ast.setWeight(((EmitStatementContext)_localctx).w.ast); 
+					}
+					break;
+				}
+				 isSemicolon(); 
+				}
+				break;
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ForStatementContext extends ParserRuleContext {
+		public ForStatement ast;
+		public int l;
+		public int c;
+		public ForExpressionContext f;
+		public ExpressionContext e;
+		public ProgramStatementContext s;
+		public TerminalNode FOR() { return getToken(BoaParser.FOR, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public List<TerminalNode> SEMICOLON() { return getTokens(BoaParser.SEMICOLON); }
+		public TerminalNode SEMICOLON(int i) {
+			return getToken(BoaParser.SEMICOLON, i);
+		}
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public List<ForExpressionContext> forExpression() {
+			return getRuleContexts(ForExpressionContext.class);
+		}
+		public ForExpressionContext forExpression(int i) {
+			return getRuleContext(ForExpressionContext.class,i);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ForStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_forStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterForStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitForStatement(this);
+		}
+	}
+
+	public final ForStatementContext forStatement() throws RecognitionException {
+		ForStatementContext _localctx = new ForStatementContext(_ctx, getState());
+		enterRule(_localctx, 62, RULE_forStatement);
+
+				((ForStatementContext)_localctx).l =  getStartLine(); ((ForStatementContext)_localctx).c =  getStartColumn();
+				((ForStatementContext)_localctx).ast =  new ForStatement();
+			
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(560);
+			match(FOR);
+			setState(561);
+			match(LPAREN);
+			setState(565);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0)) {
+				{
+				setState(562);
+				((ForStatementContext)_localctx).f = forExpression();
+				 _localctx.ast.setInit(((ForStatementContext)_localctx).f.ast); 
+				}
+			}
+
+			setState(567);
+			match(SEMICOLON);
+			setState(571);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0)) {
+				{
+				setState(568);
+				((ForStatementContext)_localctx).e = expression();
+				 _localctx.ast.setCondition(((ForStatementContext)_localctx).e.ast); 
+				}
+			}
+
+			setState(573);
+			match(SEMICOLON);
+			setState(577);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0)) {
+				{
+				setState(574);
+				((ForStatementContext)_localctx).f = forExpression();
+				 _localctx.ast.setUpdate(((ForStatementContext)_localctx).f.ast); 
+				}
+			}
+
+			setState(579);
+			match(RPAREN);
+			setState(580);
+			((ForStatementContext)_localctx).s = programStatement();
+			 _localctx.ast.setBody(((ForStatementContext)_localctx).s.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ForExpressionContext extends ParserRuleContext {
+		public Statement ast;
+		public ForVariableDeclarationContext v;
+		public ForExpressionStatementContext e;
+		public ForVariableDeclarationContext forVariableDeclaration() {
+			return getRuleContext(ForVariableDeclarationContext.class,0);
+		}
+		public ForExpressionStatementContext forExpressionStatement() {
+			return getRuleContext(ForExpressionStatementContext.class,0);
+		}
+		public ForExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_forExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterForExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitForExpression(this);
+		}
+	}
+
+	public final ForExpressionContext forExpression() throws RecognitionException {
+		ForExpressionContext _localctx = new ForExpressionContext(_ctx, getState());
+		enterRule(_localctx, 64, RULE_forExpression);
+		try {
+			setState(589);
+			switch ( getInterpreter().adaptivePredict(_input,35,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(583);
+				((ForExpressionContext)_localctx).v = forVariableDeclaration();
+				 ((ForExpressionContext)_localctx).ast =  ((ForExpressionContext)_localctx).v.ast; 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(586);
+				((ForExpressionContext)_localctx).e = forExpressionStatement();
+				 ((ForExpressionContext)_localctx).ast =  ((ForExpressionContext)_localctx).e.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ForVariableDeclarationContext extends ParserRuleContext {
+		public VarDeclStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public OutputTypeContext ot;
+		public ExpressionContext e;
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public TerminalNode EQUALS() { return getToken(BoaParser.EQUALS, 0); }
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public OutputTypeContext outputType() {
+			return getRuleContext(OutputTypeContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ForVariableDeclarationContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_forVariableDeclaration; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterForVariableDeclaration(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitForVariableDeclaration(this);
+		}
+	}
+
+	public final ForVariableDeclarationContext forVariableDeclaration() throws RecognitionException {
+		ForVariableDeclarationContext _localctx = new ForVariableDeclarationContext(_ctx, getState());
+		enterRule(_localctx, 66, RULE_forVariableDeclaration);
+		 ((ForVariableDeclarationContext)_localctx).l =  getStartLine(); ((ForVariableDeclarationContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(591);
+			((ForVariableDeclarationContext)_localctx).id = identifier();
+			setState(592);
+			match(COLON);
+			 ((ForVariableDeclarationContext)_localctx).ast =  new VarDeclStatement(((ForVariableDeclarationContext)_localctx).id.ast); 
+			setState(597);
+			switch ( getInterpreter().adaptivePredict(_input,36,_ctx) ) {
+			case 1:
+				{
+				setState(594);
+				((ForVariableDeclarationContext)_localctx).t = type();
+				 _localctx.ast.setType(((ForVariableDeclarationContext)_localctx).t.ast); 
+				}
+				break;
+			}
+			setState(609);
+			switch ( getInterpreter().adaptivePredict(_input,38,_ctx) ) {
+			case 1:
+				{
+				setState(599);
+				match(EQUALS);
+				setState(607);
+				switch ( getInterpreter().adaptivePredict(_input,37,_ctx) ) {
+				case 1:
+					{
+					 notifyErrorListeners("error: output variable declarations should not include '='"); 
+					setState(601);
+					((ForVariableDeclarationContext)_localctx).ot = outputType();
+					 _localctx.ast.setType(((ForVariableDeclarationContext)_localctx).ot.ast); 
+					}
+					break;
+				case 2:
+					{
+					setState(604);
+					((ForVariableDeclarationContext)_localctx).e = expression();
+					 _localctx.ast.setInitializer(((ForVariableDeclarationContext)_localctx).e.ast); 
+					}
+					break;
+				}
+				}
+				break;
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ForExpressionStatementContext extends ParserRuleContext {
+		public Statement ast;
+		public int l;
+		public int c;
+		public ExpressionContext e;
+		public Token op;
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public TerminalNode INCR() { return getToken(BoaParser.INCR, 0); }
+		public TerminalNode DECR() { return getToken(BoaParser.DECR, 0); }
+		public ForExpressionStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_forExpressionStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterForExpressionStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitForExpressionStatement(this);
+		}
+	}
+
+	public final ForExpressionStatementContext forExpressionStatement() throws RecognitionException {
+		ForExpressionStatementContext _localctx = new ForExpressionStatementContext(_ctx, getState());
+		enterRule(_localctx, 68, RULE_forExpressionStatement);
+		 ((ForExpressionStatementContext)_localctx).l =  getStartLine(); ((ForExpressionStatementContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			setState(618);
+			switch ( getInterpreter().adaptivePredict(_input,39,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(611);
+				((ForExpressionStatementContext)_localctx).e = expression();
+				setState(612);
+				((ForExpressionStatementContext)_localctx).op = _input.LT(1);
+				_la = _input.LA(1);
+				if ( !(_la==INCR || _la==DECR) ) {
+					((ForExpressionStatementContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+				} else {
+					consume();
+				}
+				 ((ForExpressionStatementContext)_localctx).ast =  new PostfixStatement(((ForExpressionStatementContext)_localctx).e.ast, (((ForExpressionStatementContext)_localctx).op!=null?((ForExpressionStatementContext)_localctx).op.getText():null)); 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(615);
+				((ForExpressionStatementContext)_localctx).e = expression();
+				 ((ForExpressionStatementContext)_localctx).ast =  new ExprStatement(((ForExpressionStatementContext)_localctx).e.ast); 
+				}
+				break;
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExpressionStatementContext extends ParserRuleContext {
+		public Statement ast;
+		public int l;
+		public int c;
+		public ForExpressionStatementContext e;
+		public ForExpressionStatementContext forExpressionStatement() {
+			return getRuleContext(ForExpressionStatementContext.class,0);
+		}
+		public ExpressionStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expressionStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterExpressionStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitExpressionStatement(this);
+		}
+	}
+
+	public final ExpressionStatementContext expressionStatement() throws RecognitionException {
+		ExpressionStatementContext _localctx = new ExpressionStatementContext(_ctx, getState());
+		enterRule(_localctx, 70, RULE_expressionStatement);
+		 ((ExpressionStatementContext)_localctx).l =  getStartLine(); ((ExpressionStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(620);
+			((ExpressionStatementContext)_localctx).e = forExpressionStatement();
+			 isSemicolon(); ((ExpressionStatementContext)_localctx).ast =  ((ExpressionStatementContext)_localctx).e.ast; 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IfStatementContext extends ParserRuleContext {
+		public IfStatement ast;
+		public int l;
+		public int c;
+		public ExpressionContext e;
+		public ProgramStatementContext s;
+		public ProgramStatementContext els;
+		public TerminalNode IF() { return getToken(BoaParser.IF, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public List<ProgramStatementContext> programStatement() {
+			return getRuleContexts(ProgramStatementContext.class);
+		}
+		public ProgramStatementContext programStatement(int i) {
+			return getRuleContext(ProgramStatementContext.class,i);
+		}
+		public TerminalNode ELSE() { return getToken(BoaParser.ELSE, 0); }
+		public IfStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_ifStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterIfStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitIfStatement(this);
+		}
+	}
+
+	public final IfStatementContext ifStatement() throws RecognitionException {
+		IfStatementContext _localctx = new IfStatementContext(_ctx, getState());
+		enterRule(_localctx, 72, RULE_ifStatement);
+		 ((IfStatementContext)_localctx).l =  getStartLine(); ((IfStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(623);
+			match(IF);
+			setState(624);
+			match(LPAREN);
+			setState(625);
+			((IfStatementContext)_localctx).e = expression();
+			setState(626);
+			match(RPAREN);
+			setState(627);
+			((IfStatementContext)_localctx).s = programStatement();
+			 ((IfStatementContext)_localctx).ast =  new IfStatement(((IfStatementContext)_localctx).e.ast, ((IfStatementContext)_localctx).s.ast); 
+			setState(633);
+			switch ( getInterpreter().adaptivePredict(_input,40,_ctx) ) {
+			case 1:
+				{
+				setState(629);
+				match(ELSE);
+				setState(630);
+				((IfStatementContext)_localctx).els = programStatement();
+				 _localctx.ast.setElse(((IfStatementContext)_localctx).els.ast); 
+				}
+				break;
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ReturnStatementContext extends ParserRuleContext {
+		public ReturnStatement ast;
+		public int l;
+		public int c;
+		public ExpressionContext e;
+		public TerminalNode RETURN() { return getToken(BoaParser.RETURN, 0); }
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ReturnStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_returnStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterReturnStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitReturnStatement(this);
+		}
+	}
+
+	public final ReturnStatementContext returnStatement() throws RecognitionException {
+		ReturnStatementContext _localctx = new ReturnStatementContext(_ctx, getState());
+		enterRule(_localctx, 74, RULE_returnStatement);
+		 ((ReturnStatementContext)_localctx).l =  getStartLine(); ((ReturnStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(635);
+			match(RETURN);
+			 ((ReturnStatementContext)_localctx).ast =  new ReturnStatement(); 
+			setState(640);
+			switch ( getInterpreter().adaptivePredict(_input,41,_ctx) ) {
+			case 1:
+				{
+				setState(637);
+				((ReturnStatementContext)_localctx).e = expression();
+				 _localctx.ast.setExpr(((ReturnStatementContext)_localctx).e.ast); 
+				}
+				break;
+			}
+			 isSemicolon(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class SwitchStatementContext extends ParserRuleContext {
+		public SwitchStatement ast;
+		public Block b;
+		public int l;
+		public int c;
+		public ExpressionContext e;
+		public SwitchCaseContext sc;
+		public Token DEFAULT;
+		public ProgramStatementContext s;
+		public TerminalNode SWITCH() { return getToken(BoaParser.SWITCH, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public TerminalNode LBRACE() { return getToken(BoaParser.LBRACE, 0); }
+		public TerminalNode DEFAULT() { return getToken(BoaParser.DEFAULT, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public TerminalNode RBRACE() { return getToken(BoaParser.RBRACE, 0); }
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public List<SwitchCaseContext> switchCase() {
+			return getRuleContexts(SwitchCaseContext.class);
+		}
+		public SwitchCaseContext switchCase(int i) {
+			return getRuleContext(SwitchCaseContext.class,i);
+		}
+		public List<ProgramStatementContext> programStatement() {
+			return getRuleContexts(ProgramStatementContext.class);
+		}
+		public ProgramStatementContext programStatement(int i) {
+			return getRuleContext(ProgramStatementContext.class,i);
+		}
+		public SwitchStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_switchStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterSwitchStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitSwitchStatement(this);
+		}
+	}
+
+	public final SwitchStatementContext switchStatement() throws RecognitionException {
+		SwitchStatementContext _localctx = new SwitchStatementContext(_ctx, getState());
+		enterRule(_localctx, 76, RULE_switchStatement);
+		 ((SwitchStatementContext)_localctx).b =  new Block(); ((SwitchStatementContext)_localctx).l =  getStartLine(); ((SwitchStatementContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(644);
+			match(SWITCH);
+			setState(645);
+			match(LPAREN);
+			setState(646);
+			((SwitchStatementContext)_localctx).e = expression();
+			setState(647);
+			match(RPAREN);
+			 ((SwitchStatementContext)_localctx).ast =  new SwitchStatement(((SwitchStatementContext)_localctx).e.ast); 
+			setState(649);
+			match(LBRACE);
+			setState(655);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==CASE) {
+				{
+				{
+				setState(650);
+				((SwitchStatementContext)_localctx).sc = switchCase();
+				 _localctx.ast.addCase(((SwitchStatementContext)_localctx).sc.ast); 
+				}
+				}
+				setState(657);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(658);
+			((SwitchStatementContext)_localctx).DEFAULT = match(DEFAULT);
+			setState(659);
+			match(COLON);
+			setState(663); 
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			do {
+				{
+				{
+				setState(660);
+				((SwitchStatementContext)_localctx).s = programStatement();
+				 _localctx.b.addStatement(((SwitchStatementContext)_localctx).s.ast); 
+				}
+				}
+				setState(665); 
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << SEMICOLON) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0) );
+			setState(667);
+			match(RBRACE);
+			 _localctx.ast.setDefault((SwitchCase)new SwitchCase(true, _localctx.b).setPositions(getStartLine(((SwitchStatementContext)_localctx).DEFAULT), getStartColumn(((SwitchStatementContext)_localctx).DEFAULT), ((SwitchStatementContext)_localctx).s.ast.endLine, ((SwitchStatementContext)_localctx).s.ast.endColumn)); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class SwitchCaseContext extends ParserRuleContext {
+		public SwitchCase ast;
+		public Block b;
+		public int l;
+		public int c;
+		public ExpressionListContext el;
+		public ProgramStatementContext s;
+		public TerminalNode CASE() { return getToken(BoaParser.CASE, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public ExpressionListContext expressionList() {
+			return getRuleContext(ExpressionListContext.class,0);
+		}
+		public List<ProgramStatementContext> programStatement() {
+			return getRuleContexts(ProgramStatementContext.class);
+		}
+		public ProgramStatementContext programStatement(int i) {
+			return getRuleContext(ProgramStatementContext.class,i);
+		}
+		public SwitchCaseContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_switchCase; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterSwitchCase(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitSwitchCase(this);
+		}
+	}
+
+	public final SwitchCaseContext switchCase() throws RecognitionException {
+		SwitchCaseContext _localctx = new SwitchCaseContext(_ctx, getState());
+		enterRule(_localctx, 78, RULE_switchCase);
+		 ((SwitchCaseContext)_localctx).b =  new Block(); ((SwitchCaseContext)_localctx).l =  getStartLine(); ((SwitchCaseContext)_localctx).c =  getStartColumn(); 
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(670);
+			match(CASE);
+			setState(671);
+			((SwitchCaseContext)_localctx).el = expressionList();
+			 ((SwitchCaseContext)_localctx).ast =  new SwitchCase(false, _localctx.b, ((SwitchCaseContext)_localctx).el.list); 
+			setState(673);
+			match(COLON);
+			setState(677); 
+			_errHandler.sync(this);
+			_alt = 1;
+			do {
+				switch (_alt) {
+				case 1:
+					{
+					{
+					setState(674);
+					((SwitchCaseContext)_localctx).s = programStatement();
+					 _localctx.b.addStatement(((SwitchCaseContext)_localctx).s.ast); 
+					}
+					}
+					break;
+				default:
+					throw new NoViableAltException(this);
+				}
+				setState(679); 
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,44,_ctx);
+			} while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER );
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); _localctx.b.setPositions(); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ForeachStatementContext extends ParserRuleContext {
+		public ForeachStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public ExpressionContext e;
+		public ProgramStatementContext s;
+		public TerminalNode FOREACH() { return getToken(BoaParser.FOREACH, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public TerminalNode SEMICOLON() { return getToken(BoaParser.SEMICOLON, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public ForeachStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_foreachStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterForeachStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitForeachStatement(this);
+		}
+	}
+
+	public final ForeachStatementContext foreachStatement() throws RecognitionException {
+		ForeachStatementContext _localctx = new ForeachStatementContext(_ctx, getState());
+		enterRule(_localctx, 80, RULE_foreachStatement);
+		 ((ForeachStatementContext)_localctx).l =  getStartLine(); ((ForeachStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(681);
+			match(FOREACH);
+			setState(682);
+			match(LPAREN);
+			setState(683);
+			((ForeachStatementContext)_localctx).id = identifier();
+			setState(684);
+			match(COLON);
+			setState(685);
+			((ForeachStatementContext)_localctx).t = type();
+			setState(686);
+			match(SEMICOLON);
+			setState(687);
+			((ForeachStatementContext)_localctx).e = expression();
+			setState(688);
+			match(RPAREN);
+			setState(689);
+			((ForeachStatementContext)_localctx).s = programStatement();
+			 ((ForeachStatementContext)_localctx).ast =  new ForeachStatement((Component)new Component(((ForeachStatementContext)_localctx).id.ast, ((ForeachStatementContext)_localctx).t.ast).setPositions(((ForeachStatementContext)_localctx).id.ast.beginLine, ((ForeachStatementContext)_localctx).id.ast.beginColumn, ((ForeachStatementContext)_localctx).t.ast.endLine, ((ForeachStatementContext)_localctx).t.ast.endColumn), ((ForeachStatementContext)_localctx).e.ast, ((ForeachStatementContext)_localctx).s.ast);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExistsStatementContext extends ParserRuleContext {
+		public ExistsStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public ExpressionContext e;
+		public ProgramStatementContext s;
+		public TerminalNode EXISTS() { return getToken(BoaParser.EXISTS, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public TerminalNode SEMICOLON() { return getToken(BoaParser.SEMICOLON, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public ExistsStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_existsStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterExistsStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitExistsStatement(this);
+		}
+	}
+
+	public final ExistsStatementContext existsStatement() throws RecognitionException {
+		ExistsStatementContext _localctx = new ExistsStatementContext(_ctx, getState());
+		enterRule(_localctx, 82, RULE_existsStatement);
+		 ((ExistsStatementContext)_localctx).l =  getStartLine(); ((ExistsStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(692);
+			match(EXISTS);
+			setState(693);
+			match(LPAREN);
+			setState(694);
+			((ExistsStatementContext)_localctx).id = identifier();
+			setState(695);
+			match(COLON);
+			setState(696);
+			((ExistsStatementContext)_localctx).t = type();
+			setState(697);
+			match(SEMICOLON);
+			setState(698);
+			((ExistsStatementContext)_localctx).e = expression();
+			setState(699);
+			match(RPAREN);
+			setState(700);
+			((ExistsStatementContext)_localctx).s = programStatement();
+			 ((ExistsStatementContext)_localctx).ast =  new ExistsStatement((Component)new Component(((ExistsStatementContext)_localctx).id.ast, ((ExistsStatementContext)_localctx).t.ast).setPositions(((ExistsStatementContext)_localctx).id.ast.beginLine, ((ExistsStatementContext)_localctx).id.ast.beginColumn, ((ExistsStatementContext)_localctx).t.ast.endLine, ((ExistsStatementContext)_localctx).t.ast.endColumn), ((ExistsStatementContext)_localctx).e.ast, ((ExistsStatementContext)_localctx).s.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IfallStatementContext extends ParserRuleContext {
+		public IfAllStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TypeContext t;
+		public ExpressionContext e;
+		public ProgramStatementContext s;
+		public TerminalNode IFALL() { return getToken(BoaParser.IFALL, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public TerminalNode SEMICOLON() { return getToken(BoaParser.SEMICOLON, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public IfallStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_ifallStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterIfallStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitIfallStatement(this);
+		}
+	}
+
+	public final IfallStatementContext ifallStatement() throws RecognitionException {
+		IfallStatementContext _localctx = new IfallStatementContext(_ctx, getState());
+		enterRule(_localctx, 84, RULE_ifallStatement);
+		 ((IfallStatementContext)_localctx).l =  getStartLine(); ((IfallStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(703);
+			match(IFALL);
+			setState(704);
+			match(LPAREN);
+			setState(705);
+			((IfallStatementContext)_localctx).id = identifier();
+			setState(706);
+			match(COLON);
+			setState(707);
+			((IfallStatementContext)_localctx).t = type();
+			setState(708);
+			match(SEMICOLON);
+			setState(709);
+			((IfallStatementContext)_localctx).e = expression();
+			setState(710);
+			match(RPAREN);
+			setState(711);
+			((IfallStatementContext)_localctx).s = programStatement();
+			 ((IfallStatementContext)_localctx).ast =  new IfAllStatement((Component)new Component(((IfallStatementContext)_localctx).id.ast, ((IfallStatementContext)_localctx).t.ast).setPositions(((IfallStatementContext)_localctx).id.ast.beginLine, ((IfallStatementContext)_localctx).id.ast.beginColumn, ((IfallStatementContext)_localctx).t.ast.endLine, ((IfallStatementContext)_localctx).t.ast.endColumn), ((IfallStatementContext)_localctx).e.ast, ((IfallStatementContext)_localctx).s.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class WhileStatementContext extends ParserRuleContext {
+		public WhileStatement ast;
+		public int l;
+		public int c;
+		public ExpressionContext e;
+		public ProgramStatementContext s;
+		public TerminalNode WHILE() { return getToken(BoaParser.WHILE, 0); }
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public WhileStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_whileStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterWhileStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitWhileStatement(this);
+		}
+	}
+
+	public final WhileStatementContext whileStatement() throws RecognitionException {
+		WhileStatementContext _localctx = new WhileStatementContext(_ctx, getState());
+		enterRule(_localctx, 86, RULE_whileStatement);
+		 ((WhileStatementContext)_localctx).l =  getStartLine(); ((WhileStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(714);
+			match(WHILE);
+			setState(715);
+			match(LPAREN);
+			setState(716);
+			((WhileStatementContext)_localctx).e = expression();
+			setState(717);
+			match(RPAREN);
+			setState(718);
+			((WhileStatementContext)_localctx).s = programStatement();
+			 ((WhileStatementContext)_localctx).ast =  new WhileStatement(((WhileStatementContext)_localctx).e.ast, ((WhileStatementContext)_localctx).s.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class VisitStatementContext extends ParserRuleContext {
+		public VisitStatement ast;
+		public int l;
+		public int c;
+		public Token b;
+		public IdentifierContext id;
+		public IdentifierContext t;
+		public ProgramStatementContext s;
+		public TerminalNode RIGHT_ARROW() { return getToken(BoaParser.RIGHT_ARROW, 0); }
+		public TerminalNode AFTER() { return getToken(BoaParser.AFTER, 0); }
+		public TerminalNode WILDCARD() { return getToken(BoaParser.WILDCARD, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public TerminalNode BEFORE() { return getToken(BoaParser.BEFORE, 0); }
+		public List<IdentifierContext> identifier() {
+			return getRuleContexts(IdentifierContext.class);
+		}
+		public IdentifierContext identifier(int i) {
+			return getRuleContext(IdentifierContext.class,i);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(BoaParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(BoaParser.COMMA, i);
+		}
+		public VisitStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_visitStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterVisitStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitVisitStatement(this);
+		}
+	}
+
+	public final VisitStatementContext visitStatement() throws RecognitionException {
+		VisitStatementContext _localctx = new VisitStatementContext(_ctx, getState());
+		enterRule(_localctx, 88, RULE_visitStatement);
+		 ((VisitStatementContext)_localctx).l =  getStartLine(); ((VisitStatementContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(724);
+			switch ( getInterpreter().adaptivePredict(_input,45,_ctx) ) {
+			case 1:
+				{
+				setState(721);
+				((VisitStatementContext)_localctx).b = match(BEFORE);
+				}
+				break;
+			case 2:
+				{
+				setState(722);
+				match(AFTER);
+				}
+				break;
+			case 3:
+				{
+				 notifyErrorListeners("error: visit statements must start with 'before' or 'after'"); 
+				}
+				break;
+			}
+			 ((VisitStatementContext)_localctx).ast =  new VisitStatement(((VisitStatementContext)_localctx).b != null); 
+			setState(745);
+			switch ( getInterpreter().adaptivePredict(_input,47,_ctx) ) {
+			case 1:
+				{
+				setState(727);
+				match(WILDCARD);
+				 _localctx.ast.setWildcard(true); 
+				}
+				break;
+			case 2:
+				{
+				setState(729);
+				((VisitStatementContext)_localctx).id = identifier();
+				setState(730);
+				match(COLON);
+				setState(731);
+				((VisitStatementContext)_localctx).t = identifier();
+				 _localctx.ast.setComponent((Component)new Component(((VisitStatementContext)_localctx).id.ast, ((VisitStatementContext)_localctx).t.ast).setPositions(((VisitStatementContext)_localctx).id.ast.beginLine, ((VisitStatementContext)_localctx).id.ast.beginColumn, ((VisitStatementContext)_localctx).t.ast.endLine, ((VisitStatementContext)_localctx).t.ast.endColumn)); 
+				}
+				break;
+			case 3:
+				{
+				setState(734);
+				((VisitStatementContext)_localctx).id = identifier();
+				 _localctx.ast.addId(((VisitStatementContext)_localctx).id.ast); 
+				setState(742);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==COMMA) {
+					{
+					{
+					setState(736);
+					match(COMMA);
+					setState(737);
+					((VisitStatementContext)_localctx).id = identifier();
+					 _localctx.ast.addId(((VisitStatementContext)_localctx).id.ast); 
+					}
+					}
+					setState(744);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			}
+			setState(747);
+			match(RIGHT_ARROW);
+			{
+			setState(748);
+			((VisitStatementContext)_localctx).s = programStatement();
+			 _localctx.ast.setBody(((VisitStatementContext)_localctx).s.ast); 
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TraverseStatementContext extends ParserRuleContext {
+		public TraverseStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public IdentifierContext t;
+		public TypeContext rt;
+		public ProgramStatementContext s;
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public List<TerminalNode> COLON() { return getTokens(BoaParser.COLON); }
+		public TerminalNode COLON(int i) {
+			return getToken(BoaParser.COLON, i);
+		}
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public List<IdentifierContext> identifier() {
+			return getRuleContexts(IdentifierContext.class);
+		}
+		public IdentifierContext identifier(int i) {
+			return getRuleContext(IdentifierContext.class,i);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public TraverseStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_traverseStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTraverseStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTraverseStatement(this);
+		}
+	}
+
+	public final TraverseStatementContext traverseStatement() throws RecognitionException {
+		TraverseStatementContext _localctx = new TraverseStatementContext(_ctx, getState());
+		enterRule(_localctx, 90, RULE_traverseStatement);
+		 ((TraverseStatementContext)_localctx).l =  getStartLine(); ((TraverseStatementContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			{
+			setState(751);
+			match(LPAREN);
+			setState(752);
+			((TraverseStatementContext)_localctx).id = identifier();
+			setState(753);
+			match(COLON);
+			setState(754);
+			((TraverseStatementContext)_localctx).t = identifier();
+			setState(755);
+			match(RPAREN);
+			 ((TraverseStatementContext)_localctx).ast =  new TraverseStatement(); _localctx.ast.setComponent((Component)new Component(((TraverseStatementContext)_localctx).id.ast, ((TraverseStatementContext)_localctx).t.ast).setPositions(((TraverseStatementContext)_localctx).id.ast.beginLine, ((TraverseStatementContext)_localctx).id.ast.beginColumn, ((TraverseStatementContext)_localctx).t.ast.endLine, ((TraverseStatementContext)_localctx).t.ast.endColumn));
+			setState(761);
+			_la = _input.LA(1);
+			if (_la==COLON) {
+				{
+				setState(757);
+				match(COLON);
+				setState(758);
+				((TraverseStatementContext)_localctx).rt = type();
+				_localctx.ast.setReturnType(((TraverseStatementContext)_localctx).rt.ast);
+				}
+			}
+
+			{
+			setState(763);
+			((TraverseStatementContext)_localctx).s = programStatement();
+			 _localctx.ast.setBody(((TraverseStatementContext)_localctx).s.ast); 
+			}
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FixpStatementContext extends ParserRuleContext {
+		public FixPStatement ast;
+		public int l;
+		public int c;
+		public IdentifierContext id1;
+		public IdentifierContext id2;
+		public IdentifierContext t;
+		public TypeContext rt;
+		public ProgramStatementContext s;
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode COMMA() { return getToken(BoaParser.COMMA, 0); }
+		public List<TerminalNode> COLON() { return getTokens(BoaParser.COLON); }
+		public TerminalNode COLON(int i) {
+			return getToken(BoaParser.COLON, i);
+		}
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public List<IdentifierContext> identifier() {
+			return getRuleContexts(IdentifierContext.class);
+		}
+		public IdentifierContext identifier(int i) {
+			return getRuleContext(IdentifierContext.class,i);
+		}
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public FixpStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_fixpStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFixpStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFixpStatement(this);
+		}
+	}
+
+	public final FixpStatementContext fixpStatement() throws RecognitionException {
+		FixpStatementContext _localctx = new FixpStatementContext(_ctx, getState());
+		enterRule(_localctx, 92, RULE_fixpStatement);
+		 ((FixpStatementContext)_localctx).l =  getStartLine(); ((FixpStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			{
+			setState(766);
+			match(LPAREN);
+			setState(767);
+			((FixpStatementContext)_localctx).id1 = identifier();
+			setState(768);
+			match(COMMA);
+			setState(769);
+			((FixpStatementContext)_localctx).id2 = identifier();
+			setState(770);
+			match(COLON);
+			setState(771);
+			((FixpStatementContext)_localctx).t = identifier();
+			setState(772);
+			match(RPAREN);
+			 ((FixpStatementContext)_localctx).ast =  new FixPStatement(); _localctx.ast.setParam1((Component)new Component(((FixpStatementContext)_localctx).id1.ast, ((FixpStatementContext)_localctx).t.ast).setPositions(((FixpStatementContext)_localctx).id1.ast.beginLine, ((FixpStatementContext)_localctx).id1.ast.beginColumn, ((FixpStatementContext)_localctx).t.ast.endLine, ((FixpStatementContext)_localctx).t.ast.endColumn));_localctx.ast.setParam2((Component)new Component(((FixpStatementContext)_localctx).id2.ast, ((FixpStatementContext)_localctx).t.ast).setPositions(((FixpStatementContext)_localctx).id2.ast.beginLine, ((FixpStatementContext)_localctx).id2.ast.beginColumn, ((FixpStatementContext)_localctx).t.ast.endLine, ((FixpStatementContext)_localctx).t.ast.endColumn));
+			{
+			setState(774);
+			match(COLON);
+			setState(775);
+			((FixpStatementContext)_localctx).rt = type();
+			_localctx.ast.setReturnType(((FixpStatementContext)_localctx).rt.ast);
+			}
+			{
+			setState(778);
+			((FixpStatementContext)_localctx).s = programStatement();
+			 _localctx.ast.setBody(((FixpStatementContext)_localctx).s.ast); 
+			}
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StopStatementContext extends ParserRuleContext {
+		public StopStatement ast;
+		public int l;
+		public int c;
+		public TerminalNode STOP() { return getToken(BoaParser.STOP, 0); }
+		public StopStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_stopStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterStopStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitStopStatement(this);
+		}
+	}
+
+	public final StopStatementContext stopStatement() throws RecognitionException {
+		StopStatementContext _localctx = new StopStatementContext(_ctx, getState());
+		enterRule(_localctx, 94, RULE_stopStatement);
+		 ((StopStatementContext)_localctx).l =  getStartLine(); ((StopStatementContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(781);
+			match(STOP);
+			 isSemicolon(); ((StopStatementContext)_localctx).ast =  new StopStatement(); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExpressionContext extends ParserRuleContext {
+		public Expression ast;
+		public int l;
+		public int c;
+		public ConjunctionContext j;
+		public List<ConjunctionContext> conjunction() {
+			return getRuleContexts(ConjunctionContext.class);
+		}
+		public ConjunctionContext conjunction(int i) {
+			return getRuleContext(ConjunctionContext.class,i);
+		}
+		public List<TerminalNode> TWOOR() { return getTokens(BoaParser.TWOOR); }
+		public TerminalNode TWOOR(int i) {
+			return getToken(BoaParser.TWOOR, i);
+		}
+		public List<TerminalNode> OR() { return getTokens(BoaParser.OR); }
+		public TerminalNode OR(int i) {
+			return getToken(BoaParser.OR, i);
+		}
+		public ExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitExpression(this);
+		}
+	}
+
+	public final ExpressionContext expression() throws RecognitionException {
+		ExpressionContext _localctx = new ExpressionContext(_ctx, getState());
+		enterRule(_localctx, 96, RULE_expression);
+		 ((ExpressionContext)_localctx).l =  getStartLine(); ((ExpressionContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(784);
+			((ExpressionContext)_localctx).j = conjunction();
+			 ((ExpressionContext)_localctx).ast =  new Expression(((ExpressionContext)_localctx).j.ast); 
+			setState(792);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,49,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					{
+					setState(786);
+					_la = _input.LA(1);
+					if ( !(_la==OR || _la==TWOOR) ) {
+					_errHandler.recoverInline(this);
+					} else {
+						consume();
+					}
+					setState(787);
+					((ExpressionContext)_localctx).j = conjunction();
+					 _localctx.ast.addRhs(((ExpressionContext)_localctx).j.ast); 
+					}
+					} 
+				}
+				setState(794);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,49,_ctx);
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExpressionListContext extends ParserRuleContext {
+		public ArrayList<Expression> list;
+		public ExpressionContext e;
+		public List<ExpressionContext> expression() {
+			return getRuleContexts(ExpressionContext.class);
+		}
+		public ExpressionContext expression(int i) {
+			return getRuleContext(ExpressionContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(BoaParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(BoaParser.COMMA, i);
+		}
+		public ExpressionListContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expressionList; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterExpressionList(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitExpressionList(this);
+		}
+	}
+
+	public final ExpressionListContext expressionList() throws RecognitionException {
+		ExpressionListContext _localctx = new ExpressionListContext(_ctx, getState());
+		enterRule(_localctx, 98, RULE_expressionList);
+		 ((ExpressionListContext)_localctx).list =  new ArrayList<Expression>(); 
+		int _la;
+		try {
+			setState(821);
+			switch ( getInterpreter().adaptivePredict(_input,53,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(795);
+				((ExpressionListContext)_localctx).e = expression();
+				 _localctx.list.add(((ExpressionListContext)_localctx).e.ast); 
+				setState(803);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==COMMA) {
+					{
+					{
+					setState(797);
+					match(COMMA);
+					setState(798);
+					((ExpressionListContext)_localctx).e = expression();
+					 _localctx.list.add(((ExpressionListContext)_localctx).e.ast); 
+					}
+					}
+					setState(805);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(806);
+				((ExpressionListContext)_localctx).e = expression();
+				 _localctx.list.add(((ExpressionListContext)_localctx).e.ast); 
+				setState(818);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << COMMA) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0)) {
+					{
+					setState(816);
+					switch (_input.LA(1)) {
+					case OF:
+					case IF:
+					case DO:
+					case MAP:
+					case STACK:
+					case QUEUE:
+					case SET:
+					case FOR:
+					case FOREACH:
+					case IFALL:
+					case EXISTS:
+					case NOT:
+					case TYPE:
+					case ELSE:
+					case CASE:
+					case OUTPUT:
+					case FORMAT:
+					case WHILE:
+					case BREAK:
+					case ARRAY:
+					case STATIC:
+					case SWITCH:
+					case RETURN:
+					case WEIGHT:
+					case DEFAULT:
+					case CONTINUE:
+					case FUNCTION:
+					case FIXP:
+					case VISITOR:
+					case TRAVERSAL:
+					case BEFORE:
+					case AFTER:
+					case STOP:
+					case LBRACE:
+					case LPAREN:
+					case PLUS:
+					case MINUS:
+					case NEG:
+					case INV:
+					case DOLLAR:
+					case IntegerLiteral:
+					case FloatingPointLiteral:
+					case CharacterLiteral:
+					case RegexLiteral:
+					case MultilineStringLiteral:
+					case StringLiteral:
+					case TimeLiteral:
+					case Identifier:
+						{
+						 notifyErrorListeners("error: ',' expected"); 
+						setState(809);
+						((ExpressionListContext)_localctx).e = expression();
+						 _localctx.list.add(((ExpressionListContext)_localctx).e.ast); 
+						}
+						break;
+					case COMMA:
+						{
+						setState(812);
+						match(COMMA);
+						setState(813);
+						((ExpressionListContext)_localctx).e = expression();
+						 _localctx.list.add(((ExpressionListContext)_localctx).e.ast); 
+						}
+						break;
+					default:
+						throw new NoViableAltException(this);
+					}
+					}
+					setState(820);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ConjunctionContext extends ParserRuleContext {
+		public Conjunction ast;
+		public int l;
+		public int c;
+		public ComparisonContext m;
+		public Token op;
+		public List<ComparisonContext> comparison() {
+			return getRuleContexts(ComparisonContext.class);
+		}
+		public ComparisonContext comparison(int i) {
+			return getRuleContext(ComparisonContext.class,i);
+		}
+		public List<TerminalNode> TWOAND() { return getTokens(BoaParser.TWOAND); }
+		public TerminalNode TWOAND(int i) {
+			return getToken(BoaParser.TWOAND, i);
+		}
+		public List<TerminalNode> AND() { return getTokens(BoaParser.AND); }
+		public TerminalNode AND(int i) {
+			return getToken(BoaParser.AND, i);
+		}
+		public ConjunctionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_conjunction; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterConjunction(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitConjunction(this);
+		}
+	}
+
+	public final ConjunctionContext conjunction() throws RecognitionException {
+		ConjunctionContext _localctx = new ConjunctionContext(_ctx, getState());
+		enterRule(_localctx, 100, RULE_conjunction);
+		 ((ConjunctionContext)_localctx).l =  getStartLine(); ((ConjunctionContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(823);
+			((ConjunctionContext)_localctx).m = comparison();
+			 ((ConjunctionContext)_localctx).ast =  new Conjunction(((ConjunctionContext)_localctx).m.ast); 
+			setState(832);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,54,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					{
+					setState(825);
+					((ConjunctionContext)_localctx).op = _input.LT(1);
+					_la = _input.LA(1);
+					if ( !(_la==AND || _la==TWOAND) ) {
+						((ConjunctionContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+					} else {
+						consume();
+					}
+					 _localctx.ast.addOp((((ConjunctionContext)_localctx).op!=null?((ConjunctionContext)_localctx).op.getText():null)); 
+					setState(827);
+					((ConjunctionContext)_localctx).m = comparison();
+					 _localctx.ast.addRhs(((ConjunctionContext)_localctx).m.ast); 
+					}
+					} 
+				}
+				setState(834);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,54,_ctx);
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ComparisonContext extends ParserRuleContext {
+		public Comparison ast;
+		public int l;
+		public int c;
+		public SimpleExpressionContext e;
+		public Token op;
+		public SimpleExpressionContext e2;
+		public List<SimpleExpressionContext> simpleExpression() {
+			return getRuleContexts(SimpleExpressionContext.class);
+		}
+		public SimpleExpressionContext simpleExpression(int i) {
+			return getRuleContext(SimpleExpressionContext.class,i);
+		}
+		public TerminalNode EQEQ() { return getToken(BoaParser.EQEQ, 0); }
+		public TerminalNode NEQ() { return getToken(BoaParser.NEQ, 0); }
+		public TerminalNode LT() { return getToken(BoaParser.LT, 0); }
+		public TerminalNode LTEQ() { return getToken(BoaParser.LTEQ, 0); }
+		public TerminalNode GT() { return getToken(BoaParser.GT, 0); }
+		public TerminalNode GTEQ() { return getToken(BoaParser.GTEQ, 0); }
+		public ComparisonContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_comparison; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterComparison(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitComparison(this);
+		}
+	}
+
+	public final ComparisonContext comparison() throws RecognitionException {
+		ComparisonContext _localctx = new ComparisonContext(_ctx, getState());
+		enterRule(_localctx, 102, RULE_comparison);
+		 ((ComparisonContext)_localctx).l =  getStartLine(); ((ComparisonContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			setState(843);
+			switch ( getInterpreter().adaptivePredict(_input,55,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(835);
+				((ComparisonContext)_localctx).e = simpleExpression();
+				setState(836);
+				((ComparisonContext)_localctx).op = _input.LT(1);
+				_la = _input.LA(1);
+				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << EQEQ) | (1L << NEQ) | (1L << LT) | (1L << LTEQ) | (1L << GT) | (1L << GTEQ))) != 0)) ) {
+					((ComparisonContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+				} else {
+					consume();
+				}
+				setState(837);
+				((ComparisonContext)_localctx).e2 = simpleExpression();
+				 ((ComparisonContext)_localctx).ast =  new Comparison(((ComparisonContext)_localctx).e.ast, (((ComparisonContext)_localctx).op!=null?((ComparisonContext)_localctx).op.getText():null), ((ComparisonContext)_localctx).e2.ast); 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(840);
+				((ComparisonContext)_localctx).e = simpleExpression();
+				 ((ComparisonContext)_localctx).ast =  new Comparison(((ComparisonContext)_localctx).e.ast); 
+				}
+				break;
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class SimpleExpressionContext extends ParserRuleContext {
+		public SimpleExpr ast;
+		public int l;
+		public int c;
+		public TermContext t;
+		public Token op;
+		public List<TermContext> term() {
+			return getRuleContexts(TermContext.class);
+		}
+		public TermContext term(int i) {
+			return getRuleContext(TermContext.class,i);
+		}
+		public List<TerminalNode> PLUS() { return getTokens(BoaParser.PLUS); }
+		public TerminalNode PLUS(int i) {
+			return getToken(BoaParser.PLUS, i);
+		}
+		public List<TerminalNode> MINUS() { return getTokens(BoaParser.MINUS); }
+		public TerminalNode MINUS(int i) {
+			return getToken(BoaParser.MINUS, i);
+		}
+		public List<TerminalNode> ONEOR() { return getTokens(BoaParser.ONEOR); }
+		public TerminalNode ONEOR(int i) {
+			return getToken(BoaParser.ONEOR, i);
+		}
+		public List<TerminalNode> XOR() { return getTokens(BoaParser.XOR); }
+		public TerminalNode XOR(int i) {
+			return getToken(BoaParser.XOR, i);
+		}
+		public SimpleExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_simpleExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterSimpleExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitSimpleExpression(this);
+		}
+	}
+
+	public final SimpleExpressionContext simpleExpression() throws RecognitionException {
+		SimpleExpressionContext _localctx = new SimpleExpressionContext(_ctx, getState());
+		enterRule(_localctx, 104, RULE_simpleExpression);
+		 ((SimpleExpressionContext)_localctx).l =  getStartLine(); ((SimpleExpressionContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(845);
+			((SimpleExpressionContext)_localctx).t = term();
+			 ((SimpleExpressionContext)_localctx).ast =  new SimpleExpr(((SimpleExpressionContext)_localctx).t.ast); 
+			setState(854);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,56,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					{
+					setState(847);
+					((SimpleExpressionContext)_localctx).op = _input.LT(1);
+					_la = _input.LA(1);
+					if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << ONEOR) | (1L << PLUS) | (1L << MINUS) | (1L << XOR))) != 0)) ) {
+						((SimpleExpressionContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+					} else {
+						consume();
+					}
+					 _localctx.ast.addOp((((SimpleExpressionContext)_localctx).op!=null?((SimpleExpressionContext)_localctx).op.getText():null)); 
+					setState(849);
+					((SimpleExpressionContext)_localctx).t = term();
+					 _localctx.ast.addRhs(((SimpleExpressionContext)_localctx).t.ast); 
+					}
+					} 
+				}
+				setState(856);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,56,_ctx);
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TermContext extends ParserRuleContext {
+		public Term ast;
+		public int l;
+		public int c;
+		public FactorContext f;
+		public Token op;
+		public List<FactorContext> factor() {
+			return getRuleContexts(FactorContext.class);
+		}
+		public FactorContext factor(int i) {
+			return getRuleContext(FactorContext.class,i);
+		}
+		public List<TerminalNode> STAR() { return getTokens(BoaParser.STAR); }
+		public TerminalNode STAR(int i) {
+			return getToken(BoaParser.STAR, i);
+		}
+		public List<TerminalNode> DIV() { return getTokens(BoaParser.DIV); }
+		public TerminalNode DIV(int i) {
+			return getToken(BoaParser.DIV, i);
+		}
+		public List<TerminalNode> MOD() { return getTokens(BoaParser.MOD); }
+		public TerminalNode MOD(int i) {
+			return getToken(BoaParser.MOD, i);
+		}
+		public List<TerminalNode> EMIT() { return getTokens(BoaParser.EMIT); }
+		public TerminalNode EMIT(int i) {
+			return getToken(BoaParser.EMIT, i);
+		}
+		public List<TerminalNode> RSHIFT() { return getTokens(BoaParser.RSHIFT); }
+		public TerminalNode RSHIFT(int i) {
+			return getToken(BoaParser.RSHIFT, i);
+		}
+		public List<TerminalNode> ONEAND() { return getTokens(BoaParser.ONEAND); }
+		public TerminalNode ONEAND(int i) {
+			return getToken(BoaParser.ONEAND, i);
+		}
+		public TermContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_term; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTerm(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTerm(this);
+		}
+	}
+
+	public final TermContext term() throws RecognitionException {
+		TermContext _localctx = new TermContext(_ctx, getState());
+		enterRule(_localctx, 106, RULE_term);
+		 ((TermContext)_localctx).l =  getStartLine(); ((TermContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(857);
+			((TermContext)_localctx).f = factor();
+			 ((TermContext)_localctx).ast =  new Term(((TermContext)_localctx).f.ast); 
+			setState(866);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,57,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					{
+					setState(859);
+					((TermContext)_localctx).op = _input.LT(1);
+					_la = _input.LA(1);
+					if ( !(((((_la - 49)) & ~0x3f) == 0 && ((1L << (_la - 49)) & ((1L << (ONEAND - 49)) | (1L << (STAR - 49)) | (1L << (DIV - 49)) | (1L << (MOD - 49)) | (1L << (RSHIFT - 49)) | (1L << (EMIT - 49)))) != 0)) ) {
+						((TermContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+					} else {
+						consume();
+					}
+					 _localctx.ast.addOp((((TermContext)_localctx).op!=null?((TermContext)_localctx).op.getText():null)); 
+					setState(861);
+					((TermContext)_localctx).f = factor();
+					 _localctx.ast.addRhs(((TermContext)_localctx).f.ast); 
+					}
+					} 
+				}
+				setState(868);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,57,_ctx);
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FactorContext extends ParserRuleContext {
+		public Factor ast;
+		public int l;
+		public int c;
+		public OperandContext op;
+		public SelectorContext s;
+		public IndexContext i;
+		public CallContext m;
+		public OperandContext operand() {
+			return getRuleContext(OperandContext.class,0);
+		}
+		public List<SelectorContext> selector() {
+			return getRuleContexts(SelectorContext.class);
+		}
+		public SelectorContext selector(int i) {
+			return getRuleContext(SelectorContext.class,i);
+		}
+		public List<IndexContext> index() {
+			return getRuleContexts(IndexContext.class);
+		}
+		public IndexContext index(int i) {
+			return getRuleContext(IndexContext.class,i);
+		}
+		public List<CallContext> call() {
+			return getRuleContexts(CallContext.class);
+		}
+		public CallContext call(int i) {
+			return getRuleContext(CallContext.class,i);
+		}
+		public FactorContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_factor; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFactor(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFactor(this);
+		}
+	}
+
+	public final FactorContext factor() throws RecognitionException {
+		FactorContext _localctx = new FactorContext(_ctx, getState());
+		enterRule(_localctx, 108, RULE_factor);
+		 ((FactorContext)_localctx).l =  getStartLine(); ((FactorContext)_localctx).c =  getStartColumn(); 
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(869);
+			((FactorContext)_localctx).op = operand();
+			 ((FactorContext)_localctx).ast =  new Factor(((FactorContext)_localctx).op.ast); 
+			setState(882);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,59,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					setState(880);
+					switch (_input.LA(1)) {
+					case DOT:
+						{
+						setState(871);
+						((FactorContext)_localctx).s = selector();
+						 _localctx.ast.addOp(((FactorContext)_localctx).s.ast); 
+						}
+						break;
+					case LBRACKET:
+						{
+						setState(874);
+						((FactorContext)_localctx).i = index();
+						 _localctx.ast.addOp(((FactorContext)_localctx).i.ast); 
+						}
+						break;
+					case LPAREN:
+						{
+						setState(877);
+						((FactorContext)_localctx).m = call();
+						 _localctx.ast.addOp(((FactorContext)_localctx).m.ast); 
+						}
+						break;
+					default:
+						throw new NoViableAltException(this);
+					}
+					} 
+				}
+				setState(884);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,59,_ctx);
+			}
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class SelectorContext extends ParserRuleContext {
+		public Selector ast;
+		public int l;
+		public int c;
+		public IdentifierContext id;
+		public TerminalNode DOT() { return getToken(BoaParser.DOT, 0); }
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public SelectorContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_selector; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterSelector(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitSelector(this);
+		}
+	}
+
+	public final SelectorContext selector() throws RecognitionException {
+		SelectorContext _localctx = new SelectorContext(_ctx, getState());
+		enterRule(_localctx, 110, RULE_selector);
+		 ((SelectorContext)_localctx).l =  getStartLine(); ((SelectorContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(885);
+			match(DOT);
+			setState(886);
+			((SelectorContext)_localctx).id = identifier();
+			 ((SelectorContext)_localctx).ast =  new Selector(((SelectorContext)_localctx).id.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IndexContext extends ParserRuleContext {
+		public Index ast;
+		public int l;
+		public int c;
+		public ExpressionContext s;
+		public ExpressionContext end;
+		public TerminalNode LBRACKET() { return getToken(BoaParser.LBRACKET, 0); }
+		public TerminalNode RBRACKET() { return getToken(BoaParser.RBRACKET, 0); }
+		public List<ExpressionContext> expression() {
+			return getRuleContexts(ExpressionContext.class);
+		}
+		public ExpressionContext expression(int i) {
+			return getRuleContext(ExpressionContext.class,i);
+		}
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public IndexContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_index; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterIndex(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitIndex(this);
+		}
+	}
+
+	public final IndexContext index() throws RecognitionException {
+		IndexContext _localctx = new IndexContext(_ctx, getState());
+		enterRule(_localctx, 112, RULE_index);
+		 ((IndexContext)_localctx).l =  getStartLine(); ((IndexContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(889);
+			match(LBRACKET);
+			setState(890);
+			((IndexContext)_localctx).s = expression();
+			 ((IndexContext)_localctx).ast =  new Index(((IndexContext)_localctx).s.ast); 
+			setState(896);
+			_la = _input.LA(1);
+			if (_la==COLON) {
+				{
+				setState(892);
+				match(COLON);
+				setState(893);
+				((IndexContext)_localctx).end = expression();
+				 _localctx.ast.setEnd(((IndexContext)_localctx).end.ast); 
+				}
+			}
+
+			setState(898);
+			match(RBRACKET);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class CallContext extends ParserRuleContext {
+		public Call ast;
+		public int l;
+		public int c;
+		public ExpressionListContext el;
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public ExpressionListContext expressionList() {
+			return getRuleContext(ExpressionListContext.class,0);
+		}
+		public CallContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_call; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterCall(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitCall(this);
+		}
+	}
+
+	public final CallContext call() throws RecognitionException {
+		CallContext _localctx = new CallContext(_ctx, getState());
+		enterRule(_localctx, 114, RULE_call);
+		 ((CallContext)_localctx).l =  getStartLine(); ((CallContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(900);
+			match(LPAREN);
+			 ((CallContext)_localctx).ast =  new Call(); 
+			setState(905);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0)) {
+				{
+				setState(902);
+				((CallContext)_localctx).el = expressionList();
+				 _localctx.ast.setArgs(((CallContext)_localctx).el.list); 
+				}
+			}
+
+			setState(907);
+			match(RPAREN);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class OperandContext extends ParserRuleContext {
+		public Operand ast;
+		public StringLiteralContext s;
+		public CharacterLiteralContext c;
+		public TimeLiteralContext t;
+		public IntegerLiteralContext i;
+		public FloatingPointLiteralContext fp;
+		public CompositeContext comp;
+		public FunctionExpressionContext fe;
+		public FixpExpressionContext fixpe;
+		public VisitorExpressionContext v;
+		public TraversalExpressionContext tr;
+		public UnaryFactorContext uf;
+		public ParenExpressionContext pe;
+		public IdentifierContext id;
+		public StringLiteralContext stringLiteral() {
+			return getRuleContext(StringLiteralContext.class,0);
+		}
+		public CharacterLiteralContext characterLiteral() {
+			return getRuleContext(CharacterLiteralContext.class,0);
+		}
+		public TimeLiteralContext timeLiteral() {
+			return getRuleContext(TimeLiteralContext.class,0);
+		}
+		public IntegerLiteralContext integerLiteral() {
+			return getRuleContext(IntegerLiteralContext.class,0);
+		}
+		public FloatingPointLiteralContext floatingPointLiteral() {
+			return getRuleContext(FloatingPointLiteralContext.class,0);
+		}
+		public CompositeContext composite() {
+			return getRuleContext(CompositeContext.class,0);
+		}
+		public FunctionExpressionContext functionExpression() {
+			return getRuleContext(FunctionExpressionContext.class,0);
+		}
+		public FixpExpressionContext fixpExpression() {
+			return getRuleContext(FixpExpressionContext.class,0);
+		}
+		public VisitorExpressionContext visitorExpression() {
+			return getRuleContext(VisitorExpressionContext.class,0);
+		}
+		public TraversalExpressionContext traversalExpression() {
+			return getRuleContext(TraversalExpressionContext.class,0);
+		}
+		public UnaryFactorContext unaryFactor() {
+			return getRuleContext(UnaryFactorContext.class,0);
+		}
+		public TerminalNode DOLLAR() { return getToken(BoaParser.DOLLAR, 0); }
+		public ParenExpressionContext parenExpression() {
+			return getRuleContext(ParenExpressionContext.class,0);
+		}
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public OperandContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_operand; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterOperand(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitOperand(this);
+		}
+	}
+
+	public final OperandContext operand() throws RecognitionException {
+		OperandContext _localctx = new OperandContext(_ctx, getState());
+		enterRule(_localctx, 116, RULE_operand);
+		try {
+			setState(949);
+			switch ( getInterpreter().adaptivePredict(_input,62,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(909);
+				((OperandContext)_localctx).s = stringLiteral();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).s.ast; 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(912);
+				((OperandContext)_localctx).c = characterLiteral();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).c.ast; 
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(915);
+				((OperandContext)_localctx).t = timeLiteral();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).t.ast; 
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(918);
+				((OperandContext)_localctx).i = integerLiteral();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).i.ast; 
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(921);
+				((OperandContext)_localctx).fp = floatingPointLiteral();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).fp.ast; 
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(924);
+				((OperandContext)_localctx).comp = composite();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).comp.ast; 
+				}
+				break;
+			case 7:
+				enterOuterAlt(_localctx, 7);
+				{
+				setState(927);
+				((OperandContext)_localctx).fe = functionExpression();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).fe.ast; 
+				}
+				break;
+			case 8:
+				enterOuterAlt(_localctx, 8);
+				{
+				setState(930);
+				((OperandContext)_localctx).fixpe = fixpExpression();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).fixpe.ast; 
+				}
+				break;
+			case 9:
+				enterOuterAlt(_localctx, 9);
+				{
+				setState(933);
+				((OperandContext)_localctx).v = visitorExpression();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).v.ast; 
+				}
+				break;
+			case 10:
+				enterOuterAlt(_localctx, 10);
+				{
+				setState(936);
+				((OperandContext)_localctx).tr = traversalExpression();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).tr.ast; 
+				}
+				break;
+			case 11:
+				enterOuterAlt(_localctx, 11);
+				{
+				setState(939);
+				((OperandContext)_localctx).uf = unaryFactor();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).uf.ast; 
+				}
+				break;
+			case 12:
+				enterOuterAlt(_localctx, 12);
+				{
+				setState(942);
+				match(DOLLAR);
+				}
+				break;
+			case 13:
+				enterOuterAlt(_localctx, 13);
+				{
+				setState(943);
+				((OperandContext)_localctx).pe = parenExpression();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).pe.ast; 
+				}
+				break;
+			case 14:
+				enterOuterAlt(_localctx, 14);
+				{
+				setState(946);
+				((OperandContext)_localctx).id = identifier();
+				 ((OperandContext)_localctx).ast =  ((OperandContext)_localctx).id.ast; 
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class UnaryFactorContext extends ParserRuleContext {
+		public UnaryFactor ast;
+		public int l;
+		public int c;
+		public Token op;
+		public FactorContext f;
+		public FactorContext factor() {
+			return getRuleContext(FactorContext.class,0);
+		}
+		public TerminalNode PLUS() { return getToken(BoaParser.PLUS, 0); }
+		public TerminalNode MINUS() { return getToken(BoaParser.MINUS, 0); }
+		public TerminalNode NEG() { return getToken(BoaParser.NEG, 0); }
+		public TerminalNode INV() { return getToken(BoaParser.INV, 0); }
+		public TerminalNode NOT() { return getToken(BoaParser.NOT, 0); }
+		public UnaryFactorContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_unaryFactor; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterUnaryFactor(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitUnaryFactor(this);
+		}
+	}
+
+	public final UnaryFactorContext unaryFactor() throws RecognitionException {
+		UnaryFactorContext _localctx = new UnaryFactorContext(_ctx, getState());
+		enterRule(_localctx, 118, RULE_unaryFactor);
+		 ((UnaryFactorContext)_localctx).l =  getStartLine(); ((UnaryFactorContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(951);
+			((UnaryFactorContext)_localctx).op = _input.LT(1);
+			_la = _input.LA(1);
+			if ( !(((((_la - 12)) & ~0x3f) == 0 && ((1L << (_la - 12)) & ((1L << (NOT - 12)) | (1L << (PLUS - 12)) | (1L << (MINUS - 12)) | (1L << (NEG - 12)) | (1L << (INV - 12)))) != 0)) ) {
+				((UnaryFactorContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+			} else {
+				consume();
+			}
+			setState(952);
+			((UnaryFactorContext)_localctx).f = factor();
+			 ((UnaryFactorContext)_localctx).ast =  new UnaryFactor((((UnaryFactorContext)_localctx).op!=null?((UnaryFactorContext)_localctx).op.getText():null), ((UnaryFactorContext)_localctx).f.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ParenExpressionContext extends ParserRuleContext {
+		public ParenExpression ast;
+		public int l;
+		public int c;
+		public ExpressionContext e;
+		public TerminalNode LPAREN() { return getToken(BoaParser.LPAREN, 0); }
+		public TerminalNode RPAREN() { return getToken(BoaParser.RPAREN, 0); }
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ParenExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_parenExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterParenExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitParenExpression(this);
+		}
+	}
+
+	public final ParenExpressionContext parenExpression() throws RecognitionException {
+		ParenExpressionContext _localctx = new ParenExpressionContext(_ctx, getState());
+		enterRule(_localctx, 120, RULE_parenExpression);
+		 ((ParenExpressionContext)_localctx).l =  getStartLine(); ((ParenExpressionContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(955);
+			match(LPAREN);
+			setState(956);
+			((ParenExpressionContext)_localctx).e = expression();
+			setState(957);
+			match(RPAREN);
+			 ((ParenExpressionContext)_localctx).ast =  new ParenExpression(((ParenExpressionContext)_localctx).e.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FunctionExpressionContext extends ParserRuleContext {
+		public FunctionExpression ast;
+		public int l;
+		public int c;
+		public FunctionTypeContext t;
+		public BlockContext b;
+		public IdentifierContext id;
+		public FunctionTypeContext functionType() {
+			return getRuleContext(FunctionTypeContext.class,0);
+		}
+		public BlockContext block() {
+			return getRuleContext(BlockContext.class,0);
+		}
+		public IdentifierContext identifier() {
+			return getRuleContext(IdentifierContext.class,0);
+		}
+		public FunctionExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_functionExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFunctionExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFunctionExpression(this);
+		}
+	}
+
+	public final FunctionExpressionContext functionExpression() throws RecognitionException {
+		FunctionExpressionContext _localctx = new FunctionExpressionContext(_ctx, getState());
+		enterRule(_localctx, 122, RULE_functionExpression);
+		 ((FunctionExpressionContext)_localctx).l =  getStartLine(); ((FunctionExpressionContext)_localctx).c =  getStartColumn(); 
+		try {
+			setState(968);
+			switch ( getInterpreter().adaptivePredict(_input,63,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(960);
+				((FunctionExpressionContext)_localctx).t = functionType();
+				setState(961);
+				((FunctionExpressionContext)_localctx).b = block();
+				 ((FunctionExpressionContext)_localctx).ast =  new FunctionExpression(((FunctionExpressionContext)_localctx).t.ast, ((FunctionExpressionContext)_localctx).b.ast); 
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(964);
+				((FunctionExpressionContext)_localctx).id = identifier();
+				setState(965);
+				((FunctionExpressionContext)_localctx).b = block();
+				 ((FunctionExpressionContext)_localctx).ast =  new FunctionExpression(((FunctionExpressionContext)_localctx).id.ast, ((FunctionExpressionContext)_localctx).b.ast); 
+				}
+				break;
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FixpExpressionContext extends ParserRuleContext {
+		public FixPExpression ast;
+		public Block b;
+		public int l;
+		public int c;
+		public FixpTypeContext t;
+		public FixpStatementContext s;
+		public FixpTypeContext fixpType() {
+			return getRuleContext(FixpTypeContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public FixpStatementContext fixpStatement() {
+			return getRuleContext(FixpStatementContext.class,0);
+		}
+		public FixpExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_fixpExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFixpExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFixpExpression(this);
+		}
+	}
+
+	public final FixpExpressionContext fixpExpression() throws RecognitionException {
+		FixpExpressionContext _localctx = new FixpExpressionContext(_ctx, getState());
+		enterRule(_localctx, 124, RULE_fixpExpression);
+		 ((FixpExpressionContext)_localctx).b =  new Block(); ((FixpExpressionContext)_localctx).l =  getStartLine(); ((FixpExpressionContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(970);
+			((FixpExpressionContext)_localctx).t = fixpType();
+			setState(976);
+			switch ( getInterpreter().adaptivePredict(_input,64,_ctx) ) {
+			case 1:
+				{
+				setState(971);
+				((FixpExpressionContext)_localctx).s = fixpStatement();
+				_localctx.b.addStatement(((FixpExpressionContext)_localctx).s.ast);
+				}
+				break;
+			case 2:
+				{
+				 notifyErrorListeners("error: only fixpoint statement allowed inside fixpoint expression"); 
+				setState(975);
+				programStatement();
+				}
+				break;
+			}
+			 ((FixpExpressionContext)_localctx).ast =  new FixPExpression(((FixpExpressionContext)_localctx).t.ast, _localctx.b); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); _localctx.b.setPositions(); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class VisitorExpressionContext extends ParserRuleContext {
+		public VisitorExpression ast;
+		public Block b;
+		public int l;
+		public int c;
+		public VisitorTypeContext t;
+		public VisitStatementContext s;
+		public TerminalNode LBRACE() { return getToken(BoaParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(BoaParser.RBRACE, 0); }
+		public VisitorTypeContext visitorType() {
+			return getRuleContext(VisitorTypeContext.class,0);
+		}
+		public List<ProgramStatementContext> programStatement() {
+			return getRuleContexts(ProgramStatementContext.class);
+		}
+		public ProgramStatementContext programStatement(int i) {
+			return getRuleContext(ProgramStatementContext.class,i);
+		}
+		public List<VisitStatementContext> visitStatement() {
+			return getRuleContexts(VisitStatementContext.class);
+		}
+		public VisitStatementContext visitStatement(int i) {
+			return getRuleContext(VisitStatementContext.class,i);
+		}
+		public VisitorExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_visitorExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterVisitorExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitVisitorExpression(this);
+		}
+	}
+
+	public final VisitorExpressionContext visitorExpression() throws RecognitionException {
+		VisitorExpressionContext _localctx = new VisitorExpressionContext(_ctx, getState());
+		enterRule(_localctx, 126, RULE_visitorExpression);
+		 ((VisitorExpressionContext)_localctx).b =  new Block(); ((VisitorExpressionContext)_localctx).l =  getStartLine(); ((VisitorExpressionContext)_localctx).c =  getStartColumn(); 
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(980);
+			((VisitorExpressionContext)_localctx).t = visitorType();
+			setState(981);
+			match(LBRACE);
+			setState(987); 
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			do {
+				{
+				setState(987);
+				switch ( getInterpreter().adaptivePredict(_input,65,_ctx) ) {
+				case 1:
+					{
+					setState(982);
+					((VisitorExpressionContext)_localctx).s = visitStatement();
+					 _localctx.b.addStatement(((VisitorExpressionContext)_localctx).s.ast); 
+					}
+					break;
+				case 2:
+					{
+					 notifyErrorListeners("error: only 'before' and 'after' visit statements allowed inside visitor bodies"); 
+					setState(986);
+					programStatement();
+					}
+					break;
+				}
+				}
+				setState(989); 
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << OF) | (1L << IF) | (1L << DO) | (1L << MAP) | (1L << STACK) | (1L << QUEUE) | (1L << SET) | (1L << FOR) | (1L << FOREACH) | (1L << IFALL) | (1L << EXISTS) | (1L << NOT) | (1L << TYPE) | (1L << ELSE) | (1L << CASE) | (1L << OUTPUT) | (1L << FORMAT) | (1L << WHILE) | (1L << BREAK) | (1L << ARRAY) | (1L << STATIC) | (1L << SWITCH) | (1L << RETURN) | (1L << WEIGHT) | (1L << DEFAULT) | (1L << CONTINUE) | (1L << FUNCTION) | (1L << FIXP) | (1L << VISITOR) | (1L << TRAVERSAL) | (1L << BEFORE) | (1L << AFTER) | (1L << STOP) | (1L << SEMICOLON) | (1L << LBRACE) | (1L << LPAREN) | (1L << PLUS) | (1L << MINUS))) != 0) || ((((_la - 66)) & ~0x3f) == 0 && ((1L << (_la - 66)) & ((1L << (NEG - 66)) | (1L << (INV - 66)) | (1L << (WILDCARD - 66)) | (1L << (DOLLAR - 66)) | (1L << (IntegerLiteral - 66)) | (1L << (FloatingPointLiteral - 66)) | (1L << (CharacterLiteral - 66)) | (1L << (RegexLiteral - 66)) | (1L << (MultilineStringLiteral - 66)) | (1L << (StringLiteral - 66)) | (1L << (TimeLiteral - 66)) | (1L << (Identifier - 66)))) != 0) );
+			setState(991);
+			match(RBRACE);
+			 ((VisitorExpressionContext)_localctx).ast =  new VisitorExpression(((VisitorExpressionContext)_localctx).t.ast, _localctx.b); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); _localctx.b.setPositions(); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TraversalExpressionContext extends ParserRuleContext {
+		public TraversalExpression ast;
+		public Block b;
+		public int l;
+		public int c;
+		public TraversalTypeContext t;
+		public TraverseStatementContext s;
+		public TraversalTypeContext traversalType() {
+			return getRuleContext(TraversalTypeContext.class,0);
+		}
+		public ProgramStatementContext programStatement() {
+			return getRuleContext(ProgramStatementContext.class,0);
+		}
+		public TraverseStatementContext traverseStatement() {
+			return getRuleContext(TraverseStatementContext.class,0);
+		}
+		public TraversalExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_traversalExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTraversalExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTraversalExpression(this);
+		}
+	}
+
+	public final TraversalExpressionContext traversalExpression() throws RecognitionException {
+		TraversalExpressionContext _localctx = new TraversalExpressionContext(_ctx, getState());
+		enterRule(_localctx, 128, RULE_traversalExpression);
+		 ((TraversalExpressionContext)_localctx).b =  new Block(); ((TraversalExpressionContext)_localctx).l =  getStartLine(); ((TraversalExpressionContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(994);
+			((TraversalExpressionContext)_localctx).t = traversalType();
+			setState(1000);
+			switch ( getInterpreter().adaptivePredict(_input,67,_ctx) ) {
+			case 1:
+				{
+				setState(995);
+				((TraversalExpressionContext)_localctx).s = traverseStatement();
+				_localctx.b.addStatement(((TraversalExpressionContext)_localctx).s.ast);
+				}
+				break;
+			case 2:
+				{
+				 notifyErrorListeners("error: only traverse statements allowed inside traversal bodies"); 
+				setState(999);
+				programStatement();
+				}
+				break;
+			}
+			 if(((TraversalExpressionContext)_localctx).s.ast.getReturnType()!=null) {((TraversalExpressionContext)_localctx).t.ast.setIndex((Component)new Component(((TraversalExpressionContext)_localctx).s.ast.getReturnType()).setPositions(((TraversalExpressionContext)_localctx).s.ast.beginLine, ((TraversalExpressionContext)_localctx).s.ast.beginColumn, ((TraversalExpressionContext)_localctx).s.ast.endLine, ((TraversalExpressionContext)_localctx).s.ast.endColumn));} ((TraversalExpressionContext)_localctx).ast =  new TraversalExpression(((TraversalExpressionContext)_localctx).t.ast, _localctx.b); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); _localctx.b.setPositions(); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class CompositeContext extends ParserRuleContext {
+		public Composite ast;
+		public int l;
+		public int c;
+		public ExpressionListContext el;
+		public PairContext p;
+		public TerminalNode LBRACE() { return getToken(BoaParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(BoaParser.RBRACE, 0); }
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public ExpressionListContext expressionList() {
+			return getRuleContext(ExpressionListContext.class,0);
+		}
+		public List<PairContext> pair() {
+			return getRuleContexts(PairContext.class);
+		}
+		public PairContext pair(int i) {
+			return getRuleContext(PairContext.class,i);
+		}
+		public List<TerminalNode> COMMA() { return getTokens(BoaParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(BoaParser.COMMA, i);
+		}
+		public CompositeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_composite; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterComposite(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitComposite(this);
+		}
+	}
+
+	public final CompositeContext composite() throws RecognitionException {
+		CompositeContext _localctx = new CompositeContext(_ctx, getState());
+		enterRule(_localctx, 130, RULE_composite);
+
+				((CompositeContext)_localctx).l =  getStartLine(); ((CompositeContext)_localctx).c =  getStartColumn();
+				((CompositeContext)_localctx).ast =  new Composite();
+			
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(1004);
+			match(LBRACE);
+			setState(1022);
+			switch ( getInterpreter().adaptivePredict(_input,69,_ctx) ) {
+			case 1:
+				{
+				setState(1005);
+				((CompositeContext)_localctx).el = expressionList();
+				 ((CompositeContext)_localctx).ast =  new Composite(((CompositeContext)_localctx).el.list); 
+				}
+				break;
+			case 2:
+				{
+				 ((CompositeContext)_localctx).ast =  new Composite(); 
+				setState(1009);
+				((CompositeContext)_localctx).p = pair();
+				 _localctx.ast.addPair(((CompositeContext)_localctx).p.ast); 
+				setState(1017);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==COMMA) {
+					{
+					{
+					setState(1011);
+					match(COMMA);
+					setState(1012);
+					((CompositeContext)_localctx).p = pair();
+					 _localctx.ast.addPair(((CompositeContext)_localctx).p.ast); 
+					}
+					}
+					setState(1019);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			case 3:
+				{
+				setState(1020);
+				match(COLON);
+				 ((CompositeContext)_localctx).ast =  new Composite(true); 
+				}
+				break;
+			}
+			setState(1024);
+			match(RBRACE);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class PairContext extends ParserRuleContext {
+		public boa.compiler.ast.Pair ast;
+		public int l;
+		public int c;
+		public ExpressionContext lhs;
+		public ExpressionContext rhs;
+		public TerminalNode COLON() { return getToken(BoaParser.COLON, 0); }
+		public List<ExpressionContext> expression() {
+			return getRuleContexts(ExpressionContext.class);
+		}
+		public ExpressionContext expression(int i) {
+			return getRuleContext(ExpressionContext.class,i);
+		}
+		public PairContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_pair; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterPair(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitPair(this);
+		}
+	}
+
+	public final PairContext pair() throws RecognitionException {
+		PairContext _localctx = new PairContext(_ctx, getState());
+		enterRule(_localctx, 132, RULE_pair);
+		 ((PairContext)_localctx).l =  getStartLine(); ((PairContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(1026);
+			((PairContext)_localctx).lhs = expression();
+			setState(1027);
+			match(COLON);
+			setState(1028);
+			((PairContext)_localctx).rhs = expression();
+			 ((PairContext)_localctx).ast =  new boa.compiler.ast.Pair(((PairContext)_localctx).lhs.ast, ((PairContext)_localctx).rhs.ast); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IdentifierContext extends ParserRuleContext {
+		public Identifier ast;
+		public int l;
+		public int c;
+		public Token lit;
+		public TerminalNode Identifier() { return getToken(BoaParser.Identifier, 0); }
+		public TerminalNode FORMAT() { return getToken(BoaParser.FORMAT, 0); }
+		public TerminalNode OF() { return getToken(BoaParser.OF, 0); }
+		public TerminalNode IF() { return getToken(BoaParser.IF, 0); }
+		public TerminalNode DO() { return getToken(BoaParser.DO, 0); }
+		public TerminalNode MAP() { return getToken(BoaParser.MAP, 0); }
+		public TerminalNode STACK() { return getToken(BoaParser.STACK, 0); }
+		public TerminalNode QUEUE() { return getToken(BoaParser.QUEUE, 0); }
+		public TerminalNode SET() { return getToken(BoaParser.SET, 0); }
+		public TerminalNode FOR() { return getToken(BoaParser.FOR, 0); }
+		public TerminalNode FOREACH() { return getToken(BoaParser.FOREACH, 0); }
+		public TerminalNode IFALL() { return getToken(BoaParser.IFALL, 0); }
+		public TerminalNode EXISTS() { return getToken(BoaParser.EXISTS, 0); }
+		public TerminalNode NOT() { return getToken(BoaParser.NOT, 0); }
+		public TerminalNode TYPE() { return getToken(BoaParser.TYPE, 0); }
+		public TerminalNode ELSE() { return getToken(BoaParser.ELSE, 0); }
+		public TerminalNode CASE() { return getToken(BoaParser.CASE, 0); }
+		public TerminalNode OUTPUT() { return getToken(BoaParser.OUTPUT, 0); }
+		public TerminalNode WHILE() { return getToken(BoaParser.WHILE, 0); }
+		public TerminalNode BREAK() { return getToken(BoaParser.BREAK, 0); }
+		public TerminalNode ARRAY() { return getToken(BoaParser.ARRAY, 0); }
+		public TerminalNode STATIC() { return getToken(BoaParser.STATIC, 0); }
+		public TerminalNode SWITCH() { return getToken(BoaParser.SWITCH, 0); }
+		public TerminalNode RETURN() { return getToken(BoaParser.RETURN, 0); }
+		public TerminalNode WEIGHT() { return getToken(BoaParser.WEIGHT, 0); }
+		public TerminalNode DEFAULT() { return getToken(BoaParser.DEFAULT, 0); }
+		public TerminalNode CONTINUE() { return getToken(BoaParser.CONTINUE, 0); }
+		public TerminalNode FUNCTION() { return getToken(BoaParser.FUNCTION, 0); }
+		public TerminalNode FIXP() { return getToken(BoaParser.FIXP, 0); }
+		public TerminalNode VISITOR() { return getToken(BoaParser.VISITOR, 0); }
+		public TerminalNode TRAVERSAL() { return getToken(BoaParser.TRAVERSAL, 0); }
+		public TerminalNode BEFORE() { return getToken(BoaParser.BEFORE, 0); }
+		public TerminalNode AFTER() { return getToken(BoaParser.AFTER, 0); }
+		public TerminalNode STOP() { return getToken(BoaParser.STOP, 0); }
+		public IdentifierContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_identifier; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterIdentifier(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitIdentifier(this);
+		}
+	}
+
+	public final IdentifierContext identifier() throws RecognitionException {
+		IdentifierContext _localctx = new IdentifierContext(_ctx, getState());
+		enterRule(_localctx, 134, RULE_identifier);
+		 ((IdentifierContext)_localctx).l =  getStartLine(); ((IdentifierContext)_localctx).c =  getStartColumn(); ((IdentifierContext)_localctx).ast =  new Identifier("<ERROR>"); 
+		try {
+			setState(1099);
+			switch (_input.LA(1)) {
+			case Identifier:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(1031);
+				((IdentifierContext)_localctx).lit = match(Identifier);
+				 ((IdentifierContext)_localctx).ast =  new Identifier((((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null)); 
+				}
+				break;
+			case FORMAT:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(1033);
+				((IdentifierContext)_localctx).lit = match(FORMAT);
+				 ((IdentifierContext)_localctx).ast =  new Identifier((((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null)); 
+				}
+				break;
+			case OF:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(1035);
+				((IdentifierContext)_localctx).lit = match(OF);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case IF:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(1037);
+				((IdentifierContext)_localctx).lit = match(IF);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case DO:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(1039);
+				((IdentifierContext)_localctx).lit = match(DO);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case MAP:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(1041);
+				((IdentifierContext)_localctx).lit = match(MAP);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case STACK:
+				enterOuterAlt(_localctx, 7);
+				{
+				setState(1043);
+				((IdentifierContext)_localctx).lit = match(STACK);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case QUEUE:
+				enterOuterAlt(_localctx, 8);
+				{
+				setState(1045);
+				((IdentifierContext)_localctx).lit = match(QUEUE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case SET:
+				enterOuterAlt(_localctx, 9);
+				{
+				setState(1047);
+				((IdentifierContext)_localctx).lit = match(SET);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case FOR:
+				enterOuterAlt(_localctx, 10);
+				{
+				setState(1049);
+				((IdentifierContext)_localctx).lit = match(FOR);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case FOREACH:
+				enterOuterAlt(_localctx, 11);
+				{
+				setState(1051);
+				((IdentifierContext)_localctx).lit = match(FOREACH);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case IFALL:
+				enterOuterAlt(_localctx, 12);
+				{
+				setState(1053);
+				((IdentifierContext)_localctx).lit = match(IFALL);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case EXISTS:
+				enterOuterAlt(_localctx, 13);
+				{
+				setState(1055);
+				((IdentifierContext)_localctx).lit = match(EXISTS);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case NOT:
+				enterOuterAlt(_localctx, 14);
+				{
+				setState(1057);
+				((IdentifierContext)_localctx).lit = match(NOT);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case TYPE:
+				enterOuterAlt(_localctx, 15);
+				{
+				setState(1059);
+				((IdentifierContext)_localctx).lit = match(TYPE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case ELSE:
+				enterOuterAlt(_localctx, 16);
+				{
+				setState(1061);
+				((IdentifierContext)_localctx).lit = match(ELSE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case CASE:
+				enterOuterAlt(_localctx, 17);
+				{
+				setState(1063);
+				((IdentifierContext)_localctx).lit = match(CASE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case OUTPUT:
+				enterOuterAlt(_localctx, 18);
+				{
+				setState(1065);
+				((IdentifierContext)_localctx).lit = match(OUTPUT);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case WHILE:
+				enterOuterAlt(_localctx, 19);
+				{
+				setState(1067);
+				((IdentifierContext)_localctx).lit = match(WHILE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case BREAK:
+				enterOuterAlt(_localctx, 20);
+				{
+				setState(1069);
+				((IdentifierContext)_localctx).lit = match(BREAK);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case ARRAY:
+				enterOuterAlt(_localctx, 21);
+				{
+				setState(1071);
+				((IdentifierContext)_localctx).lit = match(ARRAY);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case STATIC:
+				enterOuterAlt(_localctx, 22);
+				{
+				setState(1073);
+				((IdentifierContext)_localctx).lit = match(STATIC);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case SWITCH:
+				enterOuterAlt(_localctx, 23);
+				{
+				setState(1075);
+				((IdentifierContext)_localctx).lit = match(SWITCH);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case RETURN:
+				enterOuterAlt(_localctx, 24);
+				{
+				setState(1077);
+				((IdentifierContext)_localctx).lit = match(RETURN);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case WEIGHT:
+				enterOuterAlt(_localctx, 25);
+				{
+				setState(1079);
+				((IdentifierContext)_localctx).lit = match(WEIGHT);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case DEFAULT:
+				enterOuterAlt(_localctx, 26);
+				{
+				setState(1081);
+				((IdentifierContext)_localctx).lit = match(DEFAULT);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case CONTINUE:
+				enterOuterAlt(_localctx, 27);
+				{
+				setState(1083);
+				((IdentifierContext)_localctx).lit = match(CONTINUE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case FUNCTION:
+				enterOuterAlt(_localctx, 28);
+				{
+				setState(1085);
+				((IdentifierContext)_localctx).lit = match(FUNCTION);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case FIXP:
+				enterOuterAlt(_localctx, 29);
+				{
+				setState(1087);
+				((IdentifierContext)_localctx).lit = match(FIXP);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case VISITOR:
+				enterOuterAlt(_localctx, 30);
+				{
+				setState(1089);
+				((IdentifierContext)_localctx).lit = match(VISITOR);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case TRAVERSAL:
+				enterOuterAlt(_localctx, 31);
+				{
+				setState(1091);
+				((IdentifierContext)_localctx).lit = match(TRAVERSAL);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case BEFORE:
+				enterOuterAlt(_localctx, 32);
+				{
+				setState(1093);
+				((IdentifierContext)_localctx).lit = match(BEFORE);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case AFTER:
+				enterOuterAlt(_localctx, 33);
+				{
+				setState(1095);
+				((IdentifierContext)_localctx).lit = match(AFTER);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			case STOP:
+				enterOuterAlt(_localctx, 34);
+				{
+				setState(1097);
+				((IdentifierContext)_localctx).lit = match(STOP);
+				 notifyErrorListeners("keyword '" + (((IdentifierContext)_localctx).lit!=null?((IdentifierContext)_localctx).lit.getText():null) + "' can not be used as an identifier"); 
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IntegerLiteralContext extends ParserRuleContext {
+		public IntegerLiteral ast;
+		public int l;
+		public int c;
+		public Token lit;
+		public TerminalNode IntegerLiteral() { return getToken(BoaParser.IntegerLiteral, 0); }
+		public IntegerLiteralContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_integerLiteral; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterIntegerLiteral(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitIntegerLiteral(this);
+		}
+	}
+
+	public final IntegerLiteralContext integerLiteral() throws RecognitionException {
+		IntegerLiteralContext _localctx = new IntegerLiteralContext(_ctx, getState());
+		enterRule(_localctx, 136, RULE_integerLiteral);
+		 ((IntegerLiteralContext)_localctx).l =  getStartLine(); ((IntegerLiteralContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(1101);
+			((IntegerLiteralContext)_localctx).lit = match(IntegerLiteral);
+			 ((IntegerLiteralContext)_localctx).ast =  new IntegerLiteral((((IntegerLiteralContext)_localctx).lit!=null?((IntegerLiteralContext)_localctx).lit.getText():null)); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FloatingPointLiteralContext extends ParserRuleContext {
+		public FloatLiteral ast;
+		public int l;
+		public int c;
+		public Token lit;
+		public TerminalNode FloatingPointLiteral() { return getToken(BoaParser.FloatingPointLiteral, 0); }
+		public FloatingPointLiteralContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_floatingPointLiteral; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterFloatingPointLiteral(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitFloatingPointLiteral(this);
+		}
+	}
+
+	public final FloatingPointLiteralContext floatingPointLiteral() throws RecognitionException {
+		FloatingPointLiteralContext _localctx = new FloatingPointLiteralContext(_ctx, getState());
+		enterRule(_localctx, 138, RULE_floatingPointLiteral);
+		 ((FloatingPointLiteralContext)_localctx).l =  getStartLine(); ((FloatingPointLiteralContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(1104);
+			((FloatingPointLiteralContext)_localctx).lit = match(FloatingPointLiteral);
+			 ((FloatingPointLiteralContext)_localctx).ast =  new FloatLiteral((((FloatingPointLiteralContext)_localctx).lit!=null?((FloatingPointLiteralContext)_localctx).lit.getText():null)); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class CharacterLiteralContext extends ParserRuleContext {
+		public CharLiteral ast;
+		public int l;
+		public int c;
+		public Token lit;
+		public TerminalNode CharacterLiteral() { return getToken(BoaParser.CharacterLiteral, 0); }
+		public CharacterLiteralContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_characterLiteral; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterCharacterLiteral(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitCharacterLiteral(this);
+		}
+	}
+
+	public final CharacterLiteralContext characterLiteral() throws RecognitionException {
+		CharacterLiteralContext _localctx = new CharacterLiteralContext(_ctx, getState());
+		enterRule(_localctx, 140, RULE_characterLiteral);
+		 ((CharacterLiteralContext)_localctx).l =  getStartLine(); ((CharacterLiteralContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(1107);
+			((CharacterLiteralContext)_localctx).lit = match(CharacterLiteral);
+			 ((CharacterLiteralContext)_localctx).ast =  new CharLiteral((((CharacterLiteralContext)_localctx).lit!=null?((CharacterLiteralContext)_localctx).lit.getText():null)); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StringLiteralContext extends ParserRuleContext {
+		public StringLiteral ast;
+		public int l;
+		public int c;
+		public Token lit;
+		public TerminalNode MultilineStringLiteral() { return getToken(BoaParser.MultilineStringLiteral, 0); }
+		public TerminalNode StringLiteral() { return getToken(BoaParser.StringLiteral, 0); }
+		public TerminalNode RegexLiteral() { return getToken(BoaParser.RegexLiteral, 0); }
+		public StringLiteralContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_stringLiteral; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterStringLiteral(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitStringLiteral(this);
+		}
+	}
+
+	public final StringLiteralContext stringLiteral() throws RecognitionException {
+		StringLiteralContext _localctx = new StringLiteralContext(_ctx, getState());
+		enterRule(_localctx, 142, RULE_stringLiteral);
+		 ((StringLiteralContext)_localctx).l =  getStartLine(); ((StringLiteralContext)_localctx).c =  getStartColumn(); 
+		try {
+			setState(1116);
+			switch (_input.LA(1)) {
+			case MultilineStringLiteral:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(1110);
+				((StringLiteralContext)_localctx).lit = match(MultilineStringLiteral);
+				 ((StringLiteralContext)_localctx).ast =  new StringLiteral(false, "\"" + (((StringLiteralContext)_localctx).lit!=null?((StringLiteralContext)_localctx).lit.getText():null).substring(3, (((StringLiteralContext)_localctx).lit!=null?((StringLiteralContext)_localctx).lit.getText():null).length() - 3).replaceAll("\"", "\\\\\"").replaceAll("\n", "\\\\n") + "\""); 
+				}
+				break;
+			case StringLiteral:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(1112);
+				((StringLiteralContext)_localctx).lit = match(StringLiteral);
+				 ((StringLiteralContext)_localctx).ast =  new StringLiteral(false, (((StringLiteralContext)_localctx).lit!=null?((StringLiteralContext)_localctx).lit.getText():null)); 
+				}
+				break;
+			case RegexLiteral:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(1114);
+				((StringLiteralContext)_localctx).lit = match(RegexLiteral);
+				 ((StringLiteralContext)_localctx).ast =  new StringLiteral(true, (((StringLiteralContext)_localctx).lit!=null?((StringLiteralContext)_localctx).lit.getText():null)); 
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TimeLiteralContext extends ParserRuleContext {
+		public TimeLiteral ast;
+		public int l;
+		public int c;
+		public Token lit;
+		public TerminalNode TimeLiteral() { return getToken(BoaParser.TimeLiteral, 0); }
+		public TimeLiteralContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_timeLiteral; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).enterTimeLiteral(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof BoaListener ) ((BoaListener)listener).exitTimeLiteral(this);
+		}
+	}
+
+	public final TimeLiteralContext timeLiteral() throws RecognitionException {
+		TimeLiteralContext _localctx = new TimeLiteralContext(_ctx, getState());
+		enterRule(_localctx, 144, RULE_timeLiteral);
+		 ((TimeLiteralContext)_localctx).l =  getStartLine(); ((TimeLiteralContext)_localctx).c =  getStartColumn(); 
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(1118);
+			((TimeLiteralContext)_localctx).lit = match(TimeLiteral);
+			 ((TimeLiteralContext)_localctx).ast =  new TimeLiteral((((TimeLiteralContext)_localctx).lit!=null?((TimeLiteralContext)_localctx).lit.getText():null)); 
+			}
+			 _localctx.ast.setPositions(_localctx.l, _localctx.c, getEndLine(), getEndColumn()); 
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static final String _serializedATN =
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\3`\u0464\4\2\t\2\4"+
+		"\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13\t"+
+		"\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
+		"\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t \4!"+
+		"\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\4\'\t\'\4(\t(\4)\t)\4*\t*\4+\t+\4"+
+		",\t,\4-\t-\4.\t.\4/\t/\4\60\t\60\4\61\t\61\4\62\t\62\4\63\t\63\4\64\t"+
+		"\64\4\65\t\65\4\66\t\66\4\67\t\67\48\t8\49\t9\4:\t:\4;\t;\4<\t<\4=\t="+
+		"\4>\t>\4?\t?\4@\t@\4A\tA\4B\tB\4C\tC\4D\tD\4E\tE\4F\tF\4G\tG\4H\tH\4I"+
+		"\tI\4J\tJ\3\2\3\2\3\2\3\2\3\3\3\3\3\3\6\3\u009c\n\3\r\3\16\3\u009d\3\4"+
+		"\3\4\3\4\3\4\3\4\3\4\5\4\u00a6\n\4\3\5\3\5\3\5\3\5\3\5\3\5\3\5\3\5\3\5"+
+		"\5\5\u00b1\n\5\3\6\3\6\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7\3\b\3\b\3\b\3\t"+
+		"\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3"+
+		"\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\t"+
+		"\3\t\3\t\3\t\5\t\u00e7\n\t\3\n\3\n\3\n\3\n\5\n\u00ed\n\n\3\n\3\n\3\n\3"+
+		"\13\3\13\3\13\3\13\3\13\3\f\3\f\3\f\3\f\3\f\3\r\3\r\3\r\3\r\3\r\3\r\3"+
+		"\r\7\r\u0103\n\r\f\r\16\r\u0106\13\r\3\r\5\r\u0109\n\r\5\r\u010b\n\r\3"+
+		"\r\3\r\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\16\7\16\u0117\n\16\f\16\16"+
+		"\16\u011a\13\16\3\16\5\16\u011d\n\16\5\16\u011f\n\16\3\16\3\16\3\17\3"+
+		"\17\3\17\3\17\3\17\5\17\u0128\n\17\3\20\3\20\3\20\3\20\3\20\3\20\3\20"+
+		"\3\20\3\21\3\21\3\21\3\21\3\21\3\22\3\22\3\22\3\22\3\22\3\23\3\23\3\23"+
+		"\3\23\3\23\3\24\3\24\3\24\3\24\3\24\3\24\5\24\u0147\n\24\3\24\3\24\3\24"+
+		"\3\24\3\24\5\24\u014e\n\24\3\24\3\24\3\24\3\24\3\24\7\24\u0155\n\24\f"+
+		"\24\16\24\u0158\13\24\3\24\3\24\3\24\3\24\3\24\3\24\3\24\5\24\u0161\n"+
+		"\24\3\24\3\24\3\24\3\24\3\24\5\24\u0168\n\24\3\25\3\25\3\25\3\25\3\25"+
+		"\3\25\3\25\3\25\3\25\3\25\3\25\3\25\7\25\u0176\n\25\f\25\16\25\u0179\13"+
+		"\25\5\25\u017b\n\25\3\25\3\25\3\25\3\25\3\25\5\25\u0182\n\25\3\25\3\25"+
+		"\3\25\3\25\3\25\3\25\3\25\3\25\3\25\3\25\5\25\u018e\n\25\3\25\3\25\3\25"+
+		"\3\25\3\25\3\25\3\25\3\25\3\25\3\25\7\25\u019a\n\25\f\25\16\25\u019d\13"+
+		"\25\5\25\u019f\n\25\3\25\3\25\3\25\3\25\3\25\5\25\u01a6\n\25\5\25\u01a8"+
+		"\n\25\3\26\3\26\3\26\3\27\3\27\3\27\3\30\3\30\3\30\3\31\3\31\3\31\3\31"+
+		"\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31"+
+		"\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31"+
+		"\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\31"+
+		"\3\31\3\31\3\31\3\31\3\31\5\31\u01e6\n\31\3\32\3\32\3\32\3\33\3\33\3\33"+
+		"\3\33\3\33\3\34\3\34\3\34\3\34\7\34\u01f4\n\34\f\34\16\34\u01f7\13\34"+
+		"\3\34\3\34\3\35\3\35\3\35\3\36\3\36\3\36\3\37\3\37\3\37\3\37\3\37\3\37"+
+		"\3\37\3\37\3 \3 \3 \3 \3 \3 \7 \u020f\n \f \16 \u0212\13 \3 \3 \3 \3 "+
+		"\3 \3 \3 \3 \3 \3 \3 \3 \3 \7 \u0221\n \f \16 \u0224\13 \3 \3 \3 \3 \3"+
+		" \3 \3 \5 \u022d\n \3 \3 \5 \u0231\n \3!\3!\3!\3!\3!\5!\u0238\n!\3!\3"+
+		"!\3!\3!\5!\u023e\n!\3!\3!\3!\3!\5!\u0244\n!\3!\3!\3!\3!\3\"\3\"\3\"\3"+
+		"\"\3\"\3\"\5\"\u0250\n\"\3#\3#\3#\3#\3#\3#\5#\u0258\n#\3#\3#\3#\3#\3#"+
+		"\3#\3#\3#\5#\u0262\n#\5#\u0264\n#\3$\3$\3$\3$\3$\3$\3$\5$\u026d\n$\3%"+
+		"\3%\3%\3&\3&\3&\3&\3&\3&\3&\3&\3&\3&\5&\u027c\n&\3\'\3\'\3\'\3\'\3\'\5"+
+		"\'\u0283\n\'\3\'\3\'\3(\3(\3(\3(\3(\3(\3(\3(\3(\7(\u0290\n(\f(\16(\u0293"+
+		"\13(\3(\3(\3(\3(\3(\6(\u029a\n(\r(\16(\u029b\3(\3(\3(\3)\3)\3)\3)\3)\3"+
+		")\3)\6)\u02a8\n)\r)\16)\u02a9\3*\3*\3*\3*\3*\3*\3*\3*\3*\3*\3*\3+\3+\3"+
+		"+\3+\3+\3+\3+\3+\3+\3+\3+\3,\3,\3,\3,\3,\3,\3,\3,\3,\3,\3,\3-\3-\3-\3"+
+		"-\3-\3-\3-\3.\3.\3.\5.\u02d7\n.\3.\3.\3.\3.\3.\3.\3.\3.\3.\3.\3.\3.\3"+
+		".\3.\7.\u02e7\n.\f.\16.\u02ea\13.\5.\u02ec\n.\3.\3.\3.\3.\3/\3/\3/\3/"+
+		"\3/\3/\3/\3/\3/\3/\5/\u02fc\n/\3/\3/\3/\3\60\3\60\3\60\3\60\3\60\3\60"+
+		"\3\60\3\60\3\60\3\60\3\60\3\60\3\60\3\60\3\60\3\61\3\61\3\61\3\62\3\62"+
+		"\3\62\3\62\3\62\3\62\7\62\u0319\n\62\f\62\16\62\u031c\13\62\3\63\3\63"+
+		"\3\63\3\63\3\63\3\63\7\63\u0324\n\63\f\63\16\63\u0327\13\63\3\63\3\63"+
+		"\3\63\3\63\3\63\3\63\3\63\3\63\3\63\3\63\7\63\u0333\n\63\f\63\16\63\u0336"+
+		"\13\63\5\63\u0338\n\63\3\64\3\64\3\64\3\64\3\64\3\64\3\64\7\64\u0341\n"+
+		"\64\f\64\16\64\u0344\13\64\3\65\3\65\3\65\3\65\3\65\3\65\3\65\3\65\5\65"+
+		"\u034e\n\65\3\66\3\66\3\66\3\66\3\66\3\66\3\66\7\66\u0357\n\66\f\66\16"+
+		"\66\u035a\13\66\3\67\3\67\3\67\3\67\3\67\3\67\3\67\7\67\u0363\n\67\f\67"+
+		"\16\67\u0366\13\67\38\38\38\38\38\38\38\38\38\38\38\78\u0373\n8\f8\16"+
+		"8\u0376\138\39\39\39\39\3:\3:\3:\3:\3:\3:\3:\5:\u0383\n:\3:\3:\3;\3;\3"+
+		";\3;\3;\5;\u038c\n;\3;\3;\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3"+
+		"<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3<\3"+
+		"<\3<\3<\5<\u03b8\n<\3=\3=\3=\3=\3>\3>\3>\3>\3>\3?\3?\3?\3?\3?\3?\3?\3"+
+		"?\5?\u03cb\n?\3@\3@\3@\3@\3@\3@\5@\u03d3\n@\3@\3@\3A\3A\3A\3A\3A\3A\3"+
+		"A\6A\u03de\nA\rA\16A\u03df\3A\3A\3A\3B\3B\3B\3B\3B\3B\5B\u03eb\nB\3B\3"+
+		"B\3C\3C\3C\3C\3C\3C\3C\3C\3C\3C\3C\7C\u03fa\nC\fC\16C\u03fd\13C\3C\3C"+
+		"\5C\u0401\nC\3C\3C\3D\3D\3D\3D\3D\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E"+
+		"\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E"+
+		"\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E"+
+		"\3E\3E\3E\3E\3E\3E\3E\3E\3E\3E\5E\u044e\nE\3F\3F\3F\3G\3G\3G\3H\3H\3H"+
+		"\3I\3I\3I\3I\3I\3I\5I\u045f\nI\3J\3J\3J\3J\2\2K\2\4\6\b\n\f\16\20\22\24"+
+		"\26\30\32\34\36 \"$&(*,.\60\62\64\668:<>@BDFHJLNPRTVXZ\\^`bdfhjlnprtv"+
+		"xz|~\u0080\u0082\u0084\u0086\u0088\u008a\u008c\u008e\u0090\u0092\2\n\4"+
+		"\2FOSS\3\2\65\66\4\2//\61\61\4\2\62\62\64\64\3\2\67<\4\2\60\60=?\5\2\63"+
+		"\63@CTT\5\2\16\16=>DE\u04b0\2\u0094\3\2\2\2\4\u009b\3\2\2\2\6\u00a5\3"+
+		"\2\2\2\b\u00b0\3\2\2\2\n\u00b2\3\2\2\2\f\u00b8\3\2\2\2\16\u00bc\3\2\2"+
+		"\2\20\u00e6\3\2\2\2\22\u00ec\3\2\2\2\24\u00f1\3\2\2\2\26\u00f6\3\2\2\2"+
+		"\30\u00fb\3\2\2\2\32\u010e\3\2\2\2\34\u0127\3\2\2\2\36\u0129\3\2\2\2 "+
+		"\u0131\3\2\2\2\"\u0136\3\2\2\2$\u013b\3\2\2\2&\u0140\3\2\2\2(\u01a7\3"+
+		"\2\2\2*\u01a9\3\2\2\2,\u01ac\3\2\2\2.\u01af\3\2\2\2\60\u01e5\3\2\2\2\62"+
+		"\u01e7\3\2\2\2\64\u01ea\3\2\2\2\66\u01ef\3\2\2\28\u01fa\3\2\2\2:\u01fd"+
+		"\3\2\2\2<\u0200\3\2\2\2>\u0230\3\2\2\2@\u0232\3\2\2\2B\u024f\3\2\2\2D"+
+		"\u0251\3\2\2\2F\u026c\3\2\2\2H\u026e\3\2\2\2J\u0271\3\2\2\2L\u027d\3\2"+
+		"\2\2N\u0286\3\2\2\2P\u02a0\3\2\2\2R\u02ab\3\2\2\2T\u02b6\3\2\2\2V\u02c1"+
+		"\3\2\2\2X\u02cc\3\2\2\2Z\u02d6\3\2\2\2\\\u02f1\3\2\2\2^\u0300\3\2\2\2"+
+		"`\u030f\3\2\2\2b\u0312\3\2\2\2d\u0337\3\2\2\2f\u0339\3\2\2\2h\u034d\3"+
+		"\2\2\2j\u034f\3\2\2\2l\u035b\3\2\2\2n\u0367\3\2\2\2p\u0377\3\2\2\2r\u037b"+
+		"\3\2\2\2t\u0386\3\2\2\2v\u03b7\3\2\2\2x\u03b9\3\2\2\2z\u03bd\3\2\2\2|"+
+		"\u03ca\3\2\2\2~\u03cc\3\2\2\2\u0080\u03d6\3\2\2\2\u0082\u03e4\3\2\2\2"+
+		"\u0084\u03ee\3\2\2\2\u0086\u0404\3\2\2\2\u0088\u044d\3\2\2\2\u008a\u044f"+
+		"\3\2\2\2\u008c\u0452\3\2\2\2\u008e\u0455\3\2\2\2\u0090\u045e\3\2\2\2\u0092"+
+		"\u0460\3\2\2\2\u0094\u0095\5\4\3\2\u0095\u0096\7\2\2\3\u0096\u0097\b\2"+
+		"\1\2\u0097\3\3\2\2\2\u0098\u0099\5\6\4\2\u0099\u009a\b\3\1\2\u009a\u009c"+
+		"\3\2\2\2\u009b\u0098\3\2\2\2\u009c\u009d\3\2\2\2\u009d\u009b\3\2\2\2\u009d"+
+		"\u009e\3\2\2\2\u009e\5\3\2\2\2\u009f\u00a0\5\b\5\2\u00a0\u00a1\b\4\1\2"+
+		"\u00a1\u00a6\3\2\2\2\u00a2\u00a3\5\60\31\2\u00a3\u00a4\b\4\1\2\u00a4\u00a6"+
+		"\3\2\2\2\u00a5\u009f\3\2\2\2\u00a5\u00a2\3\2\2\2\u00a6\7\3\2\2\2\u00a7"+
+		"\u00a8\5\n\6\2\u00a8\u00a9\b\5\1\2\u00a9\u00b1\3\2\2\2\u00aa\u00ab\5\f"+
+		"\7\2\u00ab\u00ac\b\5\1\2\u00ac\u00b1\3\2\2\2\u00ad\u00ae\5\16\b\2\u00ae"+
+		"\u00af\b\5\1\2\u00af\u00b1\3\2\2\2\u00b0\u00a7\3\2\2\2\u00b0\u00aa\3\2"+
+		"\2\2\u00b0\u00ad\3\2\2\2\u00b1\t\3\2\2\2\u00b2\u00b3\7\17\2\2\u00b3\u00b4"+
+		"\5\u0088E\2\u00b4\u00b5\7S\2\2\u00b5\u00b6\5\20\t\2\u00b6\u00b7\b\6\1"+
+		"\2\u00b7\13\3\2\2\2\u00b8\u00b9\7\27\2\2\u00b9\u00ba\5\16\b\2\u00ba\u00bb"+
+		"\b\7\1\2\u00bb\r\3\2\2\2\u00bc\u00bd\5D#\2\u00bd\u00be\b\b\1\2\u00be\17"+
+		"\3\2\2\2\u00bf\u00c0\5\26\f\2\u00c0\u00c1\b\t\1\2\u00c1\u00e7\3\2\2\2"+
+		"\u00c2\u00c3\5\36\20\2\u00c3\u00c4\b\t\1\2\u00c4\u00e7\3\2\2\2\u00c5\u00c6"+
+		"\5\30\r\2\u00c6\u00c7\b\t\1\2\u00c7\u00e7\3\2\2\2\u00c8\u00c9\5&\24\2"+
+		"\u00c9\u00ca\b\t\1\2\u00ca\u00e7\3\2\2\2\u00cb\u00cc\5(\25\2\u00cc\u00cd"+
+		"\b\t\1\2\u00cd\u00e7\3\2\2\2\u00ce\u00cf\5*\26\2\u00cf\u00d0\b\t\1\2\u00d0"+
+		"\u00e7\3\2\2\2\u00d1\u00d2\5,\27\2\u00d2\u00d3\b\t\1\2\u00d3\u00e7\3\2"+
+		"\2\2\u00d4\u00d5\5.\30\2\u00d5\u00d6\b\t\1\2\u00d6\u00e7\3\2\2\2\u00d7"+
+		"\u00d8\5 \21\2\u00d8\u00d9\b\t\1\2\u00d9\u00e7\3\2\2\2\u00da\u00db\5\""+
+		"\22\2\u00db\u00dc\b\t\1\2\u00dc\u00e7\3\2\2\2\u00dd\u00de\5$\23\2\u00de"+
+		"\u00df\b\t\1\2\u00df\u00e7\3\2\2\2\u00e0\u00e1\5\32\16\2\u00e1\u00e2\b"+
+		"\t\1\2\u00e2\u00e7\3\2\2\2\u00e3\u00e4\5\u0088E\2\u00e4\u00e5\b\t\1\2"+
+		"\u00e5\u00e7\3\2\2\2\u00e6\u00bf\3\2\2\2\u00e6\u00c2\3\2\2\2\u00e6\u00c5"+
+		"\3\2\2\2\u00e6\u00c8\3\2\2\2\u00e6\u00cb\3\2\2\2\u00e6\u00ce\3\2\2\2\u00e6"+
+		"\u00d1\3\2\2\2\u00e6\u00d4\3\2\2\2\u00e6\u00d7\3\2\2\2\u00e6\u00da\3\2"+
+		"\2\2\u00e6\u00dd\3\2\2\2\u00e6\u00e0\3\2\2\2\u00e6\u00e3\3\2\2\2\u00e7"+
+		"\21\3\2\2\2\u00e8\u00e9\5\u0088E\2\u00e9\u00ea\7&\2\2\u00ea\u00eb\b\n"+
+		"\1\2\u00eb\u00ed\3\2\2\2\u00ec\u00e8\3\2\2\2\u00ec\u00ed\3\2\2\2\u00ed"+
+		"\u00ee\3\2\2\2\u00ee\u00ef\5\20\t\2\u00ef\u00f0\b\n\1\2\u00f0\23\3\2\2"+
+		"\2\u00f1\u00f2\5\u0088E\2\u00f2\u00f3\7S\2\2\u00f3\u00f4\5b\62\2\u00f4"+
+		"\u00f5\b\13\1\2\u00f5\25\3\2\2\2\u00f6\u00f7\7\26\2\2\u00f7\u00f8\7\3"+
+		"\2\2\u00f8\u00f9\5\22\n\2\u00f9\u00fa\b\f\1\2\u00fa\27\3\2\2\2\u00fb\u010a"+
+		"\7)\2\2\u00fc\u00fd\5\34\17\2\u00fd\u0104\b\r\1\2\u00fe\u00ff\7\'\2\2"+
+		"\u00ff\u0100\5\34\17\2\u0100\u0101\b\r\1\2\u0101\u0103\3\2\2\2\u0102\u00fe"+
+		"\3\2\2\2\u0103\u0106\3\2\2\2\u0104\u0102\3\2\2\2\u0104\u0105\3\2\2\2\u0105"+
+		"\u0108\3\2\2\2\u0106\u0104\3\2\2\2\u0107\u0109\7\'\2\2\u0108\u0107\3\2"+
+		"\2\2\u0108\u0109\3\2\2\2\u0109\u010b\3\2\2\2\u010a\u00fc\3\2\2\2\u010a"+
+		"\u010b\3\2\2\2\u010b\u010c\3\2\2\2\u010c\u010d\7*\2\2\u010d\31\3\2\2\2"+
+		"\u010e\u010f\7$\2\2\u010f\u011e\7)\2\2\u0110\u0111\5\24\13\2\u0111\u0118"+
+		"\b\16\1\2\u0112\u0113\7\'\2\2\u0113\u0114\5\24\13\2\u0114\u0115\b\16\1"+
+		"\2\u0115\u0117\3\2\2\2\u0116\u0112\3\2\2\2\u0117\u011a\3\2\2\2\u0118\u0116"+
+		"\3\2\2\2\u0118\u0119\3\2\2\2\u0119\u011c\3\2\2\2\u011a\u0118\3\2\2\2\u011b"+
+		"\u011d\7\'\2\2\u011c\u011b\3\2\2\2\u011c\u011d\3\2\2\2\u011d\u011f\3\2"+
+		"\2\2\u011e\u0110\3\2\2\2\u011e\u011f\3\2\2\2\u011f\u0120\3\2\2\2\u0120"+
+		"\u0121\7*\2\2\u0121\33\3\2\2\2\u0122\u0128\5\n\6\2\u0123\u0128\5\f\7\2"+
+		"\u0124\u0125\5\22\n\2\u0125\u0126\b\17\1\2\u0126\u0128\3\2\2\2\u0127\u0122"+
+		"\3\2\2\2\u0127\u0123\3\2\2\2\u0127\u0124\3\2\2\2\u0128\35\3\2\2\2\u0129"+
+		"\u012a\7\6\2\2\u012a\u012b\7-\2\2\u012b\u012c\5\22\n\2\u012c\u012d\7."+
+		"\2\2\u012d\u012e\7\3\2\2\u012e\u012f\5\22\n\2\u012f\u0130\b\20\1\2\u0130"+
+		"\37\3\2\2\2\u0131\u0132\7\7\2\2\u0132\u0133\7\3\2\2\u0133\u0134\5\22\n"+
+		"\2\u0134\u0135\b\21\1\2\u0135!\3\2\2\2\u0136\u0137\7\b\2\2\u0137\u0138"+
+		"\7\3\2\2\u0138\u0139\5\22\n\2\u0139\u013a\b\22\1\2\u013a#\3\2\2\2\u013b"+
+		"\u013c\7\t\2\2\u013c\u013d\7\3\2\2\u013d\u013e\5\22\n\2\u013e\u013f\b"+
+		"\23\1\2\u013f%\3\2\2\2\u0140\u0146\7\22\2\2\u0141\u0142\7\t\2\2\u0142"+
+		"\u0147\b\24\1\2\u0143\u0144\5\u0088E\2\u0144\u0145\b\24\1\2\u0145\u0147"+
+		"\3\2\2\2\u0146\u0141\3\2\2\2\u0146\u0143\3\2\2\2\u0147\u014d\3\2\2\2\u0148"+
+		"\u0149\7+\2\2\u0149\u014a\5d\63\2\u014a\u014b\7,\2\2\u014b\u014c\b\24"+
+		"\1\2\u014c\u014e\3\2\2\2\u014d\u0148\3\2\2\2\u014d\u014e\3\2\2\2\u014e"+
+		"\u0156\3\2\2\2\u014f\u0150\7-\2\2\u0150\u0151\5\22\n\2\u0151\u0152\7."+
+		"\2\2\u0152\u0153\b\24\1\2\u0153\u0155\3\2\2\2\u0154\u014f\3\2\2\2\u0155"+
+		"\u0158\3\2\2\2\u0156\u0154\3\2\2\2\u0156\u0157\3\2\2\2\u0157\u0159\3\2"+
+		"\2\2\u0158\u0156\3\2\2\2\u0159\u015a\7\3\2\2\u015a\u015b\5\22\n\2\u015b"+
+		"\u0160\b\24\1\2\u015c\u015d\7\32\2\2\u015d\u015e\5\22\n\2\u015e\u015f"+
+		"\b\24\1\2\u015f\u0161\3\2\2\2\u0160\u015c\3\2\2\2\u0160\u0161\3\2\2\2"+
+		"\u0161\u0167\3\2\2\2\u0162\u0163\7\23\2\2\u0163\u0164\7+\2\2\u0164\u0165"+
+		"\5d\63\2\u0165\u0166\7,\2\2\u0166\u0168\3\2\2\2\u0167\u0162\3\2\2\2\u0167"+
+		"\u0168\3\2\2\2\u0168\'\3\2\2\2\u0169\u016a\7\35\2\2\u016a\u017a\7+\2\2"+
+		"\u016b\u016c\5\u0088E\2\u016c\u016d\7&\2\2\u016d\u016e\5\20\t\2\u016e"+
+		"\u0177\b\25\1\2\u016f\u0170\7\'\2\2\u0170\u0171\5\u0088E\2\u0171\u0172"+
+		"\7&\2\2\u0172\u0173\5\20\t\2\u0173\u0174\b\25\1\2\u0174\u0176\3\2\2\2"+
+		"\u0175\u016f\3\2\2\2\u0176\u0179\3\2\2\2\u0177\u0175\3\2\2\2\u0177\u0178"+
+		"\3\2\2\2\u0178\u017b\3\2\2\2\u0179\u0177\3\2\2\2\u017a\u016b\3\2\2\2\u017a"+
+		"\u017b\3\2\2\2\u017b\u017c\3\2\2\2\u017c\u0181\7,\2\2\u017d\u017e\7&\2"+
+		"\2\u017e\u017f\5\20\t\2\u017f\u0180\b\25\1\2\u0180\u0182\3\2\2\2\u0181"+
+		"\u017d\3\2\2\2\u0181\u0182\3\2\2\2\u0182\u01a8\3\2\2\2\u0183\u0184\7\35"+
+		"\2\2\u0184\u019e\7+\2\2\u0185\u0186\5\u0088E\2\u0186\u0187\7&\2\2\u0187"+
+		"\u0188\5\20\t\2\u0188\u0189\b\25\1\2\u0189\u018e\3\2\2\2\u018a\u018b\5"+
+		"\u0088E\2\u018b\u018c\b\25\1\2\u018c\u018e\3\2\2\2\u018d\u0185\3\2\2\2"+
+		"\u018d\u018a\3\2\2\2\u018e\u019b\3\2\2\2\u018f\u0190\7\'\2\2\u0190\u0191"+
+		"\5\u0088E\2\u0191\u0192\7&\2\2\u0192\u0193\5\20\t\2\u0193\u0194\b\25\1"+
+		"\2\u0194\u019a\3\2\2\2\u0195\u0196\7\'\2\2\u0196\u0197\5\u0088E\2\u0197"+
+		"\u0198\b\25\1\2\u0198\u019a\3\2\2\2\u0199\u018f\3\2\2\2\u0199\u0195\3"+
+		"\2\2\2\u019a\u019d\3\2\2\2\u019b\u0199\3\2\2\2\u019b\u019c\3\2\2\2\u019c"+
+		"\u019f\3\2\2\2\u019d\u019b\3\2\2\2\u019e\u018d\3\2\2\2\u019e\u019f\3\2"+
+		"\2\2\u019f\u01a0\3\2\2\2\u01a0\u01a5\7,\2\2\u01a1\u01a2\7&\2\2\u01a2\u01a3"+
+		"\5\20\t\2\u01a3\u01a4\b\25\1\2\u01a4\u01a6\3\2\2\2\u01a5\u01a1\3\2\2\2"+
+		"\u01a5\u01a6\3\2\2\2\u01a6\u01a8\3\2\2\2\u01a7\u0169\3\2\2\2\u01a7\u0183"+
+		"\3\2\2\2\u01a8)\3\2\2\2\u01a9\u01aa\7\36\2\2\u01aa\u01ab\b\26\1\2\u01ab"+
+		"+\3\2\2\2\u01ac\u01ad\7\37\2\2\u01ad\u01ae\b\27\1\2\u01ae-\3\2\2\2\u01af"+
+		"\u01b0\7 \2\2\u01b0\u01b1\b\30\1\2\u01b1/\3\2\2\2\u01b2\u01b3\5\66\34"+
+		"\2\u01b3\u01b4\b\31\1\2\u01b4\u01e6\3\2\2\2\u01b5\u01b6\5\64\33\2\u01b6"+
+		"\u01b7\b\31\1\2\u01b7\u01e6\3\2\2\2\u01b8\u01b9\58\35\2\u01b9\u01ba\b"+
+		"\31\1\2\u01ba\u01e6\3\2\2\2\u01bb\u01bc\5:\36\2\u01bc\u01bd\b\31\1\2\u01bd"+
+		"\u01e6\3\2\2\2\u01be\u01bf\5`\61\2\u01bf\u01c0\b\31\1\2\u01c0\u01e6\3"+
+		"\2\2\2\u01c1\u01c2\5<\37\2\u01c2\u01c3\b\31\1\2\u01c3\u01e6\3\2\2\2\u01c4"+
+		"\u01c5\5@!\2\u01c5\u01c6\b\31\1\2\u01c6\u01e6\3\2\2\2\u01c7\u01c8\5J&"+
+		"\2\u01c8\u01c9\b\31\1\2\u01c9\u01e6\3\2\2\2\u01ca\u01cb\5L\'\2\u01cb\u01cc"+
+		"\b\31\1\2\u01cc\u01e6\3\2\2\2\u01cd\u01ce\5N(\2\u01ce\u01cf\b\31\1\2\u01cf"+
+		"\u01e6\3\2\2\2\u01d0\u01d1\5R*\2\u01d1\u01d2\b\31\1\2\u01d2\u01e6\3\2"+
+		"\2\2\u01d3\u01d4\5T+\2\u01d4\u01d5\b\31\1\2\u01d5\u01e6\3\2\2\2\u01d6"+
+		"\u01d7\5V,\2\u01d7\u01d8\b\31\1\2\u01d8\u01e6\3\2\2\2\u01d9\u01da\5X-"+
+		"\2\u01da\u01db\b\31\1\2\u01db\u01e6\3\2\2\2\u01dc\u01dd\5\62\32\2\u01dd"+
+		"\u01de\b\31\1\2\u01de\u01e6\3\2\2\2\u01df\u01e0\5> \2\u01e0\u01e1\b\31"+
+		"\1\2\u01e1\u01e6\3\2\2\2\u01e2\u01e3\5H%\2\u01e3\u01e4\b\31\1\2\u01e4"+
+		"\u01e6\3\2\2\2\u01e5\u01b2\3\2\2\2\u01e5\u01b5\3\2\2\2\u01e5\u01b8\3\2"+
+		"\2\2\u01e5\u01bb\3\2\2\2\u01e5\u01be\3\2\2\2\u01e5\u01c1\3\2\2\2\u01e5"+
+		"\u01c4\3\2\2\2\u01e5\u01c7\3\2\2\2\u01e5\u01ca\3\2\2\2\u01e5\u01cd\3\2"+
+		"\2\2\u01e5\u01d0\3\2\2\2\u01e5\u01d3\3\2\2\2\u01e5\u01d6\3\2\2\2\u01e5"+
+		"\u01d9\3\2\2\2\u01e5\u01dc\3\2\2\2\u01e5\u01df\3\2\2\2\u01e5\u01e2\3\2"+
+		"\2\2\u01e6\61\3\2\2\2\u01e7\u01e8\7%\2\2\u01e8\u01e9\b\32\1\2\u01e9\63"+
+		"\3\2\2\2\u01ea\u01eb\5n8\2\u01eb\u01ec\t\2\2\2\u01ec\u01ed\5b\62\2\u01ed"+
+		"\u01ee\b\33\1\2\u01ee\65\3\2\2\2\u01ef\u01f5\7)\2\2\u01f0\u01f1\5\6\4"+
+		"\2\u01f1\u01f2\b\34\1\2\u01f2\u01f4\3\2\2\2\u01f3\u01f0\3\2\2\2\u01f4"+
+		"\u01f7\3\2\2\2\u01f5\u01f3\3\2\2\2\u01f5\u01f6\3\2\2\2\u01f6\u01f8\3\2"+
+		"\2\2\u01f7\u01f5\3\2\2\2\u01f8\u01f9\7*\2\2\u01f9\67\3\2\2\2\u01fa\u01fb"+
+		"\7\25\2\2\u01fb\u01fc\b\35\1\2\u01fc9\3\2\2\2\u01fd\u01fe\7\34\2\2\u01fe"+
+		"\u01ff\b\36\1\2\u01ff;\3\2\2\2\u0200\u0201\7\5\2\2\u0201\u0202\5\60\31"+
+		"\2\u0202\u0203\7\24\2\2\u0203\u0204\7+\2\2\u0204\u0205\5b\62\2\u0205\u0206"+
+		"\7,\2\2\u0206\u0207\b\37\1\2\u0207=\3\2\2\2\u0208\u0209\5\u0088E\2\u0209"+
+		"\u0210\b \1\2\u020a\u020b\7-\2\2\u020b\u020c\5b\62\2\u020c\u020d\7.\2"+
+		"\2\u020d\u020f\3\2\2\2\u020e\u020a\3\2\2\2\u020f\u0212\3\2\2\2\u0210\u020e"+
+		"\3\2\2\2\u0210\u0211\3\2\2\2\u0211\u0213\3\2\2\2\u0212\u0210\3\2\2\2\u0213"+
+		"\u0214\7T\2\2\u0214\u0215\b \1\2\u0215\u0216\7\32\2\2\u0216\u0217\5b\62"+
+		"\2\u0217\u0218\b \1\2\u0218\u0231\3\2\2\2\u0219\u021a\5\u0088E\2\u021a"+
+		"\u0222\b \1\2\u021b\u021c\7-\2\2\u021c\u021d\5b\62\2\u021d\u021e\7.\2"+
+		"\2\u021e\u021f\b \1\2\u021f\u0221\3\2\2\2\u0220\u021b\3\2\2\2\u0221\u0224"+
+		"\3\2\2\2\u0222\u0220\3\2\2\2\u0222\u0223\3\2\2\2\u0223\u0225\3\2\2\2\u0224"+
+		"\u0222\3\2\2\2\u0225\u0226\7T\2\2\u0226\u0227\5b\62\2\u0227\u022c\b \1"+
+		"\2\u0228\u0229\7\32\2\2\u0229\u022a\5b\62\2\u022a\u022b\b \1\2\u022b\u022d"+
+		"\3\2\2\2\u022c\u0228\3\2\2\2\u022c\u022d\3\2\2\2\u022d\u022e\3\2\2\2\u022e"+
+		"\u022f\b \1\2\u022f\u0231\3\2\2\2\u0230\u0208\3\2\2\2\u0230\u0219\3\2"+
+		"\2\2\u0231?\3\2\2\2\u0232\u0233\7\n\2\2\u0233\u0237\7+\2\2\u0234\u0235"+
+		"\5B\"\2\u0235\u0236\b!\1\2\u0236\u0238\3\2\2\2\u0237\u0234\3\2\2\2\u0237"+
+		"\u0238\3\2\2\2\u0238\u0239\3\2\2\2\u0239\u023d\7%\2\2\u023a\u023b\5b\62"+
+		"\2\u023b\u023c\b!\1\2\u023c\u023e\3\2\2\2\u023d\u023a\3\2\2\2\u023d\u023e"+
+		"\3\2\2\2\u023e\u023f\3\2\2\2\u023f\u0243\7%\2\2\u0240\u0241\5B\"\2\u0241"+
+		"\u0242\b!\1\2\u0242\u0244\3\2\2\2\u0243\u0240\3\2\2\2\u0243\u0244\3\2"+
+		"\2\2\u0244\u0245\3\2\2\2\u0245\u0246\7,\2\2\u0246\u0247\5\6\4\2\u0247"+
+		"\u0248\b!\1\2\u0248A\3\2\2\2\u0249\u024a\5D#\2\u024a\u024b\b\"\1\2\u024b"+
+		"\u0250\3\2\2\2\u024c\u024d\5F$\2\u024d\u024e\b\"\1\2\u024e\u0250\3\2\2"+
+		"\2\u024f\u0249\3\2\2\2\u024f\u024c\3\2\2\2\u0250C\3\2\2\2\u0251\u0252"+
+		"\5\u0088E\2\u0252\u0253\7&\2\2\u0253\u0257\b#\1\2\u0254\u0255\5\20\t\2"+
+		"\u0255\u0256\b#\1\2\u0256\u0258\3\2\2\2\u0257\u0254\3\2\2\2\u0257\u0258"+
+		"\3\2\2\2\u0258\u0263\3\2\2\2\u0259\u0261\7S\2\2\u025a\u025b\b#\1\2\u025b"+
+		"\u025c\5&\24\2\u025c\u025d\b#\1\2\u025d\u0262\3\2\2\2\u025e\u025f\5b\62"+
+		"\2\u025f\u0260\b#\1\2\u0260\u0262\3\2\2\2\u0261\u025a\3\2\2\2\u0261\u025e"+
+		"\3\2\2\2\u0262\u0264\3\2\2\2\u0263\u0259\3\2\2\2\u0263\u0264\3\2\2\2\u0264"+
+		"E\3\2\2\2\u0265\u0266\5b\62\2\u0266\u0267\t\3\2\2\u0267\u0268\b$\1\2\u0268"+
+		"\u026d\3\2\2\2\u0269\u026a\5b\62\2\u026a\u026b\b$\1\2\u026b\u026d\3\2"+
+		"\2\2\u026c\u0265\3\2\2\2\u026c\u0269\3\2\2\2\u026dG\3\2\2\2\u026e\u026f"+
+		"\5F$\2\u026f\u0270\b%\1\2\u0270I\3\2\2\2\u0271\u0272\7\4\2\2\u0272\u0273"+
+		"\7+\2\2\u0273\u0274\5b\62\2\u0274\u0275\7,\2\2\u0275\u0276\5\6\4\2\u0276"+
+		"\u027b\b&\1\2\u0277\u0278\7\20\2\2\u0278\u0279\5\6\4\2\u0279\u027a\b&"+
+		"\1\2\u027a\u027c\3\2\2\2\u027b\u0277\3\2\2\2\u027b\u027c\3\2\2\2\u027c"+
+		"K\3\2\2\2\u027d\u027e\7\31\2\2\u027e\u0282\b\'\1\2\u027f\u0280\5b\62\2"+
+		"\u0280\u0281\b\'\1\2\u0281\u0283\3\2\2\2\u0282\u027f\3\2\2\2\u0282\u0283"+
+		"\3\2\2\2\u0283\u0284\3\2\2\2\u0284\u0285\b\'\1\2\u0285M\3\2\2\2\u0286"+
+		"\u0287\7\30\2\2\u0287\u0288\7+\2\2\u0288\u0289\5b\62\2\u0289\u028a\7,"+
+		"\2\2\u028a\u028b\b(\1\2\u028b\u0291\7)\2\2\u028c\u028d\5P)\2\u028d\u028e"+
+		"\b(\1\2\u028e\u0290\3\2\2\2\u028f\u028c\3\2\2\2\u0290\u0293\3\2\2\2\u0291"+
+		"\u028f\3\2\2\2\u0291\u0292\3\2\2\2\u0292\u0294\3\2\2\2\u0293\u0291\3\2"+
+		"\2\2\u0294\u0295\7\33\2\2\u0295\u0299\7&\2\2\u0296\u0297\5\6\4\2\u0297"+
+		"\u0298\b(\1\2\u0298\u029a\3\2\2\2\u0299\u0296\3\2\2\2\u029a\u029b\3\2"+
+		"\2\2\u029b\u0299\3\2\2\2\u029b\u029c\3\2\2\2\u029c\u029d\3\2\2\2\u029d"+
+		"\u029e\7*\2\2\u029e\u029f\b(\1\2\u029fO\3\2\2\2\u02a0\u02a1\7\21\2\2\u02a1"+
+		"\u02a2\5d\63\2\u02a2\u02a3\b)\1\2\u02a3\u02a7\7&\2\2\u02a4\u02a5\5\6\4"+
+		"\2\u02a5\u02a6\b)\1\2\u02a6\u02a8\3\2\2\2\u02a7\u02a4\3\2\2\2\u02a8\u02a9"+
+		"\3\2\2\2\u02a9\u02a7\3\2\2\2\u02a9\u02aa\3\2\2\2\u02aaQ\3\2\2\2\u02ab"+
+		"\u02ac\7\13\2\2\u02ac\u02ad\7+\2\2\u02ad\u02ae\5\u0088E\2\u02ae\u02af"+
+		"\7&\2\2\u02af\u02b0\5\20\t\2\u02b0\u02b1\7%\2\2\u02b1\u02b2\5b\62\2\u02b2"+
+		"\u02b3\7,\2\2\u02b3\u02b4\5\6\4\2\u02b4\u02b5\b*\1\2\u02b5S\3\2\2\2\u02b6"+
+		"\u02b7\7\r\2\2\u02b7\u02b8\7+\2\2\u02b8\u02b9\5\u0088E\2\u02b9\u02ba\7"+
+		"&\2\2\u02ba\u02bb\5\20\t\2\u02bb\u02bc\7%\2\2\u02bc\u02bd\5b\62\2\u02bd"+
+		"\u02be\7,\2\2\u02be\u02bf\5\6\4\2\u02bf\u02c0\b+\1\2\u02c0U\3\2\2\2\u02c1"+
+		"\u02c2\7\f\2\2\u02c2\u02c3\7+\2\2\u02c3\u02c4\5\u0088E\2\u02c4\u02c5\7"+
+		"&\2\2\u02c5\u02c6\5\20\t\2\u02c6\u02c7\7%\2\2\u02c7\u02c8\5b\62\2\u02c8"+
+		"\u02c9\7,\2\2\u02c9\u02ca\5\6\4\2\u02ca\u02cb\b,\1\2\u02cbW\3\2\2\2\u02cc"+
+		"\u02cd\7\24\2\2\u02cd\u02ce\7+\2\2\u02ce\u02cf\5b\62\2\u02cf\u02d0\7,"+
+		"\2\2\u02d0\u02d1\5\6\4\2\u02d1\u02d2\b-\1\2\u02d2Y\3\2\2\2\u02d3\u02d7"+
+		"\7!\2\2\u02d4\u02d7\7\"\2\2\u02d5\u02d7\b.\1\2\u02d6\u02d3\3\2\2\2\u02d6"+
+		"\u02d4\3\2\2\2\u02d6\u02d5\3\2\2\2\u02d7\u02d8\3\2\2\2\u02d8\u02eb\b."+
+		"\1\2\u02d9\u02da\7P\2\2\u02da\u02ec\b.\1\2\u02db\u02dc\5\u0088E\2\u02dc"+
+		"\u02dd\7&\2\2\u02dd\u02de\5\u0088E\2\u02de\u02df\b.\1\2\u02df\u02ec\3"+
+		"\2\2\2\u02e0\u02e1\5\u0088E\2\u02e1\u02e8\b.\1\2\u02e2\u02e3\7\'\2\2\u02e3"+
+		"\u02e4\5\u0088E\2\u02e4\u02e5\b.\1\2\u02e5\u02e7\3\2\2\2\u02e6\u02e2\3"+
+		"\2\2\2\u02e7\u02ea\3\2\2\2\u02e8\u02e6\3\2\2\2\u02e8\u02e9\3\2\2\2\u02e9"+
+		"\u02ec\3\2\2\2\u02ea\u02e8\3\2\2\2\u02eb\u02d9\3\2\2\2\u02eb\u02db\3\2"+
+		"\2\2\u02eb\u02e0\3\2\2\2\u02ec\u02ed\3\2\2\2\u02ed\u02ee\7U\2\2\u02ee"+
+		"\u02ef\5\6\4\2\u02ef\u02f0\b.\1\2\u02f0[\3\2\2\2\u02f1\u02f2\7+\2\2\u02f2"+
+		"\u02f3\5\u0088E\2\u02f3\u02f4\7&\2\2\u02f4\u02f5\5\u0088E\2\u02f5\u02f6"+
+		"\7,\2\2\u02f6\u02fb\b/\1\2\u02f7\u02f8\7&\2\2\u02f8\u02f9\5\20\t\2\u02f9"+
+		"\u02fa\b/\1\2\u02fa\u02fc\3\2\2\2\u02fb\u02f7\3\2\2\2\u02fb\u02fc\3\2"+
+		"\2\2\u02fc\u02fd\3\2\2\2\u02fd\u02fe\5\6\4\2\u02fe\u02ff\b/\1\2\u02ff"+
+		"]\3\2\2\2\u0300\u0301\7+\2\2\u0301\u0302\5\u0088E\2\u0302\u0303\7\'\2"+
+		"\2\u0303\u0304\5\u0088E\2\u0304\u0305\7&\2\2\u0305\u0306\5\u0088E\2\u0306"+
+		"\u0307\7,\2\2\u0307\u0308\b\60\1\2\u0308\u0309\7&\2\2\u0309\u030a\5\20"+
+		"\t\2\u030a\u030b\b\60\1\2\u030b\u030c\3\2\2\2\u030c\u030d\5\6\4\2\u030d"+
+		"\u030e\b\60\1\2\u030e_\3\2\2\2\u030f\u0310\7#\2\2\u0310\u0311\b\61\1\2"+
+		"\u0311a\3\2\2\2\u0312\u0313\5f\64\2\u0313\u031a\b\62\1\2\u0314\u0315\t"+
+		"\4\2\2\u0315\u0316\5f\64\2\u0316\u0317\b\62\1\2\u0317\u0319\3\2\2\2\u0318"+
+		"\u0314\3\2\2\2\u0319\u031c\3\2\2\2\u031a\u0318\3\2\2\2\u031a\u031b\3\2"+
+		"\2\2\u031bc\3\2\2\2\u031c\u031a\3\2\2\2\u031d\u031e\5b\62\2\u031e\u0325"+
+		"\b\63\1\2\u031f\u0320\7\'\2\2\u0320\u0321\5b\62\2\u0321\u0322\b\63\1\2"+
+		"\u0322\u0324\3\2\2\2\u0323\u031f\3\2\2\2\u0324\u0327\3\2\2\2\u0325\u0323"+
+		"\3\2\2\2\u0325\u0326\3\2\2\2\u0326\u0338\3\2\2\2\u0327\u0325\3\2\2\2\u0328"+
+		"\u0329\5b\62\2\u0329\u0334\b\63\1\2\u032a\u032b\b\63\1\2\u032b\u032c\5"+
+		"b\62\2\u032c\u032d\b\63\1\2\u032d\u0333\3\2\2\2\u032e\u032f\7\'\2\2\u032f"+
+		"\u0330\5b\62\2\u0330\u0331\b\63\1\2\u0331\u0333\3\2\2\2\u0332\u032a\3"+
+		"\2\2\2\u0332\u032e\3\2\2\2\u0333\u0336\3\2\2\2\u0334\u0332\3\2\2\2\u0334"+
+		"\u0335\3\2\2\2\u0335\u0338\3\2\2\2\u0336\u0334\3\2\2\2\u0337\u031d\3\2"+
+		"\2\2\u0337\u0328\3\2\2\2\u0338e\3\2\2\2\u0339\u033a\5h\65\2\u033a\u0342"+
+		"\b\64\1\2\u033b\u033c\t\5\2\2\u033c\u033d\b\64\1\2\u033d\u033e\5h\65\2"+
+		"\u033e\u033f\b\64\1\2\u033f\u0341\3\2\2\2\u0340\u033b\3\2\2\2\u0341\u0344"+
+		"\3\2\2\2\u0342\u0340\3\2\2\2\u0342\u0343\3\2\2\2\u0343g\3\2\2\2\u0344"+
+		"\u0342\3\2\2\2\u0345\u0346\5j\66\2\u0346\u0347\t\6\2\2\u0347\u0348\5j"+
+		"\66\2\u0348\u0349\b\65\1\2\u0349\u034e\3\2\2\2\u034a\u034b\5j\66\2\u034b"+
+		"\u034c\b\65\1\2\u034c\u034e\3\2\2\2\u034d\u0345\3\2\2\2\u034d\u034a\3"+
+		"\2\2\2\u034ei\3\2\2\2\u034f\u0350\5l\67\2\u0350\u0358\b\66\1\2\u0351\u0352"+
+		"\t\7\2\2\u0352\u0353\b\66\1\2\u0353\u0354\5l\67\2\u0354\u0355\b\66\1\2"+
+		"\u0355\u0357\3\2\2\2\u0356\u0351\3\2\2\2\u0357\u035a\3\2\2\2\u0358\u0356"+
+		"\3\2\2\2\u0358\u0359\3\2\2\2\u0359k\3\2\2\2\u035a\u0358\3\2\2\2\u035b"+
+		"\u035c\5n8\2\u035c\u0364\b\67\1\2\u035d\u035e\t\b\2\2\u035e\u035f\b\67"+
+		"\1\2\u035f\u0360\5n8\2\u0360\u0361\b\67\1\2\u0361\u0363\3\2\2\2\u0362"+
+		"\u035d\3\2\2\2\u0363\u0366\3\2\2\2\u0364\u0362\3\2\2\2\u0364\u0365\3\2"+
+		"\2\2\u0365m\3\2\2\2\u0366\u0364\3\2\2\2\u0367\u0368\5v<\2\u0368\u0374"+
+		"\b8\1\2\u0369\u036a\5p9\2\u036a\u036b\b8\1\2\u036b\u0373\3\2\2\2\u036c"+
+		"\u036d\5r:\2\u036d\u036e\b8\1\2\u036e\u0373\3\2\2\2\u036f\u0370\5t;\2"+
+		"\u0370\u0371\b8\1\2\u0371\u0373\3\2\2\2\u0372\u0369\3\2\2\2\u0372\u036c"+
+		"\3\2\2\2\u0372\u036f\3\2\2\2\u0373\u0376\3\2\2\2\u0374\u0372\3\2\2\2\u0374"+
+		"\u0375\3\2\2\2\u0375o\3\2\2\2\u0376\u0374\3\2\2\2\u0377\u0378\7(\2\2\u0378"+
+		"\u0379\5\u0088E\2\u0379\u037a\b9\1\2\u037aq\3\2\2\2\u037b\u037c\7-\2\2"+
+		"\u037c\u037d\5b\62\2\u037d\u0382\b:\1\2\u037e\u037f\7&\2\2\u037f\u0380"+
+		"\5b\62\2\u0380\u0381\b:\1\2\u0381\u0383\3\2\2\2\u0382\u037e\3\2\2\2\u0382"+
+		"\u0383\3\2\2\2\u0383\u0384\3\2\2\2\u0384\u0385\7.\2\2\u0385s\3\2\2\2\u0386"+
+		"\u0387\7+\2\2\u0387\u038b\b;\1\2\u0388\u0389\5d\63\2\u0389\u038a\b;\1"+
+		"\2\u038a\u038c\3\2\2\2\u038b\u0388\3\2\2\2\u038b\u038c\3\2\2\2\u038c\u038d"+
+		"\3\2\2\2\u038d\u038e\7,\2\2\u038eu\3\2\2\2\u038f\u0390\5\u0090I\2\u0390"+
+		"\u0391\b<\1\2\u0391\u03b8\3\2\2\2\u0392\u0393\5\u008eH\2\u0393\u0394\b"+
+		"<\1\2\u0394\u03b8\3\2\2\2\u0395\u0396\5\u0092J\2\u0396\u0397\b<\1\2\u0397"+
+		"\u03b8\3\2\2\2\u0398\u0399\5\u008aF\2\u0399\u039a\b<\1\2\u039a\u03b8\3"+
+		"\2\2\2\u039b\u039c\5\u008cG\2\u039c\u039d\b<\1\2\u039d\u03b8\3\2\2\2\u039e"+
+		"\u039f\5\u0084C\2\u039f\u03a0\b<\1\2\u03a0\u03b8\3\2\2\2\u03a1\u03a2\5"+
+		"|?\2\u03a2\u03a3\b<\1\2\u03a3\u03b8\3\2\2\2\u03a4\u03a5\5~@\2\u03a5\u03a6"+
+		"\b<\1\2\u03a6\u03b8\3\2\2\2\u03a7\u03a8\5\u0080A\2\u03a8\u03a9\b<\1\2"+
+		"\u03a9\u03b8\3\2\2\2\u03aa\u03ab\5\u0082B\2\u03ab\u03ac\b<\1\2\u03ac\u03b8"+
+		"\3\2\2\2\u03ad\u03ae\5x=\2\u03ae\u03af\b<\1\2\u03af\u03b8\3\2\2\2\u03b0"+
+		"\u03b8\7R\2\2\u03b1\u03b2\5z>\2\u03b2\u03b3\b<\1\2\u03b3\u03b8\3\2\2\2"+
+		"\u03b4\u03b5\5\u0088E\2\u03b5\u03b6\b<\1\2\u03b6\u03b8\3\2\2\2\u03b7\u038f"+
+		"\3\2\2\2\u03b7\u0392\3\2\2\2\u03b7\u0395\3\2\2\2\u03b7\u0398\3\2\2\2\u03b7"+
+		"\u039b\3\2\2\2\u03b7\u039e\3\2\2\2\u03b7\u03a1\3\2\2\2\u03b7\u03a4\3\2"+
+		"\2\2\u03b7\u03a7\3\2\2\2\u03b7\u03aa\3\2\2\2\u03b7\u03ad\3\2\2\2\u03b7"+
+		"\u03b0\3\2\2\2\u03b7\u03b1\3\2\2\2\u03b7\u03b4\3\2\2\2\u03b8w\3\2\2\2"+
+		"\u03b9\u03ba\t\t\2\2\u03ba\u03bb\5n8\2\u03bb\u03bc\b=\1\2\u03bcy\3\2\2"+
+		"\2\u03bd\u03be\7+\2\2\u03be\u03bf\5b\62\2\u03bf\u03c0\7,\2\2\u03c0\u03c1"+
+		"\b>\1\2\u03c1{\3\2\2\2\u03c2\u03c3\5(\25\2\u03c3\u03c4\5\66\34\2\u03c4"+
+		"\u03c5\b?\1\2\u03c5\u03cb\3\2\2\2\u03c6\u03c7\5\u0088E\2\u03c7\u03c8\5"+
+		"\66\34\2\u03c8\u03c9\b?\1\2\u03c9\u03cb\3\2\2\2\u03ca\u03c2\3\2\2\2\u03ca"+
+		"\u03c6\3\2\2\2\u03cb}\3\2\2\2\u03cc\u03d2\5*\26\2\u03cd\u03ce\5^\60\2"+
+		"\u03ce\u03cf\b@\1\2\u03cf\u03d3\3\2\2\2\u03d0\u03d1\b@\1\2\u03d1\u03d3"+
+		"\5\6\4\2\u03d2\u03cd\3\2\2\2\u03d2\u03d0\3\2\2\2\u03d3\u03d4\3\2\2\2\u03d4"+
+		"\u03d5\b@\1\2\u03d5\177\3\2\2\2\u03d6\u03d7\5,\27\2\u03d7\u03dd\7)\2\2"+
+		"\u03d8\u03d9\5Z.\2\u03d9\u03da\bA\1\2\u03da\u03de\3\2\2\2\u03db\u03dc"+
+		"\bA\1\2\u03dc\u03de\5\6\4\2\u03dd\u03d8\3\2\2\2\u03dd\u03db\3\2\2\2\u03de"+
+		"\u03df\3\2\2\2\u03df\u03dd\3\2\2\2\u03df\u03e0\3\2\2\2\u03e0\u03e1\3\2"+
+		"\2\2\u03e1\u03e2\7*\2\2\u03e2\u03e3\bA\1\2\u03e3\u0081\3\2\2\2\u03e4\u03ea"+
+		"\5.\30\2\u03e5\u03e6\5\\/\2\u03e6\u03e7\bB\1\2\u03e7\u03eb\3\2\2\2\u03e8"+
+		"\u03e9\bB\1\2\u03e9\u03eb\5\6\4\2\u03ea\u03e5\3\2\2\2\u03ea\u03e8\3\2"+
+		"\2\2\u03eb\u03ec\3\2\2\2\u03ec\u03ed\bB\1\2\u03ed\u0083\3\2\2\2\u03ee"+
+		"\u0400\7)\2\2\u03ef\u03f0\5d\63\2\u03f0\u03f1\bC\1\2\u03f1\u0401\3\2\2"+
+		"\2\u03f2\u03f3\bC\1\2\u03f3\u03f4\5\u0086D\2\u03f4\u03fb\bC\1\2\u03f5"+
+		"\u03f6\7\'\2\2\u03f6\u03f7\5\u0086D\2\u03f7\u03f8\bC\1\2\u03f8\u03fa\3"+
+		"\2\2\2\u03f9\u03f5\3\2\2\2\u03fa\u03fd\3\2\2\2\u03fb\u03f9\3\2\2\2\u03fb"+
+		"\u03fc\3\2\2\2\u03fc\u0401\3\2\2\2\u03fd\u03fb\3\2\2\2\u03fe\u03ff\7&"+
+		"\2\2\u03ff\u0401\bC\1\2\u0400\u03ef\3\2\2\2\u0400\u03f2\3\2\2\2\u0400"+
+		"\u03fe\3\2\2\2\u0400\u0401\3\2\2\2\u0401\u0402\3\2\2\2\u0402\u0403\7*"+
+		"\2\2\u0403\u0085\3\2\2\2\u0404\u0405\5b\62\2\u0405\u0406\7&\2\2\u0406"+
+		"\u0407\5b\62\2\u0407\u0408\bD\1\2\u0408\u0087\3\2\2\2\u0409\u040a\7^\2"+
+		"\2\u040a\u044e\bE\1\2\u040b\u040c\7\23\2\2\u040c\u044e\bE\1\2\u040d\u040e"+
+		"\7\3\2\2\u040e\u044e\bE\1\2\u040f\u0410\7\4\2\2\u0410\u044e\bE\1\2\u0411"+
+		"\u0412\7\5\2\2\u0412\u044e\bE\1\2\u0413\u0414\7\6\2\2\u0414\u044e\bE\1"+
+		"\2\u0415\u0416\7\7\2\2\u0416\u044e\bE\1\2\u0417\u0418\7\b\2\2\u0418\u044e"+
+		"\bE\1\2\u0419\u041a\7\t\2\2\u041a\u044e\bE\1\2\u041b\u041c\7\n\2\2\u041c"+
+		"\u044e\bE\1\2\u041d\u041e\7\13\2\2\u041e\u044e\bE\1\2\u041f\u0420\7\f"+
+		"\2\2\u0420\u044e\bE\1\2\u0421\u0422\7\r\2\2\u0422\u044e\bE\1\2\u0423\u0424"+
+		"\7\16\2\2\u0424\u044e\bE\1\2\u0425\u0426\7\17\2\2\u0426\u044e\bE\1\2\u0427"+
+		"\u0428\7\20\2\2\u0428\u044e\bE\1\2\u0429\u042a\7\21\2\2\u042a\u044e\b"+
+		"E\1\2\u042b\u042c\7\22\2\2\u042c\u044e\bE\1\2\u042d\u042e\7\24\2\2\u042e"+
+		"\u044e\bE\1\2\u042f\u0430\7\25\2\2\u0430\u044e\bE\1\2\u0431\u0432\7\26"+
+		"\2\2\u0432\u044e\bE\1\2\u0433\u0434\7\27\2\2\u0434\u044e\bE\1\2\u0435"+
+		"\u0436\7\30\2\2\u0436\u044e\bE\1\2\u0437\u0438\7\31\2\2\u0438\u044e\b"+
+		"E\1\2\u0439\u043a\7\32\2\2\u043a\u044e\bE\1\2\u043b\u043c\7\33\2\2\u043c"+
+		"\u044e\bE\1\2\u043d\u043e\7\34\2\2\u043e\u044e\bE\1\2\u043f\u0440\7\35"+
+		"\2\2\u0440\u044e\bE\1\2\u0441\u0442\7\36\2\2\u0442\u044e\bE\1\2\u0443"+
+		"\u0444\7\37\2\2\u0444\u044e\bE\1\2\u0445\u0446\7 \2\2\u0446\u044e\bE\1"+
+		"\2\u0447\u0448\7!\2\2\u0448\u044e\bE\1\2\u0449\u044a\7\"\2\2\u044a\u044e"+
+		"\bE\1\2\u044b\u044c\7#\2\2\u044c\u044e\bE\1\2\u044d\u0409\3\2\2\2\u044d"+
+		"\u040b\3\2\2\2\u044d\u040d\3\2\2\2\u044d\u040f\3\2\2\2\u044d\u0411\3\2"+
+		"\2\2\u044d\u0413\3\2\2\2\u044d\u0415\3\2\2\2\u044d\u0417\3\2\2\2\u044d"+
+		"\u0419\3\2\2\2\u044d\u041b\3\2\2\2\u044d\u041d\3\2\2\2\u044d\u041f\3\2"+
+		"\2\2\u044d\u0421\3\2\2\2\u044d\u0423\3\2\2\2\u044d\u0425\3\2\2\2\u044d"+
+		"\u0427\3\2\2\2\u044d\u0429\3\2\2\2\u044d\u042b\3\2\2\2\u044d\u042d\3\2"+
+		"\2\2\u044d\u042f\3\2\2\2\u044d\u0431\3\2\2\2\u044d\u0433\3\2\2\2\u044d"+
+		"\u0435\3\2\2\2\u044d\u0437\3\2\2\2\u044d\u0439\3\2\2\2\u044d\u043b\3\2"+
+		"\2\2\u044d\u043d\3\2\2\2\u044d\u043f\3\2\2\2\u044d\u0441\3\2\2\2\u044d"+
+		"\u0443\3\2\2\2\u044d\u0445\3\2\2\2\u044d\u0447\3\2\2\2\u044d\u0449\3\2"+
+		"\2\2\u044d\u044b\3\2\2\2\u044e\u0089\3\2\2\2\u044f\u0450\7W\2\2\u0450"+
+		"\u0451\bF\1\2\u0451\u008b\3\2\2\2\u0452\u0453\7X\2\2\u0453\u0454\bG\1"+
+		"\2\u0454\u008d\3\2\2\2\u0455\u0456\7Y\2\2\u0456\u0457\bH\1\2\u0457\u008f"+
+		"\3\2\2\2\u0458\u0459\7[\2\2\u0459\u045f\bI\1\2\u045a\u045b\7\\\2\2\u045b"+
+		"\u045f\bI\1\2\u045c\u045d\7Z\2\2\u045d\u045f\bI\1\2\u045e\u0458\3\2\2"+
+		"\2\u045e\u045a\3\2\2\2\u045e\u045c\3\2\2\2\u045f\u0091\3\2\2\2\u0460\u0461"+
+		"\7]\2\2\u0461\u0462\bJ\1\2\u0462\u0093\3\2\2\2J\u009d\u00a5\u00b0\u00e6"+
+		"\u00ec\u0104\u0108\u010a\u0118\u011c\u011e\u0127\u0146\u014d\u0156\u0160"+
+		"\u0167\u0177\u017a\u0181\u018d\u0199\u019b\u019e\u01a5\u01a7\u01e5\u01f5"+
+		"\u0210\u0222\u022c\u0230\u0237\u023d\u0243\u024f\u0257\u0261\u0263\u026c"+
+		"\u027b\u0282\u0291\u029b\u02a9\u02d6\u02e8\u02eb\u02fb\u031a\u0325\u0332"+
+		"\u0334\u0337\u0342\u034d\u0358\u0364\u0372\u0374\u0382\u038b\u03b7\u03ca"+
+		"\u03d2\u03dd\u03df\u03ea\u03fb\u0400\u044d\u045e";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.hadoop.io.WritableComparator;
+
+import boa.io.EmitKey;
+
+/**
+ * Compares sorting serialized {@link EmitKey}s with the raw comparator
+ * against deserializing both keys and calling
+ * {@link EmitKey#compareTo(EmitKey)}, which is what Hadoop falls back to
+ * without a raw comparator.
+ *
+ * Usage: ant bench -Dbench.class=boa.bench.EmitKeyBenchmark -Dbench.args="[keys] [rounds]"
+ */
+public class EmitKeyBenchmark {
+	public static void main(final String[] args) throws IOException {
+		final int keys = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		final Random r = new Random(42);
+		final byte[][] serialized = new byte[keys][];
+		for (int i = 0; i < keys; i++) {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			new EmitKey("[" + Integer.toHexString(r.nextInt()) + "]", "counts" + r.nextInt(4)).write(new DataOutputStream(bytes));
+			serialized[i] = bytes.toByteArray();
+		}
+
+		final WritableComparator raw = WritableComparator.get(EmitKey.class);
+
+		for (int round = 0; round < rounds; round++) {
+			long start = System.nanoTime();
+			long sink = 0;
+			for (int i = 1; i < keys; i++)
+				sink += raw.compare(serialized[i - 1], 0, serialized[i - 1].length, serialized[i], 0, serialized[i].length);
+			final long rawTime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 1; i < keys; i++)
+				sink += deserialize(serialized[i - 1]).compareTo(deserialize(serialized[i]));
+			final long objTime = System.nanoTime() - start;
+
+			System.out.println(String.format("round %d: raw %.1f ns/cmp, compareTo %.1f ns/cmp (%d)", round,
+					rawTime / (double) keys, objTime / (double) keys, Long.signum(sink)));
+		}
+	}
+
+	private static EmitKey deserialize(final byte[] b) throws IOException {
+		final EmitKey k = new EmitKey();
+		k.readFields(new DataInputStream(new ByteArrayInputStream(b)));
+		return k;
+	}
+}
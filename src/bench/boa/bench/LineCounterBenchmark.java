@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+
+import boa.datagen.forges.github.RepoMetadata;
+import boa.datagen.util.FileIO;
+import boa.datagen.util.LineCounter;
+
+/**
+ * Compares counting the lines of the files at the head of each repository
+ * with {@link LineCounter} against writing each file out and running ohcount
+ * on it, which is what the datagen used to do.  The repositories are the
+ * ones listed in the metadata pages, cloned the way the datagen clones them.
+ * Without ohcount only {@link LineCounter} is timed.
+ *
+ * The code, comment and blank counts of every file are compared with the row
+ * ohcount prints for it, and the first few files counted differently are
+ * printed.  ohcount's report also has a header and the path of the temporary
+ * copy, which {@link LineCounter.Counts#format(String)} does not reproduce.
+ *
+ * Usage: ant bench -Dbench.class=boa.bench.LineCounterBenchmark -Dbench.args="[metadata directory] [clone directory] [ohcount]"
+ */
+public class LineCounterBenchmark {
+	public static void main(final String[] args) throws IOException, InterruptedException {
+		final File jsonDir = new File(args.length > 0 ? args[0] : "dataset/small_sample/repos");
+		final File cloneDir = new File(args.length > 1 ? args[1] : "dataset/small_sample/git");
+		final File ohcount = new File(args.length > 2 ? args[2] : "/home/boa/ohcount/bin/ohcount");
+
+		final List<String> paths = new ArrayList<String>();
+		final List<String> contents = new ArrayList<String>();
+		final Gson parser = new Gson();
+		for (final File page : jsonDir.listFiles()) {
+			if (!page.getName().endsWith(".json"))
+				continue;
+			final JsonReader reader = new JsonReader(new FileReader(page));
+			try {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					final JsonObject rp = parser.fromJson(reader, JsonObject.class);
+					final RepoMetadata repo = new RepoMetadata(rp);
+					final File gitDir = new File(cloneDir, repo.name + "/.git");
+					if (repo.name != null && gitDir.exists())
+						readHead(gitDir, paths, contents);
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		System.out.println(paths.size() + " files");
+		if (paths.isEmpty())
+			return;
+
+		// the best of a few rounds, after the JIT warms up
+		long lines = 0;
+		long counterTime = Long.MAX_VALUE;
+		long start;
+		for (int round = 0; round < 5; round++) {
+			lines = 0;
+			start = System.nanoTime();
+			for (int i = 0; i < paths.size(); i++)
+				lines += LineCounter.count(paths.get(i), contents.get(i)).getTotal();
+			counterTime = Math.min(counterTime, System.nanoTime() - start);
+		}
+		System.out.println(String.format("LineCounter: %d lines, %.1f us/file", lines, counterTime / 1000.0 / paths.size()));
+
+		if (!ohcount.canExecute()) {
+			System.out.println(ohcount + " not found, skipping");
+			return;
+		}
+
+		int differ = 0;
+		long ohcountTime = 0;
+		for (int i = 0; i < paths.size(); i++) {
+			start = System.nanoTime();
+			final List<String> out = runOhcount(ohcount, paths.get(i), contents.get(i));
+			ohcountTime += System.nanoTime() - start;
+
+			final LineCounter.Counts counts = LineCounter.count(paths.get(i), contents.get(i));
+			final String row = out.isEmpty() ? "" : out.get(out.size() - 1);
+			final String[] cols = row.trim().split("\\s+");
+			if (cols.length < 6 || !cols[1].equals(Integer.toString(counts.code)) || !cols[2].equals(Integer.toString(counts.comment))
+					|| !cols[4].equals(Integer.toString(counts.blank))) {
+				if (++differ <= 10)
+					System.out.println("differs: " + paths.get(i) + "\n  ohcount:     " + row + "\n  LineCounter: " + counts.format(paths.get(i)));
+			}
+		}
+		System.out.println(String.format("ohcount: %.1f us/file, %.0fx slower, %d files counted differently", ohcountTime / 1000.0 / paths.size(),
+				ohcountTime / (double) counterTime, differ));
+	}
+
+	private static void readHead(final File gitDir, final List<String> paths, final List<String> contents) throws IOException {
+		final Repository repository = new FileRepositoryBuilder().setGitDir(gitDir).build();
+		final RevWalk revwalk = new RevWalk(repository);
+		final TreeWalk tw = new TreeWalk(repository);
+		try {
+			tw.addTree(revwalk.parseCommit(repository.resolve(Constants.HEAD)).getTree());
+			tw.setRecursive(true);
+			while (tw.next())
+				if (LineCounter.Language.forPath(tw.getPathString()) != null) {
+					paths.add(tw.getPathString());
+					contents.add(new String(repository.open(tw.getObjectId(0), Constants.OBJ_BLOB).getCachedBytes()));
+				}
+		} finally {
+			tw.close();
+			revwalk.close();
+			repository.close();
+		}
+	}
+
+	// the old datagen path: a temporary directory and an ohcount process per file
+	private static List<String> runOhcount(final File ohcount, final String path, final String content) throws IOException, InterruptedException {
+		final File dir = new File(new File(System.getProperty("java.io.tmpdir")), UUID.randomUUID().toString());
+		final File tmpFile = new File(dir, path);
+		tmpFile.getParentFile().mkdirs();
+		FileIO.writeFileContents(tmpFile, content);
+
+		final List<String> loc = new ArrayList<String>();
+		final Process proc = Runtime.getRuntime().exec(new String[] { ohcount.getPath(), "-i", tmpFile.getPath() });
+		final BufferedReader outStream = new BufferedReader(new InputStreamReader(proc.getInputStream()));
+		String line = null;
+		while ((line = outStream.readLine()) != null)
+			if (!line.trim().isEmpty())
+				loc.add(line);
+		outStream.close();
+		proc.waitFor();
+
+		FileIO.delete(dir);
+		return loc;
+	}
+}
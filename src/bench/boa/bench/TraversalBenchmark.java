@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.bench;
+
+import java.util.HashSet;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGNode;
+import boa.runtime.BoaAbstractFixP;
+import boa.runtime.BoaAbstractTraversal;
+import boa.types.Ast.Expression;
+import boa.types.Ast.Expression.ExpressionKind;
+import boa.types.Ast.Method;
+import boa.types.Ast.Statement;
+import boa.types.Ast.Statement.StatementKind;
+import boa.types.Graph.Traversal.TraversalDirection;
+import boa.types.Graph.Traversal.TraversalKind;
+
+/**
+ * Times a traversal with a fixp function over the CFGs of large synthetic
+ * methods, for each kind of worklist traversal and for iterating over every
+ * node until nothing changes.  Each method is a sequence of loops, each
+ * holding a branch and a few assignments, and the traversal finds the
+ * variables that may have been assigned by or before each node.
+ *
+ * Usage: ant bench -Dbench.class=boa.bench.TraversalBenchmark -Dbench.args="[loops per method...]"
+ */
+public class TraversalBenchmark {
+	private static final int VARIABLES = 16;
+
+	public static void main(final String[] args) throws Exception {
+		final int[] sizes = args.length > 0 ? new int[args.length] : new int[] { 100, 1000, 10000 };
+		for (int i = 0; i < args.length; i++)
+			sizes[i] = Integer.parseInt(args[i]);
+
+		final TraversalKind[] kinds = { TraversalKind.WORKLIST_REVERSEPOSTORDER, TraversalKind.WORKLIST_POSTORDER, TraversalKind.ITERATIVE };
+		for (final int size : sizes) {
+			final CFG cfg = new CFG(method(size)).get();
+			for (final TraversalKind kind : kinds) {
+				// the best of a few rounds, after the JIT warms up
+				long time = Long.MAX_VALUE;
+				AssignedVariables t = null;
+				for (int round = 0; round < 5; round++) {
+					t = new AssignedVariables();
+					final long start = System.nanoTime();
+					t.traverse(cfg, TraversalDirection.FORWARD, kind, new SameVariables());
+					time = Math.min(time, System.nanoTime() - start);
+				}
+				long assigned = 0;
+				int missing = 0;
+				for (final CFGNode node : cfg.getNodes())
+					if (t.getValue(node) == null)
+						missing++;
+					else
+						assigned += t.getValue(node).size();
+				System.out.println(String.format("%7d nodes  %-25s %10.2f ms  %d variables assigned, %d nodes not traversed", cfg.getNodes().size(),
+						kind, time / 1e6, assigned, missing));
+			}
+		}
+	}
+
+	// while (c) { if (c) v = v; else v = v; v = v; v = v; } repeated
+	private static Method method(final int loops) {
+		final Statement.Builder body = Statement.newBuilder().setKind(StatementKind.BLOCK);
+		int v = 0;
+		for (int i = 0; i < loops; i++) {
+			final Statement branch = Statement.newBuilder().setKind(StatementKind.IF).addConditions(variable("c"))
+					.addStatements(assign(v++)).addStatements(assign(v++)).build();
+			final Statement loop = Statement.newBuilder().setKind(StatementKind.BLOCK)
+					.addStatements(branch).addStatements(assign(v++)).addStatements(assign(v++)).build();
+			body.addStatements(Statement.newBuilder().setKind(StatementKind.WHILE).addConditions(variable("c")).addStatements(loop));
+		}
+		return Method.newBuilder().setName("m").setReturnType(boa.types.Ast.Type.newBuilder().setName("void")
+				.setKind(boa.types.Ast.TypeKind.PRIMITIVE)).addStatements(body).build();
+	}
+
+	private static Expression variable(final String name) {
+		return Expression.newBuilder().setKind(ExpressionKind.VARACCESS).setVariable(name).build();
+	}
+
+	private static Statement assign(final int i) {
+		final Expression e = Expression.newBuilder().setKind(ExpressionKind.ASSIGN)
+				.addExpressions(variable("v" + i % VARIABLES)).addExpressions(variable("v" + (i + 1) % VARIABLES)).build();
+		return Statement.newBuilder().setKind(StatementKind.EXPRESSION).addExpressions(e).build();
+	}
+
+	/**
+	 * The variables that may have been assigned by or before each node.
+	 */
+	static class AssignedVariables extends BoaAbstractTraversal<HashSet<String>> {
+		AssignedVariables() {
+			super(true, true);
+		}
+
+		private HashSet<String> preTraverse(final CFGNode node) throws Exception {
+			final HashSet<String> assigned = new HashSet<String>();
+			for (final CFGNode pred : node.getPredecessors()) {
+				final HashSet<String> in = getValue(pred);
+				if (in != null)
+					assigned.addAll(in);
+			}
+			if (node.hasExpr() && node.getExpr().getKind() == ExpressionKind.ASSIGN)
+				assigned.add(node.getExpr().getExpressions(0).getVariable());
+			return assigned;
+		}
+
+		@Override
+		public void traverse(final CFGNode node, final boolean flag) throws Exception {
+			if (flag) {
+				currentResult = new HashSet<String>(preTraverse(node));
+				outputMapObj.put(node.getId(), new HashSet<String>(currentResult));
+			} else
+				outputMapObj.put(node.getId(), new HashSet<String>(preTraverse(node)));
+		}
+	}
+
+	static class SameVariables extends BoaAbstractFixP {
+		@Override
+		public boolean invoke(final Object curr, final Object prev) throws Exception {
+			return curr.equals(prev);
+		}
+	}
+}
@@ -93,6 +93,77 @@ public abstract class Aggregator {
 		this.aggregate(BoaCasts.doubleToString(data), null);
 	}
 
+	/**
+	 * Aggregate a value read from the shuffle, dispatching on its type tag so
+	 * that numeric data goes straight to the typed overloads.
+	 * 
+	 * @param value
+	 *            The {@link EmitValue} to aggregate
+	 */
+	public void aggregate(final EmitValue value) throws IOException, InterruptedException, FinishedException {
+		switch (value.getType()) {
+		case EmitValue.TYPE_LONG:
+			this.aggregate(value.getLong(), value.getMetadata());
+			break;
+		case EmitValue.TYPE_DOUBLE:
+			this.aggregate(value.getDouble(), value.getMetadata());
+			break;
+		default:
+			for (final String s : value.getData())
+				this.aggregate(s, value.getMetadata());
+			break;
+		}
+	}
+
+	/**
+	 * Return the number of occurrences a value stands for: a numeric metadatum
+	 * is read directly, a value without one counts once, and a textual one is
+	 * parsed.
+	 * 
+	 * @param value
+	 *            The {@link EmitValue} being aggregated
+	 * 
+	 * @return A long representing the count carried by the value
+	 */
+	protected static long countOf(final EmitValue value) {
+		switch (value.getMetadataType()) {
+		case EmitValue.METADATA_NONE:
+			return 1;
+		case EmitValue.METADATA_LONG:
+			return value.getLongMetadata();
+		case EmitValue.METADATA_DOUBLE:
+			return (long) value.getDoubleMetadata();
+		default:
+			try {
+				return Long.parseLong(value.getMetadata());
+			} catch (final NumberFormatException e) {
+				return (long) Double.parseDouble(value.getMetadata());
+			}
+		}
+	}
+
+	/**
+	 * Return the weight of a value: a numeric metadatum is read directly, a
+	 * value without one weighs 1, and a textual one is parsed.
+	 * 
+	 * @param value
+	 *            The {@link EmitValue} being aggregated
+	 * 
+	 * @return A double representing the weight carried by the value
+	 */
+	protected static double weightOf(final EmitValue value) {
+		switch (value.getMetadataType()) {
+		case EmitValue.METADATA_NONE:
+			return 1.0;
+		case EmitValue.METADATA_LONG:
+			return value.getLongMetadata();
+		case EmitValue.METADATA_DOUBLE:
+			return value.getDoubleMetadata();
+		default:
+			return Double.parseDouble(value.getMetadata());
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	protected void collect(final String data, final String metadata) throws IOException, InterruptedException {
 		if (this.combining)
@@ -107,20 +178,60 @@ public abstract class Aggregator {
 		this.collect(data, null);
 	}
 
+	@SuppressWarnings("unchecked")
 	protected void collect(final long data, final String metadata) throws IOException, InterruptedException {
-		this.collect(BoaCasts.longToString(data), metadata);
+		if (this.combining)
+			this.getContext().write(this.getKey(), new EmitValue(data, metadata));
+		else
+			this.collect(BoaCasts.longToString(data), metadata);
 	}
 
 	protected void collect(final long data) throws IOException, InterruptedException {
-		this.collect(BoaCasts.longToString(data), null);
+		this.collect(data, null);
 	}
 
+	@SuppressWarnings("unchecked")
 	protected void collect(final double data, final String metadata) throws IOException, InterruptedException {
-		this.collect(BoaCasts.doubleToString(data), metadata);
+		if (this.combining)
+			this.getContext().write(this.getKey(), new EmitValue(data, metadata));
+		else
+			this.collect(BoaCasts.doubleToString(data), metadata);
 	}
 
 	protected void collect(final double data) throws IOException, InterruptedException {
-		this.collect(BoaCasts.doubleToString(data), null);
+		this.collect(data, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void collect(final String data, final long metadata) throws IOException, InterruptedException {
+		if (this.combining)
+			this.getContext().write(this.getKey(), new EmitValue(data, metadata));
+		else
+			this.collect(data, BoaCasts.longToString(metadata));
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void collect(final String data, final double metadata) throws IOException, InterruptedException {
+		if (this.combining)
+			this.getContext().write(this.getKey(), new EmitValue(data, metadata));
+		else
+			this.collect(data, BoaCasts.doubleToString(metadata));
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void collect(final long data, final long metadata) throws IOException, InterruptedException {
+		if (this.combining)
+			this.getContext().write(this.getKey(), new EmitValue(data, metadata));
+		else
+			this.collect(BoaCasts.longToString(data), BoaCasts.longToString(metadata));
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void collect(final double data, final long metadata) throws IOException, InterruptedException {
+		if (this.combining)
+			this.getContext().write(this.getKey(), new EmitValue(data, metadata));
+		else
+			this.collect(BoaCasts.doubleToString(data), BoaCasts.longToString(metadata));
 	}
 
 	public void finish() throws IOException, InterruptedException {
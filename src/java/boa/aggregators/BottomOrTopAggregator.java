@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.Map.Entry;
 
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to estimate the bottom or top <i>n</i> values in a dataset by
@@ -73,6 +74,15 @@ public abstract class BottomOrTopAggregator extends Aggregator {
 			this.set.add(data, Double.valueOf(metadata));
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void aggregate(final EmitValue value) {
+		final double weight = weightOf(value);
+
+		for (final String s : value.getData())
+			this.set.add(s, weight);
+	}
+
 	protected abstract boolean shouldInsert(final double a, final double b);
 
 	/** {@inheritDoc} */
@@ -80,7 +90,7 @@ public abstract class BottomOrTopAggregator extends Aggregator {
 	public void finish() throws IOException, InterruptedException {
 		if (this.isCombining()) {
 			for (final Entry<String, Double> e : this.set.getEntries())
-				this.collect(e.getKey().toString(), e.getValue().toString());
+				this.collect(e.getKey(), e.getValue().doubleValue());
 		} else {
 			// TODO: replace this with the algorithm described in M. Charikar,
 			// K. Chen, and M. Farach-Colton, Finding frequent items in data
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map.Entry;
 
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate a histogram for the values in a dataset.
@@ -76,6 +77,23 @@ public class IntHistogramAggregator extends HistogramAggregator {
 		this.aggregate(Double.valueOf(data).longValue(), metadata);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void aggregate(final EmitValue value) throws IOException {
+		switch (value.getType()) {
+		case EmitValue.TYPE_LONG:
+			this.list.add(value.getLong(), countOf(value));
+			break;
+		case EmitValue.TYPE_DOUBLE:
+			this.list.add((long) value.getDouble(), countOf(value));
+			break;
+		default:
+			for (final String s : value.getData())
+				this.list.add(Double.valueOf(s).longValue(), countOf(value));
+			break;
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public List<Pair<Number, Long>> getTuples() {
@@ -18,8 +18,8 @@ package boa.aggregators;
 
 import java.io.IOException;
 
-import boa.functions.BoaCasts;
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate a mean of the values in a dataset.
@@ -58,12 +58,30 @@ public class IntMeanAggregator extends MeanAggregator {
 		this.aggregate(Double.valueOf(data).longValue(), metadata);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void aggregate(final EmitValue value) throws IOException, InterruptedException, FinishedException {
+		switch (value.getType()) {
+		case EmitValue.TYPE_LONG:
+			this.sum += value.getLong();
+			break;
+		case EmitValue.TYPE_DOUBLE:
+			this.sum += (long) value.getDouble();
+			break;
+		default:
+			super.aggregate(value);
+			return;
+		}
+
+		super.count(value);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void finish() throws IOException, InterruptedException {
 		// if we are in the combiner, output the sum and the count
 		if (this.isCombining())
-			this.collect(this.sum, BoaCasts.longToString(this.getCount()));
+			this.collect(this.sum, this.getCount());
 		// otherwise, output the final answer
 		else
 			this.collect(this.sum / (double) this.getCount());
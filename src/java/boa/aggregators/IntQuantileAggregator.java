@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map.Entry;
 
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate the quantiles for the values in a dataset.
@@ -68,6 +69,23 @@ public class IntQuantileAggregator extends QuantileAggregator {
 		this.aggregate(Double.valueOf(data).longValue(), metadata);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void aggregate(final EmitValue value) throws IOException {
+		switch (value.getType()) {
+		case EmitValue.TYPE_LONG:
+			this.list.add(value.getLong(), super.count(value));
+			break;
+		case EmitValue.TYPE_DOUBLE:
+			this.list.add((long) value.getDouble(), super.count(value));
+			break;
+		default:
+			for (final String s : value.getData())
+				this.list.add(Double.valueOf(s).longValue(), super.count(value));
+			break;
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public List<Pair<String, Long>> getTuples() {
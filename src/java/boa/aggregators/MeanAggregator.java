@@ -17,6 +17,7 @@
 package boa.aggregators;
 
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate a mean of the values in a dataset.
@@ -41,6 +42,16 @@ abstract class MeanAggregator extends Aggregator {
 		}
 	}
 
+	/**
+	 * Add the count carried by a value read from the shuffle.
+	 * 
+	 * @param value
+	 *            The {@link EmitValue} being aggregated
+	 */
+	protected void count(final EmitValue value) {
+		this.count += countOf(value);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void start(final EmitKey key) {
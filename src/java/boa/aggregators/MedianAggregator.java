@@ -21,6 +21,7 @@ import java.util.TreeMap;
 import java.util.SortedMap;
 
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate a median of the values in a dataset.
@@ -59,11 +60,7 @@ public class MedianAggregator extends Aggregator {
 	/** {@inheritDoc} */
 	@Override
 	public void aggregate(final long data, final String metadata) {
-		if (map.containsKey(data))
-			map.put(data, map.get(data) + 1L);
-		else
-			map.put(data, 1L);
-		count++;
+		this.add(data, 1L);
 	}
 
 	/** {@inheritDoc} */
@@ -72,14 +69,36 @@ public class MedianAggregator extends Aggregator {
 		this.aggregate(Double.valueOf(data).longValue(), metadata);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void aggregate(final EmitValue value) throws IOException, InterruptedException {
+		switch (value.getType()) {
+		case EmitValue.TYPE_LONG:
+			this.add(value.getLong(), countOf(value));
+			break;
+		case EmitValue.TYPE_DOUBLE:
+			this.add((long) value.getDouble(), countOf(value));
+			break;
+		default:
+			for (final String s : value.getData())
+				this.aggregate(s, value.getMetadata());
+			break;
+		}
+	}
+
+	private void add(final long data, final long n) {
+		final Long old = map.get(data);
+		map.put(data, old == null ? n : old + n);
+		count += n;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void finish() throws IOException, InterruptedException {
+		// in the combiner, output each distinct value with its count
 		if (this.isCombining()) {
-			String s = "";
 			for (final Long key : map.keySet())
-				s += key + ":" + map.get(key) + ";";
-			this.collect(s, null);
+				this.collect(key.longValue(), map.get(key).longValue());
 			return;
 		}
 
@@ -18,8 +18,8 @@ package boa.aggregators;
 
 import java.io.IOException;
 
-import boa.functions.BoaCasts;
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate the top or bottom <i>n</i> values in a
@@ -61,13 +61,22 @@ abstract class MinOrMaxAggregator extends Aggregator {
 	/** {@inheritDoc} */
 	@Override
 	public void aggregate(final String data, final String metadata) {
-		double weight;
-
 		if (metadata == null)
-			weight = 1.0;
+			this.insert(data, 1.0);
 		else
-			weight = Double.parseDouble(metadata);
+			this.insert(data, Double.parseDouble(metadata));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void aggregate(final EmitValue value) {
+		final double weight = weightOf(value);
+
+		for (final String s : value.getData())
+			this.insert(s, weight);
+	}
 
+	private void insert(final String data, final double weight) {
 		final WeightedString s = new WeightedString(data, weight);
 
 		if (this.compare(s, this.list[this.last]) > 0)
@@ -107,7 +116,7 @@ abstract class MinOrMaxAggregator extends Aggregator {
 	public void finish() throws IOException, InterruptedException {
 		for (int i = 0; i < this.getArg(); i++)
 			if (this.isCombining())
-				this.collect(this.list[i].getString(), BoaCasts.doubleToString(this.list[i].getWeight()));
+				this.collect(this.list[i].getString(), this.list[i].getWeight());
 			else
 				this.collect(this.list[i].toString());
 	}
@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import boa.io.EmitKey;
+import boa.io.EmitValue;
 
 /**
  * A Boa aggregator to calculate the quantiles for the values in a dataset.
@@ -61,6 +62,23 @@ abstract class QuantileAggregator extends Aggregator {
 		return count;
 	}
 
+	/**
+	 * Add the count carried by a value read from the shuffle to the running
+	 * total.
+	 * 
+	 * @param value
+	 *            The {@link EmitValue} being aggregated
+	 * 
+	 * @return A long representing the count carried by the value
+	 */
+	protected long count(final EmitValue value) {
+		final long count = countOf(value);
+
+		this.total += count;
+
+		return count;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void start(final EmitKey key) {
@@ -79,7 +97,7 @@ abstract class QuantileAggregator extends Aggregator {
 		// if we're in the combiner, just output the compressed data
 		if (this.isCombining()) {
 			for (final Pair<String, Long> e : this.getTuples())
-				this.collect(e.getFirst(), e.getSecond().toString());
+				this.collect(e.getFirst(), e.getSecond().longValue());
 		} else {
 			// otherwise, set up the quantiles
 			final int n = (int) (this.getArg() - 1);
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.compiler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.PosixParser;
+import org.apache.log4j.Logger;
+
+import boa.BoaMain;
+
+/**
+ * A long-lived Boa compiler, which loads the built-in and library functions
+ * and opens the jars of the class path once, instead of on every compile.
+ *
+ * Each line sent to the server holds the options of one compile, as given to
+ * {@link BoaCompiler}.  The server answers with the errors of the program,
+ * each prefixed with "# ", followed by a line starting with "OK" or "FAILED"
+ * and the time taken by each phase of the compile.
+ *
+ * The server only listens on the loopback address unless told otherwise,
+ * and only reads and writes files under its working directory.  It serves a
+ * bounded number of connections at a time and queues a bounded number more;
+ * a connection beyond those is answered with a line starting with "FAILED"
+ * and closed.
+ *
+ * @see BoaCompiler
+ */
+public class BoaCompileServer extends BoaMain {
+	private static Logger LOG = Logger.getLogger(BoaCompileServer.class);
+
+	/** the options naming files the compile reads or writes */
+	private static final String[] PATH_OPTIONS = { "i", "o", "j", "cd", "cache" };
+
+	/** how many connections are served at a time, unless told otherwise */
+	private static final int DEFAULT_THREADS = 4;
+	/** how many connections wait to be served before more are turned away */
+	private static final int QUEUED_CONNECTIONS = 50;
+
+	private final List<String> libs;
+	private final InMemoryJavaCompiler javac;
+	private final File root;
+	private final ThreadPoolExecutor connections;
+
+	/**
+	 * Constructs a server, initializing the symbol table with its libraries.
+	 *
+	 * @param libs the jars of the libraries every program is compiled with
+	 * @param threads how many connections to serve at a time
+	 * @param queued how many connections to queue while all are being served
+	 */
+	public BoaCompileServer(final List<String> libs, final int threads, final int queued) throws IOException {
+		this.libs = libs;
+		this.connections = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queued));
+
+		final List<URL> urls = new ArrayList<URL>();
+		for (final String lib : libs)
+			urls.add(new File(lib).toURI().toURL());
+		SymbolTable.initialize(urls);
+
+		this.javac = new InMemoryJavaCompiler(System.getProperty("java.class.path"));
+		this.root = new File(".").getCanonicalFile();
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final Options options = new Options();
+		options.addOption("p", "port", true, "the port to listen on");
+		options.addOption("b", "bind", true, "the address to listen on (defaults to the loopback address)");
+		options.addOption("l", "libs", true, "extra jars (functions/aggregators) to be compiled in");
+		options.addOption("t", "threads", true, "how many connections to serve at a time (defaults to " + DEFAULT_THREADS + ")");
+
+		final CommandLine cl;
+		try {
+			cl = new PosixParser().parse(options, args);
+		} catch (final org.apache.commons.cli.ParseException e) {
+			printHelp(options, e.getMessage());
+			return;
+		}
+
+		if (!cl.hasOption('p')) {
+			printHelp(options, "no port given - did you use the --port option?");
+			return;
+		}
+
+		final List<String> libs = new ArrayList<String>();
+		if (cl.hasOption('l'))
+			libs.addAll(Arrays.asList(cl.getOptionValues('l')));
+
+		final InetAddress address = cl.hasOption('b') ? InetAddress.getByName(cl.getOptionValue('b')) : InetAddress.getLoopbackAddress();
+
+		final int threads = cl.hasOption('t') ? Integer.parseInt(cl.getOptionValue('t')) : DEFAULT_THREADS;
+
+		final BoaCompileServer server = new BoaCompileServer(libs, threads, QUEUED_CONNECTIONS);
+		try (final ServerSocket socket = new ServerSocket(Integer.parseInt(cl.getOptionValue('p')), QUEUED_CONNECTIONS, address)) {
+			LOG.info("listening on " + socket.getLocalSocketAddress());
+			server.serve(socket);
+		} finally {
+			server.close();
+		}
+	}
+
+	/**
+	 * Serves the connections to a socket until it is closed.
+	 *
+	 * @param socket the socket to accept connections from
+	 */
+	public void serve(final ServerSocket socket) throws IOException {
+		while (!socket.isClosed()) {
+			final Socket client;
+			try {
+				client = socket.accept();
+			} catch (final IOException e) {
+				if (socket.isClosed())
+					return;
+				throw e;
+			}
+
+			try {
+				connections.execute(new Runnable() {
+					@Override
+					public void run() {
+						serve(client);
+					}
+				});
+			} catch (final RejectedExecutionException e) {
+				LOG.warn("turned away " + client.getRemoteSocketAddress());
+				try {
+					new PrintStream(client.getOutputStream(), true).print("FAILED the server is busy\n");
+				} finally {
+					client.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops serving connections and closes the compiler.
+	 */
+	public void close() throws IOException {
+		connections.shutdownNow();
+		javac.close();
+	}
+
+	private void serve(final Socket client) {
+		try {
+			final BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+			final PrintStream out = new PrintStream(client.getOutputStream(), true);
+
+			try {
+				String line;
+				while ((line = in.readLine()) != null) {
+					line = line.trim();
+					if (!line.isEmpty())
+						out.print(compile(line.split("\\s+")));
+				}
+			} finally {
+				client.close();
+			}
+		} catch (final IOException e) {
+			LOG.error("connection failed", e);
+		}
+	}
+
+	/**
+	 * Compiles one program.
+	 *
+	 * @param args the options of the compile
+	 * @return the reply to the client
+	 */
+	String compile(final String[] args) {
+		final ByteArrayOutputStream reply = new ByteArrayOutputStream();
+		final PrintStream err = new PrintStream(new PrefixOutputStream(reply), true);
+		final BoaCompiler.Timings timings = new BoaCompiler.Timings();
+
+		String status;
+		// the symbol table is global, so only one program is compiled at a time
+		synchronized (this) {
+			try {
+				final CommandLine cl = BoaCompiler.processCommandLineOptions(args);
+				final String invalid = cl == null ? null : checkPaths(cl);
+				if (cl == null) {
+					status = "FAILED invalid options";
+				} else if (invalid != null) {
+					status = "FAILED " + invalid;
+				} else if (!libs.equals(cl.hasOption('l') ? Arrays.asList(cl.getOptionValues('l')) : new ArrayList<String>())) {
+					status = "FAILED the server was started with the libraries " + libs;
+				} else {
+					SymbolTable.reset();
+					status = (BoaCompiler.compile(cl, javac, err, timings) ? "OK " : "FAILED ") + timings;
+				}
+			} catch (final Exception e) {
+				e.printStackTrace(err);
+				status = "FAILED " + e.getMessage();
+			}
+		}
+
+		LOG.info(Arrays.toString(args) + ": " + status);
+		err.flush();
+		return reply.toString() + status + "\n";
+	}
+
+	/**
+	 * Checks that a compile only reads and writes files under the server's
+	 * working directory.
+	 *
+	 * @param cl the options of the compile
+	 * @return why the options are rejected, or null if they are not
+	 */
+	private String checkPaths(final CommandLine cl) throws IOException {
+		for (final String option : PATH_OPTIONS)
+			if (cl.hasOption(option)) {
+				final String path = cl.getOptionValue(option);
+				final File f = new File(path);
+				if (f.isAbsolute() || !f.getCanonicalPath().startsWith(root.getPath() + File.separator))
+					return "-" + option + " must be a relative path under the server's directory: " + path;
+			}
+
+		// the class name is also the name of the generated files
+		if (cl.hasOption('n')) {
+			final String name = cl.getOptionValue('n');
+			if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)))
+				return "-n must be a Java identifier: " + name;
+			for (final char c : name.toCharArray())
+				if (!Character.isJavaIdentifierPart(c))
+					return "-n must be a Java identifier: " + name;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Prefixes each line written with "# ", so the errors of a program can be
+	 * told apart from the status line.
+	 */
+	private static class PrefixOutputStream extends OutputStream {
+		private final OutputStream out;
+		private boolean lineStart = true;
+
+		PrefixOutputStream(final OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			if (lineStart) {
+				out.write('#');
+				out.write(' ');
+			}
+			out.write(b);
+			lineStart = b == '\n';
+		}
+	}
+}
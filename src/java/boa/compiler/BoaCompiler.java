@@ -25,17 +25,17 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
 
-import javax.tools.JavaCompiler;
-import javax.tools.ToolProvider;
-
 import org.antlr.v4.runtime.ANTLRFileStream;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -78,10 +78,62 @@ import boa.parser.BoaParser;
 public class BoaCompiler extends BoaMain {
 	private static Logger LOG = Logger.getLogger(BoaCompiler.class);
 
+	/**
+	 * How long each phase of compiling a program took, in nanoseconds.
+	 */
+	public static class Timings {
+		public long parse, typecheck, transform, codegen, javac, jar;
+		/** whether the program was found in the compilation cache */
+		public boolean cached;
+
+		public long getTotal() {
+			return parse + typecheck + transform + codegen + javac + jar;
+		}
+
+		@Override
+		public String toString() {
+			return String.format((cached ? "cached, " : "") + "parse %d ms, typecheck %d ms, transforms %d ms, codegen %d ms, javac %d ms, jar %d ms, total %d ms",
+					parse / 1000000, typecheck / 1000000, transform / 1000000, codegen / 1000000, javac / 1000000, jar / 1000000, getTotal() / 1000000);
+		}
+	}
+
 	public static void main(final String[] args) throws IOException {
 		final CommandLine cl = processCommandLineOptions(args);
 		if (cl == null) return;
-		final File inputFile = BoaCompiler.inputFile;
+
+		// find custom libs to load
+		final List<URL> libs = new ArrayList<URL>();
+		if (cl.hasOption('l'))
+			for (final String lib : cl.getOptionValues('l'))
+				libs.add(new File(lib).toURI().toURL());
+
+		SymbolTable.initialize(libs);
+
+		final InMemoryJavaCompiler javac = new InMemoryJavaCompiler(System.getProperty("java.class.path"));
+		try {
+			final Timings timings = new Timings();
+			if (!compile(cl, javac, System.err, timings))
+				System.exit(-1);
+			LOG.info(inputFile.getName() + ": " + timings);
+		} finally {
+			javac.close();
+		}
+	}
+
+	/**
+	 * Compiles a program into a jar, as given by the options of
+	 * {@link #main(String[])}, with the symbol table already initialized.
+	 *
+	 * @param cl the options
+	 * @param javac the compiler of the generated code
+	 * @param err where to print the errors of the program
+	 * @param timings where to add how long each phase took
+	 * @return false if the program has errors
+	 * @throws RuntimeException if the compile failed for another reason, with
+	 *         that reason as its cause, for the caller to report
+	 */
+	static boolean compile(final CommandLine cl, final InMemoryJavaCompiler javac, final PrintStream err, final Timings timings) throws IOException {
+		final File inputFile = new File(cl.getOptionValue('i'));
 
 		// get the name of the generated class
 		final String className = getGeneratedClass(cl);
@@ -93,29 +145,14 @@ public class BoaCompiler extends BoaMain {
 		else
 			jarName = className + ".jar";
 
-		// make the output directory
-		File outputRoot = null;
-		if (cl.hasOption("cd")) {
-			outputRoot = new File(cl.getOptionValue("cd"));
-		} else {
-			outputRoot = new File(new File(System.getProperty("java.io.tmpdir")), UUID.randomUUID().toString());
-		}
-		final File outputSrcDir = new File(outputRoot, "boa");
-		if (!outputSrcDir.mkdirs())
-			throw new IOException("unable to mkdir " + outputSrcDir);
-
-		// find custom libs to load
-		final List<URL> libs = new ArrayList<URL>();
-		if (cl.hasOption('l'))
-			for (final String lib : cl.getOptionValues('l'))
-				libs.add(new File(lib).toURI().toURL());
-
-		SymbolTable.initialize(libs);
-
 		try {
+			long start = System.nanoTime();
+
 			final BoaLexer lexer = new BoaLexer(new ANTLRFileStream(inputFile.getAbsolutePath()));
 			lexer.removeErrorListeners();
-			lexer.addErrorListener(new LexerErrorListener());
+			final LexerErrorListener lexerErrorListener = new LexerErrorListener();
+			lexerErrorListener.err = err;
+			lexer.addErrorListener(lexerErrorListener);
 
 			final CommonTokenStream tokens = new CommonTokenStream(lexer);
 			final BoaParser parser = new BoaParser(tokens);
@@ -128,46 +165,90 @@ public class BoaCompiler extends BoaMain {
 			});
 
 			final BoaErrorListener parserErrorListener = new ParserErrorListener();
+			parserErrorListener.err = err;
 			final Start p = parse(tokens, parser, parserErrorListener);
 			if (cl.hasOption("ast")) new ASTPrintingVisitor().start(p);
 			// use the whole input string to seed the RNG
 			final int seed = new PrettyPrintVisitor().startAndReturn(p).hashCode();
+			timings.parse += System.nanoTime() - start;
+
+			if (parserErrorListener.hasError)
+				return false;
+
+			CompilationCache cache = null;
+			String key = null;
+			if (cl.hasOption("cache")) {
+				cache = new CompilationCache(new File(cl.getOptionValue("cache")),
+						(cl.hasOption("cachesize") ? Long.parseLong(cl.getOptionValue("cachesize")) : 1024) * 1024 * 1024,
+						(cl.hasOption("cacheage") ? Long.parseLong(cl.getOptionValue("cacheage")) : 30) * 24 * 60 * 60 * 1000);
+
+				final List<File> libs = new ArrayList<File>();
+				if (cl.hasOption('l'))
+					for (final String lib : cl.getOptionValues('l'))
+						libs.add(new File(lib));
+				key = CompilationCache.hash(tokens.getTokens(), className, DefaultProperties.localDataPath != null, libs);
+
+				final Map<String, byte[]> files = cache.get(key);
+				if (files != null) {
+					LOG.info(inputFile.getName() + ": found in the compilation cache");
+					timings.cached = true;
+
+					start = System.nanoTime();
+					writeOutput(cl, jarName, files);
+					timings.jar += System.nanoTime() - start;
+					return true;
+				}
+			}
 
+			final boolean isSimple;
 			try {
-				if (!parserErrorListener.hasError) {
-					new TypeCheckingVisitor().start(p, new SymbolTable());
-
-					final TaskClassifyingVisitor simpleVisitor = new TaskClassifyingVisitor();
-					simpleVisitor.start(p);
-					final boolean isSimple = !simpleVisitor.isComplex();
-					LOG.info(inputFile.getName() + ": task complexity: " + (isSimple ? "simple" : "complex"));
-
-					new VariableDeclRenameTransformer().start(p);
-					new InheritedAttributeTransformer().start(p);
-					new LocalAggregationTransformer().start(p);
-					new VisitorOptimizingTransformer().start(p);
-
-					if (cl.hasOption("pp")) new PrettyPrintVisitor().start(p);
-					if (cl.hasOption("ast2")) new ASTPrintingVisitor().start(p);
-
-					final CodeGeneratingVisitor cg = new CodeGeneratingVisitor(className, isSimple ? 64 * 1024 * 1024 : 10 * 1024 * 1024, seed, DefaultProperties.localDataPath != null);
-					cg.start(p);
-
-					final File outputFile = new File(outputSrcDir, className + ".java");
-					try (final BufferedOutputStream o = new BufferedOutputStream(new FileOutputStream(outputFile))) {
-						o.write(cg.getCode().getBytes());
-					}
-
-					compileGeneratedSrc(cl, jarName, outputRoot, outputFile);
-				} else {
-					System.exit(-1);
-				}
+				start = System.nanoTime();
+				new TypeCheckingVisitor().start(p, new SymbolTable());
+
+				final TaskClassifyingVisitor simpleVisitor = new TaskClassifyingVisitor();
+				simpleVisitor.start(p);
+				isSimple = !simpleVisitor.isComplex();
+				LOG.info(inputFile.getName() + ": task complexity: " + (isSimple ? "simple" : "complex"));
+				timings.typecheck += System.nanoTime() - start;
 			} catch (final TypeCheckException e) {
 				parserErrorListener.error("typecheck", lexer, null, e.n.beginLine, e.n.beginColumn, e.n2.endColumn - e.n.beginColumn + 1, e.getMessage(), e);
-				System.exit(-1);
+				return false;
 			}
+
+			start = System.nanoTime();
+			new VariableDeclRenameTransformer().start(p);
+			new InheritedAttributeTransformer().start(p);
+			new LocalAggregationTransformer().start(p);
+			new VisitorOptimizingTransformer().start(p);
+
+			if (cl.hasOption("pp")) new PrettyPrintVisitor().start(p);
+			if (cl.hasOption("ast2")) new ASTPrintingVisitor().start(p);
+			timings.transform += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			final CodeGeneratingVisitor cg = new CodeGeneratingVisitor(className, isSimple ? 64 * 1024 * 1024 : 10 * 1024 * 1024, seed, DefaultProperties.localDataPath != null);
+			cg.start(p);
+			final byte[] source = cg.getCode().getBytes();
+			timings.codegen += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			final Map<String, byte[]> classes = javac.compile("boa." + className, new String(source), err);
+			if (classes == null)
+				throw new RuntimeException("compile failed");
+			timings.javac += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			final Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+			files.put("boa/" + className + ".java", source);
+			files.putAll(classes);
+			writeOutput(cl, jarName, files);
+			if (cache != null)
+				cache.put(key, files);
+			timings.jar += System.nanoTime() - start;
+
+			return true;
 		} catch (final Exception e) {
-			e.printStackTrace();
+			// the caller reports it, where it reports the other errors of the program
 			throw new RuntimeException(inputFile.getName() + ": compilation failed", e);
 		}
 	}
@@ -239,16 +320,32 @@ public class BoaCompiler extends BoaMain {
 		}
 	}
 
-	private static void compileGeneratedSrc(final CommandLine cl, final String jarName, final File outputRoot, final File outputFile)
-			throws RuntimeException, IOException, FileNotFoundException {
-		// compile the generated .java file
-		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-		if (compiler == null)
-			throw new RuntimeException("Could not get javac - are you running the Boa compiler with a JDK or a JRE?");
-		LOG.info("compiling: " + outputFile);
-		LOG.info("classpath: " + System.getProperty("java.class.path"));
-		if (compiler.run(null, null, null, "-source", "8", "-target", "8", "-cp", System.getProperty("java.class.path"), outputFile.toString()) != 0)
-			throw new RuntimeException("compile failed");
+	/**
+	 * Writes the generated source and class files, and the libraries, to a
+	 * jar.  When running locally the files are also kept in the compilation
+	 * directory, for the evaluator to load them from.
+	 */
+	private static void writeOutput(final CommandLine cl, final String jarName, final Map<String, byte[]> files) throws IOException {
+		if (DefaultProperties.localDataPath != null) {
+			// make the output directory
+			final File outputRoot;
+			if (cl.hasOption("cd")) {
+				outputRoot = new File(cl.getOptionValue("cd"));
+			} else {
+				outputRoot = new File(new File(System.getProperty("java.io.tmpdir")), UUID.randomUUID().toString());
+			}
+			final File outputSrcDir = new File(outputRoot, "boa");
+			if (!outputSrcDir.mkdirs())
+				throw new IOException("unable to mkdir " + outputSrcDir);
+
+			for (final Map.Entry<String, byte[]> e : files.entrySet()) {
+				final File f = new File(outputRoot, e.getKey());
+				f.getParentFile().mkdirs();
+				try (final BufferedOutputStream o = new BufferedOutputStream(new FileOutputStream(f))) {
+					o.write(e.getValue());
+				}
+			}
+		}
 
 		final List<File> libJars = new ArrayList<File>();
 
@@ -267,16 +364,12 @@ public class BoaCompiler extends BoaMain {
 			for (final String s : Arrays.asList(cl.getOptionValues('l')))
 				libJars.add(new File(s));
 
-		generateJar(jarName, outputRoot, libJars);
-
-		if (DefaultProperties.localDataPath == null) {
-			delete(outputRoot);
-		}
+		generateJar(jarName, files, libJars);
 	}
 
 	static File inputFile = null;
 
-	private static CommandLine processCommandLineOptions(final String[] args) {
+	static CommandLine processCommandLineOptions(final String[] args) {
 		// parse the command line options
 		final Options options = new Options();
 		options.addOption("l", "libs", true, "extra jars (functions/aggregators) to be compiled in");
@@ -288,6 +381,9 @@ public class BoaCompiler extends BoaMain {
 		options.addOption("ast2", "ast-transformed", false, "print the AST after transformations, before code generation (debug)");
 		options.addOption("pp", "pretty-print", false, "pretty print the AST before code generation (debug)");
 		options.addOption("cd", "compilation-dir", true, "directory to store all generated files");
+		options.addOption("cache", "cache-dir", true, "directory to cache compiled programs in");
+		options.addOption("cachesize", "cache-size", true, "the maximum size of the cache, in MB (defaults to 1024)");
+		options.addOption("cacheage", "cache-age", true, "the days to keep unused programs in the cache (defaults to 30)");
 
 		final CommandLine cl;
 		try {
@@ -364,23 +460,15 @@ public class BoaCompiler extends BoaMain {
 		return className;
 	}
 
-	private static final void delete(final File f) throws IOException {
-		if (f.isDirectory())
-			for (final File g : f.listFiles())
-				delete(g);
-
-		if (!f.delete())
-			throw new IOException("unable to delete file " + f);
-	}
-
-	private static void generateJar(final String jarName, final File dir, final List<File> libJars) throws IOException, FileNotFoundException {
+	private static void generateJar(final String jarName, final Map<String, byte[]> files, final List<File> libJars) throws IOException, FileNotFoundException {
 		final JarOutputStream jar = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(new File(jarName))));
 
 		try {
-			final int offset = dir.toString().length() + 1;
-
-			for (final File f : findFiles(dir, new ArrayList<File>()))
-				putJarEntry(jar, f, f.getPath().substring(offset));
+			for (final Map.Entry<String, byte[]> e : files.entrySet()) {
+				jar.putNextEntry(new ZipEntry(e.getKey()));
+				jar.write(e.getValue());
+				jar.closeEntry();
+			}
 
 			for (final File f : libJars)
 				putJarEntry(jar, f, "lib" + File.separatorChar + f.getName());
@@ -389,16 +477,6 @@ public class BoaCompiler extends BoaMain {
 		}
 	}
 
-	private static final List<File> findFiles(final File f, final List<File> l) {
-		if (f.isDirectory())
-			for (final File g : f.listFiles())
-				findFiles(g, l);
-		else
-			l.add(f);
-
-		return l;
-	}
-
 	private static void putJarEntry(final JarOutputStream jar, final File f, final String path) throws IOException {
 		jar.putNextEntry(new ZipEntry(path));
 
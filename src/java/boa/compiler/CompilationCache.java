@@ -0,0 +1,353 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.antlr.v4.runtime.Token;
+import org.apache.log4j.Logger;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.STGroupFile;
+
+import boa.compiler.visitors.AbstractCodeGeneratingVisitor;
+
+/**
+ * An on-disk cache of compiled programs, so a program that was already
+ * compiled skips type checking, the transforms, code generation and javac.
+ *
+ * The generated source and class files of a program are kept in one zip file
+ * per program, named by a SHA-256 hash of the program's tokens, the compiler,
+ * the code generation templates and the libraries it was compiled with.  Programs that have not been used
+ * for longer than the maximum age are evicted, and then the least recently
+ * used programs until the cache is no larger than its maximum size.
+ *
+ * The cached class files are loaded and run, so the cache is only used if
+ * its directory belongs to the current user and no one else can write to
+ * it.  A missing directory is created readable by its owner only.
+ */
+public class CompilationCache {
+	private static Logger LOG = Logger.getLogger(CompilationCache.class);
+
+	private static final String SUFFIX = ".zip";
+
+	private static String compilerVersion = null;
+
+	private final File dir;
+	private final long maxSize;
+	private final long maxAge;
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param dir the directory to store the programs in
+	 * @param maxSize the maximum size of the cache, in bytes
+	 * @param maxAge the time to keep unused programs, in milliseconds
+	 */
+	public CompilationCache(final File dir, final long maxSize, final long maxAge) {
+		this.dir = dir;
+		this.maxSize = maxSize;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Computes the key of a program.
+	 *
+	 * @param tokens the tokens of the program, which leave out its whitespace and comments
+	 * @param className the name of the generated class
+	 * @param local whether the program was compiled to run locally
+	 * @param libs the libraries the program was compiled with
+	 * @return the key of the program
+	 */
+	public static String hash(final List<Token> tokens, final String className, final boolean local, final List<File> libs) throws IOException {
+		final MessageDigest md = newDigest();
+
+		update(md, getCompilerVersion());
+		updateTemplates(md, AbstractCodeGeneratingVisitor.stg);
+		update(md, className);
+		update(md, Boolean.toString(local));
+		for (final File lib : libs) {
+			update(md, lib.getName());
+			update(md, digest(lib));
+		}
+		for (final Token t : tokens)
+			if (t.getType() != Token.EOF)
+				update(md, t.getText());
+
+		return toHex(md.digest());
+	}
+
+	/**
+	 * Finds the generated files of a program.
+	 *
+	 * @param key the key of the program
+	 * @return the files, keyed by their path in a jar, or null if the program is not in the cache
+	 */
+	public Map<String, byte[]> get(final String key) {
+		final File f = new File(dir, key + SUFFIX);
+		if (!f.exists() || !isPrivate())
+			return null;
+
+		final Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+		try (final ZipInputStream in = new ZipInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+			ZipEntry e;
+			while ((e = in.getNextEntry()) != null)
+				files.put(e.getName(), readAll(in));
+		} catch (final IOException e) {
+			// the entry was evicted while being read, or is damaged
+			LOG.warn("unable to read " + f, e);
+			f.delete();
+			return null;
+		}
+
+		if (!f.setLastModified(System.currentTimeMillis()))
+			LOG.warn("unable to touch " + f);
+
+		return files;
+	}
+
+	/**
+	 * Stores the generated files of a program, and evicts old programs.
+	 *
+	 * @param key the key of the program
+	 * @param files the files, keyed by their path in a jar
+	 */
+	public void put(final String key, final Map<String, byte[]> files) throws IOException {
+		if (!dir.isDirectory())
+			createPrivate(dir.toPath());
+		if (!isPrivate())
+			return;
+
+		// write to a temporary file first, so readers never see part of an entry
+		final File tmp = new File(dir, UUID.randomUUID().toString() + ".tmp");
+		try (final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			for (final Map.Entry<String, byte[]> e : files.entrySet()) {
+				out.putNextEntry(new ZipEntry(e.getKey()));
+				out.write(e.getValue());
+				out.closeEntry();
+			}
+		}
+
+		final File f = new File(dir, key + SUFFIX);
+		if (!tmp.renameTo(f)) {
+			tmp.delete();
+			throw new IOException("unable to rename " + tmp + " to " + f);
+		}
+
+		evict();
+	}
+
+	/**
+	 * Removes the programs older than the maximum age, and then the least
+	 * recently used programs until the cache fits in the maximum size.
+	 */
+	public void evict() {
+		final File[] entries = dir.listFiles();
+		if (entries == null)
+			return;
+
+		final long now = System.currentTimeMillis();
+		final List<File> kept = new ArrayList<File>();
+		for (final File f : entries) {
+			if (!f.getName().endsWith(SUFFIX))
+				continue;
+			if (now - f.lastModified() > maxAge)
+				delete(f);
+			else
+				kept.add(f);
+		}
+
+		// newest first
+		final long[] modified = new long[kept.size()];
+		for (int i = 0; i < modified.length; i++)
+			modified[i] = kept.get(i).lastModified();
+		final Integer[] order = new Integer[kept.size()];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer a, final Integer b) {
+				return Long.compare(modified[b], modified[a]);
+			}
+		});
+
+		long size = 0;
+		for (final int i : order) {
+			final File f = kept.get(i);
+			size += f.length();
+			if (size > maxSize)
+				delete(f);
+		}
+	}
+
+	/**
+	 * Checks that only the current user can change the cache.
+	 */
+	private boolean isPrivate() {
+		try {
+			final PosixFileAttributes attrs = Files.readAttributes(dir.toPath(), PosixFileAttributes.class);
+			final Set<PosixFilePermission> perms = attrs.permissions();
+			if (attrs.owner().getName().equals(System.getProperty("user.name"))
+					&& !perms.contains(PosixFilePermission.GROUP_WRITE) && !perms.contains(PosixFilePermission.OTHERS_WRITE))
+				return true;
+		} catch (final UnsupportedOperationException e) {
+			// not a POSIX file system, so rely on its default permissions
+			return true;
+		} catch (final IOException e) {
+		}
+
+		LOG.warn("not using the compilation cache " + dir + ", as it is not private to " + System.getProperty("user.name"));
+		return false;
+	}
+
+	private static void createPrivate(final Path dir) throws IOException {
+		try {
+			Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+		} catch (final UnsupportedOperationException e) {
+			Files.createDirectories(dir);
+		}
+	}
+
+	private static void delete(final File f) {
+		if (f.delete())
+			LOG.info("evicted " + f);
+	}
+
+	/**
+	 * The compiler's version is the hash of the jar it was loaded from, or
+	 * when run from a build directory, the time that directory last changed.
+	 */
+	private static synchronized String getCompilerVersion() throws IOException {
+		if (compilerVersion == null) {
+			final File base;
+			try {
+				base = new File(CompilationCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+			} catch (final URISyntaxException e) {
+				throw new IOException(e);
+			}
+
+			if (base.isFile())
+				compilerVersion = digest(base);
+			else
+				compilerVersion = base.getAbsolutePath() + "@" + lastModified(base);
+		}
+
+		return compilerVersion;
+	}
+
+	/**
+	 * The templates are read from the working directory when it has them,
+	 * so they are hashed by their contents and not as part of the compiler.
+	 */
+	private static void updateTemplates(final MessageDigest md, final STGroup group) throws IOException {
+		if (group instanceof STGroupFile)
+			update(md, ((STGroupFile)group).url == null ? "" : digest(((STGroupFile)group).url));
+		for (final STGroup g : group.getImportedGroups())
+			updateTemplates(md, g);
+	}
+
+	private static long lastModified(final File f) {
+		long modified = f.lastModified();
+		final File[] children = f.listFiles();
+		if (children != null)
+			for (final File g : children)
+				modified = Math.max(modified, lastModified(g));
+		return modified;
+	}
+
+	private static String digest(final File f) throws IOException {
+		try (final InputStream in = new BufferedInputStream(new FileInputStream(f))) {
+			return digest(in);
+		}
+	}
+
+	private static String digest(final URL url) throws IOException {
+		try (final InputStream in = new BufferedInputStream(url.openStream())) {
+			return digest(in);
+		}
+	}
+
+	private static String digest(final InputStream in) throws IOException {
+		final MessageDigest md = newDigest();
+		final byte[] buf = new byte[8192];
+		int n;
+		while ((n = in.read(buf)) != -1)
+			md.update(buf, 0, n);
+		return toHex(md.digest());
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void update(final MessageDigest md, final String s) {
+		final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		// prefix each part with its length, so parts can not run together
+		md.update((byte)(b.length >>> 24));
+		md.update((byte)(b.length >>> 16));
+		md.update((byte)(b.length >>> 8));
+		md.update((byte)b.length);
+		md.update(b);
+	}
+
+	private static byte[] readAll(final InputStream in) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buf = new byte[8192];
+		int n;
+		while ((n = in.read(buf)) != -1)
+			out.write(buf, 0, n);
+		return out.toByteArray();
+	}
+
+	private static String toHex(final byte[] bytes) {
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : bytes)
+			sb.append(String.format("%02x", b & 0xff));
+		return sb.toString();
+	}
+}
@@ -48,6 +48,17 @@ public class FunctionTrie {
 		this.trie = new LinkedHashMap<Object,Object>(clone.trie);
 	}
 
+	/**
+	 * Returns a copy of this trie that shares no tries with it, so functions
+	 * added to one are not added to the other.
+	 */
+	public FunctionTrie copy() {
+		final FunctionTrie copy = new FunctionTrie();
+		for (final Map.Entry<Object,Object> e : this.trie.entrySet())
+			copy.trie.put(e.getKey(), e.getValue() instanceof FunctionTrie ? ((FunctionTrie) e.getValue()).copy() : e.getValue());
+		return copy;
+	}
+
 	private BoaType replaceVar(final BoaType formal, final BoaType actual, final Map<String, BoaType> typeVars) {
 		BoaType t = formal;
 		BoaType t2 = actual;
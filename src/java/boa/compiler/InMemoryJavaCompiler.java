@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles generated Java source in memory, without writing the source or
+ * the class files to disk.
+ *
+ * The file manager, and with it the index of the jars on the class path, is
+ * kept from one compilation to the next, so a long-lived compiler only opens
+ * them once.  A compiler is not thread safe.
+ */
+public class InMemoryJavaCompiler {
+	private final JavaCompiler compiler;
+	private final StandardJavaFileManager fileManager;
+
+	/**
+	 * Constructs a compiler of source using the classes of a class path.
+	 *
+	 * @param classPath the class path, as in {@code java.class.path}
+	 */
+	public InMemoryJavaCompiler(final String classPath) throws IOException {
+		this.compiler = ToolProvider.getSystemJavaCompiler();
+		if (this.compiler == null)
+			throw new RuntimeException("Could not get javac - are you running the Boa compiler with a JDK or a JRE?");
+		this.fileManager = this.compiler.getStandardFileManager(null, null, null);
+
+		final List<File> path = new ArrayList<File>();
+		for (final String s : classPath.split(File.pathSeparator))
+			if (!s.isEmpty())
+				path.add(new File(s));
+		this.fileManager.setLocation(StandardLocation.CLASS_PATH, path);
+	}
+
+	/**
+	 * Compiles the source of one class.
+	 *
+	 * @param className the fully qualified name of the class
+	 * @param source the source of the class
+	 * @param err where to print the errors
+	 * @return the class files, keyed by their path in a jar, or null if the
+	 *         source has errors
+	 */
+	public Map<String, byte[]> compile(final String className, final String source, final PrintStream err) throws IOException {
+		final Map<String, ByteArrayOutputStream> classes = new LinkedHashMap<String, ByteArrayOutputStream>();
+
+		final JavaFileObject input = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+				return source;
+			}
+		};
+
+		final JavaFileManager output = new ForwardingJavaFileManager<StandardJavaFileManager>(this.fileManager) {
+			@Override
+			public JavaFileObject getJavaFileForOutput(final Location location, final String name, final JavaFileObject.Kind kind, final FileObject sibling) {
+				final String path = name.replace('.', '/') + kind.extension;
+				return new SimpleJavaFileObject(URI.create("mem:///" + path), kind) {
+					@Override
+					public OutputStream openOutputStream() {
+						final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+						classes.put(path, bytes);
+						return bytes;
+					}
+				};
+			}
+		};
+
+		// the generated code uses no annotation processors, so do not look for any
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		final boolean ok = this.compiler.getTask(null, output, diagnostics, Arrays.asList("-source", "8", "-target", "8", "-proc:none"), null, Arrays.asList(input)).call();
+
+		for (final Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics())
+			if (d.getKind() == Diagnostic.Kind.ERROR)
+				err.println(className + ":" + d.getLineNumber() + ": " + d.getMessage(null));
+		if (!ok)
+			return null;
+
+		final Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+		for (final Map.Entry<String, ByteArrayOutputStream> e : classes.entrySet())
+			files.put(e.getKey(), e.getValue().toByteArray());
+		return files;
+	}
+
+	public void close() throws IOException {
+		this.fileManager.close();
+	}
+}
@@ -218,7 +218,7 @@ public class SymbolTable {
 		for (final BoaType t : dslTupleTypes) {
 			globalFunctions.addFunction("visit", new BoaFunction(new BoaAny(), new BoaType[] { t, new BoaVisitor() }, "${1}.visit(${0})"));
 			globalFunctions.addFunction("visit", new BoaFunction(new BoaAny(), new BoaType[] { t }, "visit(${0})"));
-			globalFunctions.addFunction("ast_len", new BoaFunction(new BoaInt(), new BoaType[] { t }, "boa.functions.BoaAstIntrinsics.lenVisitor.getCount(${0})"));
+			globalFunctions.addFunction("ast_len", new BoaFunction(new BoaInt(), new BoaType[] { t }, "new boa.functions.BoaAstIntrinsics.LenVisitor().getCount(${0})"));
 		}
 		globalFunctions.addFunction("_cur_visitor", new BoaFunction(new BoaVisitor(), new BoaType[] { }, "this"));
 
@@ -370,8 +370,58 @@ public class SymbolTable {
 		functions = new FunctionTrie();
 	}
 
+	/**
+	 * The global names, saved so that programs compiled one after another in
+	 * one JVM each start from the same names.
+	 */
+	private static class Globals {
+		private final HashMap<String, Class<?>> aggregators;
+		private final Map<String, BoaType> globals;
+		private final FunctionTrie functions;
+
+		Globals() {
+			this.aggregators = new HashMap<String, Class<?>>(SymbolTable.aggregators);
+			this.globals = new HashMap<String, BoaType>(SymbolTable.globals);
+			this.functions = globalFunctions.copy();
+		}
+
+		void restore() {
+			SymbolTable.aggregators = new HashMap<String, Class<?>>(this.aggregators);
+			SymbolTable.globals.clear();
+			SymbolTable.globals.putAll(this.globals);
+			globalFunctions = this.functions.copy();
+			resetTypeMap();
+		}
+	}
+
+	// the global names before any library is imported, and after the last initialize
+	private static Globals builtins = null;
+	private static Globals initialized = null;
+
+	/**
+	 * Imports the built-in functions and aggregators and those of some
+	 * libraries, forgetting any imported or declared before.
+	 *
+	 * @param libs the jars of the libraries
+	 */
 	public static void initialize(final List<URL> libs) throws IOException {
+		if (builtins == null)
+			builtins = new Globals();
+		else
+			builtins.restore();
 		importLibs(libs);
+		initialized = new Globals();
+	}
+
+	/**
+	 * Forgets the types, variables and functions declared by the programs
+	 * compiled since the last {@link #initialize(List)}, so the next program
+	 * is compiled as in a new JVM without importing the libraries again.
+	 */
+	public static void reset() {
+		if (initialized == null)
+			throw new IllegalStateException("the symbol table is not initialized");
+		initialized.restore();
 	}
 
 	public static void resetTypeMap() {
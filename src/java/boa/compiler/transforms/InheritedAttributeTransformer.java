@@ -66,7 +66,7 @@ import boa.types.BoaStack;
  */
 public class InheritedAttributeTransformer extends AbstractVisitorNoArgNoRet {
 	private final static String stackPrefix = "_inhattr_";
-	private static int stackCounter = 0;
+	private int stackCounter = 0;
 
 	private SymbolTable env;
 
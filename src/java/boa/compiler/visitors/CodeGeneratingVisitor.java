@@ -37,6 +37,8 @@ import boa.compiler.ast.statements.*;
 import boa.compiler.ast.types.*;
 import boa.compiler.visitors.analysis.*;
 import boa.types.*;
+import boa.types.proto.ProjectProtoTuple;
+import boa.types.proto.RevisionProtoTuple;
 
 /**
  *
@@ -277,17 +279,20 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 
 				final List<String> fields = new ArrayList<String>();
 				final List<String> types = new ArrayList<String>();
+				final List<Boolean> sets = new ArrayList<Boolean>();
 
 				int counter = 0;
 				for (final Expression e : n.getExprs()) {
 					fields.add("f" + counter);
 					types.add(e.type.toBoxedJavaType());
+					sets.add(e.type instanceof BoaSet);
 					counter++;
 				}
 
 				st.add("name", name);
 				st.add("fields", fields);
 				st.add("types", types);
+				st.add("sets", sets);
 
 				code.add(st.render());
 			}
@@ -312,6 +317,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			final List<String> fields = new ArrayList<String>();
 			final List<String> types = new ArrayList<String>();
 			final List<Boolean> protos = new ArrayList<Boolean>();
+			final List<Boolean> sets = new ArrayList<Boolean>();
 
 			int fieldCount = 0;
 			for (final Component c : members) {
@@ -323,6 +329,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 				fieldCount++;
 				BoaType type = c.getType().type;
 				protos.add(type instanceof BoaProtoTuple);
+				sets.add(type instanceof BoaSet);
 				types.add(type.toBoxedJavaType());
 			}
 
@@ -330,6 +337,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			st.add("fields", fields);
 			st.add("types", types);
 			st.add("protos", protos);
+			st.add("sets", sets);
 
 			code.add(st.render());
 		}
@@ -476,6 +484,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 	protected final IdentifierFindingVisitor idFinder = new IdentifierFindingVisitor();
 	protected final IndexeeFindingVisitor indexeeFinder = new IndexeeFindingVisitor();
 	protected final CallFindingVisitor callFinder = new CallFindingVisitor();
+	protected final FieldUsageVisitor fieldUsage = new FieldUsageVisitor();
 	protected final VarDeclCodeGeneratingVisitor varDecl;
 	protected final StaticInitializationCodeGeneratingVisitor staticInitialization;
 	protected final FunctionDeclaratorCodeGeneratingVisitor functionDeclarator;
@@ -487,6 +496,12 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 	protected String skipIndex = "";
 	protected boolean abortGeneration = false;
 
+	/** how many loops or visit clauses enclose the code being generated */
+	protected int loopDepth = 0;
+
+	/** true while generating a traversal whose results keep their sets as bitsets */
+	protected boolean bitSets = false;
+
 	protected String className;
 	protected int splitSize;
 	protected int seed;
@@ -538,6 +553,21 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		}
 		st.add("statements", statements);
 
+		// only decode the parts of each project the program reads
+		this.fieldUsage.start(n);
+		final ProjectProtoTuple input = new ProjectProtoTuple();
+		final Map<String, Set<String>> partialTypes = this.fieldUsage.getPartialTypes(input);
+		if (partialTypes.containsKey(input.toJavaType())) {
+			final StringBuilder parser = new StringBuilder();
+			for (final Entry<String, Set<String>> entry : partialTypes.entrySet()) {
+				parser.append("\n\t\t\t.keep(" + entry.getKey() + ".getDescriptor()");
+				for (final String field : entry.getValue())
+					parser.append(", \"" + field + "\"");
+				parser.append(")");
+			}
+			st.add("inputParser", parser.toString());
+		}
+
 		if (this.aggregators.size() == 0)
 			throw new TypeCheckException(n, "No output variables were declared - must declare at least one output variable");
 
@@ -622,7 +652,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			}
 		} else {
 			if (f.hasName()) {
-				st.add("operand", f.getName());
+				st.add("operand", this.loopDepth > 0 ? lowerSnapshot(f.getName(), n) : f.getName());
 			} else {
 				n.env.getOperand().accept(this);
 				st.add("operand", code.removeLast() + ".invoke");
@@ -637,6 +667,20 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		code.add(st.render());
 	}
 
+	/**
+	 * Snapshots taken repeatedly, such as once per revision in a loop, are
+	 * computed from the previous snapshot instead of replaying history.
+	 */
+	protected String lowerSnapshot(final String name, final Call n) {
+		if (n.getArgsSize() < 2)
+			return name;
+		if (name.equals("boa.functions.BoaIntrinsics.getSnapshotByIndex") && n.getArg(1).type instanceof BoaInt)
+			return "boa.functions.BoaIntrinsics.getIncrementalSnapshotByIndex";
+		if (name.equals("boa.functions.BoaIntrinsics.getSnapshot") && n.getArg(1).type instanceof RevisionProtoTuple)
+			return "boa.functions.BoaIntrinsics.getIncrementalSnapshot";
+		return name;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void visit(final Comparison n) {
@@ -1050,7 +1094,9 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		n.getCondition().accept(this);
 		st.add("condition", code.removeLast());
 
+		this.loopDepth++;
 		n.getBody().accept(this);
+		this.loopDepth--;
 		st.add("stmt", code.removeLast());
 
 		code.add(st.render());
@@ -1076,10 +1122,12 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 
 		n.getValue().accept(this);
 		st.add("expression", code.removeLast());
+		st.add("type", emitValueType(n.getValue().type));
 
 		if (n.hasWeight()) {
 			n.getWeight().accept(this);
 			st.add("weight", code.removeLast());
+			st.add("weightType", emitValueType(n.getWeight().type));
 		}
 
 		code.add(st.render());
@@ -1163,7 +1211,9 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		e.accept(this);
 		st.add("expression", code.removeLast());
 
+		this.loopDepth++;
 		b.accept(this);
+		this.loopDepth--;
 		st.add("statement", code.removeLast());
 
 		code.add(st.render());
@@ -1195,7 +1245,9 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			st.add("exprstmt", s.substring(0, s.length() - 2));
 		}
 
+		this.loopDepth++;
 		n.getBody().accept(this);
+		this.loopDepth--;
 		st.add("statement", code.removeLast());
 
 		code.add(st.render());
@@ -1335,7 +1387,12 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			}
 
 			n.getType().accept(this);
-			st.add("rhs", "new " + code.removeLast() + "()");
+			if (this.bitSets && isBitSet(lhsType)) {
+				code.removeLast();
+				st.add("rhs", "new boa.runtime.BitSetSet<" + ((BoaSet) lhsType).getType().toBoxedJavaType() + ">()");
+			} else {
+				st.add("rhs", "new " + code.removeLast() + "()");
+			}
 			code.add(st.render());
 			return;
 		}
@@ -1399,6 +1456,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 
 		st.add("ret", isBefore ? "boolean" : "void");
 
+		this.loopDepth++;
 		if (n.getBody() instanceof Block) {
 			for (final Node b : ((Block)n.getBody()).getStatements()) {
 				b.accept(this);
@@ -1408,6 +1466,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			n.getBody().accept(this);
 			body.add(code.removeLast());
 		}
+		this.loopDepth--;
 		if (isBefore && !lastStatementIsStop(n.getBody()))
 			body.add("return true;\n");
 		st.add("body", body);
@@ -1477,9 +1536,13 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 			st.add("name", "preTraverse");
 		}
 
-		if (!(funcType.getType() instanceof BoaAny))
+		if (!(funcType.getType() instanceof BoaAny)) {
 			st.add("ret", funcType.getType().toBoxedJavaType());
+			st.add("set", funcType.getType() instanceof BoaSet);
+		}
 
+		final boolean outerBitSets = this.bitSets;
+		this.bitSets = hasBitSets(funcType.getType());
 		if (n.hasBody()) {
 			if (n.getBody() instanceof Block) {
 				for (final Node b : ((Block)n.getBody()).getStatements()) {
@@ -1491,6 +1554,7 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 				body.add(code.removeLast());
 			}
 		}
+		this.bitSets = outerBitSets;
 
 		final CFGBuildingVisitor cfgBuilder = new CFGBuildingVisitor();
 		n.accept(cfgBuilder);
@@ -1526,7 +1590,9 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		n.getCondition().accept(this);
 		st.add("condition", code.removeLast());
 
+		this.loopDepth++;
 		n.getBody().accept(this);
+		this.loopDepth--;
 		st.add("stmt", code.removeLast());
 
 		code.add(st.render());
@@ -1985,6 +2051,19 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		return replaced;
 	}
 
+	/**
+	 * Returns the primitive Java type an emitted value of the given type is
+	 * cast to, so the generated code picks the binary {@link boa.io.EmitValue}
+	 * constructor, or null if the value is emitted as a string.
+	 */
+	private static String emitValueType(final BoaType type) {
+		if (type instanceof BoaInt || type instanceof BoaTime)
+			return "long";
+		if (type instanceof BoaFloat)
+			return "double";
+		return null;
+	}
+
 	private static String nonScalarTypeTransform(final BoaType type, String typeStr) {
 		if (type instanceof BoaArray)
 			return typeStr.replace("[]", "[0]");
@@ -2035,6 +2114,34 @@ public class CodeGeneratingVisitor extends AbstractCodeGeneratingVisitor {
 		return false;
 	}
 
+	/**
+	 * Returns true if a type is a set of strings or ints, which traversals
+	 * may keep as a {@link boa.runtime.BitSetSet}.
+	 */
+	protected static boolean isBitSet(final BoaType type) {
+		if (!(type instanceof BoaSet))
+			return false;
+		final BoaType t = ((BoaSet) type).getType();
+		return t instanceof BoaString || t instanceof BoaInt;
+	}
+
+	/**
+	 * Returns true if the results of a traversal, of some type, are or hold
+	 * sets of strings or ints.  The sets such a traversal declares are then
+	 * made bitsets.
+	 */
+	protected static boolean hasBitSets(final BoaType type) {
+		if (type instanceof BoaName)
+			return hasBitSets(((BoaName) type).getType());
+		if (type instanceof BoaTuple && !(type instanceof BoaProtoTuple)) {
+			for (final BoaType t : ((BoaTuple) type).getTypes())
+				if (hasBitSets(t))
+					return true;
+			return false;
+		}
+		return isBitSet(type);
+	}
+
 	protected List<BoaType> check(final Call c) {
 		if (c.getArgsSize() > 0)
 			return this.check(c.getArgs());
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.compiler.visitors;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import boa.compiler.ast.Call;
+import boa.compiler.ast.Comparison;
+import boa.compiler.ast.Conjunction;
+import boa.compiler.ast.Factor;
+import boa.compiler.ast.Node;
+import boa.compiler.ast.Selector;
+import boa.compiler.ast.Term;
+import boa.compiler.ast.expressions.Expression;
+import boa.compiler.ast.expressions.SimpleExpr;
+import boa.compiler.ast.statements.AssignmentStatement;
+import boa.compiler.ast.statements.VarDeclStatement;
+import boa.types.BoaArray;
+import boa.types.BoaName;
+import boa.types.BoaProtoList;
+import boa.types.BoaProtoTuple;
+import boa.types.BoaType;
+
+/**
+ * Finds which fields of each protocol buffer type a program reads.
+ *
+ * A field is read when it is selected, e.g. {@code p.name}.  A value that is
+ * used any other way, such as being passed to a function, visited, output or
+ * compared, may have any of its fields read, so its type is marked as fully
+ * used.  Copying a value into a variable is not a use, since every use of
+ * the variable is found on its own.
+ */
+public class FieldUsageVisitor extends AbstractVisitorNoArgNoRet {
+	protected final Map<Class<? extends BoaProtoTuple>, BoaProtoTuple> types = new HashMap<Class<? extends BoaProtoTuple>, BoaProtoTuple>();
+	protected final Map<Class<? extends BoaProtoTuple>, Set<String>> fields = new HashMap<Class<? extends BoaProtoTuple>, Set<String>>();
+	protected final Set<Class<? extends BoaProtoTuple>> full = new HashSet<Class<? extends BoaProtoTuple>>();
+	protected final Set<Factor> copies = new HashSet<Factor>();
+
+	/**
+	 * Returns the fields read from each type reachable from a root type that
+	 * is not fully used, keyed by the Java type of the protocol buffer message.
+	 *
+	 * @param root the type values are decoded from
+	 * @return the fields read from each partially used type
+	 */
+	public Map<String, Set<String>> getPartialTypes(final BoaProtoTuple root) {
+		final Set<Class<? extends BoaProtoTuple>> reachable = root.reachableTypes();
+		final Map<String, Set<String>> partial = new LinkedHashMap<String, Set<String>>();
+		for (final Map.Entry<Class<? extends BoaProtoTuple>, Set<String>> e : this.fields.entrySet())
+			if (!this.full.contains(e.getKey()) && reachable.contains(e.getKey()))
+				partial.put(this.types.get(e.getKey()).toJavaType(), e.getValue());
+		return partial;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void initialize() {
+		super.initialize();
+		types.clear();
+		fields.clear();
+		full.clear();
+		copies.clear();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void visit(final VarDeclStatement n) {
+		if (n.hasInitializer())
+			copies.add(asFactor(n.getInitializer()));
+		super.visit(n);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void visit(final AssignmentStatement n) {
+		copies.add(n.getLhs());
+		copies.add(asFactor(n.getRhs()));
+		super.visit(n);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void visit(final Factor n) {
+		super.visit(n);
+
+		int i = 0;
+		BoaType type = n.getOperand().type;
+		if (n.getOpsSize() > 0 && n.getOp(0) instanceof Call) {
+			type = n.getOp(0).type;
+			i = 1;
+		}
+
+		for (; i < n.getOpsSize(); i++) {
+			final Node op = n.getOp(i);
+			if (op instanceof Selector) {
+				if (type instanceof BoaName)
+					type = ((BoaName) type).getType();
+				if (type instanceof BoaProtoTuple)
+					use((BoaProtoTuple) type, ((Selector) op).getId().getToken());
+			}
+			type = op.type;
+		}
+
+		if (!copies.contains(n))
+			useAll(type);
+	}
+
+	private void use(final BoaProtoTuple type, final String field) {
+		types.put(type.getClass(), type);
+		if (!fields.containsKey(type.getClass()))
+			fields.put(type.getClass(), new TreeSet<String>());
+		fields.get(type.getClass()).add(field);
+	}
+
+	private void useAll(final BoaType type) {
+		if (type instanceof BoaProtoTuple)
+			full.add(((BoaProtoTuple) type).getClass());
+		else if (type instanceof BoaProtoList)
+			useAll(((BoaProtoList) type).getType());
+		else if (type instanceof BoaArray)
+			useAll(((BoaArray) type).getType());
+	}
+
+	/**
+	 * Returns the factor an expression consists of, if it is a single factor.
+	 */
+	private static Factor asFactor(final Expression e) {
+		if (e.getRhsSize() > 0)
+			return null;
+		final Conjunction c = e.getLhs();
+		if (c.getRhsSize() > 0)
+			return null;
+		final Comparison cmp = c.getLhs();
+		if (cmp.hasRhs())
+			return null;
+		final SimpleExpr s = cmp.getLhs();
+		if (s.getRhsSize() > 0)
+			return null;
+		final Term t = s.getLhs();
+		if (t.getRhsSize() > 0)
+			return null;
+		return t.getLhs();
+	}
+}
@@ -161,10 +161,12 @@ public class BoaGenerator {
 		options.addOption("inputToken", "token", true, "token file");
 		options.addOption("inputRepo", "json", true, "cloned repo path");
 		options.addOption("threads", "threads", true, "number of threads");
+		options.addOption("parsethreads", "parsethreads", true, "number of threads parsing source files, 0 parses on the importing threads");
 		options.addOption("projects", "projects", true, "maximum number of projects per sequence file");
 		options.addOption("commits", "commits", true, "maximum number of commits of a project to be stored in the project object");
 		options.addOption("nocommits", "nocommits", false, "do not store commits");	
 		options.addOption("noasts", "noasts", false, "do not store asts");
+		options.addOption("repopacks", "repopacks", false, "store repositories as git pack files instead of serialized objects");
 		options.addOption("factor", "factor", true, "max size factor");
 		options.addOption("exceptions", "exceptions", true, "do not generate those projects");
 		options.addOption("size", "size", true, "maximum size of a project object to be stored");
@@ -229,6 +231,9 @@ public class BoaGenerator {
 		if (cl.hasOption("threads")) {
 			DefaultProperties.NUM_THREADS = cl.getOptionValue("threads");
 		}
+		if (cl.hasOption("parsethreads")) {
+			DefaultProperties.NUM_PARSE_THREADS = cl.getOptionValue("parsethreads");
+		}
 		if (cl.hasOption("projects")) {
 			DefaultProperties.MAX_PROJECTS = cl.getOptionValue("projects");
 		}
@@ -255,6 +260,8 @@ public class BoaGenerator {
 		if (cl.hasOption("noasts")) {
 			DefaultProperties.STORE_ASTS = false;
 		}
+		if (cl.hasOption("repopacks"))
+			DefaultProperties.STORE_REPO_PACKS = true;
 		if (cl.hasOption("exceptions")) {
 			try {
 				DefaultProperties.exceptions = getExcludes(cl.getOptionValue("exceptions"));
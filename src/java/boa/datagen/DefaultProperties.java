@@ -26,6 +26,7 @@ import java.util.HashSet;
  */
 public class DefaultProperties {
 	public static String NUM_THREADS = "1";
+	public static String NUM_PARSE_THREADS = String.valueOf(Runtime.getRuntime().availableProcessors());
 	public static String MAX_PROJECTS = "1000";
 	public static String MAX_COMMITS = "10000";
 	public static String MAX_SIZE_FOR_PROJECT_WITH_COMMITS = String.valueOf(1 << 26); // Integer.MAX_VALUE / 3
@@ -74,6 +75,7 @@ public class DefaultProperties {
 	public static  String OUTPUT = "output";
 	
 	public static boolean STORE_ASCII_PRINTABLE_CONTENTS = true, STORE_COMMITS = true, STORE_ASTS = true;
+	public static boolean STORE_REPO_PACKS = false;
 
 	public static String localDataPath = null;
 	
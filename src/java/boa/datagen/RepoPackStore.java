@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boa.datagen;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.MapFile;
+import org.eclipse.jgit.internal.storage.file.ByteArrayFile;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+
+import boa.datagen.util.Properties;
+
+/**
+ * Stores each git repository as its bare git directory, keeping the pack and
+ * index files byte for byte, under {@code <output>/repopack/<repoKey>}.
+ *
+ * Unlike the serialized {@link ByteArrayFile}s in the {@code repo} MapFile,
+ * a stored repository is opened by JGit directly from its files, with pack
+ * files memory-mapped, so reading one blob only touches the pages holding it.
+ * Repositories on a non-local file system are first copied to a local
+ * directory, shared by every task on the node.
+ *
+ * Running this class converts an existing {@code repo} MapFile into the new
+ * layout: RepoPackStore [output path]
+ */
+public class RepoPackStore {
+	public static final String DIR = "repopack";
+
+	/** The default bound on the local copies kept on one node, in bytes. */
+	public static final long DEFAULT_LOCAL_BYTES = 16L * 1024 * 1024 * 1024;
+
+	private static final String TMP_SUFFIX = ".tmp-";
+
+	// the local copy each open repository was read from, and how many open
+	// repositories use each copy, so copies in use are never trimmed
+	private static final Map<Repository, File> localCopies = new HashMap<Repository, File>();
+	private static final Map<File, Integer> copiesInUse = new HashMap<File, Integer>();
+	private static boolean mmapInstalled = false;
+
+	/**
+	 * Copies a local bare git directory into the store.
+	 *
+	 * @param fs the file system of the store
+	 * @param target the directory to store the repository in
+	 * @param gitDir the local git directory
+	 * @return the number of bytes stored
+	 */
+	public static long write(final FileSystem fs, final Path target, final File gitDir) throws IOException {
+		if (fs.exists(target))
+			fs.delete(target, true);
+		fs.mkdirs(target.getParent());
+		fs.copyFromLocalFile(false, true, new Path(gitDir.getAbsolutePath()), target);
+		return fs.getContentSummary(target).getLength();
+	}
+
+	/**
+	 * Returns the size of a local git directory.
+	 */
+	public static long size(final File gitDir) {
+		return FileUtils.sizeOfDirectory(gitDir);
+	}
+
+	/**
+	 * Opens a stored repository.
+	 *
+	 * @param fs the file system of the store
+	 * @param dir the directory the repository is stored in
+	 * @param conf the configuration, used to find a local scratch directory
+	 * @return the repository, or null if nothing is stored there
+	 */
+	public static synchronized Repository open(final FileSystem fs, final Path dir, final Configuration conf) throws IOException {
+		if (!fs.exists(dir))
+			return null;
+
+		if (!mmapInstalled) {
+			final WindowCacheConfig cfg = new WindowCacheConfig();
+			cfg.setPackedGitMMAP(true);
+			cfg.install();
+			mmapInstalled = true;
+		}
+
+		if (fs instanceof LocalFileSystem || "file".equals(fs.getUri().getScheme()))
+			return new FileRepositoryBuilder().setGitDir(new File(dir.toUri().getPath())).setBare().build();
+
+		final File local = localCopy(fs, dir, conf);
+		final Repository repo = new FileRepositoryBuilder().setGitDir(local).setBare().build();
+		localCopies.put(repo, local);
+		final Integer uses = copiesInUse.get(local);
+		copiesInUse.put(local, uses == null ? 1 : uses + 1);
+		return repo;
+	}
+
+	/**
+	 * Returns the local copy of a repository stored on a non-local file system,
+	 * copying it first if this node has no copy yet.
+	 *
+	 * Copies live under {@code <boa.repo.pack.local>/boa-repopack}, named after
+	 * the stored path, so every task on the node reuses them.  A copy is made
+	 * under a temporary name and renamed into place, so no task ever opens a
+	 * partial copy.  After each new copy, the least recently opened copies not
+	 * in use by this JVM are removed until all copies fit in
+	 * {@code boa.repo.pack.local.bytes}.
+	 */
+	private static File localCopy(final FileSystem fs, final Path dir, final Configuration conf) throws IOException {
+		final File cache = new File(conf.get("boa.repo.pack.local", System.getProperty("java.io.tmpdir")), "boa-repopack");
+		cache.mkdirs();
+
+		final File local = new File(cache, fs.makeQualified(dir).toUri().getPath().replaceAll("[^A-Za-z0-9._-]", "_"));
+		if (local.isDirectory()) {
+			local.setLastModified(System.currentTimeMillis());
+			return local;
+		}
+
+		final File tmp = new File(cache, local.getName() + TMP_SUFFIX + System.nanoTime());
+		try {
+			fs.copyToLocalFile(dir, new Path(tmp.getAbsolutePath()));
+			// another task on the node may have finished the same copy first
+			if (!tmp.renameTo(local) && !local.isDirectory())
+				throw new IOException("could not copy " + dir + " to " + local);
+		} finally {
+			FileUtils.deleteQuietly(tmp);
+		}
+
+		trimLocalCopies(cache, conf.getLong("boa.repo.pack.local.bytes", DEFAULT_LOCAL_BYTES), local);
+		return local;
+	}
+
+	/**
+	 * Removes the least recently opened local copies until the copies fit in
+	 * the given number of bytes, keeping the given copy and those in use.
+	 */
+	private static void trimLocalCopies(final File cache, final long maxBytes, final File keep) {
+		final File[] copies = cache.listFiles();
+		if (copies == null)
+			return;
+
+		long total = 0;
+		final Map<File, Long> sizes = new HashMap<File, Long>();
+		for (final File f : copies) {
+			if (f.getName().contains(TMP_SUFFIX))
+				continue;
+			final long size = FileUtils.sizeOf(f);
+			sizes.put(f, size);
+			total += size;
+		}
+		if (total <= maxBytes)
+			return;
+
+		final File[] oldest = sizes.keySet().toArray(new File[sizes.size()]);
+		Arrays.sort(oldest, new Comparator<File>() {
+			@Override
+			public int compare(final File a, final File b) {
+				return Long.compare(a.lastModified(), b.lastModified());
+			}
+		});
+		for (final File f : oldest) {
+			if (total <= maxBytes)
+				break;
+			if (f.equals(keep) || copiesInUse.containsKey(f))
+				continue;
+			FileUtils.deleteQuietly(f);
+			total -= sizes.get(f);
+		}
+	}
+
+	/**
+	 * Closes a repository.  Its local copy, if one was made, stays on the node
+	 * for the next task that opens the same repository.
+	 */
+	public static synchronized void close(final Repository repo) {
+		repo.close();
+
+		final File local = localCopies.remove(repo);
+		if (local != null) {
+			final int uses = copiesInUse.get(local);
+			if (uses == 1)
+				copiesInUse.remove(local);
+			else
+				copiesInUse.put(local, uses - 1);
+		}
+	}
+
+	/**
+	 * Converts the serialized repositories of a {@code repo} MapFile into
+	 * stored git directories keyed by the same repo keys.
+	 */
+	public static void main(final String[] args) throws IOException {
+		final String base = args.length > 0 ? args[0] : Properties.getProperty("output.path", DefaultProperties.OUTPUT);
+
+		final Configuration conf = new Configuration();
+		final FileSystem fs = FileSystem.get(conf);
+		final File scratch = new File(System.getProperty("java.io.tmpdir"), "boa-repopack-convert-" + System.nanoTime());
+
+		final MapFile.Reader reader = new MapFile.Reader(fs, base + "/repo", conf);
+		final LongWritable key = new LongWritable();
+		final BytesWritable value = new BytesWritable();
+		int count = 0;
+		long before = 0, after = 0;
+		try {
+			while (reader.next(key, value)) {
+				final ByteArrayFile file = (ByteArrayFile) SerializationUtils.deserialize(value.getBytes());
+
+				FileUtils.deleteQuietly(scratch);
+				scratch.mkdirs();
+				file.writeContentsToDir(scratch.getAbsolutePath());
+
+				// the git directory is written under its original name
+				final File[] children = scratch.listFiles();
+				if (children == null || children.length != 1) {
+					System.err.println("skipping repo " + key.get() + ": unexpected layout");
+					continue;
+				}
+
+				before += value.getLength();
+				after += write(fs, new Path(base + "/" + DIR + "/" + key.get()), children[0]);
+				count++;
+			}
+		} finally {
+			reader.close();
+			FileUtils.deleteQuietly(scratch);
+		}
+
+		System.out.println("converted " + count + " repositories: " + before + " serialized bytes to " + after + " stored bytes");
+		fs.close();
+	}
+}
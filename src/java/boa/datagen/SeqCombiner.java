@@ -143,7 +143,8 @@ public class SeqCombiner {
 			lastCommitWriterKey = readAndAppendCommit(conf, fileSystem, commitWriter, base + "/commit/" + name,
 					lastAstWriterKey, lastCommitWriterKey, lastRepoKey);
 			lastAstWriterKey = readAndAppendAst(conf, fileSystem, astWriter, base + "/ast/" + name, lastAstWriterKey);
-			lastRepoKey = readAndAppendRepo(conf, fileSystem, repoWriter, base + "/repo/" + name, lastRepoKey);
+			final long lastPackKey = moveRepoPacks(fileSystem, base, name, lastRepoKey);
+			lastRepoKey = Math.max(lastPackKey, readAndAppendRepo(conf, fileSystem, repoWriter, base + "/repo/" + name, lastRepoKey));
 		}
 		projectWriter.close();
 		astWriter.close();
@@ -172,6 +173,24 @@ public class SeqCombiner {
 		return newLastKey;
 	}
 
+	/**
+	 * Moves the repositories a worker stored with {@link RepoPackStore} to
+	 * their combined repo keys.
+	 */
+	public static long moveRepoPacks(FileSystem fileSystem, String base, String fileName, long lastRepoKey) throws IOException {
+		long newLastKey = lastRepoKey;
+		final Path dir = new Path(base + "/" + RepoPackStore.DIR + "/" + fileName.replace(".seq", ""));
+		if (!fileSystem.exists(dir))
+			return newLastKey;
+		for (final FileStatus status : fileSystem.listStatus(dir)) {
+			final long key = Long.parseLong(status.getPath().getName()) + lastRepoKey;
+			fileSystem.rename(status.getPath(), new Path(base + "/" + RepoPackStore.DIR + "/" + key));
+			newLastKey = Math.max(newLastKey, key);
+		}
+		fileSystem.delete(dir, true);
+		return newLastKey;
+	}
+
 	public static long readAndAppendCommit(Configuration conf, FileSystem fileSystem, MapFile.Writer writer,
 			String fileName, long lastAstKey, long lastCommitKey, long lastRepoKey) throws IOException {
 		long newLastKey = lastCommitKey;
@@ -17,11 +17,16 @@
 
 package boa.datagen;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.SerializationUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -40,9 +45,9 @@ import org.eclipse.jgit.internal.storage.file.ByteArrayFile;
 import org.apache.hadoop.io.SequenceFile.CompressionType;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import boa.datagen.forges.github.RepoMetadata;
 import boa.datagen.scm.AbstractConnector;
 import boa.datagen.scm.GitConnector;
@@ -65,19 +70,28 @@ public class SeqRepoImporter {
 	private static Configuration conf = null;
 	private static FileSystem fileSystem = null;
 	private static String base = null;
-	private static boolean done = false;
+
+	// how many projects may wait per worker, the largest waiting is imported first
+	private final static int QUEUED_PER_WORKER = 64;
+	private final static PriorityBlockingQueue<ImportJob> queue = new PriorityBlockingQueue<ImportJob>();
+	private static Semaphore slots = null;
+	// handed out as workers take projects, so the keys in each worker's files
+	// ascend, as SeqCombiner needs to append them to a MapFile
+	private final static AtomicLong nextRepoKey = new AtomicLong(1);
 
 	private final static int poolSize = Integer.parseInt(Properties.getProperty("num.threads", DefaultProperties.NUM_THREADS));
 	private static final int MAX_SIZE_FOR_PROJECT_WITH_COMMITS = Integer.valueOf(DefaultProperties.MAX_SIZE_FOR_PROJECT_WITH_COMMITS);
 	private final static double MAX_REPO_SIZE = MAX_SIZE_FOR_PROJECT_WITH_COMMITS * DefaultProperties.MAX_SIZE_FACTOR;
 	private final static boolean STORE_COMMITS = DefaultProperties.STORE_COMMITS;
 	private final static boolean STORE_ASTS = DefaultProperties.STORE_ASTS;
+	private final static boolean STORE_REPO_PACKS = DefaultProperties.STORE_REPO_PACKS;
 
 	public static void main(String[] args) throws IOException, InterruptedException {
 
 		conf = new Configuration();
 		fileSystem = FileSystem.get(conf);
 		base = Properties.getProperty("output.path", DefaultProperties.OUTPUT);
+		slots = new Semaphore(poolSize * QUEUED_PER_WORKER);
 
 		getProcessedProjects();
 
@@ -88,7 +102,6 @@ public class SeqRepoImporter {
 			workers[i] = new ImportTask(i);
 			threads[i] = new Thread(workers[i]);
 			threads[i].start();
-			Thread.sleep(10);
 		}
 		
 		// exceptions
@@ -97,74 +110,78 @@ public class SeqRepoImporter {
 		if (DefaultProperties.processedProjects == null)
 			DefaultProperties.processedProjects = new HashSet<String>();
 
+		final long start = System.currentTimeMillis();
 		int counter = 0;
-		long repoKey = 1;
 		File dir = new File(jsonPath);
+		Gson parser = new Gson();
 		for (File file : dir.listFiles()) {
 			if (file.getName().endsWith(".json")) {
-				String content = FileIO.readFileContents(file);
-				Gson parser = new Gson();
-
-				JsonArray repoArray = null;
+				// read the page one object at a time instead of as a whole
+				JsonReader reader = null;
 				try {
-					repoArray = parser.fromJson(content, JsonElement.class).getAsJsonArray();
+					reader = new JsonReader(new BufferedReader(new FileReader(file)));
+					reader.beginArray();
 				} catch (Exception e) {
 					System.err.println("Error proccessing page: " + file.getPath());
 					e.printStackTrace();
+					if (reader != null)
+						reader.close();
 					continue;
 				}
-				for (int i = 0; i < repoArray.size(); i++) {
-					try {
-						JsonObject rp = repoArray.get(i).getAsJsonObject();
-						RepoMetadata repo = new RepoMetadata(rp);
-
-//						if (!DefaultProperties.projects.contains(repo.name))
-//							continue;
-
-						if (repo.id != null && repo.name != null && !processedProjectIds.contains(repo.id)) {
-							Project protobufRepo = repo.toBoaMetaDataProtobuf();
-
-							boolean assigned = false;
-							while (!assigned) {
-								for (int j = 0; j < poolSize; j++) {
-									if (workers[j].isReady()) {
-										workers[j].assignTask(protobufRepo, repoKey++);
-										workers[j].setReady(false);
-										assigned = true;
-										break;
-									}
-								}
+				try {
+					for (int i = 0; reader.hasNext(); i++) {
+						try {
+							JsonObject rp = parser.fromJson(reader, JsonObject.class);
+							RepoMetadata repo = new RepoMetadata(rp);
+
+//							if (!DefaultProperties.projects.contains(repo.name))
+//								continue;
+
+							if (repo.id != null && repo.name != null && !processedProjectIds.contains(repo.id)) {
+								Project protobufRepo = repo.toBoaMetaDataProtobuf();
+
+								// blocks while the queue is full
+								slots.acquire();
+								queue.put(new ImportJob(protobufRepo));
+
+								System.err.println("Queued the " + (++counter) + "th project: " + repo.name 
+										+ " with id: " + repo.id  
+										+ " from the " + i + "th object of the json file: " + file.getPath());
 							}
-							
-							System.err.println("Assigned the " + (++counter) + "th project: " + repo.name 
-									+ " with id: " + repo.id  
-									+ " from the " + i + "th object of the json file: " + file.getPath());
+						} catch (InterruptedException e) {
+							throw e;
+						} catch (JsonParseException e) {
+							// the rest of the page can not be read
+							throw e;
+						} catch (Exception e) {
+							System.err.println("Error proccessing item " + i + " of page " + file.getPath());
+							e.printStackTrace();
 						}
-					} catch (Exception e) {
-						System.err.println("Error proccessing item " + i + " of page " + file.getPath());
-						e.printStackTrace();
 					}
+				} catch (JsonParseException e) {
+					System.err.println("Error proccessing page: " + file.getPath());
+					e.printStackTrace();
+				} catch (IOException e) {
+					System.err.println("Error proccessing page: " + file.getPath());
+					e.printStackTrace();
+				} finally {
+					reader.close();
 				}
 			}
 		}
-		for (int j = 0; j < poolSize; j++) {
-			while (!workers[j].isReady())
-				Thread.sleep(100);
-		}
-		setDone(true);
 
-		// wait for workers to close writers and finish
+		// every worker stops when it takes one of these, after all projects
+		for (int j = 0; j < poolSize; j++)
+			queue.put(ImportJob.DONE);
 		for (Thread thread : threads)
-			while (thread.isAlive())
-				Thread.sleep(1000);
-	}
-	
-	synchronized static boolean getDone() {
-		return SeqRepoImporter.done;
-	}
-	
-	synchronized static void setDone(boolean done) {
-		SeqRepoImporter.done = done;
+			thread.join();
+
+		long projects = 0, size = 0;
+		for (ImportTask worker : workers) {
+			projects += worker.projects;
+			size += worker.size;
+		}
+		System.err.println("Imported " + projects + " projects (" + size + " KB) in " + (System.currentTimeMillis() - start) / 1000 + " s");
 	}
 	
 	synchronized static void updateExceptions(String key, String value) {
@@ -203,6 +220,33 @@ public class SeqRepoImporter {
 		System.err.println("Got processed projects: " + processedProjectIds.size());
 	}
 
+	/**
+	 * A project waiting to be imported.  Larger repositories are taken first,
+	 * so the longest imports start early instead of running alone at the end.
+	 */
+	static class ImportJob implements Comparable<ImportJob> {
+		static final ImportJob DONE = new ImportJob(null);
+		private static long count = 0;
+
+		final Project project;
+		final long size;
+		final long order;
+
+		ImportJob(Project project) {
+			this.project = project;
+			// sorts after every project, even those of unknown size
+			this.size = project == null ? Long.MIN_VALUE : project.getSize();
+			this.order = count++;
+		}
+
+		@Override
+		public int compareTo(ImportJob other) {
+			if (this.size != other.size)
+				return this.size > other.size ? -1 : 1;
+			return Long.compare(this.order, other.order);
+		}
+	}
+
 	public static class ImportTask implements Runnable {
 		private int id;
 		volatile private long repoKey;
@@ -210,8 +254,9 @@ public class SeqRepoImporter {
 		private String suffix;
 		private SequenceFile.Writer projectWriter, astWriter, commitWriter, contentWriter, repoWriter;
 		private long astWriterLen, commitWriterLen, contentWriterLen;
-		private volatile boolean ready = true;
 		volatile Project project;
+		// throughput of this worker
+		private long projects = 0, size = 0, busyTime = 0, idleTime = 0;
 
 		public ImportTask(int id) {
 			setId(id);
@@ -280,17 +325,20 @@ public class SeqRepoImporter {
 		public void run() {
 			openWriters();
 			while (true) {
-				while (isReady()) {
-					if (getDone())
-						break;
-					try {
-						Thread.sleep(10);
-					} catch (InterruptedException e) {
-						e.printStackTrace();
-					}
+				final ImportJob job;
+				long time = System.currentTimeMillis();
+				try {
+					job = queue.take();
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+					break;
 				}
-				if (getDone())
+				if (job == ImportJob.DONE)
 					break;
+				slots.release();
+				assignTask(job.project, nextRepoKey.getAndIncrement());
+				long started = System.currentTimeMillis();
+				idleTime += started - time;
 				try {
 					final String name = project.getName();
 
@@ -345,9 +393,14 @@ public class SeqRepoImporter {
 				} catch (Throwable e) {
 					e.printStackTrace();
 				}
-				setReady(true);
+				busyTime += System.currentTimeMillis() - started;
+				projects++;
+				size += job.size;
 			}
 			closeWriters();
+			System.err.println(Thread.currentThread().getName() + " " + getId() + " imported " + projects + " projects (" + size + " KB), busy "
+					+ busyTime / 1000 + " s, idle " + idleTime / 1000 + " s"
+					+ (busyTime > 0 ? ", " + (projects * 60000 / busyTime) + " projects/min" : ""));
 		}
 		
 
@@ -393,9 +446,24 @@ public class SeqRepoImporter {
 				System.err.println(Thread.currentThread().getName() + " id: " + Thread.currentThread().getId() + " cloned repository: " + name);
 			
 			AbstractConnector conn = null;
-			int packSize = 0;
+			long packSize = 0;
 			
-			if (!STORE_ASTS) {
+			if (!STORE_ASTS && STORE_REPO_PACKS) {
+				final long size = RepoPackStore.size(gitDir);
+				// the project's size field is an int32, so larger repositories cannot be recorded
+				if (size > MAX_REPO_SIZE || size > Integer.MAX_VALUE) {
+					updateExceptions(name, "pack file size: " + size + " exceeding the max size: " + Math.min(MAX_REPO_SIZE, Integer.MAX_VALUE));
+					return null;
+				}
+				try {
+					packSize = RepoPackStore.write(fileSystem,
+							new Path(base + "/" + RepoPackStore.DIR + "/" + suffix.replace(".seq", "") + "/" + getRepoKey()), gitDir);
+				} catch (IOException e) {
+					e.printStackTrace();
+					updateExceptions(name, "err storing repository packs");
+					return null;
+				}
+			} else if (!STORE_ASTS) {
 				ByteArrayFile f = new ByteArrayFile(gitDir.getAbsolutePath());
 				BytesWritable bw = new BytesWritable(SerializationUtils.serialize(f));
 				if (!f.isBuilt() || bw.getLength() > MAX_REPO_SIZE) {
@@ -448,7 +516,7 @@ public class SeqRepoImporter {
 				projBuilder.setCodeRepositories(i, repoBuilder);
 
 				if (!STORE_ASTS)
-					projBuilder.setSize(packSize);
+					projBuilder.setSize((int) Math.min(packSize, Integer.MAX_VALUE));
 
 				return projBuilder.build();
 			} catch (final Throwable e) {
@@ -458,6 +526,9 @@ public class SeqRepoImporter {
 					this.astWriterLen = conn.getAstWriterLen();
 					this.commitWriterLen = conn.getCommitWriterLen();
 					this.contentWriterLen = conn.getContentWriterLen();
+					if (STORE_ASTS && conn.getAstsReused() > 0)
+						System.err.println(Thread.currentThread().getName() + " id: " + Thread.currentThread().getId() + " reused " + conn.getAstsReused()
+								+ " ASTs of project " + name + ", saving " + conn.getAstBytesSaved() + " bytes");
 					try {
 						conn.close();
 					} catch (Exception e) {
@@ -516,14 +587,6 @@ public class SeqRepoImporter {
 			this.project = project;
 		}
 
-		synchronized boolean isReady() {
-			return this.ready;
-		}
-
-		synchronized void setReady(boolean ready) {
-			this.ready = ready;
-		}
-
 		synchronized int getId() {
 			return this.id;
 		}
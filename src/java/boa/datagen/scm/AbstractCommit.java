@@ -20,6 +20,7 @@ package boa.datagen.scm;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 import org.apache.hadoop.io.BytesWritable;
 import org.apache.hadoop.io.LongWritable;
@@ -56,6 +57,7 @@ import boa.datagen.util.HtmlVisitor;
 import boa.datagen.util.JavaScriptErrorCheckVisitor;
 import boa.datagen.util.JavaScriptVisitor;
 import boa.datagen.util.JavaVisitor;
+import boa.datagen.util.LineCounter;
 import boa.datagen.util.PHPErrorCheckVisitor;
 import boa.datagen.util.PHPVisitor;
 import boa.datagen.util.Properties;
@@ -168,6 +170,8 @@ public abstract class AbstractCommit {
 
 	protected abstract String getFileContents(final String path);
 
+	protected abstract String getObjectId(final String path);
+
 	public abstract String writeFile(final String classpathRoot, final String path);
 
 	public abstract Set<String> getGradleDependencies(final String classpathRoot, final String path);
@@ -229,8 +233,29 @@ public abstract class AbstractCommit {
 		else if (lowerPath.endsWith(".java")) {
 			fb.setKind(FileKind.SOURCE_JAVA_ERROR);
 			if (STORE_ASTS) {
-				final String content = getFileContents(path);
-				parseJavaFile(path, fb, content, false);
+				// a blob seen earlier in this project already has its AST written
+				final String objectId = getObjectId(path);
+				final AbstractConnector.ParsedBlob parsed = objectId == null ? null : connector.parsedBlobs.get(objectId);
+				if (parsed != null) {
+					fb.setKind(parsed.kind);
+					if (parsed.length > 0) {
+						fb.setKey(parsed.key);
+						fb.setAst(true);
+						connector.astsReused++;
+						connector.astBytesSaved += parsed.length;
+					}
+					return fb;
+				}
+
+				final JavaParse parse = objectId == null ? null : connector.parses.take(objectId);
+				if (parse != null)
+					storeJavaFile(path, fb, parse);
+				else {
+					final String content = getFileContents(path);
+					parseJavaFile(path, fb, content, false);
+				}
+				if (objectId != null)
+					connector.parsedBlobs.put(objectId, new AbstractConnector.ParsedBlob(len, connector.astWriterLen - len, fb.getKind()));
 			}
 		} /* else if (lowerPath.endsWith(".js")) {
 			final String content = getFileContents(path);
@@ -608,7 +633,74 @@ public abstract class AbstractCommit {
 		return l;
 	}
 
+	/**
+	 * The result of parsing a Java file, before it is written.
+	 */
+	static class JavaParse {
+		// null if the file could not be parsed
+		FileKind kind = null;
+		// null if the AST is not stored
+		byte[] ast = null;
+		boolean ok = false;
+		// set if visiting the AST failed, reported on the thread storing it
+		Throwable error = null;
+	}
+
+	/**
+	 * Starts parsing the Java files changed by this commit on the
+	 * connector's parse pipeline.
+	 */
+	void prefetchJavaFiles() {
+		for (final ChangedFile.Builder cfb : changedFiles)
+			if (cfb.getChange() != ChangeKind.DELETED && cfb.getChange() != ChangeKind.UNKNOWN)
+				prefetchJavaFile(cfb.getName());
+	}
+
+	void prefetchJavaFile(final String path) {
+		if (!STORE_ASTS || !path.toLowerCase().endsWith(".java"))
+			return;
+		final String objectId = getObjectId(path);
+		if (objectId == null || connector.parsedBlobs.containsKey(objectId))
+			return;
+		connector.parses.submit(objectId, new Callable<JavaParse>() {
+			@Override
+			public JavaParse call() {
+				return parseJava(path, getFileContents(path), false);
+			}
+		});
+	}
+
 	private boolean parseJavaFile(final String path, final ChangedFile.Builder fb, final String content, final boolean storeOnError) {
+		return storeJavaFile(path, fb, parseJava(path, content, storeOnError));
+	}
+
+	private boolean storeJavaFile(final String path, final ChangedFile.Builder fb, final JavaParse parse) {
+		if (parse.error != null) {
+			if (debug) {
+				System.err.println("Error visiting Java file: " + path  + " from: " + projectName);
+				parse.error.printStackTrace();
+			}
+			System.exit(-1);
+		}
+		if (parse.kind != null)
+			fb.setKind(parse.kind);
+		if (parse.ast != null) {
+			try {
+				BytesWritable bw = new BytesWritable(parse.ast);
+				connector.astWriter.append(new LongWritable(connector.astWriterLen), bw);
+				connector.astWriterLen += bw.getLength();
+			} catch (IOException e) {
+				if (debug) 
+					e.printStackTrace();
+				
+			}
+		}
+		return parse.ok;
+	}
+
+	// may run on a parser thread, so must not touch the connector or exit
+	private JavaParse parseJava(final String path, final String content, final boolean storeOnError) {
+		final JavaParse parse = new JavaParse();
 		try {
 			final org.eclipse.jdt.core.dom.ASTParser parser = org.eclipse.jdt.core.dom.ASTParser.newParser(AST.JLS8);
 			parser.setKind(org.eclipse.jdt.core.dom.ASTParser.K_COMPILATION_UNIT);
@@ -626,7 +718,7 @@ public abstract class AbstractCommit {
 			try {
 				cu = (CompilationUnit) parser.createAST(null);
 			} catch(Throwable e) {
-				return false;
+				return parse;
 			}
 
 			final JavaErrorCheckVisitor errorCheck = new JavaErrorCheckVisitor();
@@ -643,90 +735,46 @@ public abstract class AbstractCommit {
 //					for (final Comment c : visitor.getComments()) comments.addComments(c);
 					 
 				} catch (final Throwable e) {
-					if (debug) {
-						System.err.println("Error visiting Java file: " + path  + " from: " + projectName);
-						e.printStackTrace();
-					}
-					System.exit(-1);
-					return false;
+					parse.error = e;
+					return parse;
 				}
 				
 				switch (visitor.getAstLevel()) {
 					case JavaVisitor.JLS2:
-						fb.setKind(FileKind.SOURCE_JAVA_JLS2);
+						parse.kind = FileKind.SOURCE_JAVA_JLS2;
 						break;
 					case JavaVisitor.JLS3:
-						fb.setKind(FileKind.SOURCE_JAVA_JLS3);
+						parse.kind = FileKind.SOURCE_JAVA_JLS3;
 						break;
 					case JavaVisitor.JLS4:
-						fb.setKind(FileKind.SOURCE_JAVA_JLS4);
+						parse.kind = FileKind.SOURCE_JAVA_JLS4;
 						break;
 					case JavaVisitor.JLS8:
-						fb.setKind(FileKind.SOURCE_JAVA_JLS8);
+						parse.kind = FileKind.SOURCE_JAVA_JLS8;
 						break;
 					default:
-						fb.setKind(FileKind.SOURCE_JAVA_ERROR);
+						parse.kind = FileKind.SOURCE_JAVA_ERROR;
 				}
 
-				try {
-					BytesWritable bw = new BytesWritable(ast.build().toByteArray());
-					connector.astWriter.append(new LongWritable(connector.astWriterLen), bw);
-					connector.astWriterLen += bw.getLength();
-				} catch (IOException e) {
-					if (debug) 
-						e.printStackTrace();
-					
-				}
+				parse.ast = ast.build().toByteArray();
 				// fb.setComments(comments);
 			}
 
-			return !errorCheck.hasError;
+			parse.ok = !errorCheck.hasError;
+			return parse;
 		} catch (final Throwable e) {
 			if (debug)
 				e.printStackTrace();
-			return false;
+			return parse;
 		}
 	}
 	
 	protected String processLOC(final String path) {
-		String loc = "";
-
-		final String lowerPath = path.toLowerCase();
-		if (!(lowerPath.endsWith(".txt") || lowerPath.endsWith(".xml") || lowerPath.endsWith(".java")))
-			return loc;
-
-		final String content = getFileContents(path);
-
-		final File dir = new File(new File(System.getProperty("java.io.tmpdir")), UUID.randomUUID().toString());
-		final File tmpPath = new File(dir, path.substring(0, path.lastIndexOf("/")));
-		tmpPath.mkdirs();
-		final File tmpFile = new File(tmpPath, path.substring(path.lastIndexOf("/") + 1));
-		FileIO.writeFileContents(tmpFile, content);
-
-		try {
-			final Process proc = Runtime.getRuntime()
-					.exec(new String[] { "/home/boa/ohcount/bin/ohcount", "-i", tmpFile.getPath() });
-
-			final BufferedReader outStream = new BufferedReader(new InputStreamReader(proc.getInputStream()));
-			String line = null;
-			while ((line = outStream.readLine()) != null)
-				loc += line;
-			outStream.close();
-
-			proc.waitFor();
-		} catch (final IOException e) {
-			e.printStackTrace();
-		} catch (final InterruptedException e) {
-			e.printStackTrace();
-		}
-
-		try {
-			FileIO.delete(dir);
-		} catch (final IOException e) {
-			e.printStackTrace();
-		}
+		if (LineCounter.Language.forPath(path) == null)
+			return "";
 
-		return loc;
+		final LineCounter.Counts counts = LineCounter.count(path, getFileContents(path));
+		return counts.format(path);
 	}
 	
 }
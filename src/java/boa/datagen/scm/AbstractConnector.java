@@ -29,6 +29,7 @@ import org.apache.hadoop.io.SequenceFile;
 
 import boa.datagen.DefaultProperties;
 import boa.types.Diff.ChangedFile;
+import boa.types.Diff.ChangedFile.FileKind;
 import boa.types.Shared.ChangeKind;
 
 /**
@@ -51,10 +52,42 @@ public abstract class AbstractConnector implements AutoCloseable {
 	protected SequenceFile.Writer astWriter, commitWriter, contentWriter;
 	protected long astWriterLen = 1, commitWriterLen = 1, contentWriterLen = 1;
 
+	// the AST written for each blob of this project, by the blob's object id
+	protected Map<String, ParsedBlob> parsedBlobs = new HashMap<String, ParsedBlob>();
+	protected long astsReused = 0, astBytesSaved = 0;
+	protected final ParsePipeline parses = new ParsePipeline();
+
+	public static class ParsedBlob {
+		final long key;
+		final long length;
+		final FileKind kind;
+		ParsedBlob(long key, long length, FileKind kind) {
+			this.key = key;
+			this.length = length;
+			this.kind = kind;
+		}
+	}
+
+	/**
+	 * Sets how many threads parse source files ahead of the connectors, 0
+	 * parses every file on the connector's own thread.
+	 */
+	public static void setParseThreads(final int threads) {
+		ParsePipeline.setThreads(threads);
+	}
+
 	public long getAstWriterLen() {
 		return astWriterLen;
 	}
 
+	public long getAstsReused() {
+		return astsReused;
+	}
+
+	public long getAstBytesSaved() {
+		return astBytesSaved;
+	}
+
 	public long getCommitWriterLen() {
 		return commitWriterLen;
 	}
@@ -204,7 +237,12 @@ public abstract class AbstractConnector implements AutoCloseable {
 		long maxTime = 1000;
 		final List<Object> revs = new ArrayList<Object>();
 		if (!revisions.isEmpty()) {
+			int next = 0;
 			for (int i = 0; i < revisions.size(); i++) {
+				// keep the parser threads busy with the commits after this one
+				while (next < revisions.size() && (next <= i || !parses.isFull()))
+					revisions.get(next++).prefetchJavaFiles();
+
 				long startTime = System.currentTimeMillis();
 				final AbstractCommit rev = revisions.get(i);
 				revs.add(rev.asProtobuf(projectName));
@@ -82,15 +82,22 @@ public class GitCommit extends AbstractCommit {
 	@Override
 	/** {@inheritDoc} */
 	protected String getFileContents(final String path) {
+		// does not use the shared buffer, files are read by the parser threads too
 		ObjectId fileid = filePathGitObjectIds.get(path);
 		try {
-			buffer.reset();
-			buffer.write(repository.open(fileid, Constants.OBJ_BLOB).getCachedBytes());
+			return new String(repository.open(fileid, Constants.OBJ_BLOB).getCachedBytes());
 		} catch (final Throwable e) {
 			if (debug)
 				System.err.println("Git Error getting contents for '" + path + "' at revision " + id + ": " + e.getMessage());
 		}
-		return buffer.toString();
+		return "";
+	}
+
+	@Override
+	/** {@inheritDoc} */
+	protected String getObjectId(final String path) {
+		final ObjectId fileid = filePathGitObjectIds.get(path);
+		return fileid == null ? null : fileid.getName();
 	}
 
 	@Override
@@ -19,12 +19,14 @@ package boa.datagen.scm;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 
 import org.apache.hadoop.io.BytesWritable;
@@ -55,6 +57,8 @@ import boa.types.Shared.ChangeKind;
 public class GitConnector extends AbstractConnector {
 
 	private static final int MAX_COMMITS = Integer.valueOf(DefaultProperties.MAX_COMMITS);
+	// how many commits may wait to be written while their files are parsed
+	private static final int MAX_QUEUED_COMMITS = 1024;
 	private Repository repository;
 	private Git git;
 	private RevWalk revwalk;
@@ -87,6 +91,7 @@ public class GitConnector extends AbstractConnector {
 
 	@Override
 	public void close() {
+		parses.close();
 		revwalk.close();
 		repository.close();
 	}
@@ -147,6 +152,7 @@ public class GitConnector extends AbstractConnector {
 			int i = 0;
 			long maxTime = 1000;
 			List<RevCommit> commitList = new ArrayList<RevCommit>();
+			final Queue<GitCommit> queued = new ArrayDeque<GitCommit>();
 			for (RevCommit rc : revwalk) {
 				commitList.add(rc);
 			}
@@ -184,14 +190,14 @@ public class GitConnector extends AbstractConnector {
 				gc.fileNameIndices.clear();
 
 				if (commitList.size() > MAX_COMMITS) {
-					revisionMap.put(gc.id, revisionKeys.size());
-
-					Revision revision = gc.asProtobuf(projectName);
-					
-					revisionKeys.add(commitWriterLen);
-					BytesWritable bw = new BytesWritable(revision.toByteArray());
-					commitWriter.append(new LongWritable(commitWriterLen), bw);
-					commitWriterLen += bw.getLength();
+					// write the commits a few behind the walk, so their files are parsed by then
+					while (!queued.isEmpty() && (parses.isFull() || queued.size() >= MAX_QUEUED_COMMITS))
+						writeCommit(queued.poll());
+					gc.prefetchJavaFiles();
+					// the queued commits are written in order, so this is the index it will be written at;
+					// children look up their parents' indices before the parents are written
+					revisionMap.put(gc.id, revisionKeys.size() + queued.size());
+					queued.add(gc);
 				} else {
 					revisionMap.put(gc.id, revisions.size());
 
@@ -210,6 +216,9 @@ public class GitConnector extends AbstractConnector {
 				}
 			}
 			
+			while (!queued.isEmpty())
+				writeCommit(queued.poll());
+
 			System.err.println(Thread.currentThread().getId() + " Process metadata of all commits");
 
 			RevCommit head = revwalk.parseCommit(repository.resolve(Constants.HEAD));
@@ -225,6 +234,15 @@ public class GitConnector extends AbstractConnector {
 		}
 	}
 
+	private void writeCommit(final GitCommit gc) throws IOException {
+		Revision revision = gc.asProtobuf(projectName);
+		
+		revisionKeys.add(commitWriterLen);
+		BytesWritable bw = new BytesWritable(revision.toByteArray());
+		commitWriter.append(new LongWritable(commitWriterLen), bw);
+		commitWriterLen += bw.getLength();
+	}
+
 	private Set<RevCommit> getHeads() {
 		Set<RevCommit> heads = new HashSet<RevCommit>();
 		try {
@@ -275,6 +293,8 @@ public class GitConnector extends AbstractConnector {
 	@Override
 	public List<ChangedFile> buildHeadSnapshot() {
 		final List<ChangedFile> snapshot = new ArrayList<ChangedFile>();
+		final List<GitCommit> commits = new ArrayList<GitCommit>();
+		final List<ChangedFile.Builder> files = new ArrayList<ChangedFile.Builder>();
 		TreeWalk tw = new TreeWalk(repository);
 		tw.reset();
 		try {
@@ -296,9 +316,19 @@ public class GitConnector extends AbstractConnector {
 					}
 					GitCommit gc = new GitCommit(this, repository, revwalk, projectName, repoKey, objectIdToRevisionIdx, -1);
 					gc.filePathGitObjectIds.put(path, tw.getObjectId(0));
-					gc.processChangeFile(cfb);
-					snapshot.add(cfb.build());
+					commits.add(gc);
+					files.add(cfb);
+				}
+			}
+
+			int next = 0;
+			for (int i = 0; i < files.size(); i++) {
+				while (next < files.size() && (next <= i || !parses.isFull())) {
+					commits.get(next).prefetchJavaFile(files.get(next).getName());
+					next++;
 				}
+				commits.get(i).processChangeFile(files.get(i));
+				snapshot.add(files.get(i).build());
 			}
 		} catch (Exception e) {
 			System.err.println(e.getMessage());
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.datagen.scm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import boa.datagen.DefaultProperties;
+import boa.datagen.util.Properties;
+
+/**
+ * Parses the source files of one repository ahead of the thread writing it.
+ *
+ * The connector submits the files of the commits after the one it is writing,
+ * keyed by the object id of their blob, and takes each result when it gets to
+ * the file.  The parsing runs on a pool of threads shared by every repository
+ * being imported, so the workers of a large repository keep busy while others
+ * are idle.  The results are only written by the connector's thread, in commit
+ * order, so the output does not depend on the number of threads.  Errors are
+ * handed back with the result, so they are handled on the connector's thread
+ * as if it had parsed the file itself.
+ */
+class ParsePipeline {
+	protected static final boolean debug = Properties.getBoolean("debug", DefaultProperties.DEBUG);
+	private static int threads = Integer.parseInt(Properties.getProperty("num.parse.threads", DefaultProperties.NUM_PARSE_THREADS));
+
+	// how many parses a repository may have waiting per thread
+	private static final int PENDING_PER_THREAD = 16;
+
+	private static ExecutorService pool = null;
+
+	private final Map<String, Future<AbstractCommit.JavaParse>> pending = new HashMap<String, Future<AbstractCommit.JavaParse>>();
+
+	/**
+	 * Sets how many threads parse ahead, 0 parses every file on the thread
+	 * writing it.  Parses already running finish on the old threads.
+	 */
+	static synchronized void setThreads(final int n) {
+		if (pool != null)
+			pool.shutdown();
+		pool = null;
+		threads = n;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (pool == null) {
+			final AtomicInteger count = new AtomicInteger();
+			pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread t = new Thread(r, "parser-" + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+
+	private static synchronized int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Returns true if no more parses should be submitted until some are taken.
+	 */
+	boolean isFull() {
+		final int n = getThreads();
+		return n <= 0 || pending.size() >= n * PENDING_PER_THREAD;
+	}
+
+	/**
+	 * Starts parsing a blob, unless it already is.
+	 *
+	 * @param objectId the object id of the blob
+	 * @param parse reads and parses the blob
+	 */
+	void submit(final String objectId, final Callable<AbstractCommit.JavaParse> parse) {
+		if (getThreads() <= 0 || pending.containsKey(objectId))
+			return;
+		pending.put(objectId, getPool().submit(parse));
+	}
+
+	/**
+	 * Waits for the parse of a blob.
+	 *
+	 * @param objectId the object id of the blob
+	 * @return the parse, or null if the blob was not submitted or was
+	 *         cancelled, in which case the caller should parse it itself; a
+	 *         parse that failed is returned with its error set
+	 */
+	AbstractCommit.JavaParse take(final String objectId) {
+		final Future<AbstractCommit.JavaParse> f = pending.remove(objectId);
+		if (f == null)
+			return null;
+		try {
+			return f.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			if (debug)
+				e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Cancels the parses that were not taken.
+	 */
+	void close() {
+		for (final Future<AbstractCommit.JavaParse> f : pending.values())
+			f.cancel(false);
+		pending.clear();
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.datagen.util;
+
+/**
+ * Counts the code, comment and blank lines of a source file, the way ohcount
+ * does, in a single pass over its contents.
+ *
+ * A line with any code on it is a code line, a line with only comments and
+ * whitespace is a comment line, and any other line is blank.  Comment
+ * markers inside string literals are not comments.
+ */
+public class LineCounter {
+	/**
+	 * The comment and string syntax of the languages that are counted.
+	 */
+	public static enum Language {
+		JAVA("java", "//", "/*", "*/", "\"'"),
+		XML("xml", null, "<!--", "-->", ""),
+		TEXT("text", null, null, null, "");
+
+		private final String name;
+		private final String lineComment;
+		private final String blockStart;
+		private final String blockEnd;
+		private final String quotes;
+
+		private Language(final String name, final String lineComment, final String blockStart, final String blockEnd, final String quotes) {
+			this.name = name;
+			this.lineComment = lineComment;
+			this.blockStart = blockStart;
+			this.blockEnd = blockEnd;
+			this.quotes = quotes;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the language of a file, or null if it is not counted.
+		 */
+		public static Language forPath(final String path) {
+			final String lowerPath = path.toLowerCase();
+			if (lowerPath.endsWith(".java"))
+				return JAVA;
+			if (lowerPath.endsWith(".xml"))
+				return XML;
+			if (lowerPath.endsWith(".txt"))
+				return TEXT;
+			return null;
+		}
+	}
+
+	/**
+	 * The line counts of one file.
+	 */
+	public static class Counts {
+		public final Language language;
+		public int code = 0;
+		public int comment = 0;
+		public int blank = 0;
+
+		Counts(final Language language) {
+			this.language = language;
+		}
+
+		public int getTotal() {
+			return code + comment + blank;
+		}
+
+		/**
+		 * Formats the counts as a row of ohcount's per file report: language,
+		 * code, comment, comment percentage, blank, total and path.
+		 *
+		 * This is only the row.  The datagen used to store all the output of
+		 * {@code ohcount -i} joined into one line, which also had the
+		 * "Examining 1 file(s)" line and the column headers before the row,
+		 * and the path of a temporary copy of the file instead of its path.
+		 */
+		public String format(final String path) {
+			final int commented = code + comment;
+			return String.format("%-16s  %9d  %9d  %8.1f%%  %9d  %9d  %s", language.getName(), code, comment,
+					commented == 0 ? 0.0 : 100.0 * comment / commented, blank, getTotal(), path);
+		}
+	}
+
+	/**
+	 * Counts the lines of a file.
+	 *
+	 * @param path the path of the file, which decides its language
+	 * @param content the contents of the file
+	 * @return the counts, or null if the language of the file is not counted
+	 */
+	public static Counts count(final String path, final CharSequence content) {
+		final Language language = Language.forPath(path);
+		if (language == null)
+			return null;
+		return count(language, content);
+	}
+
+	/**
+	 * Counts the lines of a file in a language.
+	 *
+	 * @param language the language of the file
+	 * @param content the contents of the file
+	 * @return the counts
+	 */
+	public static Counts count(final Language language, final CharSequence content) {
+		final Counts counts = new Counts(language);
+		final int len = content.length();
+
+		boolean inLineComment = false, inBlockComment = false;
+		char quote = 0;
+		boolean hasCode = false, hasComment = false, hasChars = false;
+
+		for (int i = 0; i < len; i++) {
+			final char c = content.charAt(i);
+
+			if (c == '\n') {
+				if (hasCode)
+					counts.code++;
+				else if (hasComment)
+					counts.comment++;
+				else
+					counts.blank++;
+				hasCode = hasComment = hasChars = false;
+				inLineComment = false;
+				// strings do not span lines
+				quote = 0;
+				continue;
+			}
+			hasChars = true;
+
+			if (inLineComment) {
+				if (!Character.isWhitespace(c))
+					hasComment = true;
+			} else if (inBlockComment) {
+				if (startsWith(content, i, language.blockEnd)) {
+					inBlockComment = false;
+					hasComment = true;
+					i += language.blockEnd.length() - 1;
+				} else if (!Character.isWhitespace(c))
+					hasComment = true;
+			} else if (quote != 0) {
+				hasCode = true;
+				if (c == '\\' && i + 1 < len && content.charAt(i + 1) != '\n')
+					i++;
+				else if (c == quote)
+					quote = 0;
+			} else if (Character.isWhitespace(c)) {
+				continue;
+			} else if (language.lineComment != null && startsWith(content, i, language.lineComment)) {
+				inLineComment = true;
+				hasComment = true;
+				i += language.lineComment.length() - 1;
+			} else if (language.blockStart != null && startsWith(content, i, language.blockStart)) {
+				inBlockComment = true;
+				hasComment = true;
+				i += language.blockStart.length() - 1;
+			} else {
+				if (language.quotes.indexOf(c) != -1)
+					quote = c;
+				hasCode = true;
+			}
+		}
+
+		// the last line has no newline
+		if (hasChars) {
+			if (hasCode)
+				counts.code++;
+			else if (hasComment)
+				counts.comment++;
+			else
+				counts.blank++;
+		}
+
+		return counts;
+	}
+
+	private static boolean startsWith(final CharSequence content, final int offset, final String s) {
+		if (offset + s.length() > content.length())
+			return false;
+		for (int i = 0; i < s.length(); i++)
+			if (content.charAt(offset + i) != s.charAt(i))
+				return false;
+		return true;
+	}
+}
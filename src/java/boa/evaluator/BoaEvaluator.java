@@ -46,16 +46,22 @@ public class BoaEvaluator extends BoaMain {
 	private final String DATA_PATH;
 	private final String COMPILATION_DIR;
 	private final String OUTPUT_DIR;
+	private final int THREADS;
 
 	public BoaEvaluator(final String prog, final String data) throws IOException {
 		this(prog, data, System.getProperty("java.io.tmpdir") + File.separator + UUID.randomUUID().toString());
 	}
 
 	public BoaEvaluator(final String prog, final String data, final String outDir) throws IOException {
+		this(prog, data, outDir, Runtime.getRuntime().availableProcessors());
+	}
+
+	public BoaEvaluator(final String prog, final String data, final String outDir, final int threads) throws IOException {
 		this.PROG_PATH = prog;
 		this.DATA_PATH = data;
 		this.COMPILATION_DIR = "./compile"; // can not customize to be user defined because of classpath issues
 		this.OUTPUT_DIR = outDir;
+		this.THREADS = threads;
 
 		setup();
 	}
@@ -66,6 +72,7 @@ public class BoaEvaluator extends BoaMain {
 		options.addOption("i", "input",  true, "input Boa source file (*.boa)");
 		options.addOption("d", "data",   true, "path to local data directory");
 		options.addOption("o", "output", true, "output directory");
+		options.addOption("t", "threads", true, "number of threads to run in, or 0 to use Hadoop's local job runner (defaults to the number of processors)");
 
 		options.getOption("i").setRequired(true);
 		options.getOption("d").setRequired(true);
@@ -80,10 +87,11 @@ public class BoaEvaluator extends BoaMain {
 				if (cl.hasOption('i') && cl.hasOption('d')) {
 					final BoaEvaluator evaluator;
 					try {
-						if (cl.hasOption('o')) {
-							evaluator = new BoaEvaluator(cl.getOptionValue('i'), cl.getOptionValue('d'), cl.getOptionValue('o'));
+						final String output = cl.hasOption('o') ? cl.getOptionValue('o') : System.getProperty("java.io.tmpdir") + File.separator + UUID.randomUUID().toString();
+						if (cl.hasOption('t')) {
+							evaluator = new BoaEvaluator(cl.getOptionValue('i'), cl.getOptionValue('d'), output, Integer.parseInt(cl.getOptionValue('t')));
 						} else {
-							evaluator = new BoaEvaluator(cl.getOptionValue('i'), cl.getOptionValue('d'));
+							evaluator = new BoaEvaluator(cl.getOptionValue('i'), cl.getOptionValue('d'), output);
 						}
 					} catch (final IOException e) {
 						System.err.print(e);
@@ -156,7 +164,7 @@ public class BoaEvaluator extends BoaMain {
 	}
 
 	private String[] createCompilerArguments() {
-		final String[] compilationArgs = new String[6];
+		final String[] compilationArgs = new String[8];
 
 		compilationArgs[0] = "-i";
 		compilationArgs[1] = this.PROG_PATH;
@@ -164,16 +172,30 @@ public class BoaEvaluator extends BoaMain {
 		compilationArgs[3] = "./dist/boa-runtime.jar";
 		compilationArgs[4] = "-cd";
 		compilationArgs[5] = this.COMPILATION_DIR;
+		compilationArgs[6] = "-cache";
+		// a per-user cache, as its class files are loaded and run
+		compilationArgs[7] = System.getProperty("user.home") + File.separator + ".boa" + File.separator + "cache";
 
 		return compilationArgs;
 	}
 
 	private String[] createHadoopProgramArguments() {
-		final String[] actualArgs = new String[3];
+		if (this.THREADS <= 0) {
+			final String[] actualArgs = new String[3];
+
+			actualArgs[0] = this.DATA_PATH;
+			actualArgs[1] = this.OUTPUT_DIR;
+			actualArgs[2] = "-b"; // blocking call
+
+			return actualArgs;
+		}
+
+		final String[] actualArgs = new String[4];
 
 		actualArgs[0] = this.DATA_PATH;
 		actualArgs[1] = this.OUTPUT_DIR;
-		actualArgs[2] = "-b"; // blocking call
+		actualArgs[2] = "-t"; // run in this process, which always blocks
+		actualArgs[3] = Integer.toString(this.THREADS);
 
 		return actualArgs;
 	}
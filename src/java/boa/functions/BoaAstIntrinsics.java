@@ -18,13 +18,17 @@
 package boa.functions;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import org.apache.commons.lang.SerializationUtils;
@@ -40,7 +44,6 @@ import org.apache.hadoop.mapreduce.Mapper.Context;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jgit.internal.storage.file.ByteArrayFile;
 import org.eclipse.jgit.internal.storage.file.ByteArrayRepositoryBuilder;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -51,8 +54,13 @@ import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import boa.datagen.DefaultProperties;
+import boa.datagen.RepoPackStore;
 import boa.datagen.util.JavaErrorCheckVisitor;
 import boa.datagen.util.JavaVisitor;
+import boa.io.AstCacheStore;
+import boa.io.PrefetchingMapFileReader;
+import boa.io.SharedMapFileReaders;
+import boa.runtime.BoaTaskContext;
 import boa.types.Ast.*;
 import boa.types.Ast.Expression.ExpressionKind;
 import boa.types.Code.CodeRepository;
@@ -70,10 +78,6 @@ import boa.types.Toplevel.Project;
  * @author rdyer
  */
 public class BoaAstIntrinsics {
-	@SuppressWarnings("rawtypes")
-	static Context context;
-	private static MapFile.Reader map, commitsMap, reposMap, commentsMap, issuesMap, refactoringsMap, refactoringIdsMap;
-
 	private static final Revision emptyRevision;
 	static {
 		Revision.Builder rb = Revision.newBuilder();
@@ -88,12 +92,275 @@ public class BoaAstIntrinsics {
 
 	public static enum COMMITCOUNTER {
 		GETS_ATTEMPTED, GETS_SUCCEED, GETS_FAILED, GETS_FAIL_MISSING, GETS_FAIL_BADPROTOBUF, GETS_FAIL_BADLOC,
+		PREFETCHED, PREFETCH_HITS, SEEKS,
 	};
 
 	public static enum ASTCOUNTER {
 		GETS_ATTEMPTED, GETS_SUCCEED, GETS_FAILED, GETS_FAIL_MISSING, GETS_FAIL_BADPROTOBUF, GETS_FAIL_BADLOC,
+		PREFETCHED, PREFETCH_HITS, SEEKS,
 	};
 
+	public static enum REPOCACHECOUNTER {
+		REPO_HITS, REPO_MISSES, REPO_EVICTIONS, BLOB_HITS, BLOB_MISSES, BLOB_EVICTIONS,
+	};
+
+	public static enum ASTCACHECOUNTER {
+		PARSES, PARSES_AVOIDED, MEMORY_HITS, STORE_HITS, STORED, EVICTIONS,
+	};
+
+	/** the bytes of opened repositories each task keeps */
+	public static final String REPO_CACHE_BYTES = "boa.repo.cache.bytes";
+	public static final long DEFAULT_REPO_CACHE_BYTES = 256L * 1024 * 1024;
+
+	/** the bytes of decoded blob contents each task keeps */
+	public static final String BLOB_CACHE_BYTES = "boa.blob.cache.bytes";
+	public static final long DEFAULT_BLOB_CACHE_BYTES = 64L * 1024 * 1024;
+
+	/** the bytes of parsed ASTs the JVM keeps, shared by its tasks */
+	public static final String AST_CACHE_BYTES = "boa.ast.cache.bytes";
+	public static final long DEFAULT_AST_CACHE_BYTES = 64L * 1024 * 1024;
+
+	/**
+	 * The readers and caches of one task, kept in its {@link BoaTaskContext}.
+	 * The maps that are only looked up in are shared with the other tasks of
+	 * the JVM, the maps that are scanned are not.
+	 *
+	 * The repository and blob caches belong to the task, so their sizes, from
+	 * {@link #REPO_CACHE_BYTES} and {@link #BLOB_CACHE_BYTES}, are per task:
+	 * a JVM running several tasks at once, as
+	 * {@link boa.runtime.BoaLocalRunner} does, divides its budget between them.
+	 */
+	private static final class State implements Closeable {
+		final BoaTaskContext task;
+
+		MapFile.Reader reposMap, commentsMap, issuesMap, refactoringsMap, refactoringIdsMap;
+		PrefetchingMapFileReader map, commitsMap;
+		final BytesWritable astValue = new BytesWritable(), commitValue = new BytesWritable();
+		CodeRepository prefetchedRepo = null;
+
+		AstCacheStore astStore = null;
+		boolean astStoreOpened = false;
+		Boolean hasRepoPacks = null;
+		int indent = 0;
+
+		/**
+		 * Opened repositories, keyed by repo key and bounded by the size of their
+		 * serialized form.  Closed when evicted.
+		 */
+		final LRUCache<Long, Repository> repoCache = new LRUCache<Long, Repository>(DEFAULT_REPO_CACHE_BYTES) {
+			@Override
+			protected void evicted(final Long key, final Repository repo) {
+				RepoPackStore.close(repo);
+			}
+		};
+
+		/**
+		 * Object ids of the blobs that failed to parse.  Only kept for the
+		 * task, as a parse may not fail again.
+		 */
+		final Set<String> failedParses = new HashSet<String>();
+
+		/**
+		 * Decoded blob contents, keyed by object id and bounded by their length.
+		 */
+		final LRUCache<String, String> blobCache = new LRUCache<String, String>(DEFAULT_BLOB_CACHE_BYTES) {
+			@Override
+			protected long sizeOf(final String content) {
+				return 2L * content.length();
+			}
+		};
+
+		State(final BoaTaskContext task) {
+			this.task = task;
+
+			final Configuration conf = task.getConfiguration();
+			if (conf != null) {
+				this.repoCache.setCapacity(conf.getLong(REPO_CACHE_BYTES, DEFAULT_REPO_CACHE_BYTES));
+				this.blobCache.setCapacity(conf.getLong(BLOB_CACHE_BYTES, DEFAULT_BLOB_CACHE_BYTES));
+			}
+		}
+
+		/**
+		 * Returns the path of a directory of the dataset.
+		 *
+		 * @param conf the configuration of the task
+		 * @param dirKey the property naming the dataset, if not the input
+		 * @param name the name of the directory
+		 */
+		Path getDataPath(final Configuration conf, final String dirKey, final String name) throws IOException {
+			if (DefaultProperties.localDataPath != null)
+				return FileSystem.getLocal(conf).makeQualified(new Path(DefaultProperties.localDataPath, name));
+			return new Path(conf.get("fs.default.name", "hdfs://boa-njt/"),
+					new Path(conf.get(dirKey, conf.get("boa.input.dir", "repcache/live")), new Path(name)));
+		}
+
+		/**
+		 * Opens a map of the dataset that is only looked up in.
+		 *
+		 * @return the reader, or null on error
+		 */
+		MapFile.Reader openShared(final String dirKey, final String name) {
+			try {
+				final Configuration conf = this.task.getConfiguration();
+				final Path p = getDataPath(conf, dirKey, name);
+				return SharedMapFileReaders.open(p.getFileSystem(conf), p, conf);
+			} catch (final Exception e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+
+		/**
+		 * Opens a map of the dataset that is read by prefetching.
+		 *
+		 * @return the reader, or null on error
+		 */
+		PrefetchingMapFileReader openPrefetching(final String name, final String bytesKey, final long bytes) {
+			try {
+				final Configuration conf = this.task.getConfiguration();
+				final Path p = getDataPath(conf, "boa.ast.dir", name);
+				return new PrefetchingMapFileReader(new MapFile.Reader(p.getFileSystem(conf), p.toString(), conf), conf.getLong(bytesKey, bytes));
+			} catch (final Exception e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+
+		void openMap() {
+			this.map = openPrefetching("ast", "boa.ast.prefetch.bytes", 64L * 1024 * 1024);
+		}
+
+		void openCommitMap() {
+			this.commitsMap = openPrefetching("commit", "boa.commit.prefetch.bytes", 16L * 1024 * 1024);
+		}
+
+		void openRepoMap() {
+			this.reposMap = openShared("boa.ast.dir", "repo");
+			System.err.println(" [open repo map] ");
+		}
+
+		void openCommentMap() {
+			this.commentsMap = openShared("boa.comments.dir", "comments");
+		}
+
+		void openIssuesMap() {
+			this.issuesMap = openShared("boa.issues.dir", "issues");
+		}
+
+		void openRefactoringMap() {
+			this.refactoringsMap = openShared("boa.ast.dir", "refactoring");
+		}
+
+		void openRefactoringIdMap() {
+			this.refactoringIdsMap = openShared("boa.ast.dir", "refactoringId");
+		}
+
+		/**
+		 * Opens the persistent AST cache named by {@code boa.ast.cache.dir}, if
+		 * there is one.
+		 */
+		AstCacheStore getAstStore() {
+			if (this.astStoreOpened || this.task.getContext() == null)
+				return this.astStore;
+			this.astStoreOpened = true;
+
+			final Configuration conf = this.task.getConfiguration();
+			synchronized (astCache) {
+				astCache.setCapacity(conf.getLong(AST_CACHE_BYTES, DEFAULT_AST_CACHE_BYTES));
+			}
+			final String dir = conf.get("boa.ast.cache.dir");
+			if (dir != null) {
+				try {
+					final Path p = new Path(dir);
+					this.astStore = new AstCacheStore(p.getFileSystem(conf), p, conf, conf.getLong("boa.ast.cache.buffer.bytes", 64L * 1024 * 1024));
+				} catch (final IOException e) {
+					e.printStackTrace();
+				}
+			}
+			return this.astStore;
+		}
+
+		void closeAstStore() {
+			if (this.astStore != null) {
+				try {
+					this.astStore.close();
+					this.task.incrementCounter(ASTCACHECOUNTER.STORED, this.astStore.getStored());
+				} catch (final IOException e) {
+					e.printStackTrace();
+				}
+			}
+			this.astStore = null;
+			this.astStoreOpened = false;
+		}
+
+		void closeRepo() {
+			this.repoCache.clear();
+			this.blobCache.clear();
+		}
+
+		void closeAllMaps() {
+			closeMap(this.map, ASTCOUNTER.PREFETCHED, ASTCOUNTER.PREFETCH_HITS, ASTCOUNTER.SEEKS);
+			this.map = null;
+			closeMap(this.commitsMap, COMMITCOUNTER.PREFETCHED, COMMITCOUNTER.PREFETCH_HITS, COMMITCOUNTER.SEEKS);
+			this.commitsMap = null;
+			this.prefetchedRepo = null;
+			closeMap(this.reposMap);
+			this.reposMap = null;
+			closeMap(this.commentsMap);
+			this.commentsMap = null;
+			closeMap(this.issuesMap);
+			this.issuesMap = null;
+			closeMap(this.refactoringsMap);
+			this.refactoringsMap = null;
+			closeRefactoringIdsMap();
+		}
+
+		void closeRefactoringIdsMap() {
+			closeMap(this.refactoringIdsMap);
+			this.refactoringIdsMap = null;
+		}
+
+		private void closeMap(final MapFile.Reader map) {
+			if (map != null)
+				try {
+					SharedMapFileReaders.release(map);
+				} catch (final IOException e) {
+					e.printStackTrace();
+				}
+		}
+
+		private void closeMap(final PrefetchingMapFileReader map, final Enum<?> prefetched, final Enum<?> hits, final Enum<?> seeks) {
+			if (map != null) {
+				this.task.incrementCounter(prefetched, map.getPrefetched());
+				this.task.incrementCounter(hits, map.getHits());
+				this.task.incrementCounter(seeks, map.getSeeks());
+				try {
+					map.close();
+				} catch (final IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		@Override
+		public void close() {
+			closeRepo();
+			closeAllMaps();
+			closeAstStore();
+		}
+	}
+
+	/**
+	 * Returns the readers and caches of the task running on this thread.
+	 */
+	private static State state() {
+		final BoaTaskContext task = BoaTaskContext.get();
+		final State s = task.getState(State.class);
+		if (s != null)
+			return s;
+		return task.putState(State.class, new State(task));
+	}
+
 	@FunctionSpec(name = "url", returnType = "string", formalParameters = { "ChangedFile" })
 	public static String changedfileToString(final ChangedFile f) {
 		return f.getKey() + "!!" + f.getName();
@@ -112,7 +379,7 @@ public class BoaAstIntrinsics {
 	@SuppressWarnings("unchecked")
 	@FunctionSpec(name = "getast", returnType = "ASTRoot", formalParameters = { "ChangedFile" })
 	public static ASTRoot getast(ChangedFile f) {
-		context.getCounter(ASTCOUNTER.GETS_ATTEMPTED).increment(1);
+		incrementCounter(ASTCOUNTER.GETS_ATTEMPTED);
 
 		// check new model
 		if (f.hasRepoKey() && f.hasObjectId()) {
@@ -121,34 +388,35 @@ public class BoaAstIntrinsics {
 				return r;
 			System.err.print(" [New Model Getast] ");
 		} else {
-			if (map == null)
-				openMap();
+			final State s = state();
+			if (s.map == null)
+				s.openMap();
 
 			try {
-				final BytesWritable value = new BytesWritable();
-				if (map.get(new LongWritable(f.getKey()), value) == null) {
-					context.getCounter(ASTCOUNTER.GETS_FAIL_MISSING).increment(1);
+				final BytesWritable value = s.astValue;
+				if (!s.map.get(f.getKey(), value)) {
+					incrementCounter(ASTCOUNTER.GETS_FAIL_MISSING);
 				} else {
 					final CodedInputStream _stream = CodedInputStream.newInstance(value.getBytes(), 0,
 							value.getLength());
 					// defaults to 64, really big ASTs require more
 					_stream.setRecursionLimit(Integer.MAX_VALUE);
 					final ASTRoot root = ASTRoot.parseFrom(_stream);
-					context.getCounter(ASTCOUNTER.GETS_SUCCEED).increment(1);
+					incrementCounter(ASTCOUNTER.GETS_SUCCEED);
 					return root;
 				}
 			} catch (final InvalidProtocolBufferException e) {
 				e.printStackTrace();
-				context.getCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF).increment(1);
+				incrementCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF);
 			} catch (final IOException e) {
 				e.printStackTrace();
-				context.getCounter(ASTCOUNTER.GETS_FAIL_MISSING).increment(1);
+				incrementCounter(ASTCOUNTER.GETS_FAIL_MISSING);
 			} catch (final RuntimeException e) {
 				e.printStackTrace();
-				context.getCounter(ASTCOUNTER.GETS_FAIL_MISSING).increment(1);
+				incrementCounter(ASTCOUNTER.GETS_FAIL_MISSING);
 			} catch (final Error e) {
 				e.printStackTrace();
-				context.getCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF).increment(1);
+				incrementCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF);
 			}
 		}
 
@@ -158,7 +426,7 @@ public class BoaAstIntrinsics {
 							+ " with FileChange: " + f.getChange() 
 							+ " with repo key: " + f.getKey());
 		
-		context.getCounter(ASTCOUNTER.GETS_FAILED).increment(1);
+		incrementCounter(ASTCOUNTER.GETS_FAILED);
 		return emptyAst;
 	}
 
@@ -171,7 +439,87 @@ public class BoaAstIntrinsics {
 		// if ChangedFile contains ast root
 		if (f.hasRoot())
 			return f.getRoot();
-		return getASTRoot(getContent(f));
+		if (!f.hasObjectId() || f.getObjectId().startsWith("BOA_DELETED_FILE"))
+			return getASTRoot(getContent(f));
+
+		// an AST only depends on the blob it was parsed from, so it is shared
+		// by every revision, repository and job that has the same blob
+		final String id = f.getObjectId();
+		ASTRoot root;
+		synchronized (astCache) {
+			root = astCache.get(id);
+		}
+		if (root != null) {
+			incrementCounter(ASTCACHECOUNTER.MEMORY_HITS);
+			incrementCounter(ASTCACHECOUNTER.PARSES_AVOIDED);
+			return root;
+		}
+
+		final State s = state();
+		if (s.failedParses.contains(id))
+			return emptyAst;
+
+		final AstCacheStore store = s.getAstStore();
+		if (store != null) {
+			try {
+				final byte[] bytes = store.get(id);
+				if (bytes != null) {
+					final CodedInputStream _stream = CodedInputStream.newInstance(bytes);
+					// defaults to 64, really big ASTs require more
+					_stream.setRecursionLimit(Integer.MAX_VALUE);
+					root = ASTRoot.parseFrom(_stream);
+					incrementCounter(ASTCACHECOUNTER.STORE_HITS);
+					incrementCounter(ASTCACHECOUNTER.PARSES_AVOIDED);
+					cacheAst(id, root);
+					return root;
+				}
+			} catch (final IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		final String content = getContent(f);
+		root = getASTRoot(content);
+		if (content == null)
+			return root;
+		incrementCounter(ASTCACHECOUNTER.PARSES);
+
+		// failed parses are only kept for this task, they may not fail again
+		if (root == emptyAst) {
+			s.failedParses.add(id);
+			return root;
+		}
+
+		cacheAst(id, root);
+		if (store != null) {
+			try {
+				store.put(id, root.toByteArray());
+			} catch (final IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Parsed ASTs, keyed by the object id of the blob they were parsed from
+	 * and bounded by their serialized size.  Kept across tasks, and shared
+	 * by the tasks running at once, so failed parses are left out.
+	 */
+	private static final LRUCache<String, ASTRoot> astCache = new LRUCache<String, ASTRoot>(DEFAULT_AST_CACHE_BYTES) {
+		@Override
+		protected long sizeOf(final ASTRoot root) {
+			return 64 + root.getSerializedSize();
+		}
+	};
+
+	private static void cacheAst(final String id, final ASTRoot root) {
+		final long evictions;
+		synchronized (astCache) {
+			evictions = astCache.getEvictions();
+			astCache.put(id, root);
+			incrementCounter(ASTCACHECOUNTER.EVICTIONS, astCache.getEvictions() - evictions);
+		}
 	}
 
 	public static final ASTRoot getASTRoot(final String content) {
@@ -219,9 +567,6 @@ public class BoaAstIntrinsics {
 		}
 	}
 
-	private static long currentRepoKey = Long.MIN_VALUE;
-	private static Repository currentStoredRepository = null;
-
 	@FunctionSpec(name = "getcontent", returnType = "string", formalParameters = { "ChangedFile" })
 	public static String getContent(ChangedFile f) {
 		if (f.hasRepoKey() && f.hasObjectId()) {
@@ -229,25 +574,26 @@ public class BoaAstIntrinsics {
 				System.err.println(" [BOA_DELETED_FILE] ");
 				return null;
 			}
-			if (f.getRepoKey() != currentRepoKey || currentStoredRepository == null) {
-				currentRepoKey = f.getRepoKey();
-				BytesWritable value = getValueFromRepoMap(f);
-				if (value != null) {
-					ByteArrayFile file = (ByteArrayFile) SerializationUtils.deserialize(value.getBytes());
-					try {
-						cleanup(null);
-						currentStoredRepository = new ByteArrayRepositoryBuilder().setGitDir(file).build();
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-				} else {
-					System.err.print(" [Repo Map Value Null] ");
-					cleanup(null);
-					return null;
-				}
+
+			final State s = state();
+			final String cached = s.blobCache.get(f.getObjectId());
+			if (cached != null) {
+				incrementCounter(REPOCACHECOUNTER.BLOB_HITS);
+				return cached;
 			}
+			incrementCounter(REPOCACHECOUNTER.BLOB_MISSES);
+
+			final Repository repo = getRepository(s, f);
+			if (repo == null)
+				return null;
 			try {
-				return getContent(currentStoredRepository, f.getObjectId());
+				final String content = getContent(repo, f.getObjectId());
+				if (content != null) {
+					final long evictions = s.blobCache.getEvictions();
+					s.blobCache.put(f.getObjectId(), content);
+					incrementCounter(REPOCACHECOUNTER.BLOB_EVICTIONS, s.blobCache.getEvictions() - evictions);
+				}
+				return content;
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -256,12 +602,77 @@ public class BoaAstIntrinsics {
 		return null;
 	}
 
+	private static Repository getRepository(final State s, final ChangedFile f) {
+		Repository repo = s.repoCache.get(f.getRepoKey());
+		if (repo != null) {
+			incrementCounter(REPOCACHECOUNTER.REPO_HITS);
+			return repo;
+		}
+		incrementCounter(REPOCACHECOUNTER.REPO_MISSES);
+
+		long size;
+		repo = openRepoPack(s, f.getRepoKey());
+		if (repo != null) {
+			// pack files are memory-mapped, only the indexes are on the heap
+			size = 1024 * 1024;
+		} else {
+			final BytesWritable value = getValueFromRepoMap(f);
+			if (value == null) {
+				System.err.print(" [Repo Map Value Null] ");
+				return null;
+			}
+
+			// a ByteArrayFile, only loaded when the map is read: its jar clashes
+			// with the signed JGit jar that opens repository packs in tests
+			final File file = (File) SerializationUtils.deserialize(value.getBytes());
+			try {
+				repo = new ByteArrayRepositoryBuilder().setGitDir(file).build();
+			} catch (IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+			size = value.getLength();
+		}
+
+		final long evictions = s.repoCache.getEvictions();
+		s.repoCache.put(f.getRepoKey(), repo, size);
+		incrementCounter(REPOCACHECOUNTER.REPO_EVICTIONS, s.repoCache.getEvictions() - evictions);
+		return repo;
+	}
+
+	/**
+	 * Opens a repository stored by {@link RepoPackStore}, if the dataset has
+	 * one for the given key.
+	 */
+	private static Repository openRepoPack(final State s, final long repoKey) {
+		if (s.task.getContext() == null || (s.hasRepoPacks != null && !s.hasRepoPacks))
+			return null;
+		try {
+			final Configuration conf = s.task.getConfiguration();
+			final Path p = s.getDataPath(conf, "boa.ast.dir", RepoPackStore.DIR);
+			final FileSystem fs = p.getFileSystem(conf);
+			if (s.hasRepoPacks == null)
+				s.hasRepoPacks = fs.exists(p);
+			if (!s.hasRepoPacks)
+				return null;
+			return RepoPackStore.open(fs, new Path(p, Long.toString(repoKey)), conf);
+		} catch (final IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	static void incrementCounter(final Enum<?> counter) {
+		incrementCounter(counter, 1);
+	}
+
+	static void incrementCounter(final Enum<?> counter, final long amount) {
+		BoaTaskContext.get().incrementCounter(counter, amount);
+	}
+
 	@FunctionSpec(name = "closerepo")
 	public static void closeRepo() {
-		if (currentStoredRepository != null) {
-			currentStoredRepository.close();
-			currentStoredRepository = null;
-		}
+		state().closeRepo();
 	}
 
 	public static final String getContent(Repository repo, String oid) throws IOException {
@@ -300,68 +711,108 @@ public class BoaAstIntrinsics {
 
 	@SuppressWarnings("unchecked")
 	public static final BytesWritable getValueFromRepoMap(ChangedFile f) {
-		if (reposMap == null)
-			openRepoMap();
+		final State s = state();
+		if (s.reposMap == null)
+			s.openRepoMap();
 		try {
 			BytesWritable value = new BytesWritable();
-			if (reposMap.get(new LongWritable(f.getRepoKey()), value) == null) {
-				context.getCounter(ASTCOUNTER.GETS_FAIL_MISSING).increment(1);
+			if (s.reposMap.get(new LongWritable(f.getRepoKey()), value) == null) {
+				incrementCounter(ASTCOUNTER.GETS_FAIL_MISSING);
 				return null;
 			} else {
-				context.getCounter(ASTCOUNTER.GETS_SUCCEED).increment(1);
+				incrementCounter(ASTCOUNTER.GETS_SUCCEED);
 				return value;
 			}
 		} catch (final InvalidProtocolBufferException e) {
 			e.printStackTrace();
-			context.getCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF).increment(1);
+			incrementCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF);
 		} catch (final IOException e) {
 			e.printStackTrace();
-			context.getCounter(ASTCOUNTER.GETS_FAIL_MISSING).increment(1);
+			incrementCounter(ASTCOUNTER.GETS_FAIL_MISSING);
 		} catch (final RuntimeException e) {
 			e.printStackTrace();
-			context.getCounter(ASTCOUNTER.GETS_FAIL_MISSING).increment(1);
+			incrementCounter(ASTCOUNTER.GETS_FAIL_MISSING);
 		} catch (final Error e) {
 			e.printStackTrace();
-			context.getCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF).increment(1);
+			incrementCounter(ASTCOUNTER.GETS_FAIL_BADPROTOBUF);
 		}
 		return null;
 	}
 
+	/**
+	 * Announces that the revisions of a repository are about to be read, so
+	 * they are read from the commit map in one scan.
+	 *
+	 * @param cr the repository
+	 */
+	static void prefetchRevisions(final CodeRepository cr) {
+		final State s = state();
+		if (cr == s.prefetchedRepo || s.task.getContext() == null)
+			return;
+		s.prefetchedRepo = cr;
+
+		if (s.commitsMap == null)
+			s.openCommitMap();
+		if (s.commitsMap != null)
+			s.commitsMap.prefetch(cr.getRevisionKeysList());
+	}
+
+	/**
+	 * Announces that the ASTs of some files are about to be read, so they are
+	 * read from the AST map in one scan.  Only files whose ASTs are stored in
+	 * the map are announced, and only once the map is open.
+	 *
+	 * @param files the files
+	 */
+	public static void prefetchAsts(final List<ChangedFile> files) {
+		final State s = state();
+		if (s.map == null)
+			return;
+
+		final List<Long> keys = new ArrayList<Long>();
+		for (final ChangedFile f : files)
+			if (f.getAst() && !(f.hasRepoKey() && f.hasObjectId()))
+				keys.add(f.getKey());
+		if (!keys.isEmpty())
+			s.map.prefetch(keys);
+	}
+
 	@SuppressWarnings("unchecked")
 	static Revision getRevision(long key) {
-		context.getCounter(COMMITCOUNTER.GETS_ATTEMPTED).increment(1);
+		incrementCounter(COMMITCOUNTER.GETS_ATTEMPTED);
 
-		if (commitsMap == null)
-			openCommitMap();
+		final State s = state();
+		if (s.commitsMap == null)
+			s.openCommitMap();
 
 		try {
-			final BytesWritable value = new BytesWritable();
-			if (commitsMap.get(new LongWritable(key), value) == null) {
-				context.getCounter(COMMITCOUNTER.GETS_FAIL_MISSING).increment(1);
+			final BytesWritable value = s.commitValue;
+			if (!s.commitsMap.get(key, value)) {
+				incrementCounter(COMMITCOUNTER.GETS_FAIL_MISSING);
 			} else {
 				final CodedInputStream _stream = CodedInputStream.newInstance(value.getBytes(), 0, value.getLength());
 				// defaults to 64, really big ASTs require more
 				_stream.setRecursionLimit(Integer.MAX_VALUE);
 				final Revision root = Revision.parseFrom(_stream);
-				context.getCounter(COMMITCOUNTER.GETS_SUCCEED).increment(1);
+				incrementCounter(COMMITCOUNTER.GETS_SUCCEED);
 				return root;
 			}
 		} catch (final InvalidProtocolBufferException e) {
 			e.printStackTrace();
-			context.getCounter(COMMITCOUNTER.GETS_FAIL_BADPROTOBUF).increment(1);
+			incrementCounter(COMMITCOUNTER.GETS_FAIL_BADPROTOBUF);
 		} catch (final IOException e) {
 			e.printStackTrace();
-			context.getCounter(COMMITCOUNTER.GETS_FAIL_MISSING).increment(1);
+			incrementCounter(COMMITCOUNTER.GETS_FAIL_MISSING);
 		} catch (final RuntimeException e) {
 			e.printStackTrace();
-			context.getCounter(COMMITCOUNTER.GETS_FAIL_MISSING).increment(1);
+			incrementCounter(COMMITCOUNTER.GETS_FAIL_MISSING);
 		} catch (final Error e) {
 			e.printStackTrace();
-			context.getCounter(COMMITCOUNTER.GETS_FAIL_BADPROTOBUF).increment(1);
+			incrementCounter(COMMITCOUNTER.GETS_FAIL_BADPROTOBUF);
 		}
 
 		System.err.println("error with revision: " + key);
-		context.getCounter(COMMITCOUNTER.GETS_FAILED).increment(1);
+		incrementCounter(COMMITCOUNTER.GETS_FAILED);
 		return emptyRevision;
 	}
 
@@ -382,12 +833,13 @@ public class BoaAstIntrinsics {
 
 		final String rowName = f.getKey() + "!!" + f.getName();
 
-		if (commentsMap == null)
-			openCommentMap();
+		final State s = state();
+		if (s.commentsMap == null)
+			s.openCommentMap();
 
 		try {
 			final BytesWritable value = new BytesWritable();
-			if (commentsMap.get(new Text(rowName), value) != null) {
+			if (s.commentsMap.get(new Text(rowName), value) != null) {
 				final CodedInputStream _stream = CodedInputStream.newInstance(value.getBytes(), 0, value.getLength());
 				final CommentsRoot root = CommentsRoot.parseFrom(_stream);
 				return root;
@@ -414,12 +866,13 @@ public class BoaAstIntrinsics {
 	 */
 	@FunctionSpec(name = "getissues", returnType = "IssuesRoot", formalParameters = { "IssueRepository" })
 	public static IssuesRoot getissues(final IssueRepository f) {
-		if (issuesMap == null)
-			openIssuesMap();
+		final State s = state();
+		if (s.issuesMap == null)
+			s.openIssuesMap();
 
 		try {
 			final BytesWritable value = new BytesWritable();
-			if (issuesMap.get(new Text(f.getKey()), value) != null) {
+			if (s.issuesMap.get(new Text(f.getKey()), value) != null) {
 				final CodedInputStream _stream = CodedInputStream.newInstance(value.getBytes(), 0, value.getLength());
 				final IssuesRoot root = IssuesRoot.parseFrom(_stream);
 				return root;
@@ -440,19 +893,20 @@ public class BoaAstIntrinsics {
 
 	@SuppressWarnings("rawtypes")
 	public static void setup(final Context context) {
-		BoaAstIntrinsics.context = context;
+		BoaTaskContext.open(context);
 	}
 	
 	@FunctionSpec(name = "get_code_change", returnType = "Change", formalParameters = { "Project",
 			"Revision" })
 	public static boa.types.Code.Change getCodeChange(Project p, Revision r) {
 
-		if (refactoringsMap == null)
-			openRefactoringMap();
+		final State s = state();
+		if (s.refactoringsMap == null)
+			s.openRefactoringMap();
 
 		try {
 			final BytesWritable value = new BytesWritable();
-			if (refactoringsMap.get(new Text(p.getName() + " " + r.getId()), value) != null) {
+			if (s.refactoringsMap.get(new Text(p.getName() + " " + r.getId()), value) != null) {
 				final CodedInputStream _stream = CodedInputStream.newInstance(value.getBytes(), 0, value.getLength());
 				// defaults to 64, really big ASTs require more
 				_stream.setRecursionLimit(Integer.MAX_VALUE);
@@ -465,25 +919,6 @@ public class BoaAstIntrinsics {
 		return boa.types.Code.Change.newBuilder().build();
 	}
 
-	private static void openRefactoringMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "refactoring");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"), new Path(
-						conf.get("boa.ast.dir", conf.get("boa.input.dir", "repcache/live")), new Path("refactoring")));
-				fs = FileSystem.get(conf);
-			}
-			refactoringsMap = new MapFile.Reader(fs, p.toString(), conf);
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-	
 	@FunctionSpec(name = "getrefactoringidsinset", returnType = "set of string", formalParameters = { "Project" })
 	public static HashSet<String> getRefactoringIdsInSet(Project p) {
 		return new HashSet<String>(Arrays.asList(getRefactoringIds(p)));
@@ -494,12 +929,13 @@ public class BoaAstIntrinsics {
 	@FunctionSpec(name = "getrefactoringids", returnType = "array of string", formalParameters = { "Project" })
 	public static String[] getRefactoringIds(Project p) {
 	
-		if (refactoringIdsMap == null)
-			openRefactoringIdMap();
+		final State s = state();
+		if (s.refactoringIdsMap == null)
+			s.openRefactoringIdMap();
 		
 		try {
 			final BytesWritable value = new BytesWritable();
-			if (refactoringIdsMap.get(new Text(p.getName()), value) != null) {
+			if (s.refactoringIdsMap.get(new Text(p.getName()), value) != null) {
 				// use array copy to avoid extra bytes
 				byte[] data = Arrays.copyOf(value.getBytes(), value.getLength());
 				String[] temp = new String(data, StandardCharsets.UTF_8).split("\\r?\\n");
@@ -508,142 +944,21 @@ public class BoaAstIntrinsics {
 		} catch (final Throwable e) {
 			e.printStackTrace();
 		} finally {
-			closeRefactoringIdsMap();
+			s.closeRefactoringIdsMap();
 		}
 		return new String[0];
 	}
 
-	private static void openRefactoringIdMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "refactoringId");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"),
-						new Path(conf.get("boa.ast.dir", conf.get("boa.input.dir", "repcache/live")), new Path("refactoringId")));
-				fs = FileSystem.get(conf);
-			}
-			refactoringIdsMap = new MapFile.Reader(fs, p.toString(), conf);
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-
-	private static void openMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "ast");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"),
-						new Path(conf.get("boa.ast.dir", conf.get("boa.input.dir", "repcache/live")), new Path("ast")));
-				fs = FileSystem.get(conf);
-			}
-			map = new MapFile.Reader(fs, p.toString(), conf);
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-
-	private static void openRepoMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "repo");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"), new Path(
-						conf.get("boa.ast.dir", conf.get("boa.input.dir", "repcache/live")), new Path("repo")));
-				fs = FileSystem.get(conf);
-			}
-			reposMap = new MapFile.Reader(fs, p.toString(), conf);
-			System.err.println(" [open repo map] ");
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-
-	private static void openCommentMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "comments");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"),
-						new Path(conf.get("boa.comments.dir", conf.get("boa.input.dir", "repcache/live")),
-								new Path("comments")));
-				fs = FileSystem.get(conf);
-			}
-			commentsMap = new MapFile.Reader(fs, p.toString(), conf);
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-
-	private static void openIssuesMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "issues");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"), new Path(
-						conf.get("boa.issues.dir", conf.get("boa.input.dir", "repcache/live")), new Path("issues")));
-				fs = FileSystem.get(conf);
-			}
-			issuesMap = new MapFile.Reader(fs, p.toString(), conf);
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-
-	private static void openCommitMap() {
-		try {
-			final Configuration conf = context.getConfiguration();
-			final FileSystem fs;
-			final Path p;
-			if (DefaultProperties.localDataPath != null) {
-				p = new Path(DefaultProperties.localDataPath, "commit");
-				fs = FileSystem.getLocal(conf);
-			} else {
-				p = new Path(context.getConfiguration().get("fs.default.name", "hdfs://boa-njt/"), new Path(
-						conf.get("boa.ast.dir", conf.get("boa.input.dir", "repcache/live")), new Path("commit")));
-				fs = FileSystem.get(conf);
-			}
-			commitsMap = new MapFile.Reader(fs, p.toString(), conf);
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-	}
-
 	@SuppressWarnings("rawtypes")
 	public static void cleanup(final Context context) {
-		closeRepo();
-		closeAllMaps();
+		final State s = BoaTaskContext.get().removeState(State.class);
+		if (s != null)
+			s.close();
 		System.gc();
 	}
 	
 	public static void closeAllMaps() {
-		closeMap();
-		closeReposMap();
-		closeCommentsMap();
-		closeIssuesMap();
-		closeCommitsMap();
-		closeRefactoringsMap();
-		closeRefactoringIdsMap();
+		state().closeAllMaps();
 	}
 	
 	@FunctionSpec(name = "clean_up")
@@ -651,50 +966,6 @@ public class BoaAstIntrinsics {
 		cleanup(null);
 	}
 
-	private static void closeMap(MapFile.Reader map) {
-		if (map != null)
-			try {
-				map.close();
-			} catch (final IOException e) {
-				e.printStackTrace();
-			}
-	}
-	
-	private static void closeMap() {
-		closeMap(map);
-		map = null;
-	}
-	
-	private static void closeReposMap() {
-		closeMap(reposMap);
-		reposMap = null;
-	}
-	
-	private static void closeCommentsMap() {
-		closeMap(commentsMap);
-		commentsMap = null;
-	}
-	
-	private static void closeIssuesMap() {
-		closeMap(issuesMap);
-		issuesMap = null;
-	}
-	
-	private static void closeCommitsMap() {
-		closeMap(commitsMap);
-		commitsMap = null;
-	}
-	
-	private static void closeRefactoringsMap() {
-		closeMap(refactoringsMap);
-		refactoringsMap = null;
-	}
-	
-	private static void closeRefactoringIdsMap() {
-		closeMap(refactoringIdsMap);
-		refactoringIdsMap = null;
-	}
-
 	@FunctionSpec(name = "type_name", returnType = "string", formalParameters = { "string" })
 	public static String type_name(final String s) {
 		// first, normalize the string
@@ -719,7 +990,7 @@ public class BoaAstIntrinsics {
 	/**
 	 * A visitor that returns the total number of AST nodes.
 	 */
-	public final static BoaCountingVisitor lenVisitor = new BoaCountingVisitor() {
+	public static class LenVisitor extends BoaCountingVisitor {
 		/** {@inheritDoc} */
 		@Override
 		protected boolean defaultPreVisit() {
@@ -762,7 +1033,7 @@ public class BoaAstIntrinsics {
 		protected boolean preVisit(final Person node) throws Exception {
 			return true;
 		}
-	};
+	}
 
 	/**
 	 *
@@ -810,8 +1081,6 @@ public class BoaAstIntrinsics {
 		}
 	}
 
-	public final static SnapshotVisitor snapshot = new SnapshotVisitor();
-
 	///////////////////////////////
 	// Literal testing functions */
 	///////////////////////////////
@@ -1141,12 +1410,11 @@ public class BoaAstIntrinsics {
 		}
 	}
 
-	private static AnnotationCollectingVisitor annotationCollectingVisitor = new AnnotationCollectingVisitor();
-
 	@FunctionSpec(name = "collect_annotations", returnType = "map[string] of int", formalParameters = { "ASTRoot",
 			"map[string] of int" })
 	public static HashMap<String, Long> collect_annotations(final ASTRoot f, final HashMap<String, Long> map)
 			throws Exception {
+		final AnnotationCollectingVisitor annotationCollectingVisitor = new AnnotationCollectingVisitor();
 		annotationCollectingVisitor.initialize(map).visit(f);
 		return annotationCollectingVisitor.map;
 	}
@@ -1169,12 +1437,11 @@ public class BoaAstIntrinsics {
 		}
 	}
 
-	private static GenericsCollectingVisitor genericsCollectingVisitor = new GenericsCollectingVisitor();
-
 	@FunctionSpec(name = "collect_generic_types", returnType = "map[string] of int", formalParameters = { "ASTRoot",
 			"map[string] of int" })
 	public static HashMap<String, Long> collect_generic_types(final ASTRoot f, final HashMap<String, Long> map)
 			throws Exception {
+		final GenericsCollectingVisitor genericsCollectingVisitor = new GenericsCollectingVisitor();
 		genericsCollectingVisitor.initialize(map).visit(f);
 		return genericsCollectingVisitor.map;
 	}
@@ -1255,9 +1522,8 @@ public class BoaAstIntrinsics {
 		counts.put(rawType, rawCount + 1);
 	}
 
-	static int indent = 0;
-
 	private static String indent() {
+		final int indent = state().indent;
 		String s = "";
 		for (int i = 0; i < indent; i++)
 			s += "\t";
@@ -1387,7 +1653,7 @@ public class BoaAstIntrinsics {
 
 		s += " {\n";
 
-		indent++;
+		state().indent++;
 		for (int i = 0; i < d.getFieldsCount(); i++) {
 			s += indent() + prettyprint(d.getFieldsList().get(i));
 			s += (!d.getFieldsList().get(i).hasVariableType() && i < d.getFieldsCount() - 1
@@ -1398,7 +1664,7 @@ public class BoaAstIntrinsics {
 		for (final Declaration d2 : d.getNestedDeclarationsList())
 			s += prettyprint(d2);
 
-		indent--;
+		state().indent--;
 
 		s += indent() + "}\n";
 
@@ -1495,10 +1761,10 @@ public class BoaAstIntrinsics {
 
 		case BLOCK:
 			s += "{\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += indent() + "}";
 			return s;
 
@@ -1546,10 +1812,10 @@ public class BoaAstIntrinsics {
 
 		case SYNCHRONIZED:
 			s += "synchronized () {\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += "}";
 			return s;
 
@@ -1557,19 +1823,19 @@ public class BoaAstIntrinsics {
 			s += indent() + "catch (";
 			s += prettyprint(stmt.getVariableDeclaration());
 			s += ") {\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += indent() + "}";
 			return s;
 
 		case FINALLY:
 			s += indent() + "finally {\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += indent() + "}";
 			return s;
 
@@ -1609,9 +1875,9 @@ public class BoaAstIntrinsics {
 				}
 			}
 			s += ")\n";
-			indent++;
+			state().indent++;
 			s += indent() + prettyprint(stmt.getStatements(0)) + "\n";
-			indent--;
+			state().indent--;
 			return s;
 
 		case FOREACH:
@@ -1622,41 +1888,41 @@ public class BoaAstIntrinsics {
 
 		case DO:
 			s += "do\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += indent() + "while (" + prettyprint(stmt.getConditions(0)) + ");";
 			return s;
 
 		case WHILE:
 			s += "while (" + prettyprint(stmt.getConditions(0)) + ") {\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += indent() + "}";
 			return s;
 
 		case IF:
 			s += "if (" + prettyprint(stmt.getConditions(0)) + ")\n";
-			indent++;
+			state().indent++;
 			s += indent() + prettyprint(stmt.getStatements(0)) + "\n";
-			indent--;
+			state().indent--;
 			if (stmt.getStatementsCount() > 1) {
 				s += indent() + "else\n";
-				indent++;
+				state().indent++;
 				s += indent() + prettyprint(stmt.getStatements(1)) + "\n";
-				indent--;
+				state().indent--;
 			}
 			return s;
 
 		case SWITCH:
 			s += "switch (" + prettyprint(stmt.getExpressions(0)) + ") {\n";
-			indent++;
+			state().indent++;
 			for (int i = 0; i < stmt.getStatementsCount(); i++)
 				s += indent() + prettyprint(stmt.getStatements(i)) + "\n";
-			indent--;
+			state().indent--;
 			s += indent() + "}";
 			return s;
 
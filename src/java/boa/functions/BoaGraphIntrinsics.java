@@ -17,6 +17,7 @@
  */
 package boa.functions;
 
+import java.io.Closeable;
 import java.util.*;
 
 import boa.graphs.cdg.CDG;
@@ -25,13 +26,16 @@ import boa.graphs.ddg.DDG;
 import boa.graphs.pdg.PDG;
 import boa.graphs.slicers.CFGSlicer;
 import boa.graphs.slicers.PDGSlicer;
+import boa.graphs.trees.DTree;
 import boa.graphs.trees.PDTree;
+import boa.graphs.trees.TreeNode;
 import boa.types.Ast.Expression;
 import boa.types.Ast.Expression.ExpressionKind;
 import boa.types.Ast.Method;
 import boa.types.Ast.Variable;
 import boa.types.Control.Node;
 import boa.runtime.BoaAbstractTraversal;
+import boa.runtime.BoaTaskContext;
 
 /**
  * Boa functions for working with control flow graphs.
@@ -43,59 +47,222 @@ import boa.runtime.BoaAbstractTraversal;
  * @author marafat
  */
 public class BoaGraphIntrinsics {
+	public static enum GRAPHCACHECOUNTER {
+		HITS, MISSES, EVICTIONS, GRAPHS_BUILT,
+	};
+
+	/** how many CFG nodes the graphs of each cache may have in total */
+	private static final long CACHED_NODES = 32 * 1024;
+
+	/**
+	 * The graphs of one method, each built the first time it is asked for
+	 * from the one CFG of the method.
+	 *
+	 * The graphs are shared by every caller, so only graphs nothing changes
+	 * are kept: a CDG builds its own PDTree, which it changes, a slice that
+	 * normalizes its nodes is made from a PDG of its own, and a PDG is built
+	 * again once it was normalized.
+	 */
+	private static final class Graphs {
+		private final State state;
+		final CFG cfg;
+		private DTree dtree = null;
+		private PDTree pdtree = null;
+		private CDG cdg = null;
+		private DDG ddg = null;
+		private PDG pdg = null;
+
+		Graphs(final State state, final Method method, final boolean paramAsStatement) {
+			this.state = state;
+			this.cfg = new CFG(method, paramAsStatement).get();
+			state.built++;
+		}
+
+		private boolean build(final Object graph) {
+			if (graph != null)
+				return false;
+			this.state.built++;
+			return true;
+		}
+
+		DTree getDTree() throws Exception {
+			if (build(this.dtree))
+				this.dtree = new DTree(this.cfg);
+			return this.dtree;
+		}
+
+		PDTree getPDTree() throws Exception {
+			if (build(this.pdtree))
+				this.pdtree = new PDTree(this.cfg);
+			return this.pdtree;
+		}
+
+		CDG getCDG() throws Exception {
+			if (build(this.cdg))
+				this.cdg = new CDG(this.cfg);
+			return this.cdg;
+		}
+
+		DDG getDDG() throws Exception {
+			if (build(this.ddg))
+				this.ddg = new DDG(this.cfg);
+			return this.ddg;
+		}
+
+		PDG getPDG() throws Exception {
+			if (this.pdg == null || this.pdg.isNormalized())
+				this.pdg = newPDG();
+			return this.pdg;
+		}
+
+		/**
+		 * Builds a PDG of its own for a caller that changes it.
+		 */
+		PDG newPDG() throws Exception {
+			final PDG pdg = new PDG(getCDG(), getDDG());
+			this.state.built++;
+			return pdg;
+		}
+	}
+
+	private static final class GraphCache extends LRUCache<Method, Graphs> {
+		GraphCache() {
+			super(CACHED_NODES);
+		}
+
+		@Override
+		protected long sizeOf(final Graphs g) {
+			return g.cfg == null ? 1 : g.cfg.getNodes().size();
+		}
+	}
+
+	/**
+	 * The graphs of the methods a task analyzed last, kept in its
+	 * {@link BoaTaskContext} and bounded by the number of CFG nodes.
+	 */
+	private static final class State implements Closeable {
+		final BoaTaskContext task;
+		long built = 0;
+
+		final LRUCache<Method, Graphs> graphs = new GraphCache();
+		/** the graphs built with the parameters as statements */
+		final LRUCache<Method, Graphs> paramGraphs = new GraphCache();
+
+		State(final BoaTaskContext task) {
+			this.task = task;
+		}
+
+		Graphs get(final Method method, final boolean paramAsStatement) {
+			final LRUCache<Method, Graphs> cache = paramAsStatement ? this.paramGraphs : this.graphs;
+			Graphs g = cache.get(method);
+			if (g == null) {
+				g = new Graphs(this, method, paramAsStatement);
+				cache.put(method, g);
+			}
+			return g;
+		}
+
+		/**
+		 * Returns the graphs a CFG was cached with, or null if it was not.
+		 */
+		Graphs of(final CFG cfg) {
+			if (cfg == null || cfg.getMd() == null)
+				return null;
+			for (final LRUCache<Method, Graphs> cache : Arrays.asList(this.graphs, this.paramGraphs))
+				if (cache.contains(cfg.getMd())) {
+					final Graphs g = cache.get(cfg.getMd());
+					if (g.cfg == cfg)
+						return g;
+				}
+			return null;
+		}
+
+		@Override
+		public void close() {
+			this.task.incrementCounter(GRAPHCACHECOUNTER.HITS, this.graphs.getHits() + this.paramGraphs.getHits());
+			this.task.incrementCounter(GRAPHCACHECOUNTER.MISSES, this.graphs.getMisses() + this.paramGraphs.getMisses());
+			this.task.incrementCounter(GRAPHCACHECOUNTER.EVICTIONS, this.graphs.getEvictions() + this.paramGraphs.getEvictions());
+			this.task.incrementCounter(GRAPHCACHECOUNTER.GRAPHS_BUILT, this.built);
+			this.graphs.clear();
+			this.paramGraphs.clear();
+		}
+	}
+
+	/**
+	 * Returns the graph caches of the task running on this thread.
+	 */
+	private static State state() {
+		final BoaTaskContext task = BoaTaskContext.get();
+		final State s = task.getState(State.class);
+		if (s != null)
+			return s;
+		return task.putState(State.class, new State(task));
+	}
+
 	@FunctionSpec(name = "getcfg", returnType = "CFG", formalParameters = { "Method" })
 	public static CFG getcfg(final Method method) {
-		return new CFG(method).get();
+		return state().get(method, false).cfg;
+	}
+
+	@FunctionSpec(name = "getdtree", returnType = "DTree", formalParameters = { "Method" })
+	public static DTree getdtree(final Method method) throws Exception {
+		return state().get(method, false).getDTree();
 	}
 
 	@FunctionSpec(name = "getpdtree", returnType = "PDTree", formalParameters = { "Method" })
 	public static PDTree getpdtree(final Method method) throws Exception {
-		return new PDTree(method);
+		return state().get(method, false).getPDTree();
 	}
 
 	@FunctionSpec(name = "getcdg", returnType = "CDG", formalParameters = { "Method" })
 	public static CDG getcdg(final Method method) throws Exception {
-		return new CDG(method);
+		return state().get(method, false).getCDG();
 	}
 
 	@FunctionSpec(name = "getcdg", returnType = "CDG", formalParameters = { "CFG" })
 	public static CDG getcdg(final CFG cfg) throws Exception {
-		return new CDG(cfg);
+		final Graphs g = state().of(cfg);
+		return g == null ? new CDG(cfg) : g.getCDG();
 	}
 
 	@FunctionSpec(name = "getddg", returnType = "DDG", formalParameters = { "Method" })
 	public static DDG getddg(final Method method) throws Exception {
-		return new DDG(method);
+		return state().get(method, false).getDDG();
 	}
 
 	@FunctionSpec(name = "getddg", returnType = "DDG", formalParameters = { "CFG" })
 	public static DDG getddg(final CFG cfg) throws Exception {
-		return new DDG(cfg);
+		final Graphs g = state().of(cfg);
+		return g == null ? new DDG(cfg) : g.getDDG();
 	}
 
 	@FunctionSpec(name = "getpdg", returnType = "PDG", formalParameters = { "Method" })
 	public static PDG getpdg(final Method method) throws Exception {
-		return new PDG(method);
+		return state().get(method, false).getPDG();
 	}
 
 	@FunctionSpec(name = "getpdg", returnType = "PDG", formalParameters = { "Method", "bool" })
 	public static PDG getpdg(final Method method, boolean paramAsStatement) throws Exception {
-		return new PDG(method, paramAsStatement);
+		return state().get(method, paramAsStatement).getPDG();
 	}
 
 	@FunctionSpec(name = "getcfgslice", returnType = "CFGSlicer", formalParameters = { "Method", "int" })
 	public static CFGSlicer getcfgslice(final Method method, Long id) throws Exception {
-		return new CFGSlicer(method, (int)(long) id);
+		return new CFGSlicer(state().get(method, true).cfg, (int)(long) id);
 	}
 
 	@FunctionSpec(name = "getpdgslice", returnType = "PDGSlicer", formalParameters = { "PDG",  "int", "bool" })
 	public static PDGSlicer getpdgslice(final PDG pdg, Long id, boolean normalize) throws Exception {
-		return new PDGSlicer(pdg, (int)(long) id, normalize);
+		// normalizing changes the nodes of the slice, so it gets a PDG of its own
+		return new PDGSlicer(normalize ? new PDG(pdg) : pdg, (int)(long) id, normalize);
 	}
 
 	@FunctionSpec(name = "getpdgslice", returnType = "PDGSlicer", formalParameters = { "Method",  "int", "bool" })
 	public static PDGSlicer getpdgslice(final Method method, Long id, boolean normalize) throws Exception {
-		return new PDGSlicer(method, (int)(long) id, normalize);
+		final Graphs g = state().get(method, false);
+		// normalizing changes the nodes of the slice, so it gets a PDG of its own
+		final PDG pdg = normalize ? g.newPDG() : g.getPDG();
+		return new PDGSlicer(method, pdg.getNode((int)(long) id), normalize);
 	}
 
 	//@FunctionSpec(name = "get_nodes_with_definition", returnType = "set of string", formalParameters = { "Node" })
@@ -672,6 +839,29 @@ public class BoaGraphIntrinsics {
 	@FunctionSpec(name = "dot", returnType = "string", formalParameters = { "PDTree", "string" })
 	public static String pdtreeToDot(final PDTree pdtree, final String label) {
 		if (pdtree == null || pdtree.getNodes().size() == 0) return "";
+		return treeToDot(pdtree.sortNodes(), pdtree.getNodes().size() - 1, label);
+	}
+
+	@FunctionSpec(name = "dot", returnType = "string", formalParameters = { "DTree" })
+	public static String dtreeToDot(final DTree dtree) {
+		return dtreeToDot(dtree, "");
+	}
+
+	@FunctionSpec(name = "dot", returnType = "string", formalParameters = { "DTree", "bool" })
+	public static String dtreeToDot(final DTree dtree, final boolean showMethod) {
+		if (showMethod)
+			return dtreeToDot(dtree, boa.functions.BoaAstIntrinsics.prettyprint(dtree.getMethod()));
+		return dtreeToDot(dtree, "");
+	}
+
+	@FunctionSpec(name = "dot", returnType = "string", formalParameters = { "DTree", "string" })
+	public static String dtreeToDot(final DTree dtree, final String label) {
+		if (dtree == null || dtree.getNodes().size() == 0) return "";
+		final TreeNode[] nodes = dtree.sortNodes();
+		return treeToDot(nodes, nodes[nodes.length - 1].getId(), label);
+	}
+
+	private static String treeToDot(final TreeNode[] treeNodes, final long stopId, final String label) {
 		final StringBuilder str = new StringBuilder();
 		final StringBuilder str2 = new StringBuilder();
 		str.append("digraph {\n");
@@ -682,7 +872,7 @@ public class BoaGraphIntrinsics {
 			str.append("\"\n");
 		}
 
-		for (final boa.graphs.trees.TreeNode n : pdtree.sortNodes()) {
+		for (final TreeNode n : treeNodes) {
 			str.append("\t");
 			str.append(n.getId());
 			str.append("[shape=ellipse");
@@ -702,7 +892,7 @@ public class BoaGraphIntrinsics {
 				str.append(",label=\"[");
 				str.append(n.getId());
 				str.append("] START\"]\n");
-			} else if (n.getId() == pdtree.getNodes().size() - 1) {
+			} else if (n.getId() == stopId) {
 				str.append(",label=\"[");
 				str.append(n.getId());
 				str.append("] STOP\"]\n");
@@ -710,9 +900,9 @@ public class BoaGraphIntrinsics {
 				str.append("]\n");
 			}
 
-			final java.util.List<boa.graphs.trees.TreeNode> nodes = new ArrayList<boa.graphs.trees.TreeNode>(n.getChildren());
+			final java.util.List<TreeNode> nodes = new ArrayList<TreeNode>(n.getChildren());
 			Collections.sort(nodes);
-			for (final boa.graphs.trees.TreeNode node : nodes) {
+			for (final TreeNode node : nodes) {
 				str2.append("\t");
 				str2.append(n.getId());
 				str2.append(" -> ");
@@ -21,13 +21,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.hadoop.conf.Configuration;
+
+import boa.runtime.BitSetSet;
+import boa.runtime.BoaTaskContext;
 import boa.types.Ast.ASTRoot;
 import boa.types.Code.CodeRepository;
 import boa.types.Code.Revision;
@@ -48,11 +51,11 @@ public class BoaIntrinsics {
 		"\\b(bug|issue|fix)\\b\\s*id(s)?\\s*(=)?\\s*[0-9]+"
 	};
 
-	private final static List<Matcher> fixingMatchers = new ArrayList<Matcher>();
+	private final static List<Pattern> fixingPatterns = new ArrayList<Pattern>();
 
 	static {
 		for (final String s : fixingRegex)
-			fixingMatchers.add(Pattern.compile(s).matcher(""));
+			fixingPatterns.add(Pattern.compile(s));
 	}
 
 	private static int getRevisionIndex(final CodeRepository cr, final long timestamp) {
@@ -90,6 +93,7 @@ public class BoaIntrinsics {
 	@FunctionSpec(name = "getrevision", returnType = "Revision", formalParameters = { "CodeRepository", "int" })
 	public static Revision getRevision(final CodeRepository cr, final long index) {
 		if (cr.getRevisionKeysCount() > 0) {
+			BoaAstIntrinsics.prefetchRevisions(cr);
 			long key = cr.getRevisionKeys((int) index);
 			return BoaAstIntrinsics.getRevision(key);
 		}
@@ -150,23 +154,7 @@ public class BoaIntrinsics {
 	public static ChangedFile[] getSnapshotByIndex(final CodeRepository cr, final long commitOffset, final String... kinds) {
 //		if (commitOffset == cr.getHead())
 //			return getSnapshot(cr, kinds);
-		List<ChangedFile> snapshot = new LinkedList<ChangedFile>();
-		Set<String> adds = new HashSet<String>(), dels = new HashSet<String>();
-		PriorityQueue<Integer> pq = new PriorityQueue<Integer>(100, new Comparator<Integer>() {
-			@Override
-			public int compare(Integer i1, Integer i2) {
-				return i2 - i1;
-			}
-		});
-		Set<Integer> queuedCommitIds = new HashSet<Integer>();
-		pq.offer((int) commitOffset);
-		queuedCommitIds.add((int) commitOffset);
-		while (!pq.isEmpty()) {
-			int offset = pq.poll();
-			Revision commit = getRevision(cr, offset);
-			update(snapshot, commit, adds, dels, pq, queuedCommitIds, kinds);
-		}
-		return snapshot.toArray(new ChangedFile[0]);
+		return filter(replaySnapshot(cr, null, (int) commitOffset), kinds);
 	}
 
 	@FunctionSpec(name = "getsnapshot", returnType = "array of ChangedFile", formalParameters = { "CodeRepository", "Revision"})
@@ -176,104 +164,289 @@ public class BoaIntrinsics {
 
 	@FunctionSpec(name = "getsnapshot", returnType = "array of ChangedFile", formalParameters = { "CodeRepository", "Revision", "string..." })
 	public static ChangedFile[] getSnapshot(final CodeRepository cr, final Revision commit, final String... kinds) {
-		List<ChangedFile> snapshot = new LinkedList<ChangedFile>();
-		Set<String> adds = new HashSet<String>(), dels = new HashSet<String>();
-		PriorityQueue<Integer> pq = new PriorityQueue<Integer>(100, new Comparator<Integer>() {
+		return filter(replaySnapshot(cr, commit, -1), kinds);
+	}
+
+	public static enum SNAPSHOTCOUNTER {
+		SNAPSHOTS, REVISIONS_REPLAYED, CHECKPOINT_HITS, CHECKPOINTS_BUILT,
+	};
+
+	/**
+	 * The snapshots kept by one task, in its {@link BoaTaskContext}.
+	 */
+	private static final class State {
+		/**
+		 * Snapshots of the current repository, keyed by revision index, taken
+		 * every {@link #checkpointInterval} revisions along first-parent history.
+		 * A snapshot then only replays the revisions since the nearest checkpoint.
+		 * The cache is bounded by the total number of files held.
+		 */
+		final LRUCache<Integer, ChangedFile[]> checkpoints = new LRUCache<Integer, ChangedFile[]>(2 * 1024 * 1024) {
 			@Override
-			public int compare(Integer i1, Integer i2) {
-				return i2 - i1;
+			protected long sizeOf(final ChangedFile[] files) {
+				return files.length + 1;
+			}
+		};
+		CodeRepository checkpointRepo = null;
+		int checkpointInterval = 64;
+
+		/**
+		 * The snapshot most recently returned by the incremental functions, in
+		 * reverse order so that applying a revision only appends to it.
+		 */
+		final LinkedHashMap<String, ChangedFile> incrementalFiles = new LinkedHashMap<String, ChangedFile>();
+		CodeRepository incrementalRepo = null;
+		String incrementalId = null;
+		int incrementalIndex = -1;
+	}
+
+	/**
+	 * Returns the snapshots kept by the task running on this thread.
+	 */
+	private static State state() {
+		final BoaTaskContext task = BoaTaskContext.get();
+		final State s = task.getState(State.class);
+		if (s != null)
+			return s;
+		return task.putState(State.class, new State());
+	}
+
+	/**
+	 * Returns every file alive at a revision, newest change first, replaying
+	 * first-parent history back to the nearest checkpoint.
+	 *
+	 * @param cr the repository
+	 * @param commit the revision, or null to look it up by index
+	 * @param index the index of the revision, or -1 if unknown
+	 * @return the unfiltered snapshot
+	 */
+	private static List<ChangedFile> replaySnapshot(final CodeRepository cr, Revision commit, int index) {
+		final State s = state();
+		if (s.checkpointRepo != cr) {
+			s.checkpoints.clear();
+			s.checkpointRepo = cr;
+			final Configuration conf = BoaTaskContext.get().getConfiguration();
+			if (conf != null) {
+				s.checkpointInterval = Math.max(1, conf.getInt("boa.snapshot.checkpoint.interval", s.checkpointInterval));
+				s.checkpoints.setCapacity(conf.getLong("boa.snapshot.checkpoint.files", s.checkpoints.getCapacity()));
 			}
-		});
-		Set<Integer> queuedCommitIds = new HashSet<Integer>();
-		update(snapshot, commit, adds, dels, pq, queuedCommitIds, kinds);
-		while (!pq.isEmpty()) {
-			int offset = pq.poll();
-			Revision c = getRevision(cr, offset);
-			update(snapshot, c, adds, dels, pq, queuedCommitIds, kinds);
 		}
-		return snapshot.toArray(new ChangedFile[0]);
+		BoaAstIntrinsics.incrementCounter(SNAPSHOTCOUNTER.SNAPSHOTS);
+
+		final List<ChangedFile> snapshot = new ArrayList<ChangedFile>();
+		final Set<String> seen = new HashSet<String>();
+		final List<Revision> replayed = new ArrayList<Revision>();
+		final List<Integer> indices = new ArrayList<Integer>();
+		final Set<Integer> visited = new HashSet<Integer>();
+		ChangedFile[] base = null;
+		while (true) {
+			if (index >= 0) {
+				base = s.checkpoints.get(index);
+				if (base != null) {
+					BoaAstIntrinsics.incrementCounter(SNAPSHOTCOUNTER.CHECKPOINT_HITS);
+					break;
+				}
+				commit = getRevision(cr, index);
+			}
+			update(snapshot, commit, seen);
+			replayed.add(commit);
+			indices.add(index);
+
+			if (commit.getParentsCount() == 0)
+				break;
+			index = commit.getParents(0);
+			if (index < 0 || !visited.add(index))
+				break;
+		}
+		BoaAstIntrinsics.incrementCounter(SNAPSHOTCOUNTER.REVISIONS_REPLAYED, replayed.size());
+
+		if (base != null)
+			merge(snapshot, base, seen);
+		if (replayed.size() >= s.checkpointInterval)
+			addCheckpoints(s, replayed, indices, base);
+		return snapshot;
+	}
+
+	/**
+	 * Adds a checkpoint every {@link State#checkpointInterval} revisions of a
+	 * replayed chain, counting from its oldest revision, so the next snapshot
+	 * near it replays at most about that many revisions.
+	 *
+	 * @param s the snapshots of the task
+	 * @param replayed the replayed revisions, newest first
+	 * @param indices the index of each replayed revision
+	 * @param base the checkpoint the chain ended at, or null
+	 */
+	private static void addCheckpoints(final State s, final List<Revision> replayed, final List<Integer> indices, ChangedFile[] base) {
+		int end = replayed.size();
+		for (int start = end - s.checkpointInterval; start >= 0; start -= s.checkpointInterval) {
+			final List<ChangedFile> snapshot = new ArrayList<ChangedFile>();
+			final Set<String> seen = new HashSet<String>();
+			for (int i = start; i < end; i++)
+				update(snapshot, replayed.get(i), seen);
+			if (base != null)
+				merge(snapshot, base, seen);
+
+			base = snapshot.toArray(new ChangedFile[snapshot.size()]);
+			end = start;
+			if (indices.get(start) >= 0) {
+				s.checkpoints.put(indices.get(start), base);
+				BoaAstIntrinsics.incrementCounter(SNAPSHOTCOUNTER.CHECKPOINTS_BUILT);
+			}
+		}
+	}
+
+	private static void merge(final List<ChangedFile> snapshot, final ChangedFile[] base, final Set<String> seen) {
+		for (final ChangedFile cf : base)
+			if (!seen.contains(cf.getName()))
+				snapshot.add(cf);
+	}
+
+	private static ChangedFile[] filter(final List<ChangedFile> snapshot, final String... kinds) {
+		List<ChangedFile> files = snapshot;
+		if (kinds != null && kinds.length > 0) {
+			files = new ArrayList<ChangedFile>();
+			for (final ChangedFile cf : snapshot)
+				if (isIncluded(cf, kinds))
+					files.add(cf);
+		}
+		BoaAstIntrinsics.prefetchAsts(files);
+		return files.toArray(new ChangedFile[files.size()]);
 	}
 
-	private static void update(List<ChangedFile> snapshot, Revision commit, Set<String> adds, Set<String> dels,
-			PriorityQueue<Integer> pq, Set<Integer> queuedCommitIds, final String... kinds) {
+	@FunctionSpec(name = "getincrementalsnapshotbyindex", returnType = "array of ChangedFile", formalParameters = { "CodeRepository", "int"})
+	public static ChangedFile[] getIncrementalSnapshotByIndex(final CodeRepository cr, final long commitOffset) {
+		if (commitOffset == cr.getHead())
+			return getSnapshot(cr);
+		return getIncrementalSnapshotByIndex(cr, commitOffset, new String[0]);
+	}
+
+	/**
+	 * Returns the same files as getsnapshotbyindex.  When the revision's first
+	 * parent is the revision of the previous incremental snapshot, only the
+	 * files it changes are applied to that snapshot.
+	 */
+	@FunctionSpec(name = "getincrementalsnapshotbyindex", returnType = "array of ChangedFile", formalParameters = { "CodeRepository", "int", "string..." })
+	public static ChangedFile[] getIncrementalSnapshotByIndex(final CodeRepository cr, final long commitOffset, final String... kinds) {
+		final State s = state();
+		final int index = (int) commitOffset;
+		if (cr != s.incrementalRepo || index != s.incrementalIndex) {
+			final Revision commit = getRevision(cr, index);
+			if (isIncrementalChild(s, cr, commit))
+				applyIncremental(s, commit);
+			else
+				resetIncremental(s, cr, replaySnapshot(cr, null, index));
+			s.incrementalId = commit.getId();
+			s.incrementalIndex = index;
+		}
+		return incrementalSnapshot(s, kinds);
+	}
+
+	@FunctionSpec(name = "getincrementalsnapshot", returnType = "array of ChangedFile", formalParameters = { "CodeRepository", "Revision"})
+	public static ChangedFile[] getIncrementalSnapshot(final CodeRepository cr, final Revision commit) {
+		return getIncrementalSnapshot(cr, commit, new String[0]);
+	}
+
+	/**
+	 * Returns the same files as getsnapshot.  When the revision's first parent
+	 * is the revision of the previous incremental snapshot, only the files it
+	 * changes are applied to that snapshot.
+	 */
+	@FunctionSpec(name = "getincrementalsnapshot", returnType = "array of ChangedFile", formalParameters = { "CodeRepository", "Revision", "string..." })
+	public static ChangedFile[] getIncrementalSnapshot(final CodeRepository cr, final Revision commit, final String... kinds) {
+		final State s = state();
+		if (cr != s.incrementalRepo || !commit.getId().equals(s.incrementalId)) {
+			if (isIncrementalChild(s, cr, commit))
+				applyIncremental(s, commit);
+			else
+				resetIncremental(s, cr, replaySnapshot(cr, commit, -1));
+			s.incrementalId = commit.getId();
+			s.incrementalIndex = -1;
+		}
+		return incrementalSnapshot(s, kinds);
+	}
+
+	private static boolean isIncrementalChild(final State s, final CodeRepository cr, final Revision commit) {
+		if (cr != s.incrementalRepo || s.incrementalId == null || commit.getParentsCount() == 0 || commit.getParents(0) < 0)
+			return false;
+		if (s.incrementalIndex >= 0)
+			return commit.getParents(0) == s.incrementalIndex;
+		return getRevision(cr, commit.getParents(0)).getId().equals(s.incrementalId);
+	}
+
+	private static void applyIncremental(final State s, final Revision commit) {
+		final List<ChangedFile> alive = new ArrayList<ChangedFile>();
+		final Set<String> seen = new HashSet<String>();
+		update(alive, commit, seen);
+		BoaAstIntrinsics.incrementCounter(SNAPSHOTCOUNTER.SNAPSHOTS);
+		BoaAstIntrinsics.incrementCounter(SNAPSHOTCOUNTER.REVISIONS_REPLAYED);
+
+		for (final String name : seen)
+			s.incrementalFiles.remove(name);
+		for (int i = alive.size() - 1; i >= 0; i--)
+			s.incrementalFiles.put(alive.get(i).getName(), alive.get(i));
+	}
+
+	private static void resetIncremental(final State s, final CodeRepository cr, final List<ChangedFile> snapshot) {
+		s.incrementalFiles.clear();
+		for (int i = snapshot.size() - 1; i >= 0; i--)
+			s.incrementalFiles.put(snapshot.get(i).getName(), snapshot.get(i));
+		s.incrementalRepo = cr;
+	}
+
+	private static ChangedFile[] incrementalSnapshot(final State s, final String... kinds) {
+		final List<ChangedFile> snapshot = new ArrayList<ChangedFile>(s.incrementalFiles.values());
+		Collections.reverse(snapshot);
+		return filter(snapshot, kinds);
+	}
+
+	/**
+	 * Applies one revision to a snapshot being built backwards through
+	 * history: a file is decided by the newest revision that names it.
+	 *
+	 * @param snapshot the files found alive so far
+	 * @param commit the revision to apply
+	 * @param seen the names already decided
+	 */
+	private static void update(final List<ChangedFile> snapshot, final Revision commit, final Set<String> seen) {
 		for (final ChangedFile cf : commit.getFilesList()) {
 			ChangeKind ck = cf.getChange();
 			switch (ck) {
-			case ADDED:
-				if (!adds.contains(cf.getName()) && !dels.contains(cf.getName())) {
-					adds.add(cf.getName());
-					if (isIncluded(cf, kinds))
-						snapshot.add(cf);
-				}
-				break;
-			case COPIED:
-				if (!adds.contains(cf.getName()) && !dels.contains(cf.getName())) {
-					adds.add(cf.getName());
-					if (isIncluded(cf, kinds))
-						snapshot.add(cf);
-				}
-				break;
 			case DELETED:
-				if (!adds.contains(cf.getName()) && !dels.contains(cf.getName()))
-					dels.add(cf.getName());
+				seen.add(cf.getName());
 				break;
 			case MERGED:
-				if (!adds.contains(cf.getName()) && !dels.contains(cf.getName())) {
-					adds.add(cf.getName());
-					if (isIncluded(cf, kinds))
-						snapshot.add(cf);
-				}
+				if (seen.add(cf.getName()))
+					snapshot.add(cf);
 				for (int i = 0; i < cf.getChangesCount(); i++) {
-					if (cf.getChanges(i) != ChangeKind.ADDED) {
-						ChangeKind pck = cf.getChanges(i);
+					ChangeKind pck = cf.getChanges(i);
+					if (pck == ChangeKind.DELETED || pck == ChangeKind.RENAMED) {
 //							ChangedFile pcf = revisions.get(cf.getPreviousVersions(i)).getFiles(cf.getPreviousIndices(i));
 //							String name = pcf.getName();
 						String name = cf.getPreviousNames(i);
 						if (name.isEmpty())
 							name = cf.getName();
-						if (!adds.contains(name) && !dels.contains(name) && (pck == ChangeKind.DELETED || pck == ChangeKind.RENAMED))
-							dels.add(name);
+						seen.add(name);
 					}
 				}
 				break;
 			case RENAMED:
-				if (!adds.contains(cf.getName()) && !dels.contains(cf.getName())) {
-					adds.add(cf.getName());
-					if (isIncluded(cf, kinds))
-						snapshot.add(cf);
-				}
+				if (seen.add(cf.getName()))
+					snapshot.add(cf);
 				for (int i = 0; i < cf.getChangesCount(); i++) {
 //						ChangedFile pcf = revisions.get(cf.getPreviousVersions(i)).getFiles(cf.getPreviousIndices(i));
 //						String name = pcf.getName();
-					if (cf.getPreviousNamesCount() != 0) {
-						String name = cf.getPreviousNames(i);
-						if (!adds.contains(name) && !dels.contains(name))
-							dels.add(name);
-					}
+					if (cf.getPreviousNamesCount() != 0)
+						seen.add(cf.getPreviousNames(i));
 				}
 				break;
 			default:
-				if (!adds.contains(cf.getName()) && !dels.contains(cf.getName())) {
-					adds.add(cf.getName());
-					if (isIncluded(cf, kinds))
-						snapshot.add(cf);
-				}
+				// ADDED, COPIED, MODIFIED and the rest
+				if (seen.add(cf.getName()))
+					snapshot.add(cf);
 				break;
 			}
 		}
-//		for (int p : commit.getParentsList()) {
-//			if (!queuedCommitIds.contains(p)) {
-//				pq.offer(p);
-//				queuedCommitIds.add(p);
-//			}
-//		}
-		if (commit.getParentsList() != null && commit.getParentsList().size() != 0) {
-			int p = commit.getParentsList().get(0);
-			if (!queuedCommitIds.contains(p)) {
-				pq.offer(p);
-				queuedCommitIds.add(p);
-			}
-		}
 	}
 	
 	@FunctionSpec(name = "updateastcount", returnType = "bool", formalParameters = { "ChangedFile" })
@@ -476,8 +649,8 @@ public class BoaIntrinsics {
 	@FunctionSpec(name = "isfixingrevision", returnType = "bool", formalParameters = { "string" })
 	public static boolean isfixingrevision(final String log) {
 		final String lower = log.toLowerCase();
-		for (final Matcher m : fixingMatchers)
-			if (m.reset(lower).find())
+		for (final Pattern p : fixingPatterns)
+			if (p.matcher(lower).find())
 				return true;
 
 		return false;
@@ -735,20 +908,39 @@ public class BoaIntrinsics {
 		return result;
 	}
 
+	/**
+	 * Copies a set, keeping it a {@link BitSetSet} if it is one.
+	 */
+	public static <T> java.util.HashSet<T> set_copy(final java.util.Set<T> s) {
+		if (s instanceof BitSetSet)
+			return ((BitSetSet<T>) s).clone();
+		return new java.util.HashSet<T>(s);
+	}
+
+	/**
+	 * Copies the first set of a set operation, as a {@link BitSetSet} if
+	 * either set is one.
+	 */
+	private static <T> java.util.HashSet<T> set_copy(final java.util.Set<T> s1, final java.util.Set<T> s2) {
+		if (!(s1 instanceof BitSetSet) && s2 instanceof BitSetSet)
+			return new BitSetSet<T>(((BitSetSet<T>) s2).getUniverse(), s1);
+		return set_copy(s1);
+	}
+
 	public static <T> java.util.HashSet<T> set_union(final java.util.Set<T> s1, final java.util.Set<T> s2) {
-		final java.util.HashSet<T> s = new java.util.HashSet<T>(s1);
+		final java.util.HashSet<T> s = set_copy(s1, s2);
 		s.addAll(s2);
 		return s;
 	}
 
 	public static <T> java.util.HashSet<T> set_intersect(final java.util.Set<T> s1, final java.util.Set<T> s2) {
-		final java.util.HashSet<T> s = new java.util.HashSet<T>(s1);
+		final java.util.HashSet<T> s = set_copy(s1, s2);
 		s.retainAll(s2);
 		return s;
 	}
 
 	public static <T> java.util.HashSet<T> set_difference(final java.util.Set<T> s1, final java.util.Set<T> s2) {
-		final java.util.HashSet<T> s = new java.util.HashSet<T>(s1);
+		final java.util.HashSet<T> s = set_copy(s1, s2);
 		s.removeAll(s2);
 		return s;
 	}
@@ -16,7 +16,7 @@
  */
 package boa.functions;
 
-import java.util.Random;
+import boa.runtime.BoaTaskContext;
 
 /**
  * The Boa implementations of the Sawzall math intrinsics that are not in the
@@ -28,8 +28,6 @@ import java.util.Random;
  * @author anthonyu
  */
 public class BoaMathIntrinsics {
-	public static Random random = new Random();
-
 	/**
 	 * Return a random floating point number x in the range 0.0 &lt; x &lt; 1.0.
 	 * 
@@ -37,7 +35,7 @@ public class BoaMathIntrinsics {
 	 */
 	@FunctionSpec(name = "rand", returnType = "float")
 	public static double rand() {
-		return BoaMathIntrinsics.random.nextDouble();
+		return BoaTaskContext.get().getRandom().nextDouble();
 	}
 
 	/**
@@ -56,7 +54,7 @@ public class BoaMathIntrinsics {
 		if (n < 1)
 			throw new IllegalArgumentException("n must be greater than zero");
 
-		return (long) (BoaMathIntrinsics.random.nextDouble() * n);
+		return (long) (BoaTaskContext.get().getRandom().nextDouble() * n);
 	}
 
 	/**
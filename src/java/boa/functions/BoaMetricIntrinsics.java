@@ -52,8 +52,6 @@ public class BoaMetricIntrinsics {
 		}
 	}
 
-	private static BoaNOAVisitor noaVisitor = new BoaNOAVisitor();
-
 	/**
 	 * Computes the Number of Attributes (NOA) metric for a node.
 	 * 
@@ -62,6 +60,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_noa", returnType = "int", formalParameters = { "Declaration" })
 	public static long getMetricNOA(final Declaration node) throws Exception {
+		final BoaNOAVisitor noaVisitor = new BoaNOAVisitor();
 		noaVisitor.initialize().visit(node);
 		return noaVisitor.count;
 	}
@@ -79,8 +78,6 @@ public class BoaMetricIntrinsics {
 		}
 	}
 
-	private static BoaNOOVisitor nooVisitor = new BoaNOOVisitor();
-
 	/**
 	 * Computes the Number of Operations (NOO) metric for a node.
 	 * 
@@ -89,6 +86,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_noo", returnType = "int", formalParameters = { "Declaration" })
 	public static long getMetricNOO(final Declaration node) throws Exception {
+		final BoaNOOVisitor nooVisitor = new BoaNOOVisitor();
 		nooVisitor.initialize().visit(node);
 		return nooVisitor.count;
 	}
@@ -106,8 +104,6 @@ public class BoaMetricIntrinsics {
 		}
 	}
 
-	private static BoaNPMVisitor npmVisitor = new BoaNPMVisitor();
-
 	/**
 	 * Computes the Number of Public Methods (NPM) metric for a node.
 	 * 
@@ -116,6 +112,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_npm", returnType = "int", formalParameters = { "Declaration" })
 	public static long getMetricNPM(final Declaration node) throws Exception {
+		final BoaNPMVisitor npmVisitor = new BoaNPMVisitor();
 		npmVisitor.initialize().visit(node);
 		return npmVisitor.count;
 	}
@@ -173,8 +170,6 @@ public class BoaMetricIntrinsics {
 		
 	}
 
-	private static BoaWMCVisitor wmcVisitor = new BoaWMCVisitor();
-
 	/**
 	 * Compute the complexity of a class as the sum of the McCabe’s cyclomatic complexity of
 	 * its methods
@@ -184,6 +179,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_wmc", returnType = "int", formalParameters = { "Declaration" })
 	public static long getMetricWMC(final Declaration node) throws Exception {
+		final BoaWMCVisitor wmcVisitor = new BoaWMCVisitor();
 		wmcVisitor.initialize().visit(node);
 		return wmcVisitor.count;
 	}
@@ -367,8 +363,6 @@ public class BoaMetricIntrinsics {
 		}
 	}
 
-	private static BoaDITVisitor ditVisitor = new BoaDITVisitor();
-
 	/**
 	 * Computes the Depth of Inheritance Tree (DIT) metric for a node.
 	 * 
@@ -377,6 +371,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_dit_noc", returnType = "map[string] of array of int", formalParameters = { "array of ChangedFile" })
 	public static HashMap<String, long[]> getMetricDITNOC(final ChangedFile[] snapshot) throws Exception {
+		final BoaDITVisitor ditVisitor = new BoaDITVisitor();
 		ditVisitor.process(snapshot);
 		return ditVisitor.DITNOCMap;
 	}
@@ -418,8 +413,6 @@ public class BoaMetricIntrinsics {
 
 	}
 
-	private static BoaNOCVisitor nocVisitor = new BoaNOCVisitor();
-
 	/**
 	 * (Partially) Computes the Number of Children (NOC) metric.
 	 * 
@@ -428,6 +421,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_noc", returnType = "map[string] of int", formalParameters = { "map[string] of Declaration" })
 	public static HashMap<String, Long> getMetricNOC(final HashMap<String, Declaration> decls) throws Exception {
+		final BoaNOCVisitor nocVisitor = new BoaNOCVisitor();
 		nocVisitor.initialize(new HashMap<String, Long>());
 		nocVisitor.process(decls);
 		return nocVisitor.map;
@@ -466,8 +460,6 @@ public class BoaMetricIntrinsics {
 
 	}
 
-	private static BoaRFCVisitor rfcVisitor = new BoaRFCVisitor();
-
 	/**
 	 * Computes the number of distinct methods and constructors invoked by a class 
 	 * 
@@ -476,6 +468,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_rfc", returnType = "int", formalParameters = { "Declaration" })
 	public static long getMetricRFC(final Declaration node) throws Exception {
+		final BoaRFCVisitor rfcVisitor = new BoaRFCVisitor();
 		rfcVisitor.initialize().visit(node);
 		return rfcVisitor.count;
 	}
@@ -599,8 +592,6 @@ public class BoaMetricIntrinsics {
 		
 	}
 
-	private static BoaCBOVisitor cboVisitor = new BoaCBOVisitor();
-
 	/**
 	 * Computes the number of classes to which a class is coupled.
 	 * 
@@ -609,6 +600,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_cbo", returnType = "map[string] of int", formalParameters = { "array of ChangedFile" })
 	public static HashMap<String, Long> getMetricCBO(final ChangedFile[] snapshot) throws Exception {
+		final BoaCBOVisitor cboVisitor = new BoaCBOVisitor();
 		cboVisitor.initialize(new HashMap<String, Long>());
 		cboVisitor.process(snapshot);
 		return cboVisitor.map;
@@ -678,8 +670,6 @@ public class BoaMetricIntrinsics {
 
 	}
 
-	private static BoaLCOMVisitor lcooVisitor = new BoaLCOMVisitor();
-
 	/**
 	 * Computes the Lack of Cohesion in Methods (LCOM) metric for a node.
 	 * The higher the pairs of methods in a class sharing at least a field,
@@ -690,6 +680,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_lcom", returnType = "float", formalParameters = { "Declaration" })
 	public static double getMetricLCOM(final Declaration node) throws Exception {
+		final BoaLCOMVisitor lcooVisitor = new BoaLCOMVisitor();
 		lcooVisitor.initialize().visit(node);
 		return lcooVisitor.getLCOM();
 	}
@@ -719,8 +710,6 @@ public class BoaMetricIntrinsics {
 		// TODO
 	}
 
-	private static BoaCAVisitor caVisitor = new BoaCAVisitor();
-
 	/**
 	 * Computes the Afferent Coupling (CA) metric for a node.
 	 * 
@@ -729,6 +718,7 @@ public class BoaMetricIntrinsics {
 	 */
 	@FunctionSpec(name = "get_metric_ca", returnType = "int", formalParameters = { "Declaration" })
 	public static long getMetricCA(final Declaration node) throws Exception {
+		final BoaCAVisitor caVisitor = new BoaCAVisitor();
 		caVisitor.initialize().visit(node);
 		return caVisitor.count;
 	}
@@ -315,12 +315,19 @@ public class BoaNormalFormIntrinsics {
 	 */
 	@FunctionSpec(name = "normalize", returnType = "Expression", formalParameters = { "Expression" })
 	public static Expression normalize(final Expression e) throws Exception {
+		final ExpressionTable.Node n = ExpressionTable.intern(e);
+		if (n.normalized == null)
+			n.normalized = ExpressionTable.canonical(uncachedNormalize(e));
+		return n.normalized;
+	}
+
+	private static Expression uncachedNormalize(final Expression e) throws Exception {
 		try {
 			Expression exp = e;
 			Expression previous = e;
 
 			for (int i = 0; i < 5; i++) {	// maximum iteration allowed = 5. Ideally should not exceed 2
-				exp = move(reduce(exp));	// reduce and move Expression. reduce is required before move
+				exp = move(uncachedReduce(exp));	// reduce and move Expression. reduce is required before move
 				if (exp.equals(previous))
 					break;
 				previous = exp;
@@ -369,16 +376,16 @@ public class BoaNormalFormIntrinsics {
 				Expression lhs = null;
 				Expression rhs = null;
 				if (literal.getKind() == ExpressionKind.OP_DIV) {
-					lhs = reduce(createExpression(ExpressionKind.OP_MULT, e.getExpressions(0), literal.getExpressions(1)));
-					rhs = reduce(createExpression(ExpressionKind.OP_MULT, e.getExpressions(1), literal.getExpressions(1)));
+					lhs = uncachedReduce(createExpression(ExpressionKind.OP_MULT, e.getExpressions(0), literal.getExpressions(1)));
+					rhs = uncachedReduce(createExpression(ExpressionKind.OP_MULT, e.getExpressions(1), literal.getExpressions(1)));
 					if (literal.getExpressions(0).getLiteral() != "1") {
-						lhs = reduce(createExpression(ExpressionKind.OP_DIV, lhs, literal.getExpressions(0)));
-						rhs = reduce(createExpression(ExpressionKind.OP_DIV, rhs, literal.getExpressions(0)));
+						lhs = uncachedReduce(createExpression(ExpressionKind.OP_DIV, lhs, literal.getExpressions(0)));
+						rhs = uncachedReduce(createExpression(ExpressionKind.OP_DIV, rhs, literal.getExpressions(0)));
 					}
 				}
 				else {
-					lhs = reduce(createExpression(ExpressionKind.OP_DIV, e.getExpressions(0), literal));
-					rhs = reduce(createExpression(ExpressionKind.OP_DIV, e.getExpressions(1), literal));
+					lhs = uncachedReduce(createExpression(ExpressionKind.OP_DIV, e.getExpressions(0), literal));
+					rhs = uncachedReduce(createExpression(ExpressionKind.OP_DIV, e.getExpressions(1), literal));
 				}
 				return createExpression(e.getKind(), lhs, rhs);
 
@@ -804,7 +811,7 @@ public class BoaNormalFormIntrinsics {
 			case OP_SUB:
 			case PAREN:
 				// these cases will not execute once the expression is fully siimplified
-				result.add(new Object[] {normalize(expr), type});
+				result.add(new Object[] {uncachedNormalize(expr), type});
 				break;
 
 			default:
@@ -895,11 +902,13 @@ public class BoaNormalFormIntrinsics {
 	// Comparator for sorting array list
 	private static class ExpressionArrayComparator implements Comparator<Object[]> {
 		public int compare(final Object[] e1, final Object[] e2) {
-			String s1 = prettyprint((Expression)e1[0]).replaceAll("[^a-zA-Z\\+\\-()]", "");
-			String s2 = prettyprint((Expression)e2[0]).replaceAll("[^a-zA-Z\\+\\-()]", "");
+			final String p1 = ExpressionTable.text((Expression)e1[0]);
+			final String p2 = ExpressionTable.text((Expression)e2[0]);
+			String s1 = p1.replaceAll("[^a-zA-Z\\+\\-()]", "");
+			String s2 = p2.replaceAll("[^a-zA-Z\\+\\-()]", "");
 			if (!s1.equals("") && !s2.equals(""))
 				return s1.compareTo(s2);
-			return prettyprint((Expression)e1[0]).compareTo(prettyprint((Expression)e2[0]));
+			return p1.compareTo(p2);
 		}
 	}
 
@@ -926,6 +935,13 @@ public class BoaNormalFormIntrinsics {
 	 */
 	@FunctionSpec(name = "reduce", returnType = "Expression", formalParameters = { "Expression" })
 	public static Expression reduce(final Expression e) throws Exception {
+		final ExpressionTable.Node n = ExpressionTable.intern(e);
+		if (n.reduced == null)
+			n.reduced = ExpressionTable.canonical(uncachedReduce(e));
+		return n.reduced;
+	}
+
+	private static Expression uncachedReduce(final Expression e) throws Exception {
 		Object o = internalReduce(e);
 		if (o instanceof Expression) {
 			Object o2 = factorAll((Expression)o);
@@ -971,7 +987,7 @@ public class BoaNormalFormIntrinsics {
 					if (results.get(i) instanceof Long || results.get(i) instanceof Double)
 						results.set(i, createLiteral(results.get(i).toString()));
 					else
-						results.set(i, reduce((Expression)results.get(i)));
+						results.set(i, uncachedReduce((Expression)results.get(i)));
 				}
 				return createExpression(e.getKind(), convertArray(results));
 
@@ -1452,7 +1468,7 @@ public class BoaNormalFormIntrinsics {
 
 				b.clearMethodArgs();
 				for (final Expression sub : e.getMethodArgsList())
-					b.addMethodArgs((Expression)reduce(sub));
+					b.addMethodArgs((Expression)uncachedReduce(sub));
 
 				return b.build();
 
@@ -2206,14 +2222,15 @@ public class BoaNormalFormIntrinsics {
 
 	/**
 	 * A comparator for Expression types.
-	 * Uses pretty printing and string comparison.
+	 * Uses pretty printing and string comparison, reusing the text of
+	 * interned expressions.
 	 *
 	 * @author rdyer
 	 * @author cheshianhung
 	 */
 	public static class ExpressionComparator implements Comparator<Expression> {
 		public int compare(final Expression e1, final Expression e2) {
-			return prettyprint(e1).compareTo(prettyprint(e2));
+			return ExpressionTable.text(e1).compareTo(ExpressionTable.text(e2));
 		}
 	}
 
@@ -2227,6 +2244,13 @@ public class BoaNormalFormIntrinsics {
 	 */
 	@FunctionSpec(name = "nnf", returnType = "Expression", formalParameters = { "Expression" })
 	public static Expression nnf(final Expression e) {
+		final ExpressionTable.Node n = ExpressionTable.intern(e);
+		if (n.nnf == null)
+			n.nnf = ExpressionTable.canonical(uncachedNNF(e));
+		return n.nnf;
+	}
+
+	private static Expression uncachedNNF(final Expression e) {
 		return simplify(internalNNF(e), null, 0);
 	}
 
@@ -2390,8 +2414,15 @@ public class BoaNormalFormIntrinsics {
 	 */
 	@FunctionSpec(name = "simplify", returnType = "Expression", formalParameters = { "Expression" })
 	public static Expression simplify(final Expression e) {
+		final ExpressionTable.Node n = ExpressionTable.intern(e);
+		if (n.simplified == null)
+			n.simplified = ExpressionTable.canonical(uncachedSimplify(e));
+		return n.simplified;
+	}
+
+	private static Expression uncachedSimplify(final Expression e) {
 		if (e.getKind() == ExpressionKind.PAREN)
-			return simplify(e.getExpressions(0));
+			return uncachedSimplify(e.getExpressions(0));
 		return simplify(e, null, 0);
 	}
 
@@ -2673,10 +2704,17 @@ public class BoaNormalFormIntrinsics {
 	 */
 	@FunctionSpec(name = "cnf", returnType = "Expression", formalParameters = { "Expression" })
 	public static Expression cnf(final Expression e) {
+		final ExpressionTable.Node n = ExpressionTable.intern(e);
+		if (n.cnf == null)
+			n.cnf = ExpressionTable.canonical(uncachedCNF(e));
+		return n.cnf;
+	}
+
+	private static Expression uncachedCNF(final Expression e) {
 		// push the ORs down into ANDs
 		// (B ^ C) v A -> (B v A) ^ (C v A)
 		// A v (B ^ C) -> (A v B) ^ (A v C)
-		return simplify(normalform(nnf(e), ExpressionKind.LOGICAL_OR, ExpressionKind.LOGICAL_AND), ExpressionKind.LOGICAL_AND, 0);
+		return simplify(normalform(uncachedNNF(e), ExpressionKind.LOGICAL_OR, ExpressionKind.LOGICAL_AND), ExpressionKind.LOGICAL_AND, 0);
 	}
 
 	/**
@@ -2687,10 +2725,17 @@ public class BoaNormalFormIntrinsics {
 	 */
 	@FunctionSpec(name = "dnf", returnType = "Expression", formalParameters = { "Expression" })
 	public static Expression dnf(final Expression e) {
+		final ExpressionTable.Node n = ExpressionTable.intern(e);
+		if (n.dnf == null)
+			n.dnf = ExpressionTable.canonical(uncachedDNF(e));
+		return n.dnf;
+	}
+
+	private static Expression uncachedDNF(final Expression e) {
 		// push the ANDs down into ORs
 		// (B v C) ^ A -> (B ^ A) v (C ^ A)
 		// A ^ (B v C) -> (A ^ B) v (A ^ C)
-		return simplify(normalform(nnf(e), ExpressionKind.LOGICAL_AND, ExpressionKind.LOGICAL_OR), ExpressionKind.LOGICAL_OR, 0);
+		return simplify(normalform(uncachedNNF(e), ExpressionKind.LOGICAL_AND, ExpressionKind.LOGICAL_OR), ExpressionKind.LOGICAL_OR, 0);
 	}
 
 	/**
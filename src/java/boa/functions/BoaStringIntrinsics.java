@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import boa.runtime.BoaTaskContext;
+
 /**
  * String Manipulation
  * 
@@ -210,13 +212,20 @@ public class BoaStringIntrinsics {
 		return str.replaceAll(regex, rep);
 	}
 
-	// cache the regular expression patterns for performance
-	private static Map<String, Matcher> matchers = new HashMap<String, Matcher>();
+	// cache the regular expression patterns for performance, per task as
+	// matchers can not be shared
+	private static final class State {
+		final Map<String, Matcher> matchers = new HashMap<String, Matcher>();
+	}
 
 	private static Matcher getMatcher(final String r) {
-		if (!matchers.containsKey(r))
-			matchers.put(r, Pattern.compile(r).matcher(""));
-		return matchers.get(r);
+		final BoaTaskContext task = BoaTaskContext.get();
+		State s = task.getState(State.class);
+		if (s == null)
+			s = task.putState(State.class, new State());
+		if (!s.matchers.containsKey(r))
+			s.matchers.put(r, Pattern.compile(r).matcher(""));
+		return s.matchers.get(r);
 	}
 
 	/**
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.TimeZone;
 
+import boa.runtime.BoaTaskContext;
+
 /**
  * These functions manipulate time values. Although one may do simple arithmetic
  * to add a minute, say, because of daylight saving time, leap years, and other
@@ -34,30 +36,48 @@ import java.util.TimeZone;
  * @author anthonyu
  */
 public class BoaTimeIntrinsics {
-	private static Map<Character, SimpleDateFormat> strftimeMap = new HashMap<Character, SimpleDateFormat>();
+	private static Map<Character, String> strftimeMap = new HashMap<Character, String>();
 
 	static {
-		BoaTimeIntrinsics.strftimeMap.put('a', new SimpleDateFormat("E"));
-		BoaTimeIntrinsics.strftimeMap.put('A', new SimpleDateFormat("EEEE"));
-		BoaTimeIntrinsics.strftimeMap.put('b', new SimpleDateFormat("MMM"));
-		BoaTimeIntrinsics.strftimeMap.put('B', new SimpleDateFormat("MMMM"));
-		BoaTimeIntrinsics.strftimeMap.put('c', new SimpleDateFormat("E MMM d HH:mm:ss yyyy"));
-		BoaTimeIntrinsics.strftimeMap.put('d', new SimpleDateFormat("dd"));
-		BoaTimeIntrinsics.strftimeMap.put('H', new SimpleDateFormat("HH"));
-		BoaTimeIntrinsics.strftimeMap.put('I', new SimpleDateFormat("hh"));
-		BoaTimeIntrinsics.strftimeMap.put('j', new SimpleDateFormat("DDD"));
-		BoaTimeIntrinsics.strftimeMap.put('m', new SimpleDateFormat("MM"));
-		BoaTimeIntrinsics.strftimeMap.put('M', new SimpleDateFormat("mm"));
-		BoaTimeIntrinsics.strftimeMap.put('p', new SimpleDateFormat("aa"));
-		BoaTimeIntrinsics.strftimeMap.put('S', new SimpleDateFormat("ss"));
-		BoaTimeIntrinsics.strftimeMap.put('U', new SimpleDateFormat("ww"));
-		BoaTimeIntrinsics.strftimeMap.put('w', new SimpleDateFormat("F"));
-		BoaTimeIntrinsics.strftimeMap.put('W', new SimpleDateFormat("ww"));
-		BoaTimeIntrinsics.strftimeMap.put('x', new SimpleDateFormat("MM/dd/yy"));
-		BoaTimeIntrinsics.strftimeMap.put('X', new SimpleDateFormat("HH:mm:ss"));
-		BoaTimeIntrinsics.strftimeMap.put('y', new SimpleDateFormat("yy"));
-		BoaTimeIntrinsics.strftimeMap.put('Y', new SimpleDateFormat("yyyy"));
-		BoaTimeIntrinsics.strftimeMap.put('Z', new SimpleDateFormat("zzz"));
+		BoaTimeIntrinsics.strftimeMap.put('a', "E");
+		BoaTimeIntrinsics.strftimeMap.put('A', "EEEE");
+		BoaTimeIntrinsics.strftimeMap.put('b', "MMM");
+		BoaTimeIntrinsics.strftimeMap.put('B', "MMMM");
+		BoaTimeIntrinsics.strftimeMap.put('c', "E MMM d HH:mm:ss yyyy");
+		BoaTimeIntrinsics.strftimeMap.put('d', "dd");
+		BoaTimeIntrinsics.strftimeMap.put('H', "HH");
+		BoaTimeIntrinsics.strftimeMap.put('I', "hh");
+		BoaTimeIntrinsics.strftimeMap.put('j', "DDD");
+		BoaTimeIntrinsics.strftimeMap.put('m', "MM");
+		BoaTimeIntrinsics.strftimeMap.put('M', "mm");
+		BoaTimeIntrinsics.strftimeMap.put('p', "aa");
+		BoaTimeIntrinsics.strftimeMap.put('S', "ss");
+		BoaTimeIntrinsics.strftimeMap.put('U', "ww");
+		BoaTimeIntrinsics.strftimeMap.put('w', "F");
+		BoaTimeIntrinsics.strftimeMap.put('W', "ww");
+		BoaTimeIntrinsics.strftimeMap.put('x', "MM/dd/yy");
+		BoaTimeIntrinsics.strftimeMap.put('X', "HH:mm:ss");
+		BoaTimeIntrinsics.strftimeMap.put('y', "yy");
+		BoaTimeIntrinsics.strftimeMap.put('Y', "yyyy");
+		BoaTimeIntrinsics.strftimeMap.put('Z', "zzz");
+	}
+
+	// formats are not thread-safe, so every task makes its own
+	private static final class State {
+		final Map<Character, SimpleDateFormat> formats = new HashMap<Character, SimpleDateFormat>();
+	}
+
+	private static SimpleDateFormat getDateFormat(final Character c) {
+		final BoaTaskContext task = BoaTaskContext.get();
+		State s = task.getState(State.class);
+		if (s == null)
+			s = task.putState(State.class, new State());
+		SimpleDateFormat format = s.formats.get(c);
+		if (format == null) {
+			format = new SimpleDateFormat(BoaTimeIntrinsics.strftimeMap.get(c));
+			s.formats.put(c, format);
+		}
+		return format;
 	}
 
 	private static long addPart(final int part, final long t, final long n, final TimeZone tz) {
@@ -852,7 +872,7 @@ public class BoaTimeIntrinsics {
 			default:
 				if (inEscape) {
 					if (BoaTimeIntrinsics.strftimeMap.containsKey(Character.valueOf(c))) {
-						final SimpleDateFormat simpleDateFormat = BoaTimeIntrinsics.strftimeMap.get(Character.valueOf(c));
+						final SimpleDateFormat simpleDateFormat = getDateFormat(Character.valueOf(c));
 						simpleDateFormat.setTimeZone(tz);
 						sb.append(simpleDateFormat.format(calendar.getTime()));
 					} else {
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.functions;
+
+import static boa.functions.BoaAstIntrinsics.prettyprint;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import boa.runtime.BoaTaskContext;
+import boa.types.Ast.Expression;
+
+/**
+ * Hash-conses Expressions, so structurally equal expressions share one
+ * instance, and keeps the normal forms computed for each.
+ *
+ * Expressions are interned bottom up: a node is identified by its own fields
+ * and the identities of its interned operands, so its hash is computed once
+ * and comparing two nodes never walks their subtrees.  The generated
+ * Expression does not cache its hash, which otherwise walks the whole tree
+ * reflectively on every lookup.
+ *
+ * Only canonical expressions are looked up by identity.  Other expressions
+ * equal to one are interned by their operands each time, which are mostly
+ * canonical, so the table does not keep alive every expression a caller
+ * built and dropped.
+ *
+ * The table is kept for one task, and is cleared when it grows past
+ * {@link #MAX_SIZE} distinct expressions.
+ */
+final class ExpressionTable {
+	private static final int MAX_SIZE = 1 << 20;
+
+	/**
+	 * An interned expression, with its memoized normal forms.
+	 */
+	static final class Node {
+		/** the canonical expression, whose operands are canonical */
+		Expression exp;
+
+		// the expression without its operands
+		private final Expression shallow;
+		private final Node[] operands;
+		private final int hash;
+
+		private String text;
+
+		Expression normalized, reduced, simplified, nnf, cnf, dnf;
+
+		private Node(final Expression shallow, final Node[] operands) {
+			this.shallow = shallow;
+			this.operands = operands;
+
+			int h = shallow.hashCode();
+			for (final Node n : operands)
+				h = 31 * h + System.identityHashCode(n);
+			this.hash = h;
+		}
+
+		/**
+		 * Returns the pretty printed expression.
+		 */
+		String getText() {
+			if (text == null)
+				text = prettyprint(exp);
+			return text;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof Node))
+				return false;
+			final Node n = (Node)o;
+			if (hash != n.hash || operands.length != n.operands.length)
+				return false;
+			for (int i = 0; i < operands.length; i++)
+				if (operands[i] != n.operands[i])
+					return false;
+			return shallow.equals(n.shallow);
+		}
+	}
+
+	private final Map<Node, Node> nodes = new HashMap<Node, Node>();
+	// the nodes of canonical expressions
+	private final Map<Expression, Node> byInstance = new IdentityHashMap<Expression, Node>();
+
+	private ExpressionTable() {
+	}
+
+	private static ExpressionTable table() {
+		final BoaTaskContext task = BoaTaskContext.get();
+		final ExpressionTable t = task.getState(ExpressionTable.class);
+		if (t != null)
+			return t;
+		return task.putState(ExpressionTable.class, new ExpressionTable());
+	}
+
+	/**
+	 * Interns an expression.
+	 *
+	 * @param e the expression
+	 * @return the node of every expression structurally equal to e
+	 */
+	static Node intern(final Expression e) {
+		final ExpressionTable t = table();
+		if (t.nodes.size() > MAX_SIZE) {
+			t.nodes.clear();
+			t.byInstance.clear();
+		}
+		return t.internNode(e);
+	}
+
+	/**
+	 * Interns an expression, and returns its canonical instance.
+	 */
+	static Expression canonical(final Expression e) {
+		return intern(e).exp;
+	}
+
+	/**
+	 * Pretty prints an expression, reusing the text of interned expressions.
+	 */
+	static String text(final Expression e) {
+		final Node n = table().byInstance.get(e);
+		if (n != null)
+			return n.getText();
+		return prettyprint(e);
+	}
+
+	private Node internNode(final Expression e) {
+		Node n = byInstance.get(e);
+		if (n != null)
+			return n;
+
+		final int count = e.getExpressionsCount();
+		final Node[] operands = new Node[count + e.getMethodArgsCount()];
+		boolean same = true;
+		for (int i = 0; i < operands.length; i++) {
+			final Expression op = i < count ? e.getExpressions(i) : e.getMethodArgs(i - count);
+			operands[i] = internNode(op);
+			same &= operands[i].exp == op;
+		}
+
+		final Expression shallow = operands.length == 0 ? e : e.toBuilder().clearExpressions().clearMethodArgs().build();
+		n = nodes.get(new Node(shallow, operands));
+		if (n == null) {
+			n = new Node(shallow, operands);
+			if (same) {
+				n.exp = e;
+			} else {
+				// share the canonical operands
+				final Expression.Builder b = shallow.toBuilder();
+				for (int i = 0; i < operands.length; i++)
+					if (i < count)
+						b.addExpressions(operands[i].exp);
+					else
+						b.addMethodArgs(operands[i].exp);
+				n.exp = b.build();
+			}
+			nodes.put(n, n);
+			byInstance.put(n.exp, n);
+		}
+
+		return n;
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.functions;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used cache bounded by the total size of its values.
+ *
+ * Subclasses decide how big a value is with {@link #sizeOf(Object)} and may
+ * release evicted values in {@link #evicted(Object, Object)}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class LRUCache<K, V> {
+	private final LinkedHashMap<K, V> entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+	private final Map<K, Long> sizes = new HashMap<K, Long>();
+	private long capacity;
+	private long size = 0;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Construct an {@link LRUCache}.
+	 *
+	 * @param capacity the maximum total size of the cached values
+	 */
+	public LRUCache(final long capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the size of a value, in whatever unit the capacity is in.
+	 * Defaults to 1, making the capacity a maximum number of entries.
+	 *
+	 * @param value the value to measure
+	 * @return the size of the value
+	 */
+	protected long sizeOf(final V value) {
+		return 1;
+	}
+
+	/**
+	 * Called after a value has been evicted or removed from the cache.
+	 *
+	 * @param key the key of the value
+	 * @param value the evicted value
+	 */
+	protected void evicted(final K key, final V value) {
+		// do nothing by default
+	}
+
+	/**
+	 * Looks up a key, marking it as most recently used.
+	 *
+	 * @param key the key to look up
+	 * @return the cached value, or null if there is none
+	 */
+	public V get(final K key) {
+		final V value = this.entries.get(key);
+		if (value == null)
+			this.misses++;
+		else
+			this.hits++;
+		return value;
+	}
+
+	/**
+	 * Checks whether a key is cached, without marking it as used.
+	 *
+	 * @param key the key to look for
+	 * @return true if the key has a cached value
+	 */
+	public boolean contains(final K key) {
+		return this.entries.containsKey(key);
+	}
+
+	/**
+	 * Adds a value, measuring it with {@link #sizeOf(Object)}.
+	 *
+	 * @param key the key of the value
+	 * @param value the value to cache
+	 */
+	public void put(final K key, final V value) {
+		this.put(key, value, this.sizeOf(value));
+	}
+
+	/**
+	 * Adds a value of the given size, evicting the least recently used values
+	 * until the cache fits its capacity again.  A value larger than the whole
+	 * capacity is still cached, alone.
+	 *
+	 * @param key the key of the value
+	 * @param value the value to cache
+	 * @param valueSize the size of the value
+	 */
+	public void put(final K key, final V value, final long valueSize) {
+		this.remove(key);
+
+		this.entries.put(key, value);
+		this.sizes.put(key, valueSize);
+		this.size += valueSize;
+
+		this.trim();
+	}
+
+	/**
+	 * Evicts the least recently used values until the cache fits its
+	 * capacity, always keeping the most recently used one.
+	 */
+	private void trim() {
+		final Iterator<Map.Entry<K, V>> it = this.entries.entrySet().iterator();
+		while (this.size > this.capacity && this.entries.size() > 1) {
+			final Map.Entry<K, V> eldest = it.next();
+			it.remove();
+			this.size -= this.sizes.remove(eldest.getKey());
+			this.evictions++;
+			this.evicted(eldest.getKey(), eldest.getValue());
+		}
+	}
+
+	/**
+	 * Removes a value from the cache.
+	 *
+	 * @param key the key of the value to remove
+	 */
+	public void remove(final K key) {
+		final V old = this.entries.remove(key);
+		if (old != null) {
+			this.size -= this.sizes.remove(key);
+			this.evicted(key, old);
+		}
+	}
+
+	/**
+	 * Removes every value from the cache.
+	 */
+	public void clear() {
+		final Iterator<Map.Entry<K, V>> it = this.entries.entrySet().iterator();
+		while (it.hasNext()) {
+			final Map.Entry<K, V> e = it.next();
+			it.remove();
+			this.evicted(e.getKey(), e.getValue());
+		}
+		this.sizes.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * Changes the capacity, evicting values if the cache no longer fits.
+	 *
+	 * @param capacity the new maximum total size of the cached values
+	 */
+	public void setCapacity(final long capacity) {
+		this.capacity = capacity;
+		this.trim();
+	}
+
+	public long getCapacity() {
+		return this.capacity;
+	}
+
+	public long size() {
+		return this.size;
+	}
+
+	public int count() {
+		return this.entries.size();
+	}
+
+	public long getHits() {
+		return this.hits;
+	}
+
+	public long getMisses() {
+		return this.misses;
+	}
+
+	public long getEvictions() {
+		return this.evictions;
+	}
+}
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import boa.runtime.BoaTaskContext;
 import boa.types.Ast.Expression;
 import boa.types.Ast.Statement;
 import boa.types.Control.Node.Builder;
@@ -32,8 +33,6 @@ import boa.types.Control.Node.NodeType;
  * @author rdyer
  */
 public abstract class Node<N extends Node<N, E>, E extends Edge<N, E>> implements Comparable<N> {
-	public static int numOfNodes = -1;
-
 	protected int id;
 	protected NodeType kind = NodeType.OTHER;
 	protected String pid;
@@ -49,11 +48,11 @@ public abstract class Node<N extends Node<N, E>, E extends Edge<N, E>> implement
 	}
 
 	public Node() {
-		this.id = ++numOfNodes;
+		this.id = BoaTaskContext.get().nextNodeId();
 	}
 
 	public Node(final NodeType kind) {
-		this.id = ++numOfNodes;
+		this.id = BoaTaskContext.get().nextNodeId();
 		this.kind = kind;
 	}
 
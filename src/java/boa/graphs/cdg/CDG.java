@@ -17,6 +17,7 @@
 package boa.graphs.cdg;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -44,6 +45,7 @@ public class CDG {
     private CDGNode entryNode;
     private CFG cfg;
     private final Set<CDGNode> nodes = new HashSet<CDGNode>();
+    private CDGNode[] index = new CDGNode[0]; // the nodes by id
 
     /**
      * Constructs a control dependence graph
@@ -55,6 +57,7 @@ public class CDG {
         if (cfg != null && cfg.getNodes().size() > 0) {
             this.cfg = cfg;
             this.md = cfg.getMd();
+            this.index = new CDGNode[cfg.getNodes().size() + 1];
             final PDTree pdTree = new PDTree(cfg);
             pdTree.addEntryNode();
             constructCDG(pdTree, cfg);
@@ -133,12 +136,8 @@ public class CDG {
      * @param id node id
      * @return the CDG node for the given node id. If not found then returns null
      */
-    public CDGNode getNode(final int id) { // sort and do b-search
-        for (final CDGNode n : nodes)
-            if (n.getNodeId() == id)
-                return n;
-
-        return null;
+    public CDGNode getNode(final int id) {
+        return id >= 0 && id < index.length ? index[id] : null;
     }
 
     /**
@@ -190,8 +189,10 @@ public class CDG {
             startNode.delete();
             nodes.remove(startNode);
 
+            index[entryNode.getNodeId()] = null;
             entryNode.setKind(Control.Node.NodeType.ENTRY);
             entryNode.setId(0);
+            index[0] = entryNode;
         } catch (final Exception e) {
             System.out.println(BoaAstIntrinsics.prettyprint(md));
             throw e;
@@ -212,6 +213,9 @@ public class CDG {
 
             final CDGNode newNode = new CDGNode(treeNode);
             nodes.add(newNode);
+            if (newNode.getNodeId() >= index.length)
+                index = Arrays.copyOf(index, Math.max(newNode.getNodeId() + 1, 2 * index.length));
+            index[newNode.getNodeId()] = newNode;
             return newNode;
         } catch (final Exception e) {
             System.out.println(BoaAstIntrinsics.prettyprint(md));
@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.Map;
 
 import boa.functions.BoaAstIntrinsics;
+import boa.runtime.BoaTaskContext;
 import boa.types.Ast.Expression;
 import boa.types.Ast.Expression.ExpressionKind;
 import boa.types.Ast.Method;
@@ -57,6 +58,8 @@ public class CFG {
 	protected boolean isBranchPresent = false;
 	protected boolean paramAsStatement = false;
 
+	protected CompactCFG compact = null;
+
 	public CFG(final Method method) {
 		this(method, "this");
 	}
@@ -111,6 +114,19 @@ public class CFG {
 		return exitNode;
 	}
 
+	/**
+	 * Returns the array based form of the graph.  It is made when the graph
+	 * is complete, and made again if the graph is changed afterwards through
+	 * its own methods; changing its nodes directly does not make it again.
+	 *
+	 * @return the compact form of the graph
+	 */
+	public CompactCFG getCompact() {
+		if (compact == null)
+			compact = new CompactCFG(nodes);
+		return compact;
+	}
+
 	/**
 	 * Returns the CFG node if id exists, null otherwise
 	 *
@@ -118,16 +134,13 @@ public class CFG {
 	 * @return CFG node
 	 */
 	public CFGNode getNode(int id) {
-		for (final CFGNode node : nodes) {
-			if (node.getNodeId() == id)
-				return node;
-		}
-		return null;
+		return getCompact().getNode(id);
 	}
 
 	protected void addNode(final CFGNode node) {
 		if (nodes.contains(node))
 			return;
+		compact = null;
 		outs.add(node);
 		nodes.add(node);
 		ins.add(node);
@@ -136,6 +149,7 @@ public class CFG {
 	protected void removeNode(final CFGNode node) {
 		if (!nodes.contains(node))
 			return;
+		compact = null;
 		nodes.remove(node);
 		ins.remove(node);
 		outs.remove(node);
@@ -148,6 +162,7 @@ public class CFG {
 		// ignore empty graph
 		if (target.getNodes().size() == 0)
 			return;
+		compact = null;
 
 		if (nodes.size() == 0) {
 			nodes.addAll(target.nodes);
@@ -181,8 +196,9 @@ public class CFG {
 	}
 
 	protected void createNewEdge(final CFGNode src, final CFGNode dest, final String label) {
-		if (src.getSuccessors().contains(dest))
+		if (src.getOutEdge(dest) != null)
 			return;
+		compact = null;
 
 		if (label == null)
 			new CFGEdge(src, dest);
@@ -211,6 +227,7 @@ public class CFG {
 	protected void mergeBranches(final CFG target, final HashSet<CFGNode> saveOuts) {
 		if (target.getNodes().size() == 0)
 			return;
+		compact = null;
 
 		if (saveOuts.size() == 0) {
 			// add Nodes
@@ -240,6 +257,7 @@ public class CFG {
 		// merge Node
 		if (target.getNodes().size() == 0)
 			return;
+		compact = null;
 
 		// add Nodes
 		nodes.addAll(target.nodes);
@@ -315,7 +333,7 @@ public class CFG {
 
 	public CFG get() {
 		if (md.getStatementsCount() > 0) {
-			CFGNode.numOfNodes = -1;
+			BoaTaskContext.get().resetNodeIds();
 			final CFGNode startNode = new CFGNode("ENTRY", NodeType.ENTRY, "ENTRY", "ENTRY");
 			mergeSeq(startNode);
 			if (paramAsStatement)
@@ -334,6 +352,7 @@ public class CFG {
 			if (returns.size() > 0 || breaks.size() > 0) {
 				return null;
 			}
+			this.compact = new CompactCFG(nodes);
 		}
 		return this;
 	}
@@ -17,10 +17,10 @@
  */
 package boa.graphs.cfg;
 
-import java.util.HashMap;
 import java.util.HashSet;
 
 import boa.graphs.Node;
+import boa.runtime.BoaTaskContext;
 import boa.types.Ast.Expression.ExpressionKind;
 import boa.types.Control.Node.NodeType;
 
@@ -37,9 +37,6 @@ public class CFGNode extends Node<CFGNode, CFGEdge> {
 	private int numOfParameters = 0;
 	private HashSet<Integer> parameters;
 
-	private static final HashMap<String, Integer> idOfLabel = new HashMap<String, Integer>();
-	private static final HashMap<Integer, String> labelOfID = new HashMap<Integer, String>();
-
 	private HashSet<String> useVariables;
 	private String defVariables;
 
@@ -78,13 +75,7 @@ public class CFGNode extends Node<CFGNode, CFGEdge> {
 	}
 
 	public static int convertLabel(final String label) {
-		if (!CFGNode.idOfLabel.containsKey(label)) {
-			final int index = CFGNode.idOfLabel.size() + 1;
-			CFGNode.idOfLabel.put(label, index);
-			CFGNode.labelOfID.put(index, label);
-			return index;
-		}
-		return CFGNode.idOfLabel.get(label);
+		return BoaTaskContext.get().getLabelId(label);
 	}
 
 	public int getNumOfParameters() {
@@ -108,11 +99,11 @@ public class CFGNode extends Node<CFGNode, CFGEdge> {
 	}
 
 	public String getObjectName() {
-		return labelOfID.get(this.objectNameId);
+		return BoaTaskContext.get().getLabel(this.objectNameId);
 	}
 
 	public String getClassName() {
-		return labelOfID.get(this.classNameId);
+		return BoaTaskContext.get().getLabel(this.classNameId);
 	}
 
 	public HashSet<String> getUseVariables() {
@@ -140,7 +131,7 @@ public class CFGNode extends Node<CFGNode, CFGEdge> {
 	}
 
 	public String getMethod() {
-		return CFGNode.labelOfID.get(this.methodId);
+		return BoaTaskContext.get().getLabel(this.methodId);
 	}
 
 	public String getName() {
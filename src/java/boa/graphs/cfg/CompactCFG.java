@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.graphs.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An array based form of a complete {@link CFG}, for analyses that walk it
+ * many times.
+ *
+ * Nodes are kept in an array indexed by id.  The successors of every node are
+ * sorted node ids, all kept in one array with the offset of each node's ids
+ * in another (compressed sparse rows), and so are the predecessors, so
+ * walking them allocates nothing.  The variables of the nodes are numbered
+ * and the variables each node uses are a bitset of those numbers.
+ */
+public final class CompactCFG {
+	private final CFGNode[] nodes;
+	private final int count;
+
+	private final int[] succStart;
+	private final int[] succ;
+	private final int[] predStart;
+	private final int[] pred;
+
+	// numbered the first time they are asked for
+	private List<String> variables = null;
+	private HashMap<String, Integer> variableIds;
+	private BitSet[] uses;
+	private int[] defs;
+
+	CompactCFG(final Collection<CFGNode> cfgNodes) {
+		int size = 0;
+		for (final CFGNode n : cfgNodes)
+			size = Math.max(size, n.getNodeId() + 1);
+
+		this.nodes = new CFGNode[size];
+		for (final CFGNode n : cfgNodes)
+			this.nodes[n.getNodeId()] = n;
+		this.count = cfgNodes.size();
+
+		this.succStart = new int[size + 1];
+		this.succ = neighbors(this.succStart, true);
+		this.predStart = new int[size + 1];
+		this.pred = neighbors(this.predStart, false);
+	}
+
+	private int[] neighbors(final int[] start, final boolean forward) {
+		int[] ids = new int[16];
+		int len = 0;
+		for (int id = 0; id < this.nodes.length; id++) {
+			start[id] = len;
+			if (this.nodes[id] == null)
+				continue;
+			final Set<CFGEdge> edges = forward ? this.nodes[id].getOutEdges() : this.nodes[id].getInEdges();
+			for (final CFGEdge e : edges) {
+				final CFGNode n = forward ? e.getDest() : e.getSrc();
+				// only edges between nodes of the graph
+				if (n.getNodeId() >= this.nodes.length || this.nodes[n.getNodeId()] != n)
+					continue;
+				if (len == ids.length)
+					ids = Arrays.copyOf(ids, 2 * len);
+				ids[len++] = n.getNodeId();
+			}
+			Arrays.sort(ids, start[id], len);
+		}
+		start[this.nodes.length] = len;
+		return Arrays.copyOf(ids, len);
+	}
+
+	/**
+	 * Returns one more than the largest node id.
+	 */
+	public int size() {
+		return this.nodes.length;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 */
+	public int getNodeCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the number of edges.
+	 */
+	public int getEdgeCount() {
+		return this.succ.length;
+	}
+
+	/**
+	 * Returns the node with an id, or null if there is none.
+	 */
+	public CFGNode getNode(final int id) {
+		return id >= 0 && id < this.nodes.length ? this.nodes[id] : null;
+	}
+
+	public int getSuccessorCount(final int id) {
+		return this.succStart[id + 1] - this.succStart[id];
+	}
+
+	/**
+	 * Returns the id of the i-th successor of a node, successors being
+	 * sorted by id.
+	 */
+	public int getSuccessor(final int id, final int i) {
+		return this.succ[this.succStart[id] + i];
+	}
+
+	public int getPredecessorCount(final int id) {
+		return this.predStart[id + 1] - this.predStart[id];
+	}
+
+	/**
+	 * Returns the id of the i-th predecessor of a node, predecessors being
+	 * sorted by id.
+	 */
+	public int getPredecessor(final int id, final int i) {
+		return this.pred[this.predStart[id] + i];
+	}
+
+	private void numberVariables() {
+		if (this.variables != null)
+			return;
+		this.variables = new ArrayList<String>();
+		this.variableIds = new HashMap<String, Integer>();
+		this.uses = new BitSet[this.nodes.length];
+		this.defs = new int[this.nodes.length];
+		Arrays.fill(this.defs, -1);
+
+		for (int id = 0; id < this.nodes.length; id++) {
+			if (this.nodes[id] == null)
+				continue;
+			this.uses[id] = new BitSet();
+			for (final String var : this.nodes[id].getUseVariables())
+				this.uses[id].set(intern(var));
+			final String def = this.nodes[id].getDefVariables();
+			if (def != null && !def.equals(""))
+				this.defs[id] = intern(def);
+		}
+	}
+
+	private int intern(final String var) {
+		final Integer i = this.variableIds.get(var);
+		if (i != null)
+			return i;
+		this.variableIds.put(var, this.variables.size());
+		this.variables.add(var);
+		return this.variables.size() - 1;
+	}
+
+	/**
+	 * Returns the number of variables the nodes use or define.
+	 */
+	public int getVariableCount() {
+		numberVariables();
+		return this.variables.size();
+	}
+
+	/**
+	 * Returns the name of a variable.
+	 */
+	public String getVariable(final int var) {
+		numberVariables();
+		return this.variables.get(var);
+	}
+
+	/**
+	 * Returns the number of a variable, or -1 if no node uses or defines it.
+	 */
+	public int getVariableId(final String name) {
+		numberVariables();
+		final Integer i = this.variableIds.get(name);
+		return i == null ? -1 : i;
+	}
+
+	/**
+	 * Returns the numbers of the variables a node uses.  The bitset is shared
+	 * and must not be modified.
+	 */
+	public BitSet getUseVariableIds(final int id) {
+		numberVariables();
+		return this.uses[id];
+	}
+
+	/**
+	 * Returns the number of the variable a node defines, or -1 if it defines
+	 * none.  Like {@link CFGNode#getDefVariables()}, a node defining several
+	 * variables defines one variable named by all of them.
+	 */
+	public int getDefVariableId(final int id) {
+		numberVariables();
+		return this.defs[id];
+	}
+}
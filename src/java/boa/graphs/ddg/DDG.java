@@ -18,6 +18,7 @@ package boa.graphs.ddg;
 
 import boa.graphs.cfg.CFG;
 import boa.graphs.cfg.CFGNode;
+import boa.graphs.cfg.CompactCFG;
 import boa.types.Ast.*;
 
 import java.util.*;
@@ -32,6 +33,7 @@ public class DDG {
     private Method md;
     private DDGNode entryNode;
     private final HashSet<DDGNode> nodes = new HashSet<DDGNode>();
+    private DDGNode[] index = new DDGNode[0]; // the nodes by id
     private final HashMap<DDGNode, Set<DDGNode>> defUseChain = new HashMap<DDGNode, Set<DDGNode>>();
     //private HashMap<DDGNode, Set<DDGNode>> useDefChain; //TODO: needs reaching-def analysis
 
@@ -44,9 +46,10 @@ public class DDG {
     public DDG(final CFG cfg) throws Exception {
         if (cfg != null && cfg.getNodes().size() > 0) {
             this.md = cfg.getMd();
-            final Map<Integer, InOut> liveVars = getLiveVariables(cfg);
-            formDefUseChains(liveVars, cfg);
-            constructDDG(liveVars.keySet());
+            final CompactCFG compact = cfg.getCompact();
+            this.index = new DDGNode[compact.size() + 1];
+            formDefUseChains(getLiveVariables(compact), compact);
+            constructDDG(compact);
         }
     }
 
@@ -140,126 +143,97 @@ public class DDG {
      * @return DDGNode
      */
     public DDGNode getNode(final int id) {
-        for (final DDGNode n : nodes)
-            if (n.getNodeId() == id)
-                return n;
-
-        return null;
+        return id >= 0 && id < index.length ? index[id] : null;
     }
 
     /**
-     * Computes and returns a map of in and out variables for each node
+     * Computes the uses of variables that are live at the end of each node.
+     *
+     * A use is a variable and a node using it.  Uses are numbered, node by
+     * node from the last, and the live uses of a node are a bitset of them.
      *
      * @param cfg control flow graph
-     * @return map of in and out variables for each node
-     * @throws Exception
+     * @return the uses
      */
-    private Map<Integer, InOut> getLiveVariables(final CFG cfg) {
-        Map<Integer, BitSet> liveVarsIn = new HashMap<Integer, BitSet>();
-        Map<Integer, BitSet> currentLiveVarsIn = new HashMap<Integer, BitSet>();
-        Map<Integer, BitSet> liveVarsOut = new HashMap<Integer, BitSet>();
-        Map<Integer, BitSet> currentLiveVarsOut = new HashMap<Integer, BitSet>();
-
-        final CFGNode[] cfgNodes = cfg.reverseSortNodes();
-        final Map<CFGNode, List<CFGNode>> successors = new HashMap<CFGNode, List<CFGNode>>();
-        final Map<Integer, BitSet> nodeUsePairs = new HashMap<Integer, BitSet>();
-        final Map<Integer, Pair> pairMap = new HashMap<Integer, Pair>();
-
-        for (final CFGNode n : cfgNodes) {
-            liveVarsIn.put(n.getNodeId(), new BitSet());
-            liveVarsOut.put(n.getNodeId(), new BitSet());
-            successors.put(n, n.getSuccessors());
-
-            // cache Pair's of use variables for every node
+    private Uses getLiveVariables(final CompactCFG cfg) {
+        final int size = cfg.size();
+        final BitSet[] liveVarsIn = new BitSet[size];
+        final BitSet[] liveVarsOut = new BitSet[size];
+        final BitSet[] nodeUsePairs = new BitSet[size];
+        final Uses uses = new Uses(cfg.getVariableCount());
+
+        for (int id = size - 1; id >= 0; id--) {
+            if (cfg.getNode(id) == null)
+                continue;
+            liveVarsIn[id] = new BitSet();
+            liveVarsOut[id] = new BitSet();
+
+            // number the uses of every node
             final BitSet l = new BitSet();
-            for (final String var : n.getUseVariables()) {
-                final Pair p = new Pair(var, n);
-                l.set(pairMap.size());
-                pairMap.put(pairMap.size(), p);
-            }
-            nodeUsePairs.put(n.getNodeId(), l);
+            final BitSet vars = cfg.getUseVariableIds(id);
+            for (int var = vars.nextSetBit(0); var >= 0; var = vars.nextSetBit(var + 1))
+                l.set(uses.add(var, id));
+            nodeUsePairs[id] = l;
         }
 
-        while (true) { // fix point iteration
-            boolean changed = false;
+        boolean changed = true;
+        while (changed) { // fix point iteration
+            changed = false;
 
-            for (final CFGNode node : cfgNodes) {
-                final BitSet nodeLiveVarsIn = (BitSet)liveVarsIn.get(node.getNodeId()).clone();
-                final BitSet nodeLiveVarsOut = (BitSet)liveVarsOut.get(node.getNodeId()).clone();
+            for (int id = size - 1; id >= 0; id--) {
+                if (cfg.getNode(id) == null)
+                    continue;
 
                 // out = Union in[node.successor]
-                for (final CFGNode s : successors.get(node))
-                    nodeLiveVarsOut.or(liveVarsIn.get(s.getNodeId()));
-
-                // out - def
-                final BitSet diff = (BitSet)nodeLiveVarsOut.clone();
-                if (!node.getDefVariables().equals(""))
-                    for (int p = 0; p < nodeLiveVarsOut.size(); p++)
-                        if (nodeLiveVarsOut.get(p))
-                            if (pairMap.get(p).var.equals(node.getDefVariables()))
-                                diff.clear(p);
+                final BitSet out = liveVarsOut[id];
+                for (int i = 0; i < cfg.getSuccessorCount(id); i++)
+                    out.or(liveVarsIn[cfg.getSuccessor(id, i)]);
 
                 // in = use Union (out - def)
-                nodeLiveVarsIn.or(nodeUsePairs.get(node.getNodeId()));
-                nodeLiveVarsIn.or(diff);
-
-                // check if node's "in" or "out" have changed
-                if (!nodeLiveVarsIn.equals(liveVarsIn.get(node.getNodeId())) || !nodeLiveVarsOut.equals(liveVarsOut.get(node.getNodeId())))
+                final BitSet in = (BitSet)out.clone();
+                final int def = cfg.getDefVariableId(id);
+                if (def >= 0)
+                    in.andNot(uses.ofVariable[def]);
+                in.or(nodeUsePairs[id]);
+
+                // check if node's "in" has changed
+                if (!in.equals(liveVarsIn[id])) {
+                    liveVarsIn[id] = in;
                     changed = true;
-
-                currentLiveVarsIn.put(node.getNodeId(), nodeLiveVarsIn);
-                currentLiveVarsOut.put(node.getNodeId(), nodeLiveVarsOut);
+                }
             }
-
-            if (!changed)
-                break;
-
-            liveVarsIn = currentLiveVarsIn;
-            currentLiveVarsIn = new HashMap<Integer, BitSet>();
-            liveVarsOut = currentLiveVarsOut;
-            currentLiveVarsOut = new HashMap<Integer, BitSet>();
         }
 
-        liveVarsIn.remove(cfg.getNodes().size() - 1);
-        liveVarsOut.remove(cfg.getNodes().size() - 1);
-
-        final Map<Integer, InOut> liveVars = new HashMap<Integer, InOut>();
-        for (final Integer i : liveVarsIn.keySet()) {
-            final Set<Pair> ins = new LinkedHashSet<Pair>();
-            final Set<Pair> outs = new LinkedHashSet<Pair>();
-            for (int j = 0; j < liveVarsIn.get(i).size(); j++)
-                if (liveVarsIn.get(i).get(j))
-                    ins.add(pairMap.get(j));
-            for (int j = 0; j < liveVarsOut.get(i).size(); j++)
-                if (liveVarsOut.get(i).get(j))
-                    outs.add(pairMap.get(j));
-            liveVars.put(i, new InOut(ins, outs));
-        }
-
-        return liveVars;
+        uses.liveOut = liveVarsOut;
+        return uses;
     }
 
     /**
      * Forms def-use chains to establish data flow between nodes
      *
-     * @param liveVar map of nodes and their in and out variables
+     * @param uses the uses live at the end of each node
+     * @param cfg control flow graph
      */
-    private void formDefUseChains(final Map<Integer, InOut> liveVar, CFG cfg) {
+    private void formDefUseChains(final Uses uses, final CompactCFG cfg) {
         // match def variable of the node with the out variable. If the match occurs form a def-use mapping
-        for (final Map.Entry<Integer, InOut> entry: liveVar.entrySet()) {
-            final CFGNode n = cfg.getNode(entry.getKey());
+        // the exit node is left out
+        for (int id = 0; id < cfg.size() - 1; id++) {
+            final CFGNode n = cfg.getNode(id);
+            if (n == null)
+                continue;
             final DDGNode defNode = getNode(n);
-            if (entry.getKey() != 0) {
-                for (final Pair p : entry.getValue().out) {
-                    if (!n.getDefVariables().equals("")) {
-                        if (n.getDefVariables().equals(p.var)) {
-                            final DDGNode useNode = getNode(p.node);
-                            if (!defUseChain.containsKey(defNode))
-                                defUseChain.put(defNode, new HashSet<DDGNode>());
-                            defUseChain.get(defNode).add(useNode);
-                            // connect nodes for constructing the graph
-                            new DDGEdge(defNode, useNode, p.var);
-                        }
+            final int def = cfg.getDefVariableId(id);
+            if (id != 0 && def >= 0) {
+                final BitSet out = uses.liveOut[id];
+                final BitSet defUses = uses.ofVariable[def];
+                for (int p = out.nextSetBit(0); p >= 0; p = out.nextSetBit(p + 1)) {
+                    if (defUses.get(p)) {
+                        final DDGNode useNode = getNode(cfg.getNode(uses.node[p]));
+                        if (!defUseChain.containsKey(defNode))
+                            defUseChain.put(defNode, new HashSet<DDGNode>());
+                        defUseChain.get(defNode).add(useNode);
+                        // connect nodes for constructing the graph
+                        new DDGEdge(defNode, useNode, cfg.getVariable(def));
                     }
                 }
             }
@@ -269,18 +243,18 @@ public class DDG {
     /**
      * Connects the disconnected nodes to form the DDG graph
      *
-     * @param nodeids set of all node ids of the graph
+     * @param cfg control flow graph
      */
-    private void constructDDG(final Set<Integer> nodeids) {
+    private void constructDDG(final CompactCFG cfg) {
         // any node without parent is connected to entryNode
         entryNode = getNode(0);
-        for (final int i : nodeids) {
-            if (i != 0) {
-                final DDGNode dest = getNode(i);
-                if (dest.getPredecessors().size() == 0 ||
-                        (dest.getPredecessors().size() == 1 && dest.getPredecessors().get(0).equals(dest))) {
-                    new DDGEdge(entryNode, dest);
-                }
+        for (int i = 1; i < cfg.size() - 1; i++) {
+            final DDGNode dest = getNode(i);
+            if (dest == null)
+                continue;
+            if (dest.getPredecessors().size() == 0 ||
+                    (dest.getPredecessors().size() == 1 && dest.getPredecessors().get(0).equals(dest))) {
+                new DDGEdge(entryNode, dest);
             }
         }
     }
@@ -298,63 +272,38 @@ public class DDG {
 
         final DDGNode newNode = new DDGNode(cfgNode);
         nodes.add(newNode);
+        if (newNode.getNodeId() >= index.length)
+            index = Arrays.copyOf(index, Math.max(newNode.getNodeId() + 1, 2 * index.length));
+        index[newNode.getNodeId()] = newNode;
         return newNode;
     }
 
     /**
-     * Holds in and out sets for each node
+     * Holds the uses of variables, numbered: use variables are needed to kill
+     * uses, use nodes to construct def-use chains
      */
-    private static class InOut {
-        Set<Pair> in;
-        Set<Pair> out;
-
-        InOut() {
-            in = new HashSet<Pair>();
-            out = new HashSet<Pair>();
+    private static class Uses {
+        int[] var = new int[16];
+        int[] node = new int[16];
+        int size = 0;
+        final BitSet[] ofVariable; // the uses of each variable
+        BitSet[] liveOut;
+
+        Uses(final int variables) {
+            ofVariable = new BitSet[variables];
+            for (int i = 0; i < variables; i++)
+                ofVariable[i] = new BitSet();
         }
 
-        InOut(final Set<Pair> in, final Set<Pair> out){
-            this.in = in;
-            this.out = out;
-        }
-
-        InOut(final InOut inout){
-            this.in = new HashSet<Pair>(inout.in);
-            this.out = new HashSet<Pair>(inout.out);
-        }
-    }
-
-    /**
-     * Holds Var and Usenode pairs: usenodes are needed to construct def-use chains
-     */
-    private static class Pair {
-        String var;
-        CFGNode node;
-
-        Pair(final String var, final CFGNode node) {
-            this.var = var;
-            this.node = node;
-        }
-
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) return true;
-            if (o == null || !(o instanceof Pair)) return false;
-
-            final Pair pair = (Pair) o;
-
-            return var.equals(pair.var) && node.getNodeId() == pair.node.getNodeId();
-        }
-
-        private int hash = -1;
-
-        @Override
-        public int hashCode() {
-            if (hash == -1) {
-                hash = var.hashCode();
-                hash = 31 * hash + node.hashCode();
+        int add(final int v, final int n) {
+            if (size == var.length) {
+                var = Arrays.copyOf(var, 2 * size);
+                node = Arrays.copyOf(node, 2 * size);
             }
-            return hash;
+            var[size] = v;
+            node[size] = n;
+            ofVariable[v].set(size);
+            return size++;
         }
     }
 }
@@ -42,6 +42,7 @@ public class PDG {
     private Method md;
     private PDGNode entryNode;
     private final HashSet<PDGNode> nodes = new HashSet<PDGNode>();
+    private PDGNode[] index = new PDGNode[0]; // the nodes by id
     private boolean normalize = false;
     private int hashcode;
 
@@ -92,6 +93,25 @@ public class PDG {
         this(new CFG(md, false).get());
     }
 
+    /**
+     * Constructs a copy of a program dependence graph, with nodes and edges
+     * of its own, so it can be normalized without changing the other.
+     *
+     * @param pdg program dependence graph to copy
+     */
+    public PDG(final PDG pdg) {
+        this.md = pdg.getMethod();
+        this.normalize = pdg.isNormalized();
+        index = new PDGNode[pdg.index.length];
+        for (final PDGNode n : pdg.getNodes())
+            add(new PDGNode(n));
+        for (final PDGNode n : pdg.getNodes())
+            for (final PDGEdge e : n.getOutEdges())
+                new PDGEdge(getNode(e.getSrc().getNodeId()), getNode(e.getDest().getNodeId()), e.getLabel(), e.getKind());
+        if (pdg.getEntryNode() != null)
+            entryNode = getNode(pdg.getEntryNode().getNodeId());
+    }
+
     // Getters
 
     /**
@@ -175,11 +195,16 @@ public class PDG {
      * @return
      */
     public PDGNode getNode(final int id) {
-        for (final PDGNode n : nodes)
-            if (n.getNodeId() == id)
-                return n;
+        return id >= 0 && id < index.length ? index[id] : null;
+    }
 
-        return null;
+    /**
+     * Returns true if the graph was normalized, which changes it in place
+     *
+     * @return true if the graph was normalized
+     */
+    public boolean isNormalized() {
+        return normalize;
     }
 
     /**
@@ -254,8 +279,9 @@ public class PDG {
      * @param cdg control dependence graph
      */
     private void addCDG(final CDG cdg) {
+        index = new PDGNode[cdg.getNodes().size() + 1];
         for (final CDGNode n : cdg.getNodes()) {
-            nodes.add(new PDGNode(n));
+            add(new PDGNode(n));
         }
 
         for (final CDGNode n : cdg.getNodes()) {
@@ -267,6 +293,13 @@ public class PDG {
         }
     }
 
+    private void add(final PDGNode node) {
+        nodes.add(node);
+        if (node.getNodeId() >= index.length)
+            index = Arrays.copyOf(index, Math.max(node.getNodeId() + 1, 2 * index.length));
+        index[node.getNodeId()] = node;
+    }
+
     /**
      * Adds DDG edges to the PDG graph
      *
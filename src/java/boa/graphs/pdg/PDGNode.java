@@ -48,6 +48,21 @@ public class PDGNode extends Node<PDGNode, PDGEdge> {
         this.useVariables = node.getUseVariables();
     }
 
+    /**
+     * Constructs a PDG node with the contents of another, without its edges.
+     *
+     * @param node program dependence graph node
+     */
+    public PDGNode(final PDGNode node) {
+        this.id = node.getNodeId();
+        this.pid = node.getPid();
+        this.stmt = node.getStmt();
+        this.expr = node.getExpr();
+        this.kind = node.getKind();
+        this.defVariable = node.getDefVariable();
+        this.useVariables = new HashSet<String>(node.getUseVariables());
+    }
+
     public void setDefVariable(final String defVariables) {
         this.defVariable = defVariables;
     }
@@ -66,7 +66,10 @@ public class CFGSlicer {
     }
 
     public CFGSlicer(final Method m, final int nid) throws Exception {
-        final CFG cfg = new CFG(m, true).get();
+        this(new CFG(m, true).get(), nid);
+    }
+
+    public CFGSlicer(final CFG cfg, final int nid) throws Exception {
         if (cfg == null) return;
 
         final List<CFGNode> entrynodes = new ArrayList<CFGNode>();
@@ -16,7 +16,10 @@
  */
 package boa.graphs.trees;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 
 import boa.functions.BoaAstIntrinsics;
 import boa.types.Ast.Method;
@@ -34,6 +37,7 @@ public class DTree {
     private TreeNode rootNode;
     private final HashSet<TreeNode> nodes = new HashSet<TreeNode>();
     private boolean isEntryNode = false; // as specified in ferrante-1987 paper on PDG
+    private TreeNode[] index = new TreeNode[0]; // the nodes by id
 
     /**
      * Constructs a dominator tree
@@ -44,9 +48,9 @@ public class DTree {
     public DTree(final CFG cfg) throws Exception {
         if (cfg != null && cfg.getNodes().size() > 0) {
             this.md = cfg.getMd();
-            final Map<CFGNode, Set<CFGNode>> dom = computeDominators(cfg);
-            final Map<CFGNode, CFGNode> idom = computeImmediateDominator(dom, cfg);
-            buildDomTree(idom);
+            final CFGNode[] cfgNodes = Dominators.nodesById(cfg);
+            this.index = new TreeNode[cfgNodes.length + 1];
+            buildDomTree(cfgNodes, Dominators.immediateDominators(cfg));
         }
     }
 
@@ -80,7 +84,7 @@ public class DTree {
             final TreeNode entry = new TreeNode(nodes.size());
             entry.setParent(rootNode);
             rootNode.addChild(entry);
-            nodes.add(entry);
+            add(entry);
             isEntryNode = true;
         }
     }
@@ -110,6 +114,19 @@ public class DTree {
         return nodes;
     }
 
+    /**
+     * Returns the nodes of the tree, sorted by id
+     *
+     * @return the nodes of the tree, sorted by id
+     */
+    public TreeNode[] sortNodes() {
+        final List<TreeNode> results = new ArrayList<TreeNode>(nodes.size());
+        for (final TreeNode node : index)
+            if (node != null)
+                results.add(node);
+        return results.toArray(new TreeNode[results.size()]);
+    }
+
     /**
      * Returns the immediate dominator of the given node
      *
@@ -117,10 +134,7 @@ public class DTree {
      * @return the immediate dominator of the given node
      */
     public TreeNode getImmediateDominator(final TreeNode node) {
-        for (final TreeNode n : nodes)
-            if (n.equals(node))
-                return n.getParent();
-        return null;
+        return getImmediateDominator(node.getNodeId());
     }
 
     /**
@@ -130,10 +144,8 @@ public class DTree {
      * @return the immediate dominator for the given node id
      */
     public TreeNode getImmediateDominator(final int nodeid) {
-        for (final TreeNode n : nodes)
-            if (n.getNodeId() == nodeid)
-                return n.getParent();
-        return null;
+        final TreeNode n = getNode(nodeid);
+        return n == null ? null : n.getParent();
     }
 
     /**
@@ -143,126 +155,27 @@ public class DTree {
      * @return the tree node for the given node id. If not found then returns null
      */
     public TreeNode getNode(final int id) {
-        for (final TreeNode node : nodes) {
-            if (node.getNodeId() == id)
-                return node;
-        }
-        return null;
-    }
-
-    /**
-     * Computes and returns map of dominators for each node in the control flow graph
-     *
-     * @param cfg control flow graph
-     * @return map of nodes and corresponding set of dominator nodes
-     * @throws Exception
-     */
-    private Map<CFGNode, Set<CFGNode>> computeDominators(final CFG cfg) {
-        final Map<CFGNode, Set<CFGNode>> pDomMap = new HashMap<CFGNode, Set<CFGNode>>();
-
-        // initialize
-        if (cfg.getNodes().size() > 2) {
-            for (final CFGNode n : cfg.getNodes()) {
-                if (n.getNodeId() == 0)
-                    pDomMap.put(n, new HashSet<CFGNode>(Collections.singletonList(n)));
-                else
-                    pDomMap.put(n, cfg.getNodes());
-            }
-        } else {
-            final CFGNode startNode = cfg.getNode(0);
-            pDomMap.put(startNode, new HashSet<CFGNode>(Collections.singletonList(startNode)));
-            pDomMap.put(cfg.getNode(1), new HashSet<CFGNode>(cfg.getNodes()));
-        }
-
-        final Map<CFGNode, Set<CFGNode>> currentPDomMap = new HashMap<CFGNode, Set<CFGNode>>();
-        boolean saturated = false;
-        while (!saturated) { // fix point iteration
-            int changeCount = 0;
-            for (final CFGNode n : cfg.getNodes()) {
-                final Set<CFGNode> currentPDom = new HashSet<CFGNode>();
-
-                // Intersection[pred(node)]
-                boolean first = true;
-                for (final CFGNode pred : n.getPredecessors()) {
-                    if (first) {
-                        currentPDom.addAll(pDomMap.get(pred));
-                        first = false;
-                        continue;
-                    }
-                    currentPDom.retainAll(pDomMap.get(pred));
-                }
-                // D[n] = {n} Union (Intersection[pred[node]])
-                currentPDom.add(n);
-
-                final Set<CFGNode> diff = new HashSet<CFGNode>(pDomMap.get(n));
-                diff.removeAll(currentPDom);
-                if (diff.size() > 0)
-                    changeCount++;
-                currentPDomMap.put(n, currentPDom);
-            }
-
-            if (changeCount == 0) {
-                saturated = true;
-            } else {
-                pDomMap.clear();
-                pDomMap.putAll(currentPDomMap);
-                currentPDomMap.clear();
-            }
-        }
-
-        // strict dominance
-        for (final CFGNode n : pDomMap.keySet())
-            pDomMap.get(n).remove(n);
-
-        return pDomMap;
-    }
-
-    /**
-     * Computes and returns map of nodes and corresponding immediate dominators
-     *
-     * @param dom map of nodes and corresponding dominators
-     * @return map of nodes and corresponding immediate dominators
-     */
-    private Map<CFGNode, CFGNode> computeImmediateDominator(final Map<CFGNode, Set<CFGNode>> dom, final CFG cfg) {
-        /*
-         * To find idom, we check each dom of a node to see if it is dominating any other
-         * node. Each node should have atmost one i-dom (first node has no immediate dominator)
-         */
-        final Map<CFGNode, CFGNode> idom = new HashMap<CFGNode, CFGNode>();
-        for (final Map.Entry<CFGNode, Set<CFGNode>> entry : dom.entrySet()) {
-            for (final CFGNode pd1 : entry.getValue()) {
-                boolean isIPDom = true;
-                for (final CFGNode pd2 : entry.getValue()) {
-                    if (pd1.getNodeId() != pd2.getNodeId())
-                        if ((dom.get(pd2)).contains(pd1)) {
-                            isIPDom = false;
-                            break;
-                        }
-                }
-                if (isIPDom) {
-                    idom.put(entry.getKey(), pd1);
-                    break;
-                }
-            }
-        }
-
-        return idom;
+        return id >= 0 && id < index.length ? index[id] : null;
     }
 
     /**
      * Builds a dominator tree using nodes and their immediate dominators
      *
-     * @param idoms map of nodes and their immediate dominators
+     * @param cfgNodes the nodes of the control flow graph, by id
+     * @param idoms the id of the immediate dominator of each node, by id
      */
-    private void buildDomTree(final Map<CFGNode, CFGNode> idoms) throws Exception {
+    private void buildDomTree(final CFGNode[] cfgNodes, final int[] idoms) throws Exception {
         /*
          * Create an edge between idom and corresponding node.
-         * Since each node can have only one idom, the resulting graph will form a tree
+         * Since each node can have only one idom, the resulting graph will form a tree.
+         * Nodes not reachable from the entry are left out.
          */
         try {
-            for (final Map.Entry<CFGNode, CFGNode> entry : idoms.entrySet()) {
-                final TreeNode src = getNode(entry.getValue());
-                final TreeNode dest = getNode(entry.getKey());
+            for (int i = 0; i < idoms.length; i++) {
+                if (idoms[i] == Dominators.NONE)
+                    continue;
+                final TreeNode src = getNode(cfgNodes[idoms[i]]);
+                final TreeNode dest = getNode(cfgNodes[i]);
 
                 src.addChild(dest);
                 dest.setParent(src);
@@ -288,7 +201,14 @@ public class DTree {
             return node;
 
         final TreeNode newNode = new TreeNode(cfgNode);
-        nodes.add(newNode);
+        add(newNode);
         return newNode;
     }
+
+    private void add(final TreeNode node) {
+        nodes.add(node);
+        if (node.getNodeId() >= index.length)
+            index = Arrays.copyOf(index, Math.max(node.getNodeId() + 1, 2 * index.length));
+        index[node.getNodeId()] = node;
+    }
 }
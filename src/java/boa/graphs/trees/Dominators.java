@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.graphs.trees;
+
+import java.util.Arrays;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGEdge;
+import boa.graphs.cfg.CFGNode;
+
+/**
+ * Computes the immediate dominators and post-dominators of the nodes of a
+ * control flow graph, with the algorithm of Cooper, Harvey and Kennedy
+ * ("A Simple, Fast Dominance Algorithm", 2001).
+ *
+ * The nodes of a CFG are numbered from 0, the entry, to n - 1, the exit, as
+ * {@link CFG#get()} numbers them, so the dominators are kept in arrays indexed
+ * by node id.  A CFG numbered otherwise is rejected rather than given wrong
+ * dominators.  Each node's
+ * immediate dominator is found by intersecting the dominators of its
+ * predecessors, walking up the tree being built, in reverse postorder until
+ * nothing changes, which for the graphs of structured code takes two passes.
+ */
+public final class Dominators {
+	/** the immediate dominator of the root and of the nodes it can not reach */
+	public static final int NONE = -1;
+
+	private Dominators() {
+	}
+
+	/**
+	 * Returns the immediate dominator of each node of a CFG.
+	 *
+	 * @param cfg control flow graph
+	 * @return the id of the immediate dominator of each node, indexed by node
+	 *         id, or {@link #NONE} for the entry and for nodes not reachable
+	 *         from it
+	 */
+	public static int[] immediateDominators(final CFG cfg) {
+		return compute(nodesById(cfg), 0, false);
+	}
+
+	/**
+	 * Returns the immediate post-dominator of each node of a CFG.
+	 *
+	 * @param cfg control flow graph
+	 * @return the id of the immediate post-dominator of each node, indexed by
+	 *         node id, or {@link #NONE} for the exit and for nodes that can not
+	 *         reach it
+	 */
+	public static int[] immediatePostDominators(final CFG cfg) {
+		final CFGNode[] nodes = nodesById(cfg);
+		return compute(nodes, nodes.length - 1, true);
+	}
+
+	/**
+	 * Returns the nodes of a CFG indexed by id, checking that the ids run from
+	 * 0 at the entry to n - 1 at the exit.
+	 *
+	 * @param cfg control flow graph
+	 * @return the nodes, indexed by id
+	 * @throws IllegalArgumentException if the nodes are numbered otherwise
+	 */
+	static CFGNode[] nodesById(final CFG cfg) {
+		final CFGNode[] nodes = new CFGNode[cfg.getNodes().size()];
+		for (final CFGNode node : cfg.getNodes()) {
+			final int id = node.getNodeId();
+			if (id < 0 || id >= nodes.length || nodes[id] != null)
+				throw new IllegalArgumentException("CFG node ids are not numbered from 0 to " + (nodes.length - 1) + ": " + id);
+			nodes[id] = node;
+		}
+		if (nodes.length > 0 && (nodes[0] != cfg.getEntryNode() || nodes[nodes.length - 1] != cfg.getExitNode()))
+			throw new IllegalArgumentException("CFG entry and exit are not the first and last nodes");
+		return nodes;
+	}
+
+	/**
+	 * Computes immediate dominators.
+	 *
+	 * @param nodes the nodes, indexed by id
+	 * @param root the id of the node every path starts from
+	 * @param post true to follow edges backward, for post-dominators
+	 * @return the id of the immediate dominator of each node, or {@link #NONE}
+	 */
+	static int[] compute(final CFGNode[] nodes, final int root, final boolean post) {
+		final int n = nodes.length;
+		final int[] idom = new int[n];
+		Arrays.fill(idom, NONE);
+		if (n == 0)
+			return idom;
+
+		final int[][] succs = new int[n][];
+		final int[][] preds = new int[n][];
+		for (final CFGNode node : nodes) {
+			succs[node.getNodeId()] = ids(post ? node.getInEdges() : node.getOutEdges(), post);
+			preds[node.getNodeId()] = ids(post ? node.getOutEdges() : node.getInEdges(), !post);
+		}
+
+		// number the nodes reachable from the root in postorder
+		final int[] number = new int[n];
+		Arrays.fill(number, -1);
+		final int[] order = new int[n];
+		int count = 0;
+		final boolean[] visited = new boolean[n];
+		final int[] stack = new int[n];
+		final int[] next = new int[n];
+		int top = 0;
+		stack[0] = root;
+		visited[root] = true;
+		while (top >= 0) {
+			final int v = stack[top];
+			if (next[top] < succs[v].length) {
+				final int w = succs[v][next[top]++];
+				if (!visited[w]) {
+					visited[w] = true;
+					top++;
+					stack[top] = w;
+					next[top] = 0;
+				}
+			} else {
+				number[v] = count;
+				order[count++] = v;
+				top--;
+			}
+		}
+
+		idom[root] = root;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			// reverse postorder, skipping the root
+			for (int i = count - 2; i >= 0; i--) {
+				final int v = order[i];
+				int d = NONE;
+				for (final int p : preds[v]) {
+					if (idom[p] == NONE)
+						continue;
+					d = d == NONE ? p : intersect(idom, number, p, d);
+				}
+				if (idom[v] != d) {
+					idom[v] = d;
+					changed = true;
+				}
+			}
+		}
+		idom[root] = NONE;
+
+		return idom;
+	}
+
+	private static int intersect(final int[] idom, final int[] number, int a, int b) {
+		while (a != b) {
+			while (number[a] < number[b])
+				a = idom[a];
+			while (number[b] < number[a])
+				b = idom[b];
+		}
+		return a;
+	}
+
+	private static int[] ids(final java.util.Set<CFGEdge> edges, final boolean src) {
+		final int[] ids = new int[edges.size()];
+		int i = 0;
+		for (final CFGEdge e : edges)
+			ids[i++] = (src ? e.getSrc() : e.getDest()).getNodeId();
+		return ids;
+	}
+}
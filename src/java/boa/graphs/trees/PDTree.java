@@ -16,7 +16,8 @@
  */
 package boa.graphs.trees;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import boa.functions.BoaAstIntrinsics;
 import boa.types.Ast.Method;
@@ -34,6 +35,7 @@ public class PDTree {
     private TreeNode rootNode;
     private final HashSet<TreeNode> nodes = new HashSet<TreeNode>();
     private boolean hasEntryNode = false; // as specified in ferrante-1987 paper on PDG
+    private TreeNode[] index = new TreeNode[0]; // the nodes by id
 
     /**
      * Constructs a post-dominator tree
@@ -44,9 +46,9 @@ public class PDTree {
     public PDTree(final CFG cfg) throws Exception {
         if (cfg != null && cfg.getNodes().size() > 0) {
             this.md = cfg.getMd();
-            final Map<CFGNode, BitSet> pdom = computePostDomonitors(cfg);
-            final Map<CFGNode, CFGNode> ipdom = computeImmediatePostDominator(pdom, cfg);
-            buildPDomTree(ipdom);
+            final CFGNode[] cfgNodes = Dominators.nodesById(cfg);
+            this.index = new TreeNode[cfgNodes.length + 1];
+            buildPDomTree(cfgNodes, Dominators.immediatePostDominators(cfg));
         }
     }
 
@@ -80,7 +82,7 @@ public class PDTree {
             final TreeNode entry = new TreeNode(nodes.size());
             entry.setParent(rootNode);
             rootNode.addChild(entry);
-            nodes.add(entry);
+            add(entry);
             hasEntryNode = true;
         }
     }
@@ -132,10 +134,7 @@ public class PDTree {
      * @return the immediate post-dominator of the given node
      */
     public TreeNode getImmediatePostDominator(final TreeNode node) {
-        for (final TreeNode n : nodes)
-            if (n.equals(node))
-                return n.getParent();
-        return null;
+        return getImmediatePostDominator(node.getNodeId());
     }
 
     /**
@@ -145,10 +144,8 @@ public class PDTree {
      * @return the immediate post-dominator of the given node
      */
     public TreeNode getImmediatePostDominator(final int nodeid) {
-        for (final TreeNode n : nodes)
-            if (n.getNodeId() == nodeid)
-                return n.getParent();
-        return null;
+        final TreeNode n = getNode(nodeid);
+        return n == null ? null : n.getParent();
     }
 
     /**
@@ -158,151 +155,32 @@ public class PDTree {
      * @return the tree node for the given node id. If not found then returns null
      */
     public TreeNode getNode(final int id) {
-        for (final TreeNode node : nodes) {
-            if (node.getNodeId() == id)
-                return node;
-        }
-        return null;
-    }
-
-    /**
-     * Computes and returns map of post-dominators for each node in the control flow graph
-     *
-     * @param cfg control flow graph
-     * @return map of nodes and corresponding set of post-dominator nodes
-     * @throws Exception
-     */
-    private Map<CFGNode, BitSet> computePostDomonitors(final CFG cfg) {
-        final CFGNode[] cfgNodes = cfg.reverseSortNodes();
-        final Map<CFGNode, List<CFGNode>> successors = new HashMap<CFGNode, List<CFGNode>>();
-
-        Map<CFGNode, BitSet> pDomMap = new HashMap<CFGNode, BitSet>();
-        Map<CFGNode, BitSet> currentPDomMap = new HashMap<CFGNode, BitSet>();
-
-        // initialize
-        final BitSet allBits = new BitSet();
-        for (final CFGNode n : cfg.getNodes()) {
-            allBits.set(n.getNodeId());
-        }
-
-        if (cfg.getNodes().size() > 2) {
-            final int stopid = cfg.getNodes().size() - 1;
-
-            for (final CFGNode n : cfg.getNodes()) {
-                if (n.getNodeId() == stopid) {
-                    pDomMap.put(n, new BitSet());
-                    pDomMap.get(n).set(n.getNodeId());
-                } else {
-                    pDomMap.put(n, (BitSet)allBits.clone());
-                }
-
-                successors.put(n, n.getSuccessors());
-            }
-        } else {
-            pDomMap.put(cfg.getNode(0), (BitSet)allBits.clone());
-
-            final CFGNode stopNode = cfg.getNode(1);
-            pDomMap.put(stopNode, new BitSet());
-            pDomMap.get(stopNode).set(stopNode.getNodeId());
-
-            successors.put(cfg.getNode(0), cfg.getNode(0).getSuccessors());
-            successors.put(stopNode, stopNode.getSuccessors());
-        }
-
-        while (true) { // fix point iteration
-            boolean changed = false;
-
-            for (final CFGNode n : cfgNodes) {
-                BitSet currentPDom = null;
-
-                // Intersection[succ(node)]
-                for (final CFGNode succ : successors.get(n)) {
-                    if (currentPDom == null) {
-                        currentPDom = (BitSet)pDomMap.get(succ).clone();
-                        continue;
-                    }
-                    currentPDom.and(pDomMap.get(succ));
-                    if (currentPDom.isEmpty())
-                        break;
-                }
-                // D[n] = {n} Union (Intersection[succ[node]])
-                if (currentPDom == null) currentPDom = new BitSet();
-                currentPDom.set(n.getNodeId());
-
-                if (!pDomMap.get(n).equals(currentPDom))
-                    changed = true;
-                currentPDomMap.put(n, currentPDom);
-            }
-
-            if (!changed)
-                break;
-
-            pDomMap = currentPDomMap;
-            currentPDomMap = new HashMap<CFGNode, BitSet>();
-        }
-
-        // ensure strict post-dominance
-        for (final CFGNode n : cfgNodes) {
-            final BitSet curMap = pDomMap.get(n);
-            curMap.clear(n.getNodeId());
-        }
-
-        return pDomMap;
-    }
-
-    /**
-     * Computes and returns a map of nodes and corresponding immediate post-dominators
-     *
-     * @param pdom map of nodes and corresponding post-dominators
-     * @return map of nodes and corresponding immediate post-dominators
-     */
-    private Map<CFGNode, CFGNode> computeImmediatePostDominator(final Map<CFGNode, BitSet> pdom, final CFG cfg) {
-        final Map<CFGNode, CFGNode> ipdom = new HashMap<CFGNode, CFGNode>();
-
-        // To find ipdom, we check each pdom of a node to see if it is post dominating any other
-        // node. Each node should have at most one ip-dom (last node has no immediate post dominator)
-        for (final Map.Entry<CFGNode, BitSet> entry : pdom.entrySet()) {
-            BitSet bs1 = entry.getValue();
-            for (int pd1 = 0; pd1 < bs1.size(); pd1++) {
-                if (!bs1.get(pd1)) continue;
-                boolean isIPDom = true;
-                for (int pd2 = 0; pd2 < bs1.size(); pd2++) {
-                    if (!bs1.get(pd2) || pd1 == pd2) continue;
-                    if (pdom.containsKey(pd2) && pdom.get(pd2).get(pd1)) {
-                        isIPDom = false;
-                        break;
-                    }
-                }
-                if (isIPDom) {
-                    ipdom.put(entry.getKey(), cfg.getNode(pd1));
-                    break;
-                }
-            }
-        }
-
-        return ipdom;
+        return id >= 0 && id < index.length ? index[id] : null;
     }
 
     /**
      * Builds a post dominator tree using nodes and their immediate post-dominators
      *
-     * @param ipdoms map of nodes and their immediate post-dominators
+     * @param cfgNodes the nodes of the control flow graph, by id
+     * @param ipdoms the id of the immediate post-dominator of each node, by id
      */
-    private void buildPDomTree(final Map<CFGNode, CFGNode> ipdoms) throws Exception {
+    private void buildPDomTree(final CFGNode[] cfgNodes, final int[] ipdoms) throws Exception {
         /*
          * Create an edge between ipdom and corresponding node.
-         * Since each node can have only one ipdom, the resulting graph will form a tree
+         * Since each node can have only one ipdom, the resulting graph will form a tree.
+         * Nodes that can not reach the exit, in an infinite loop, hang from the exit.
          */
         try {
-            for (final Map.Entry<CFGNode, CFGNode> entry : ipdoms.entrySet()) {
-                final TreeNode src = getNode(entry.getValue());
-                final TreeNode dest = getNode(entry.getKey());
+            final int exit = cfgNodes.length - 1;
+            for (int i = 0; i < exit; i++) {
+                final TreeNode src = getNode(cfgNodes[ipdoms[i] == Dominators.NONE ? exit : ipdoms[i]]);
+                final TreeNode dest = getNode(cfgNodes[i]);
 
                 src.addChild(dest);
                 dest.setParent(src);
             }
 
-            rootNode = getNode(nodes.size()-1);
+            rootNode = getNode(cfgNodes[exit]);
         } catch (final Exception e) {
             System.out.println(BoaAstIntrinsics.prettyprint(md));
             throw e;
@@ -321,7 +199,14 @@ public class PDTree {
             return node;
 
         final TreeNode newNode = new TreeNode(cfgNode);
-        nodes.add(newNode);
+        add(newNode);
         return newNode;
     }
+
+    private void add(final TreeNode node) {
+        nodes.add(node);
+        if (node.getNodeId() >= index.length)
+            index = Arrays.copyOf(index, Math.max(node.getNodeId() + 1, 2 * index.length));
+        index[node.getNodeId()] = node;
+    }
 }
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BloomMapFile;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.MapFile;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.SequenceFile.CompressionType;
+import org.apache.hadoop.io.Text;
+
+import boa.types.Ast;
+
+/**
+ * A directory of parsed ASTs keyed by the git object id of the blob they were
+ * parsed from, shared by every job that is given it.
+ *
+ * Entries live in a subdirectory named by {@link #VERSION}, so ASTs stored by
+ * an older parser or for an older AST format are never read back.  The
+ * subdirectory holds any number of segments, each a {@link BloomMapFile}
+ * from {@link Text} object ids to the {@link BytesWritable} serialized
+ * {@code ASTRoot}.  A store buffers the entries added to it and writes them
+ * as a new segment when the buffer is full or the store is closed, so
+ * concurrent tasks never write the same file.  Segments are written under a
+ * temporary name and renamed when complete.  The bloom filter of each
+ * segment is kept in memory, so looking up a key only reads the segments
+ * that probably have it.
+ *
+ * Every task adds a segment, so when a store is closed and there are more
+ * than {@link #MAX_SEGMENTS} of them, it merges them all into one.  Only one
+ * store merges at a time, the others skip it while the lock file exists.
+ *
+ * Running this class merges all segments of the current version into one,
+ * and removes older versions: AstCacheStore [directory]
+ */
+public class AstCacheStore {
+	/**
+	 * Bump whenever the parser changes what it produces for the same blob,
+	 * for example a new JDT or a change to {@code JavaVisitor}.  Changes to
+	 * the AST messages themselves already change {@link #VERSION}.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/** The name of the subdirectory holding the segments this version reads. */
+	public static final String VERSION = "v" + FORMAT_VERSION + "-" + Integer.toHexString(Arrays.hashCode(Ast.getDescriptor().toProto().toByteArray()));
+
+	/** The configuration key for how many segments are kept before merging. */
+	public static final String MAX_SEGMENTS = "boa.ast.cache.segments";
+
+	private static final String PREFIX = "part-";
+	private static final String TEMP_PREFIX = "_tmp-";
+	private static final String LOCK = "_merging";
+
+	/** a merge lock older than this was left by a task that died */
+	private static final long LOCK_TIMEOUT = 60L * 60 * 1000;
+
+	private final FileSystem fs;
+	private final Path dir;
+	private final Configuration conf;
+	private final long bufferBytes;
+
+	private final List<MapFile.Reader> segments = new ArrayList<MapFile.Reader>();
+	private final TreeMap<String, byte[]> buffer = new TreeMap<String, byte[]>();
+	private long buffered = 0;
+	private long stored = 0;
+
+	private final Text key = new Text();
+	private final BytesWritable value = new BytesWritable();
+
+	/**
+	 * Opens a store, creating its directory if needed.
+	 *
+	 * @param fs the file system of the store
+	 * @param dir the directory of the store, the segments are in its
+	 *            {@link #VERSION} subdirectory
+	 * @param conf the configuration
+	 * @param bufferBytes how many bytes of new entries to buffer before
+	 *            writing them as a segment
+	 */
+	public AstCacheStore(final FileSystem fs, final Path dir, final Configuration conf, final long bufferBytes) throws IOException {
+		this.fs = fs;
+		this.dir = new Path(dir, VERSION);
+		this.conf = conf;
+		this.bufferBytes = bufferBytes;
+
+		if (!fs.exists(this.dir))
+			fs.mkdirs(this.dir);
+		for (final Path segment : listSegments(fs, this.dir))
+			try {
+				this.segments.add(new BloomMapFile.Reader(fs, segment.toString(), conf));
+			} catch (final IOException e) {
+				// another process may be removing it
+				e.printStackTrace();
+			}
+	}
+
+	/**
+	 * Returns the directory holding the segments of this version.
+	 */
+	public Path getDirectory() {
+		return this.dir;
+	}
+
+	/**
+	 * Looks up the serialized AST of a blob.
+	 *
+	 * @param objectId the object id of the blob
+	 * @return the serialized AST, or null if it is not stored
+	 */
+	public byte[] get(final String objectId) throws IOException {
+		final byte[] pending = this.buffer.get(objectId);
+		if (pending != null)
+			return pending;
+
+		this.key.set(objectId);
+		for (final Iterator<MapFile.Reader> i = this.segments.iterator(); i.hasNext(); ) {
+			final MapFile.Reader segment = i.next();
+			try {
+				if (segment.get(this.key, this.value) != null)
+					return Arrays.copyOf(this.value.getBytes(), this.value.getLength());
+			} catch (final IOException e) {
+				// merged away by another store, its entries are in the merged segment
+				i.remove();
+				try {
+					segment.close();
+				} catch (final IOException ignored) {
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the serialized AST of a blob.
+	 *
+	 * @param objectId the object id of the blob
+	 * @param ast the serialized AST
+	 */
+	public void put(final String objectId, final byte[] ast) throws IOException {
+		if (this.buffer.put(objectId, ast) == null)
+			this.buffered += ast.length + 2 * objectId.length();
+		if (this.buffered > this.bufferBytes)
+			this.flush();
+	}
+
+	/**
+	 * Writes the buffered entries as a new segment.
+	 */
+	public void flush() throws IOException {
+		if (this.buffer.isEmpty())
+			return;
+
+		final String name = UUID.randomUUID().toString();
+		final Path temp = new Path(this.dir, TEMP_PREFIX + name);
+		final Path segment = new Path(this.dir, PREFIX + name);
+
+		final BloomMapFile.Writer writer = createWriter(this.fs, temp, this.conf, this.buffer.size());
+		try {
+			for (final Map.Entry<String, byte[]> e : this.buffer.entrySet()) {
+				this.key.set(e.getKey());
+				this.value.set(e.getValue(), 0, e.getValue().length);
+				writer.append(this.key, this.value);
+			}
+		} finally {
+			writer.close();
+		}
+		if (!this.fs.rename(temp, segment))
+			throw new IOException("could not rename " + temp + " to " + segment);
+
+		this.stored += this.buffer.size();
+		this.buffer.clear();
+		this.buffered = 0;
+		this.segments.add(new BloomMapFile.Reader(this.fs, segment.toString(), this.conf));
+	}
+
+	/**
+	 * Writes the buffered entries and closes every segment, then merges the
+	 * segments if there are more than {@link #MAX_SEGMENTS}.
+	 */
+	public void close() throws IOException {
+		try {
+			this.flush();
+		} finally {
+			for (final MapFile.Reader segment : this.segments)
+				segment.close();
+			this.segments.clear();
+		}
+
+		if (listSegments(this.fs, this.dir).size() > this.conf.getInt(MAX_SEGMENTS, 16))
+			mergeLocked(this.fs, this.dir, this.conf);
+	}
+
+	/**
+	 * Returns the number of entries written to new segments.
+	 */
+	public long getStored() {
+		return this.stored;
+	}
+
+	private static List<Path> listSegments(final FileSystem fs, final Path dir) throws IOException {
+		final List<Path> segments = new ArrayList<Path>();
+		final FileStatus[] statuses = fs.listStatus(dir);
+		if (statuses != null)
+			for (final FileStatus status : statuses)
+				if (status.getPath().getName().startsWith(PREFIX))
+					segments.add(status.getPath());
+		return segments;
+	}
+
+	private static BloomMapFile.Writer createWriter(final FileSystem fs, final Path path, final Configuration conf, final long entries) throws IOException {
+		// size the bloom filter for this segment, readers keep it in memory
+		final Configuration c = new Configuration(conf);
+		c.setInt("io.mapfile.bloom.size", (int) Math.min(Integer.MAX_VALUE, Math.max(1024, entries)));
+		return new BloomMapFile.Writer(c, fs, path.toString(), Text.class, BytesWritable.class, CompressionType.BLOCK);
+	}
+
+	/**
+	 * Merges the segments unless another store is already merging them.
+	 *
+	 * @return the number of segments merged
+	 */
+	private static int mergeLocked(final FileSystem fs, final Path dir, final Configuration conf) throws IOException {
+		final Path lock = new Path(dir, LOCK);
+		if (!lock(fs, lock))
+			return 0;
+		try {
+			return merge(fs, dir, conf);
+		} finally {
+			fs.delete(lock, false);
+		}
+	}
+
+	private static boolean lock(final FileSystem fs, final Path lock) throws IOException {
+		try {
+			if (fs.createNewFile(lock))
+				return true;
+		} catch (final IOException e) {
+			// created by another store in the meantime
+		}
+		try {
+			if (System.currentTimeMillis() - fs.getFileStatus(lock).getModificationTime() < LOCK_TIMEOUT)
+				return false;
+		} catch (final IOException e) {
+			// released in the meantime, the segments were just merged
+			return false;
+		}
+		fs.delete(lock, false);
+		try {
+			return fs.createNewFile(lock);
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * The next entry of a segment, while merging.
+	 */
+	private static class Head implements Comparable<Head> {
+		final MapFile.Reader reader;
+		final Text key = new Text();
+		final BytesWritable value = new BytesWritable();
+
+		Head(final MapFile.Reader reader) {
+			this.reader = reader;
+		}
+
+		boolean next() throws IOException {
+			return this.reader.next(this.key, this.value);
+		}
+
+		@Override
+		public int compareTo(final Head that) {
+			return this.key.compareTo(that.key);
+		}
+	}
+
+	/**
+	 * Merges every segment of a version directory into one, keeping the first
+	 * entry of each key.
+	 *
+	 * Stores that still have a merged segment open treat it as gone on their
+	 * next failed read, everything it held is in the new segment.
+	 *
+	 * @param fs the file system of the store
+	 * @param dir the version directory, see {@link #getDirectory()}
+	 * @param conf the configuration
+	 * @return the number of segments merged
+	 */
+	public static int merge(final FileSystem fs, final Path dir, final Configuration conf) throws IOException {
+		final List<Path> segments = listSegments(fs, dir);
+		if (segments.size() < 2)
+			return 0;
+
+		// an upper bound on the distinct keys, to size the bloom filter
+		long entries = 0;
+		final Text k = new Text();
+		for (final Path segment : segments) {
+			final SequenceFile.Reader r = new SequenceFile.Reader(fs, new Path(segment, MapFile.DATA_FILE_NAME), conf);
+			try {
+				while (r.next(k))
+					entries++;
+			} finally {
+				r.close();
+			}
+		}
+
+		final String name = UUID.randomUUID().toString();
+		final Path temp = new Path(dir, TEMP_PREFIX + name);
+		final PriorityQueue<Head> heads = new PriorityQueue<Head>();
+		final BloomMapFile.Writer writer = createWriter(fs, temp, conf, entries);
+		try {
+			for (final Path segment : segments) {
+				final Head head = new Head(new MapFile.Reader(fs, segment.toString(), conf));
+				if (head.next())
+					heads.add(head);
+				else
+					head.reader.close();
+			}
+
+			Text last = null;
+			while (!heads.isEmpty()) {
+				final Head head = heads.poll();
+				// the same blob may have been parsed by several tasks
+				if (last == null || !last.equals(head.key)) {
+					writer.append(head.key, head.value);
+					last = new Text(head.key);
+				}
+				if (head.next())
+					heads.add(head);
+				else
+					head.reader.close();
+			}
+		} finally {
+			writer.close();
+			for (final Head head : heads)
+				head.reader.close();
+		}
+
+		if (!fs.rename(temp, new Path(dir, PREFIX + name)))
+			throw new IOException("could not rename " + temp);
+		for (final Path segment : segments)
+			fs.delete(segment, true);
+		return segments.size();
+	}
+
+	/**
+	 * Merges every segment of the current version of a store into one and
+	 * removes the other versions.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("usage: AstCacheStore <directory>");
+			System.exit(-1);
+		}
+
+		final Configuration conf = new Configuration();
+		final Path root = new Path(args[0]);
+		final FileSystem fs = root.getFileSystem(conf);
+
+		final FileStatus[] versions = fs.listStatus(root);
+		if (versions != null)
+			for (final FileStatus status : versions)
+				if (status.isDir() && !status.getPath().getName().equals(VERSION)) {
+					fs.delete(status.getPath(), true);
+					System.out.println("removed " + status.getPath());
+				}
+
+		final int merged = mergeLocked(fs, new Path(root, VERSION), conf);
+		if (merged == 0)
+			System.out.println("nothing to merge");
+		else
+			System.out.println("merged " + merged + " segments");
+	}
+}
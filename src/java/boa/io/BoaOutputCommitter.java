@@ -17,6 +17,12 @@
  */
 package boa.io;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -34,6 +40,8 @@ import org.apache.hadoop.mapreduce.JobStatus;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputCommitter;
 
+import boa.runtime.BoaPartitioner;
+
 /**
  * A {@link FileOutputCommitter} that stores the job results into a database.
  *
@@ -56,6 +64,8 @@ public class BoaOutputCommitter extends FileOutputCommitter {
 	public void commitJob(final JobContext context) throws java.io.IOException {
 		super.commitJob(context);
 
+		mergeSplits(context);
+
 		final int boaJobId = context.getConfiguration().getInt("boa.hadoop.jobid", 0);
 		storeOutput(context, boaJobId);
 		updateStatus(null, boaJobId);
@@ -82,6 +92,74 @@ public class BoaOutputCommitter extends FileOutputCommitter {
 		updateStatus(diag, context.getConfiguration().getInt("boa.hadoop.jobid", 0));
 	}
 
+	/**
+	 * When each output variable was reduced by several tasks, merge the parts
+	 * of each variable so the output directory again holds exactly one part
+	 * file per variable, numbered by variable.
+	 *
+	 * Each part is sorted by key, so the parts are merged line by line to
+	 * keep the variable's output sorted by key, as with a single reducer.
+	 * The lines of a variable start with its name and the key's index, and
+	 * a key is in only one part, so comparing lines compares their indices.
+	 */
+	private void mergeSplits(final JobContext context) throws java.io.IOException {
+		final int splits = BoaPartitioner.getSplitsPerVariable(context.getConfiguration());
+		if (splits == 1)
+			return;
+
+		final FileSystem fileSystem = outputPath.getFileSystem(context.getConfiguration());
+
+		for (int var = 0; ; var++) {
+			final Path first = partPath(var * splits);
+			if (!fileSystem.exists(first))
+				break;
+
+			final Path merged = new Path(outputPath, "_merge-" + String.format("%05d", var));
+			final BufferedReader[] ins = new BufferedReader[splits];
+			final String[] lines = new String[splits];
+			final Writer out = new BufferedWriter(new OutputStreamWriter(fileSystem.create(merged, true), StandardCharsets.UTF_8));
+			try {
+				for (int i = 0; i < splits; i++) {
+					final Path path = partPath(var * splits + i);
+					if (!fileSystem.exists(path))
+						continue;
+					ins[i] = new BufferedReader(new InputStreamReader(fileSystem.open(path), StandardCharsets.UTF_8));
+					lines[i] = ins[i].readLine();
+				}
+
+				long written = 0;
+				while (true) {
+					int min = -1;
+					for (int i = 0; i < splits; i++)
+						if (lines[i] != null && (min == -1 || lines[i].compareTo(lines[min]) < 0))
+							min = i;
+					if (min == -1)
+						break;
+
+					out.write(lines[min]);
+					out.write('\n');
+					lines[min] = ins[min].readLine();
+					if (++written % 100000 == 0)
+						this.context.progress();
+				}
+			} finally {
+				for (final BufferedReader in : ins)
+					if (in != null)
+						in.close();
+				out.close();
+			}
+			this.context.progress();
+
+			for (int part = var * splits; part < (var + 1) * splits; part++)
+				fileSystem.delete(partPath(part), false);
+			fileSystem.rename(merged, partPath(var));
+		}
+	}
+
+	private Path partPath(final int partNum) {
+		return new Path(outputPath, "part-r-" + String.format("%05d", partNum));
+	}
+
 	private final static String url = "jdbc:mysql://head:3306/drupal";
 	private final static String user = "drupal";
 	private final static String password = "";
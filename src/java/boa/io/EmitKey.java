@@ -25,18 +25,43 @@ import org.apache.hadoop.io.RawComparator;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.WritableComparable;
 import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
 
 /**
  * A {@link WritableComparable} that contains a low resolution key which is the
  * name of the table this value is being emitted to, and a high resolution key
  * which is an index into that table.
  * 
+ * The name is serialized before the index, so the serialized form can be
+ * ordered by {@link Comparator} without deserializing it.
+ * 
  * @author anthonyu
  * @author rdyer
  */
 public class EmitKey implements WritableComparable<EmitKey>, RawComparator<EmitKey>, Serializable {
 	private static final long serialVersionUID = -6302400030199718829L;
 
+	/**
+	 * A {@link WritableComparator} that orders serialized {@link EmitKey}s the
+	 * same way {@link EmitKey#compareTo(EmitKey)} does, directly on the bytes.
+	 * It is used for both the map-side sort and the reduce-side grouping.
+	 */
+	public static class Comparator extends WritableComparator {
+		public Comparator() {
+			super(EmitKey.class);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int compare(final byte[] b1, final int s1, final int l1, final byte[] b2, final int s2, final int l2) {
+			return compareSerialized(b1, s1, b2, s2);
+		}
+	}
+
+	static {
+		WritableComparator.define(EmitKey.class, new Comparator());
+	}
+
 	private String index;
 	private String name;
 
@@ -80,21 +105,79 @@ public class EmitKey implements WritableComparable<EmitKey>, RawComparator<EmitK
 	/** {@inheritDoc} */
 	@Override
 	public void readFields(final DataInput in) throws IOException {
-		this.index = Text.readString(in);
 		this.name = Text.readString(in);
+		this.index = Text.readString(in);
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void write(final DataOutput out) throws IOException {
-		Text.writeString(out, this.index);
 		Text.writeString(out, this.name);
+		Text.writeString(out, this.index);
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public int compare(final byte[] b1, final int s1, final int l1, final byte[] b2, final int s2, final int l2) {
-		return WritableComparator.compareBytes(b1, s1, l1, b2, s2, l2);
+		return compareSerialized(b1, s1, b2, s2);
+	}
+
+	/**
+	 * Compare two serialized keys, first by name and then by index.
+	 */
+	static int compareSerialized(final byte[] b1, int s1, final byte[] b2, int s2) {
+		try {
+			// compare the names
+			int n1 = WritableUtils.decodeVIntSize(b1[s1]);
+			int n2 = WritableUtils.decodeVIntSize(b2[s2]);
+			int len1 = WritableComparator.readVInt(b1, s1);
+			int len2 = WritableComparator.readVInt(b2, s2);
+			s1 += n1;
+			s2 += n2;
+
+			final int c = compareUTF8(b1, s1, len1, b2, s2, len2);
+			if (c != 0)
+				return c;
+			s1 += len1;
+			s2 += len2;
+
+			// compare the indices
+			n1 = WritableUtils.decodeVIntSize(b1[s1]);
+			n2 = WritableUtils.decodeVIntSize(b2[s2]);
+			len1 = WritableComparator.readVInt(b1, s1);
+			len2 = WritableComparator.readVInt(b2, s2);
+
+			return compareUTF8(b1, s1 + n1, len1, b2, s2 + n2, len2);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Compare two UTF-8 encoded strings in the order {@link String#compareTo}
+	 * would give the decoded strings.
+	 * 
+	 * UTF-8 byte order is code point order, which only differs from UTF-16
+	 * order when a supplementary character (lead byte 0xF0-0xF4) meets a
+	 * character in U+E000..U+FFFF (lead byte 0xEE or 0xEF), so those two lead
+	 * bytes are moved above the supplementary ones.
+	 */
+	private static int compareUTF8(final byte[] b1, final int s1, final int l1, final byte[] b2, final int s2, final int l2) {
+		final int n = Math.min(l1, l2);
+		for (int i = 0; i < n; i++) {
+			int a = b1[s1 + i] & 0xff;
+			int b = b2[s2 + i] & 0xff;
+			if (a != b) {
+				if (a >= 0xee && b >= 0xee) {
+					if (a < 0xf0)
+						a += 0x10;
+					if (b < 0xf0)
+						b += 0x10;
+				}
+				return a - b;
+			}
+		}
+		return l1 - l2;
 	}
 
 	/** {@inheritDoc} */
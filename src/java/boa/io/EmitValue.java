@@ -24,6 +24,7 @@ import java.util.Arrays;
 
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
 
 import boa.functions.BoaCasts;
 
@@ -31,12 +32,44 @@ import boa.functions.BoaCasts;
  * A {@link Writable} that contains a datum and an optional metadatum to be
  * emitted to a Boa table.
  * 
+ * The datum is written with a one byte type tag, so integer and floating point
+ * values cross the shuffle as a varint or a raw double instead of decimal text
+ * and reach the aggregators without being parsed. A numeric metadatum (such as
+ * the count a combiner emits next to a partial sum) is tagged the same way.
+ * 
  * @author anthonyu
  * @author rdyer
  */
 public class EmitValue implements Writable {
+	/** The datum is a single {@link String}. */
+	public static final byte TYPE_STRING = 0;
+	/** The datum is a long (Boa int or time). */
+	public static final byte TYPE_LONG = 1;
+	/** The datum is a double (Boa float). */
+	public static final byte TYPE_DOUBLE = 2;
+	/** The datum is a tuple of {@link String}s. */
+	public static final byte TYPE_TUPLE = 3;
+
+	/** There is no metadatum. */
+	public static final byte METADATA_NONE = 0;
+	/** The metadatum is a {@link String}. */
+	public static final byte METADATA_STRING = 1;
+	/** The metadatum is a long. */
+	public static final byte METADATA_LONG = 2;
+	/** The metadatum is a double. */
+	public static final byte METADATA_DOUBLE = 3;
+
+	private static final int TYPE_MASK = 0x1f;
+	private static final int METADATA_SHIFT = 5;
+
+	private byte type;
 	private String[] data;
+	private long longData;
+	private double doubleData;
+	private byte metadataType;
 	private String metadata;
+	private long longMetadata;
+	private double doubleMetadata;
 
 	/**
 	 * Construct an EmitValue.
@@ -54,8 +87,8 @@ public class EmitValue implements Writable {
 	 *            A {@link String} containing the metadata to be emitted
 	 */
 	public EmitValue(final String[] data, final String metadata) {
-		this.data = data;
-		this.metadata = metadata;
+		this.setData(data);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -82,8 +115,8 @@ public class EmitValue implements Writable {
 		for (int i = 0; i < data.length; i++)
 			strings[i] = data[i].toString();
 
-		this.data = strings;
-		this.metadata = metadata;
+		this.setData(strings);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -127,7 +160,8 @@ public class EmitValue implements Writable {
 	 *            A long representing the metadata to be emitted
 	 */
 	public EmitValue(final String data, final long metadata) {
-		this(new String[] { data }, BoaCasts.longToString(metadata));
+		this(new String[] { data }, null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -139,7 +173,8 @@ public class EmitValue implements Writable {
 	 *            A double representing the metadata to be emitted
 	 */
 	public EmitValue(final String data, final double metadata) {
-		this(new String[] { data }, BoaCasts.doubleToString(metadata));
+		this(new String[] { data }, null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -149,7 +184,7 @@ public class EmitValue implements Writable {
 	 *            A long representing the data to be emitted
 	 */
 	public EmitValue(final long data) {
-		this(new String[] { BoaCasts.longToString(data) }, null);
+		this(data, (String) null);
 	}
 
 	/**
@@ -161,7 +196,9 @@ public class EmitValue implements Writable {
 	 *            A {@link String} containing the metadata to be emitted
 	 */
 	public EmitValue(final long data, final String metadata) {
-		this(new String[] { BoaCasts.longToString(data) }, metadata);
+		this.type = TYPE_LONG;
+		this.longData = data;
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -173,7 +210,8 @@ public class EmitValue implements Writable {
 	 *            A long representing the metadata to be emitted
 	 */
 	public EmitValue(final long data, final long metadata) {
-		this(new String[] { BoaCasts.longToString(data) }, BoaCasts.longToString(metadata));
+		this(data, (String) null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -185,7 +223,8 @@ public class EmitValue implements Writable {
 	 *            A double representing the metadata to be emitted
 	 */
 	public EmitValue(final long data, final double metadata) {
-		this(new String[] { BoaCasts.longToString(data) }, BoaCasts.doubleToString(metadata));
+		this(data, (String) null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -195,7 +234,7 @@ public class EmitValue implements Writable {
 	 *            A double representing the data to be emitted
 	 */
 	public EmitValue(final double data) {
-		this(new String[] { BoaCasts.doubleToString(data) }, null);
+		this(data, (String) null);
 	}
 
 	/**
@@ -207,7 +246,9 @@ public class EmitValue implements Writable {
 	 *            A {@link String} containing the metadata to be emitted
 	 */
 	public EmitValue(final double data, final String metadata) {
-		this(new String[] { BoaCasts.doubleToString(data) }, metadata);
+		this.type = TYPE_DOUBLE;
+		this.doubleData = data;
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -219,7 +260,8 @@ public class EmitValue implements Writable {
 	 *            A long representing the metadata to be emitted
 	 */
 	public EmitValue(final double data, final long metadata) {
-		this(new String[] { BoaCasts.doubleToString(data) }, BoaCasts.longToString(metadata));
+		this(data, (String) null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -231,7 +273,8 @@ public class EmitValue implements Writable {
 	 *            A double representing the metadata to be emitted
 	 */
 	public EmitValue(final double data, final double metadata) {
-		this(new String[] { BoaCasts.doubleToString(data) }, BoaCasts.doubleToString(metadata));
+		this(data, (String) null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -265,7 +308,8 @@ public class EmitValue implements Writable {
 	 *            A long representing the metadata to be emitted
 	 */
 	public EmitValue(final boolean data, final long metadata) {
-		this(new String[] { BoaCasts.booleanToString(data) }, BoaCasts.longToString(metadata));
+		this(new String[] { BoaCasts.booleanToString(data) }, null);
+		this.setMetadata(metadata);
 	}
 
 	/**
@@ -277,43 +321,127 @@ public class EmitValue implements Writable {
 	 *            A double representing the metadata to be emitted
 	 */
 	public EmitValue(final boolean data, final double metadata) {
-		this(new String[] { BoaCasts.booleanToString(data) }, BoaCasts.doubleToString(metadata));
+		this(new String[] { BoaCasts.booleanToString(data) }, null);
+		this.setMetadata(metadata);
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void readFields(final DataInput in) throws IOException {
-		final int count = in.readInt();
-
-		this.data = new String[count];
-		for (int i = 0; i < count; i++)
-			this.data[i] = Text.readString(in);
-
-		final String metadata = Text.readString(in);
-		if (metadata.equals(""))
-			this.metadata = null;
-		else
-			this.metadata = metadata;
+		final int header = in.readUnsignedByte();
+
+		this.type = (byte) (header & TYPE_MASK);
+		this.data = null;
+
+		switch (this.type) {
+		case TYPE_LONG:
+			this.longData = WritableUtils.readVLong(in);
+			break;
+		case TYPE_DOUBLE:
+			this.doubleData = in.readDouble();
+			break;
+		case TYPE_STRING:
+			this.data = new String[] { Text.readString(in) };
+			break;
+		case TYPE_TUPLE:
+			final int count = WritableUtils.readVInt(in);
+			this.data = new String[count];
+			for (int i = 0; i < count; i++)
+				this.data[i] = Text.readString(in);
+			break;
+		default:
+			throw new IOException("unknown emit value type " + this.type);
+		}
+
+		this.metadataType = (byte) (header >>> METADATA_SHIFT);
+		this.metadata = null;
+
+		switch (this.metadataType) {
+		case METADATA_NONE:
+			break;
+		case METADATA_STRING:
+			this.metadata = Text.readString(in);
+			break;
+		case METADATA_LONG:
+			this.longMetadata = WritableUtils.readVLong(in);
+			break;
+		case METADATA_DOUBLE:
+			this.doubleMetadata = in.readDouble();
+			break;
+		default:
+			throw new IOException("unknown emit metadata type " + this.metadataType);
+		}
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public void write(final DataOutput out) throws IOException {
-		out.writeInt(this.data.length);
+		out.writeByte(this.type | (this.metadataType << METADATA_SHIFT));
+
+		switch (this.type) {
+		case TYPE_LONG:
+			WritableUtils.writeVLong(out, this.longData);
+			break;
+		case TYPE_DOUBLE:
+			out.writeDouble(this.doubleData);
+			break;
+		case TYPE_STRING:
+			Text.writeString(out, this.data[0]);
+			break;
+		default:
+			WritableUtils.writeVInt(out, this.data.length);
+			for (final String d : this.data)
+				Text.writeString(out, d);
+			break;
+		}
+
+		switch (this.metadataType) {
+		case METADATA_STRING:
+			Text.writeString(out, this.metadata);
+			break;
+		case METADATA_LONG:
+			WritableUtils.writeVLong(out, this.longMetadata);
+			break;
+		case METADATA_DOUBLE:
+			out.writeDouble(this.doubleMetadata);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * @return the type tag of the datum, one of {@link #TYPE_STRING},
+	 *         {@link #TYPE_LONG}, {@link #TYPE_DOUBLE} or {@link #TYPE_TUPLE}
+	 */
+	public byte getType() {
+		return this.type;
+	}
 
-		for (final String d : this.data)
-			Text.writeString(out, d);
+	/**
+	 * @return the datum, if the type is {@link #TYPE_LONG}
+	 */
+	public long getLong() {
+		return this.longData;
+	}
 
-		if (this.metadata == null)
-			Text.writeString(out, "");
-		else
-			Text.writeString(out, this.metadata);
+	/**
+	 * @return the datum, if the type is {@link #TYPE_DOUBLE}
+	 */
+	public double getDouble() {
+		return this.doubleData;
 	}
 
 	/**
-	 * @return the data
+	 * @return the data, converting a numeric datum to its {@link String} form
 	 */
 	public String[] getData() {
+		if (this.data == null) {
+			if (this.type == TYPE_LONG)
+				this.data = new String[] { BoaCasts.longToString(this.longData) };
+			else
+				this.data = new String[] { BoaCasts.doubleToString(this.doubleData) };
+		}
 		return this.data;
 	}
 
@@ -322,30 +450,90 @@ public class EmitValue implements Writable {
 	 *            the data to set
 	 */
 	public void setData(final String[] data) {
+		this.type = data.length == 1 ? TYPE_STRING : TYPE_TUPLE;
 		this.data = data;
 	}
 
 	/**
-	 * @return the metadata
+	 * @return the metadata, converting a numeric metadatum to its
+	 *         {@link String} form
 	 */
 	public String getMetadata() {
+		if (this.metadata == null) {
+			if (this.metadataType == METADATA_LONG)
+				this.metadata = BoaCasts.longToString(this.longMetadata);
+			else if (this.metadataType == METADATA_DOUBLE)
+				this.metadata = BoaCasts.doubleToString(this.doubleMetadata);
+		}
 		return this.metadata;
 	}
 
+	/**
+	 * @return the type tag of the metadatum, one of {@link #METADATA_NONE},
+	 *         {@link #METADATA_STRING}, {@link #METADATA_LONG} or
+	 *         {@link #METADATA_DOUBLE}
+	 */
+	public byte getMetadataType() {
+		return this.metadataType;
+	}
+
+	/**
+	 * @return the metadatum, if its type is {@link #METADATA_LONG}
+	 */
+	public long getLongMetadata() {
+		return this.longMetadata;
+	}
+
+	/**
+	 * @return the metadatum, if its type is {@link #METADATA_DOUBLE}
+	 */
+	public double getDoubleMetadata() {
+		return this.doubleMetadata;
+	}
+
 	/**
 	 * @param metadata
 	 *            the metadatum to set
 	 */
 	public void setMetadata(final String metadata) {
 		this.metadata = metadata;
+		this.metadataType = metadata == null || metadata.equals("") ? METADATA_NONE : METADATA_STRING;
+	}
+
+	/**
+	 * @param metadata
+	 *            the metadatum to set
+	 */
+	public void setMetadata(final long metadata) {
+		this.metadata = null;
+		this.metadataType = METADATA_LONG;
+		this.longMetadata = metadata;
+	}
+
+	/**
+	 * @param metadata
+	 *            the metadatum to set
+	 */
+	public void setMetadata(final double metadata) {
+		this.metadata = null;
+		this.metadataType = METADATA_DOUBLE;
+		this.doubleMetadata = metadata;
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.hashCode(this.data);
-		result = prime * result + (this.metadata == null ? 0 : this.metadata.hashCode());
+		result = prime * result + this.type;
+		if (this.type == TYPE_LONG)
+			result = prime * result + (int) (this.longData ^ (this.longData >>> 32));
+		else if (this.type == TYPE_DOUBLE) {
+			final long bits = Double.doubleToLongBits(this.doubleData);
+			result = prime * result + (int) (bits ^ (bits >>> 32));
+		} else
+			result = prime * result + Arrays.hashCode(this.data);
+		final String metadata = this.getMetadata();
+		result = prime * result + (metadata == null ? 0 : metadata.hashCode());
 		return result;
 	}
 
@@ -358,12 +546,21 @@ public class EmitValue implements Writable {
 		if (this.getClass() != obj.getClass())
 			return false;
 		final EmitValue other = (EmitValue) obj;
-		if (!Arrays.equals(this.data, other.data))
+		if (this.type != other.type)
 			return false;
-		if (this.metadata == null) {
-			if (other.metadata != null)
+		if (this.type == TYPE_LONG) {
+			if (this.longData != other.longData)
+				return false;
+		} else if (this.type == TYPE_DOUBLE) {
+			if (Double.doubleToLongBits(this.doubleData) != Double.doubleToLongBits(other.doubleData))
+				return false;
+		} else if (!Arrays.equals(this.data, other.data))
+			return false;
+		final String metadata = this.getMetadata();
+		if (metadata == null) {
+			if (other.getMetadata() != null)
 				return false;
-		} else if (!this.metadata.equals(other.metadata))
+		} else if (!metadata.equals(other.getMetadata()))
 			return false;
 		return true;
 	}
@@ -371,6 +568,6 @@ public class EmitValue implements Writable {
 	/** {@inheritDoc} */
 	@Override
 	public String toString() {
-		return Arrays.toString(this.data) + ":" + this.metadata;
+		return Arrays.toString(this.getData()) + ":" + this.getMetadata();
 	}
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.MapFile;
+
+import boa.functions.LRUCache;
+
+/**
+ * Reads a {@link MapFile} keyed by {@link LongWritable}s with
+ * {@link BytesWritable} values, such as the {@code ast} and {@code commit}
+ * maps.
+ *
+ * Callers announce the keys they are about to read with
+ * {@link #prefetch(Collection)}.  A lookup of an announced key that is not in
+ * the window then reads it and the announced keys after it in one forward
+ * scan of the file, and keeps them in a window bounded by their total size,
+ * so the lookups that follow do not seek.  Any other key is looked up
+ * directly.  The key and value buffers of the underlying reader are reused
+ * across calls.
+ *
+ * Callers often announce more than they read, such as a whole snapshot of
+ * which a program only looks at a few files.  So a scan reads no more
+ * announced keys ahead than have been looked up since they were announced,
+ * starting from {@link #MIN_BATCH}: the batches double while the lookups keep
+ * coming, and at most about as many values are read as were asked for.
+ */
+public class PrefetchingMapFileReader {
+	/** how far apart, in keys, two announced keys can be and still be read by scanning */
+	private static final long MAX_GAP = 128;
+	/** how many announced keys the first scan after announcing them reads */
+	private static final int MIN_BATCH = 4;
+
+	private final MapFile.Reader reader;
+	private final LRUCache<Long, byte[]> window;
+	private final LongWritable key = new LongWritable();
+	private final BytesWritable value = new BytesWritable();
+
+	private long[] pending = new long[0];
+	private int requested = 0;
+
+	private long prefetched = 0;
+	private long seeks = 0;
+
+	/**
+	 * Construct a {@link PrefetchingMapFileReader}.
+	 *
+	 * @param reader the map to read
+	 * @param windowBytes the most bytes of prefetched values to keep
+	 */
+	public PrefetchingMapFileReader(final MapFile.Reader reader, final long windowBytes) {
+		this.reader = reader;
+		this.window = new LRUCache<Long, byte[]>(windowBytes) {
+			@Override
+			protected long sizeOf(final byte[] bytes) {
+				return bytes.length;
+			}
+		};
+	}
+
+	/**
+	 * Announces the keys that are about to be read, replacing any announced
+	 * before.  Values already in the window stay there, and the next scan
+	 * reads only a few keys ahead again.
+	 *
+	 * @param keys the keys, in any order
+	 */
+	public void prefetch(final Collection<Long> keys) {
+		final long[] sorted = new long[keys.size()];
+		int i = 0;
+		for (final Long k : keys)
+			sorted[i++] = k;
+		Arrays.sort(sorted);
+		this.pending = sorted;
+		this.requested = 0;
+	}
+
+	/**
+	 * Reads the value of a key.
+	 *
+	 * @param k the key to read
+	 * @param val the value to fill in
+	 * @return true if the key was found
+	 */
+	public boolean get(final long k, final BytesWritable val) throws IOException {
+		final boolean announced = Arrays.binarySearch(this.pending, k) >= 0;
+		if (announced)
+			this.requested++;
+
+		byte[] bytes = this.window.get(k);
+		if (bytes == null && announced)
+			bytes = this.scan(k);
+
+		if (bytes != null) {
+			val.set(bytes, 0, bytes.length);
+			return true;
+		}
+
+		this.key.set(k);
+		this.seeks++;
+		return this.reader.get(this.key, val) != null;
+	}
+
+	/**
+	 * Reads a key and the announced keys following it into the window,
+	 * scanning over short runs of unannounced keys and seeking past long
+	 * ones, until it has read as many keys as were looked up since they were
+	 * announced (at least {@link #MIN_BATCH}), half the window is filled, or
+	 * it reaches a key already in the window.
+	 *
+	 * @param k the announced key to start from
+	 * @return the value of that key, or null if the map does not have it
+	 */
+	private byte[] scan(final long k) throws IOException {
+		int i = Arrays.binarySearch(this.pending, k);
+		byte[] first = null;
+		long batch = 0;
+		int records = 0;
+		final int maxRecords = Math.max(MIN_BATCH, this.requested);
+
+		boolean more = this.seek(k);
+		while (more && records < maxRecords && batch < this.window.getCapacity() / 2) {
+			final long found = this.key.get();
+			while (i < this.pending.length && this.pending[i] < found)
+				i++;
+			if (i == this.pending.length)
+				break;
+			// stop at values an earlier scan already read
+			if (this.pending[i] != k && this.window.contains(this.pending[i]))
+				break;
+
+			if (found == this.pending[i]) {
+				final byte[] bytes = Arrays.copyOf(this.value.getBytes(), this.value.getLength());
+				if (found == k)
+					first = bytes;
+				this.window.put(found, bytes);
+				this.prefetched++;
+				records++;
+				batch += bytes.length;
+				more = this.reader.next(this.key, this.value);
+			} else if (this.pending[i] - found > MAX_GAP) {
+				more = this.seek(this.pending[i]);
+			} else {
+				more = this.reader.next(this.key, this.value);
+			}
+		}
+
+		return first;
+	}
+
+	/**
+	 * Reads the first entry at or after a key into the key and value
+	 * buffers, leaving the reader positioned after it.
+	 *
+	 * @param k the key to seek to
+	 * @return false if there is no such entry
+	 */
+	private boolean seek(final long k) throws IOException {
+		this.key.set(k);
+		this.seeks++;
+		final LongWritable found = (LongWritable) this.reader.getClosest(this.key, this.value);
+		if (found == null)
+			return false;
+		this.key.set(found.get());
+		return true;
+	}
+
+	/**
+	 * Empties the window and forgets the announced keys.
+	 */
+	public void clear() {
+		this.window.clear();
+		this.pending = new long[0];
+		this.requested = 0;
+	}
+
+	public void close() throws IOException {
+		this.clear();
+		this.reader.close();
+	}
+
+	/**
+	 * Returns the number of values read by scanning.
+	 */
+	public long getPrefetched() {
+		return this.prefetched;
+	}
+
+	/**
+	 * Returns the number of seeks into the map.
+	 */
+	public long getSeeks() {
+		return this.seeks;
+	}
+
+	/**
+	 * Returns the number of lookups served from the window.
+	 */
+	public long getHits() {
+		return this.window.getHits();
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.io;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.MapFile;
+
+/**
+ * The {@link MapFile} readers shared by the tasks running in one JVM.
+ *
+ * A reader keeps the index of its map in memory, so tasks that only look up
+ * keys with {@link MapFile.Reader#get} share one reader per map instead of
+ * each reading the index.  Its lookups are synchronized, so the tasks may
+ * run on any threads.  Each {@link #open} is paired with a {@link #release},
+ * and the reader is closed when the last task releases it.  Readers that
+ * scan, such as those of {@link PrefetchingMapFileReader}, keep a position
+ * and must not be shared.
+ */
+public class SharedMapFileReaders {
+	private static final Map<String, Shared> byName = new HashMap<String, Shared>();
+	private static final Map<MapFile.Reader, Shared> byReader = new IdentityHashMap<MapFile.Reader, Shared>();
+
+	private static class Shared {
+		final String name;
+		final MapFile.Reader reader;
+		int references = 0;
+
+		Shared(final String name, final MapFile.Reader reader) {
+			this.name = name;
+			this.reader = reader;
+		}
+	}
+
+	/**
+	 * Opens a map, or shares the reader already open on it.
+	 *
+	 * @param fs the file system of the map
+	 * @param path the directory of the map
+	 * @param conf the configuration
+	 * @return the reader, to be released with {@link #release(MapFile.Reader)}
+	 */
+	public static synchronized MapFile.Reader open(final FileSystem fs, final Path path, final Configuration conf) throws IOException {
+		final String name = fs.makeQualified(path).toString();
+		Shared shared = byName.get(name);
+		if (shared == null) {
+			shared = new Shared(name, new MapFile.Reader(fs, path.toString(), conf));
+			byName.put(name, shared);
+			byReader.put(shared.reader, shared);
+		}
+		shared.references++;
+		return shared.reader;
+	}
+
+	/**
+	 * Releases a reader, closing it if no task uses it anymore.
+	 *
+	 * @param reader the reader returned by {@link #open}
+	 */
+	public static synchronized void release(final MapFile.Reader reader) throws IOException {
+		final Shared shared = byReader.get(reader);
+		if (shared == null || --shared.references > 0)
+			return;
+		byName.remove(shared.name);
+		byReader.remove(reader);
+		reader.close();
+	}
+}
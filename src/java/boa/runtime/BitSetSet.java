@@ -0,0 +1,331 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * A set of strings or ints kept as a bitset over a universe of the values
+ * seen, for the results of traversals.
+ *
+ * Generated code types every Boa set as a {@link HashSet}, so this class
+ * extends it, but none of the hash set's own storage is used.  The values
+ * are numbered by a {@link Universe}, and the set is the bitset of their
+ * numbers, so copying, union, intersection and difference of two sets of the
+ * same universe are a few word operations instead of hashing every value.
+ * Sets of different universes, and other sets, are combined value by value.
+ *
+ * Values are iterated in the order their universe first numbered them, not
+ * in a hash set's order, so printing a set may list its values in a
+ * different order than a {@link HashSet} of them would.
+ *
+ * A universe is kept per graph: {@link BoaAbstractTraversal} starts a new
+ * one for the task when it starts traversing a graph of any kind other than
+ * the last, and the sets made after use it.
+ *
+ * @param <T> the type of the values
+ */
+public class BitSetSet<T> extends HashSet<T> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Numbers the values put in sets.  Numbers are never reused, so sets may
+	 * outlive the traversal that made them.
+	 */
+	public static final class Universe {
+		private final HashMap<Object, Integer> ids = new HashMap<Object, Integer>();
+		private final ArrayList<Object> values = new ArrayList<Object>();
+
+		/**
+		 * Returns the number of a value, numbering it if it has none.
+		 */
+		int intern(final Object value) {
+			final Integer id = this.ids.get(value);
+			if (id != null)
+				return id;
+			this.ids.put(value, this.values.size());
+			this.values.add(value);
+			return this.values.size() - 1;
+		}
+
+		/**
+		 * Returns the number of a value, or -1 if it has none.
+		 */
+		int find(final Object value) {
+			final Integer id = this.ids.get(value);
+			return id == null ? -1 : id;
+		}
+
+		Object get(final int id) {
+			return this.values.get(id);
+		}
+
+		/**
+		 * Returns how many values are numbered.
+		 */
+		public int size() {
+			return this.values.size();
+		}
+	}
+
+	/**
+	 * The universe of the task's current graph.
+	 */
+	private static final class State {
+		Object graph = null;
+		Universe universe = new Universe();
+	}
+
+	private static State state() {
+		final BoaTaskContext task = BoaTaskContext.get();
+		final State s = task.getState(State.class);
+		if (s != null)
+			return s;
+		return task.putState(State.class, new State());
+	}
+
+	/**
+	 * Makes the sets made from now on use the universe of a graph, starting a
+	 * new one unless the graph is the one last used.
+	 *
+	 * @param graph the graph about to be traversed
+	 */
+	public static void useUniverseOf(final Object graph) {
+		final State s = state();
+		if (s.graph != graph) {
+			s.graph = graph;
+			s.universe = new Universe();
+		}
+	}
+
+	private final Universe universe;
+	private BitSet bits;
+
+	/**
+	 * Constructs an empty set of the current universe.
+	 */
+	public BitSetSet() {
+		this(state().universe);
+	}
+
+	/**
+	 * Constructs an empty set of a universe.
+	 */
+	public BitSetSet(final Universe universe) {
+		super(0);
+		this.universe = universe;
+		this.bits = new BitSet();
+	}
+
+	/**
+	 * Constructs a set of a universe holding the values of a collection.
+	 */
+	public BitSetSet(final Universe universe, final Collection<? extends T> values) {
+		this(universe);
+		addAll(values);
+	}
+
+	public Universe getUniverse() {
+		return this.universe;
+	}
+
+	private boolean sameUniverse(final Object o) {
+		return o instanceof BitSetSet && ((BitSetSet<?>) o).universe == this.universe;
+	}
+
+	@Override
+	public int size() {
+		return this.bits.cardinality();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.bits.isEmpty();
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		final int id = this.universe.find(o);
+		return id >= 0 && this.bits.get(id);
+	}
+
+	@Override
+	public boolean add(final T value) {
+		final int id = this.universe.intern(value);
+		if (this.bits.get(id))
+			return false;
+		this.bits.set(id);
+		return true;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		final int id = this.universe.find(o);
+		if (id < 0 || !this.bits.get(id))
+			return false;
+		this.bits.clear(id);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		this.bits.clear();
+	}
+
+	@Override
+	public boolean containsAll(final Collection<?> c) {
+		if (sameUniverse(c)) {
+			final BitSet missing = (BitSet) ((BitSetSet<?>) c).bits.clone();
+			missing.andNot(this.bits);
+			return missing.isEmpty();
+		}
+		for (final Object o : c)
+			if (!contains(o))
+				return false;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends T> c) {
+		if (sameUniverse(c)) {
+			final int before = this.bits.cardinality();
+			this.bits.or(((BitSetSet<?>) c).bits);
+			return this.bits.cardinality() != before;
+		}
+		boolean changed = false;
+		for (final T value : c)
+			changed |= add(value);
+		return changed;
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		final int before = this.bits.cardinality();
+		if (sameUniverse(c)) {
+			this.bits.and(((BitSetSet<?>) c).bits);
+		} else {
+			for (int id = this.bits.nextSetBit(0); id >= 0; id = this.bits.nextSetBit(id + 1))
+				if (!c.contains(this.universe.get(id)))
+					this.bits.clear(id);
+		}
+		return this.bits.cardinality() != before;
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		final int before = this.bits.cardinality();
+		if (sameUniverse(c)) {
+			this.bits.andNot(((BitSetSet<?>) c).bits);
+		} else {
+			for (final Object o : c) {
+				final int id = this.universe.find(o);
+				if (id >= 0)
+					this.bits.clear(id);
+			}
+		}
+		return this.bits.cardinality() != before;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int next = bits.nextSetBit(0);
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return this.next >= 0;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (this.next < 0)
+					throw new NoSuchElementException();
+				this.last = this.next;
+				this.next = bits.nextSetBit(this.next + 1);
+				return (T) universe.get(this.last);
+			}
+
+			@Override
+			public void remove() {
+				if (this.last < 0)
+					throw new IllegalStateException();
+				bits.clear(this.last);
+				this.last = -1;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(this, Spliterator.DISTINCT);
+	}
+
+	@Override
+	public Object[] toArray() {
+		final Object[] a = new Object[size()];
+		int i = 0;
+		for (final T value : this)
+			a[i++] = value;
+		return a;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <E> E[] toArray(final E[] a) {
+		final int size = size();
+		final E[] r = a.length >= size ? a : (E[]) Array.newInstance(a.getClass().getComponentType(), size);
+		int i = 0;
+		for (final T value : this)
+			r[i++] = (E) value;
+		if (r.length > size)
+			r[size] = null;
+		return r;
+	}
+
+	/**
+	 * Returns a copy of the set, of the same universe.
+	 */
+	@Override
+	public BitSetSet<T> clone() {
+		final BitSetSet<T> s = new BitSetSet<T>(this.universe);
+		s.bits = (BitSet) this.bits.clone();
+		return s;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (sameUniverse(o))
+			return this.bits.equals(((BitSetSet<?>) o).bits);
+		return super.equals(o);
+	}
+
+	// the storage of the hash set is empty, so serialize a plain copy
+	private Object writeReplace() {
+		return new HashSet<T>(this);
+	}
+}
@@ -16,10 +16,11 @@
  */
 package boa.runtime;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Stack;
 
 import boa.graphs.ddg.DDG;
@@ -39,8 +40,8 @@ import boa.graphs.cdg.*;
  * @author rramu
  */
 public abstract class BoaAbstractTraversal<T1> {
-	public java.util.HashMap<Long, T1> outputMapObj;
-	public java.util.HashMap<Long, T1> prevOutputMapObj;
+	public NodeValues<T1> outputMapObj;
+	public NodeValues<T1> prevOutputMapObj;
 	public T1 currentResult;
 
 	boolean isLoopSensitive = false;
@@ -195,211 +196,206 @@ public abstract class BoaAbstractTraversal<T1> {
 		}
 	}
 
-	public final void dfsForward(final CFGNode node, java.util.Set<Long> visitedNodes) throws Exception {
-		final Stack<CFGNode> s = new Stack<CFGNode>();
-		s.push(node);
-		while (!s.isEmpty()) {
-			final CFGNode n = s.pop();
-			if (!visitedNodes.contains(n.getId())) {
+	/**
+	 * Traverses the nodes reachable from a node in depth-first preorder,
+	 * taking the successors (or predecessors) of each node from the highest
+	 * id down.
+	 *
+	 * @param g the graph
+	 * @param start the id of the node to start from
+	 * @param forward true to follow successors, false to follow predecessors
+	 * @param visitedNodes the set to add the ids of the nodes traversed to
+	 */
+	private void dfs(final CompactCFG g, final int start, final boolean forward, final java.util.Set<Long> visitedNodes) throws Exception {
+		// every node pushes its neighbors at most once
+		final int[] stack = new int[g.getEdgeCount() + 1];
+		int top = 0;
+		final BitSet visited = new BitSet(g.size());
+		stack[top++] = start;
+		while (top > 0) {
+			final int id = stack[--top];
+			if (!visited.get(id)) {
+				final CFGNode n = g.getNode(id);
 				traverse(n, false);
+				visited.set(id);
 				visitedNodes.add(n.getId());
-                List<CFGNode> succ = n.getSuccessors();
-                Collections.sort(succ);
-				for (int i = succ.size() - 1; i >= 0; i--) {
-					s.push(succ.get(i));
-				}
+				for (int i = 0; i < count(g, id, forward); i++)
+					stack[top++] = neighbor(g, id, i, forward);
 			}
 		}
 	}
 
-	public final void dfsBackward(final CFGNode node, java.util.Set<Long> visitedNodes) throws Exception {
-		final Stack<CFGNode> s = new Stack<CFGNode>();
-		s.push(node);
-		while (!s.isEmpty()) {
-			final CFGNode n = s.pop();
-			if (!visitedNodes.contains(n.getId())) {
-				traverse(n, false);
-				visitedNodes.add(n.getId());
-                List<CFGNode> preds = n.getPredecessors();
-                Collections.sort(preds);
-				for (int i = preds.size() - 1; i >= 0; i--) {
-					s.push(preds.get(i));
-				}
-			}
-		}
+	public final void postorderBackward(final CFG cfg, final CFGNode node, java.util.Set<Long> visitedNodes) throws Exception {
+		for (final CFGNode n : postorder(cfg.getCompact(), node.getNodeId(), true, visitedNodes))
+			traverse(n, false);
 	}
 
-	public final void postorderBackward(final CFGNode node, java.util.Set<Long> visitedNodes) throws Exception {
-		// FIXME remove recursion
-		visitedNodes.add(node.getId());
-		for (final CFGNode succ : node.getSuccessors()) {
-			if (!visitedNodes.contains(succ.getId())) {
-				postorderBackward(succ, visitedNodes);
-			}
-		}
-		traverse(node, false);
+	public final void postorderForward(final CFG cfg, final CFGNode node, java.util.Set<Long> visitedNodes) throws Exception {
+		for (final CFGNode n : postorder(cfg.getCompact(), node.getNodeId(), false, visitedNodes))
+			traverse(n, false);
 	}
 
-	public final void postorderForward(final CFGNode node, java.util.Set<Long> visitedNodes) throws Exception {
-		// FIXME remove recursion
-		visitedNodes.add(node.getId());
-		for (final CFGNode pred : node.getPredecessors()) {
-			if (!visitedNodes.contains(pred.getId())) {
-				postorderForward(pred, visitedNodes);
-			}
-		}
-		traverse(node, false);
+	private static List<CFGNode> reverse(final List<CFGNode> nodes) {
+		Collections.reverse(nodes);
+		return nodes;
 	}
 
-	public final void populateWithPostorder(final CFGNode node, java.util.Set<Long> visitedNodes, Queue<CFGNode> queue) throws Exception {
-		// FIXME remove recursion
-		visitedNodes.add(node.getId());
-		for (final CFGNode succ : node.getSuccessors()) {
-			if (!visitedNodes.contains(succ.getId())) {
-				populateWithPostorder(succ, visitedNodes, queue);
-			}
-		}
-		queue.offer(node);
+	private static int count(final CompactCFG g, final int id, final boolean forward) {
+		return forward ? g.getSuccessorCount(id) : g.getPredecessorCount(id);
 	}
 
-	public final void populateWithReversePostorder(final CFGNode node, java.util.Set<Long> visitedNodes, Stack<CFGNode> stack) throws Exception {
-		// FIXME remove recursion
-		visitedNodes.add(node.getId());
-		for (final CFGNode succ : node.getSuccessors()) {
-			if (!visitedNodes.contains(succ.getId())) {
-				populateWithReversePostorder(succ, visitedNodes, stack);
-			}
-		}
-		stack.push(node);
+	private static int neighbor(final CompactCFG g, final int id, final int i, final boolean forward) {
+		return forward ? g.getSuccessor(id, i) : g.getPredecessor(id, i);
 	}
 
-	public final void worklistReversePostorderForward(final Stack<CFGNode> stack, final BoaAbstractFixP fixp, final Traversal.TraversalKind kind) throws Exception {
-		int nodeCount = 0;
-		while (!stack.isEmpty()) {
-			final CFGNode node = stack.pop();
-			traverse(node, true);
-			nodeCount++;
-			// FIXME why is this here?
-			if (nodeCount > 3500) {
-				return;
-			}
-			final boolean curFlag = outputMapObj.containsKey(node.getId());
-			boolean fixpFlag = false;
-			if (curFlag) {
-				final boolean prevFlag = prevOutputMapObj.containsKey(node.getId());
-				if (curFlag && prevFlag) {
-					fixpFlag = fixp.invoke((T1)outputMapObj.get(node.getId()), (T1)prevOutputMapObj.get(node.getId()));
-				}
-			}
-			if (!fixpFlag) {
-				for (final CFGNode succ : node.getSuccessors()) {
-					if (!stack.contains(succ))
-						stack.push(succ);
+	/**
+	 * Returns the nodes reachable from a node in depth-first postorder.  Does
+	 * not recurse, so big methods do not overflow the stack.
+	 *
+	 * The successors (or predecessors) of a node are taken from the highest
+	 * id down: the later a node starts, the earlier it comes in reverse
+	 * postorder, so a loop body comes right after its condition instead of
+	 * after the code following the loop.
+	 *
+	 * @param g the graph
+	 * @param start the id of the node to start from
+	 * @param forward true to follow successors, false to follow predecessors
+	 * @param visitedNodes the set to add the ids of the nodes returned to
+	 * @return the nodes, in postorder
+	 */
+	public static List<CFGNode> postorder(final CompactCFG g, final int start, final boolean forward, final java.util.Set<Long> visitedNodes) {
+		final List<CFGNode> order = new ArrayList<CFGNode>();
+		final BitSet visited = new BitSet(g.size());
+		// the path from the start, and how many neighbors of each node on it are left
+		final int[] path = new int[g.size()];
+		final int[] left = new int[g.size()];
+		int depth = 0;
+
+		visited.set(start);
+		path[depth] = start;
+		left[depth++] = count(g, start, forward);
+		while (depth > 0) {
+			final int id = path[depth - 1];
+			if (left[depth - 1] > 0) {
+				final int n = neighbor(g, id, --left[depth - 1], forward);
+				if (!visited.get(n)) {
+					visited.set(n);
+					path[depth] = n;
+					left[depth++] = count(g, n, forward);
 				}
+			} else {
+				depth--;
+				order.add(g.getNode(id));
 			}
-			prevOutputMapObj.put(node.getId(), currentResult);
 		}
+
+		for (final CFGNode n : order)
+			visitedNodes.add(n.getId());
+		return order;
 	}
 
-	public final void worklistReversePostorderBackward(final Stack<CFGNode> stack, final BoaAbstractFixP fixp, final Traversal.TraversalKind kind) throws Exception {
-		while (!stack.isEmpty()) {
-			final CFGNode node = stack.pop();
-			traverse(node, true);
-			final boolean curFlag = outputMapObj.containsKey(node.getId());
-			boolean fixpFlag = false;
-			if (curFlag) {
-				final boolean prevFlag = prevOutputMapObj.containsKey(node.getId());
-				if (curFlag && prevFlag) {
-					fixpFlag = fixp.invoke((T1)outputMapObj.get(node.getId()), (T1)prevOutputMapObj.get(node.getId()));
-				}
-			}
-			if (!fixpFlag) {
-				for (final CFGNode succ : node.getPredecessors()) {
-					if (!stack.contains(succ))
-						stack.push(succ);
-				}
-			}
-			prevOutputMapObj.put(node.getId(), currentResult);
-		}
+	private boolean isFixpoint(final CFGNode node, final BoaAbstractFixP fixp) throws Exception {
+		final long id = node.getId();
+		return outputMapObj.containsKey(id) && prevOutputMapObj.containsKey(id)
+				&& fixp.invoke(outputMapObj.get(id), prevOutputMapObj.get(id));
 	}
 
-	public final void worklistReversePostorderWithoutFixp(final Stack<CFGNode> stack, final Traversal.TraversalKind kind) throws Exception {
-		while (!stack.isEmpty()) {
-			final CFGNode node = stack.pop();
+	/**
+	 * Traverses nodes until their results reach a fixpoint, always taking the
+	 * waiting node that comes first in an order.
+	 *
+	 * Every node taken is traversed and, unless the fixp function says its
+	 * result is the same as the last time, its successors (or predecessors)
+	 * wait to be traversed again.  Nodes are numbered by their place in the
+	 * order, nodes not in it after it, so the nodes waiting are a bitset.
+	 *
+	 * @param g the graph
+	 * @param order the nodes, all waiting at first
+	 * @param forward true to follow successors, false to follow predecessors
+	 * @param fixp the fixp function
+	 */
+	private void worklistInOrder(final CompactCFG g, final List<CFGNode> order, final boolean forward, final BoaAbstractFixP fixp) throws Exception {
+		final List<CFGNode> nodes = new ArrayList<CFGNode>(order);
+		final int[] rank = new int[g.size()];
+		Arrays.fill(rank, -1);
+		for (int i = 0; i < nodes.size(); i++)
+			rank[nodes.get(i).getNodeId()] = i;
+
+		final BitSet waiting = new BitSet();
+		waiting.set(0, nodes.size());
+		for (int i = waiting.nextSetBit(0); i >= 0; i = waiting.nextSetBit(0)) {
+			waiting.clear(i);
+			final CFGNode node = nodes.get(i);
 			traverse(node, true);
-			final boolean fixpFlag = true;
-			if (!fixpFlag) {
-				for (final CFGNode succ : node.getSuccessors()) {
-					if (!stack.contains(succ))
-						stack.push(succ);
+			if (!isFixpoint(node, fixp)) {
+				final int id = node.getNodeId();
+				for (int j = 0; j < count(g, id, forward); j++) {
+					final int n = neighbor(g, id, j, forward);
+					if (rank[n] < 0) {
+						rank[n] = nodes.size();
+						nodes.add(g.getNode(n));
+					}
+					waiting.set(rank[n]);
 				}
 			}
+			prevOutputMapObj.put(node.getId(), currentResult);
 		}
 	}
 
-	public final void worklistPostorderWithoutFixp(final Queue<CFGNode> queue, final Traversal.TraversalKind kind) throws Exception {
-		while (!queue.isEmpty()) {
-			final CFGNode node = queue.remove();
-			traverse(node, true);
-			final boolean fixpFlag = true;
-			if (!fixpFlag) {
-				for (final CFGNode pred : node.getPredecessors()) {
-					if (!queue.contains(pred))
-						queue.add(pred);
-				}
-			}
+	/**
+	 * Traverses nodes until their results reach a fixpoint, taking them in
+	 * the order they start or start waiting again.
+	 *
+	 * Every node taken is traversed and, unless the fixp function says its
+	 * result is the same as the last time, its successors (or predecessors)
+	 * not already waiting are added to the end of the worklist.
+	 *
+	 * @param g the graph
+	 * @param order the nodes, all waiting at first
+	 * @param forward true to follow successors, false to follow predecessors
+	 * @param fixp the fixp function
+	 */
+	private void worklistFifo(final CompactCFG g, final List<CFGNode> order, final boolean forward, final BoaAbstractFixP fixp) throws Exception {
+		final int[] work = new int[g.size()];
+		int head = 0, size = 0;
+		final BitSet waiting = new BitSet(g.size());
+		for (final CFGNode n : order) {
+			work[size++] = n.getNodeId();
+			waiting.set(n.getNodeId());
 		}
-	}
 
-	public final void worklistPostorderBackward(final Queue<CFGNode> queue, final BoaAbstractFixP fixp, final Traversal.TraversalKind kind) throws Exception {
-		while (!queue.isEmpty()) {
-			final CFGNode node = queue.remove();
+		// a node waits at most once, so the work fits in a ring of all ids
+		while (size > 0) {
+			final int id = work[head];
+			head = (head + 1) % work.length;
+			size--;
+			waiting.clear(id);
+			final CFGNode node = g.getNode(id);
 			traverse(node, true);
-			final boolean curFlag = outputMapObj.containsKey(node.getId());
-			boolean fixpFlag = false;
-			if (curFlag) {
-				final boolean prevFlag = prevOutputMapObj.containsKey(node.getId());
-				if (curFlag && prevFlag) {
-					fixpFlag = fixp.invoke((T1)outputMapObj.get(node.getId()), (T1)prevOutputMapObj.get(node.getId()));
-				}
-			}
-			if (!fixpFlag) {
-				for (final CFGNode pred : node.getPredecessors()) {
-					if (!queue.contains(pred))
-						queue.add(pred);
+			if (!isFixpoint(node, fixp)) {
+				for (int j = 0; j < count(g, id, forward); j++) {
+					final int n = neighbor(g, id, j, forward);
+					if (!waiting.get(n)) {
+						waiting.set(n);
+						work[(head + size++) % work.length] = n;
+					}
 				}
 			}
 			prevOutputMapObj.put(node.getId(), currentResult);
 		}
 	}
 
-	public final void worklistPostorderForward(final Queue<CFGNode> queue, final BoaAbstractFixP fixp, final Traversal.TraversalKind kind) throws Exception {
-		while (!queue.isEmpty()) {
-			final CFGNode node = queue.remove();
-			traverse(node, true);
-			final boolean curFlag = outputMapObj.containsKey(node.getId());
-			boolean fixpFlag = false;
-			if (curFlag) {
-				final boolean prevFlag = prevOutputMapObj.containsKey(node.getId());
-				if (curFlag && prevFlag) {
-					fixpFlag = fixp.invoke((T1)outputMapObj.get(node.getId()), (T1)prevOutputMapObj.get(node.getId()));
-				}
-			}
-			if (!fixpFlag) {
-				for (final CFGNode pred : node.getSuccessors()) {
-					if (!queue.contains(pred))
-						queue.add(pred);
-				}
-			}
-			prevOutputMapObj.put(node.getId(), currentResult);
-		}
+	private void traverseAll(final List<CFGNode> order) throws Exception {
+		for (final CFGNode n : order)
+			traverse(n, true);
 	}
 
 	public final void traverse(final boa.graphs.cfg.CFG cfg, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind, final BoaAbstractFixP fixp) throws Exception {
 		if (cfg == null || cfg.getNodes() == null) return;
+		BitSetSet.useUniverseOf(cfg);
 		try {
 			if (outputMapObj == null) {
-				outputMapObj = new java.util.HashMap<Long, T1>();
+				outputMapObj = new NodeValues<T1>();
 			}
 			switch (kind) {
 				case DFS:
@@ -409,7 +405,7 @@ public abstract class BoaAbstractTraversal<T1> {
 				case RANDOM:
 					boolean fixpFlag;
 					do {
-						prevOutputMapObj = new java.util.HashMap<Long, T1>(outputMapObj);
+						prevOutputMapObj = new NodeValues<T1>(outputMapObj);
 						traverse(cfg, direction, kind);
 						fixpFlag = true;
 						final java.util.HashSet<CFGNode> nl = cfg.getNodes();
@@ -428,24 +424,24 @@ public abstract class BoaAbstractTraversal<T1> {
 					break;
 				case WORKLIST_POSTORDER:
 				case WORKLIST_REVERSEPOSTORDER:
-					prevOutputMapObj = new java.util.HashMap<Long, T1>();
+					prevOutputMapObj = new NodeValues<T1>();
 					traverseWithFixp(cfg, direction, kind, fixp);
 					break;
 				case HYBRID:
-					prevOutputMapObj = new java.util.HashMap<Long, T1>();
+					prevOutputMapObj = new NodeValues<T1>();
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
 					final CFGNode[] nl = cfg.sortNodes();
 					if (nl.length != 0) {
+						final CompactCFG g = cfg.getCompact();
+						final int entry = cfg.getEntryNode().getNodeId();
 						if (this.isFlowSensitive) {
 							if (this.isLoopSensitive) {
 								switch (direction) {
 									case BACKWARD:
 										if (cfg.getIsLoopPresent()) {
-											final Queue<CFGNode> queue = new LinkedList<CFGNode>();
-											populateWithPostorder(cfg.getEntryNode(), visitedNodes, queue);
-											worklistPostorderBackward(queue, fixp, kind);
+											worklistFifo(g, postorder(g, entry, true, visitedNodes), false, fixp);
 										} else if (cfg.getIsBranchPresent()) {
-											postorderBackward(cfg.getEntryNode(), visitedNodes);
+											postorderBackward(cfg, cfg.getEntryNode(), visitedNodes);
 										} else {
 											for (int i = nl.length - 1; i >= 0; i--) {
 												traverse(nl[i], false);
@@ -454,11 +450,9 @@ public abstract class BoaAbstractTraversal<T1> {
 										break;
 									case FORWARD:
 										if (cfg.getIsLoopPresent()) {
-											final Stack<CFGNode> stack = new Stack<CFGNode>();
-											populateWithReversePostorder(cfg.getEntryNode(), visitedNodes, stack);
-											worklistReversePostorderForward(stack, fixp, kind);
+											worklistInOrder(g, reverse(postorder(g, entry, true, visitedNodes)), true, fixp);
 										} else if (cfg.getIsBranchPresent()) {
-											postorderForward(cfg.getExitNode(), visitedNodes);
+											postorderForward(cfg, cfg.getExitNode(), visitedNodes);
 										} else {
 											for (int i = 0; i < nl.length; i++) {
 												traverse(nl[i], false);
@@ -472,13 +466,11 @@ public abstract class BoaAbstractTraversal<T1> {
 								switch (direction) {
 									case BACKWARD:
 										if (cfg.getIsLoopPresent()) {
-											final Queue<CFGNode> queue = new LinkedList<CFGNode>();
-											populateWithPostorder(cfg.getEntryNode(), visitedNodes, queue);
-											while (!queue.isEmpty()) {
-												traverse(queue.remove(), false);
+											for (final CFGNode n : postorder(g, entry, true, visitedNodes)) {
+												traverse(n, false);
 											}
 										} else if (cfg.getIsBranchPresent()) {
-											postorderBackward(cfg.getEntryNode(), visitedNodes);
+											postorderBackward(cfg, cfg.getEntryNode(), visitedNodes);
 										} else {
 											for (int i = nl.length - 1; i >= 0; i--) {
 												traverse(nl[i], false);
@@ -487,13 +479,11 @@ public abstract class BoaAbstractTraversal<T1> {
 										break;
 									case FORWARD:
 										if (cfg.getIsLoopPresent()) {
-											final Stack<CFGNode> stack = new Stack<CFGNode>();
-											populateWithReversePostorder(cfg.getEntryNode(), visitedNodes, stack);
-											while (!stack.isEmpty()) {
-												traverse(stack.pop(), false);
+											for (final CFGNode n : reverse(postorder(g, entry, true, visitedNodes))) {
+												traverse(n, false);
 											}
 										} else if (cfg.getIsBranchPresent()) {
-											postorderForward(cfg.getExitNode(), visitedNodes);
+											postorderForward(cfg, cfg.getExitNode(), visitedNodes);
 										} else {
 											for (int i = 0; i < nl.length; i++) {
 												traverse(nl[i], false);
@@ -517,36 +507,34 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverseWithFixp(final CFG cfg, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind, final BoaAbstractFixP fixp) throws Exception {
 		if (preTraverse(cfg)) {
-			if (outputMapObj==null) {
-				outputMapObj = new java.util.HashMap<Long, T1>();
+			if (outputMapObj == null) {
+				outputMapObj = new NodeValues<T1>();
 			}
 			if (cfg.getNodes().size() != 0) {
 				final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
+				final CompactCFG g = cfg.getCompact();
+				final int entry = cfg.getEntryNode().getNodeId();
 				switch (kind) {
 					case WORKLIST_POSTORDER:
-						Queue<CFGNode> queue = new LinkedList<CFGNode>();
-						populateWithPostorder(cfg.getEntryNode(), visitedNodes, queue);
 						switch (direction) {
 							case BACKWARD:
-								worklistPostorderBackward(queue, fixp, kind);
+								worklistFifo(g, postorder(g, entry, true, visitedNodes), false, fixp);
 								break;
 
 							case FORWARD:
-								worklistPostorderForward(queue, fixp, kind);
+								worklistFifo(g, postorder(g, entry, true, visitedNodes), true, fixp);
 								break;
 							default : break;
 						}
 						break;
 					case WORKLIST_REVERSEPOSTORDER:
-						Stack<CFGNode> stack = new Stack<CFGNode>();
-						populateWithReversePostorder(cfg.getEntryNode(), visitedNodes, stack);
 						switch (direction) {
 							case BACKWARD:
-								worklistReversePostorderBackward(stack, fixp, kind);
+								worklistInOrder(g, reverse(postorder(g, entry, true, visitedNodes)), false, fixp);
 								break;
 
 							case FORWARD:
-								worklistReversePostorderForward(stack, fixp, kind);
+								worklistInOrder(g, reverse(postorder(g, entry, true, visitedNodes)), true, fixp);
 								break;
 							default : break;
 						}
@@ -559,59 +547,54 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverse(final boa.graphs.cfg.CFG cfg, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind) throws Exception {
 		if (cfg == null || cfg.getNodes() == null) return;
+		BitSetSet.useUniverseOf(cfg);
 		try {
 			if (preTraverse(cfg)) {
 				if (outputMapObj == null) {
-					outputMapObj = new java.util.HashMap<Long, T1>();
+					outputMapObj = new NodeValues<T1>();
 				}
 				if (cfg.getNodes().size() != 0) {
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
 					final CFGNode[] nl = cfg.sortNodes();
+					final CompactCFG g = cfg.getCompact();
+					final int entry = cfg.getEntryNode().getNodeId();
 					switch (kind) {
 						case DFS:
 							switch (direction) {
 								case FORWARD:
-									dfsForward(cfg.getEntryNode(), visitedNodes);
+									dfs(g, entry, true, visitedNodes);
 									break;
 								default:
 								case BACKWARD:
-									dfsBackward(cfg.getExitNode(), visitedNodes);
+									dfs(g, cfg.getExitNode().getNodeId(), false, visitedNodes);
 									break;
 							}
 							break;
 						case POSTORDER:
-							postorderBackward(cfg.getEntryNode(), visitedNodes);
+							postorderBackward(cfg, cfg.getEntryNode(), visitedNodes);
 							break;
 						case REVERSEPOSTORDER:
-							postorderForward(cfg.getExitNode(), visitedNodes);
+							postorderForward(cfg, cfg.getExitNode(), visitedNodes);
 							break;
 						case WORKLIST_POSTORDER:
 							switch (direction) {
 								case FORWARD:
-									Stack<CFGNode> stack = new Stack<CFGNode>();
-									populateWithReversePostorder(cfg.getEntryNode(), visitedNodes, stack);
-									worklistReversePostorderWithoutFixp(stack, kind);
+									traverseAll(reverse(postorder(g, entry, true, visitedNodes)));
 									break;
 								default:
 								case BACKWARD:
-									Queue<CFGNode> queue = new LinkedList<CFGNode>();
-									populateWithPostorder(cfg.getEntryNode(), visitedNodes, queue);
-									worklistPostorderWithoutFixp(queue, kind);
+									traverseAll(postorder(g, entry, true, visitedNodes));
 									break;
 							}
 							break;
 						case WORKLIST_REVERSEPOSTORDER:
 							switch (direction) {
 								case FORWARD:
-									final Queue<CFGNode> queue = new LinkedList<CFGNode>();
-									populateWithPostorder(cfg.getEntryNode(), visitedNodes, queue);
-									worklistPostorderWithoutFixp(queue, kind);
+									traverseAll(postorder(g, entry, true, visitedNodes));
 									break;
 								default:
 								case BACKWARD:
-									final Stack<CFGNode> stack = new Stack<CFGNode>();
-									populateWithReversePostorder(cfg.getEntryNode(), visitedNodes, stack);
-									worklistReversePostorderWithoutFixp(stack, kind);
+									traverseAll(reverse(postorder(g, entry, true, visitedNodes)));
 									break;
 							}
 							break;
@@ -655,10 +638,11 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverse(final boa.graphs.cdg.CDG cdg, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind) throws Exception {
 		if (cdg == null || cdg.getNodes() == null) return;
+		BitSetSet.useUniverseOf(cdg);
 		try {
 			if (preTraverse(cdg)) {
 				if (outputMapObj == null) {
-					outputMapObj = new java.util.HashMap<Long, T1>();
+					outputMapObj = new NodeValues<T1>();
 				}
 				if (cdg.getNodes().size() != 0) {
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
@@ -753,10 +737,11 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverse(final boa.graphs.ddg.DDG ddg, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind) throws Exception {
 		if (ddg == null || ddg.getNodes() == null) return;
+		BitSetSet.useUniverseOf(ddg);
 		try {
 			if (preTraverse(ddg)) {
 				if (outputMapObj == null) {
-					outputMapObj = new java.util.HashMap<Long, T1>();
+					outputMapObj = new NodeValues<T1>();
 				}
 				if (ddg.getNodes().size() != 0) {
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
@@ -851,10 +836,11 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverse(final boa.graphs.pdg.PDG pdg, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind) throws Exception {
 		if (pdg == null || pdg.getNodes() == null) return;
+		BitSetSet.useUniverseOf(pdg);
 		try {
 			if (preTraverse(pdg)) {
 				if (outputMapObj == null) {
-					outputMapObj = new java.util.HashMap<Long, T1>();
+					outputMapObj = new NodeValues<T1>();
 				}
 				if (pdg.getNodes().size() != 0) {
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
@@ -949,10 +935,11 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverse(final boa.graphs.slicers.PDGSlicer pdgslicer, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind) throws Exception {
 		if (pdgslicer == null || pdgslicer.getSlice() == null) return;
+		BitSetSet.useUniverseOf(pdgslicer);
 		try {
 			if (preTraverse(pdgslicer)) {
 				if (outputMapObj == null) {
-					outputMapObj = new java.util.HashMap<Long, T1>();
+					outputMapObj = new NodeValues<T1>();
 				}
 				if (pdgslicer.getSlice().size() != 0) {
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
@@ -1044,10 +1031,11 @@ public abstract class BoaAbstractTraversal<T1> {
 
 	public final void traverse(final boa.graphs.trees.PDTree tree, final Traversal.TraversalDirection direction, final Traversal.TraversalKind kind) throws Exception {
 		if (tree == null || tree.getNodes() == null) return;
+		BitSetSet.useUniverseOf(tree);
 		try {
 			if (preTraverse(tree)) {
 				if (outputMapObj == null) {
-					outputMapObj = new java.util.HashMap<Long, T1>();
+					outputMapObj = new NodeValues<T1>();
 				}
 				if (tree.getNodes().size() != 0) {
 					final java.util.Set<Long> visitedNodes = new java.util.HashSet<Long>();
@@ -189,6 +189,7 @@ public abstract class BoaAbstractVisitor {
 		if (preVisit(node)) {
 			final List<ChangedFile> filesList = node.getFilesList();
 			final int filesSize = filesList.size();
+			BoaAstIntrinsics.prefetchAsts(filesList);
 			for (int i = 0; i < filesSize; i++)
 				visit(filesList.get(i));
 
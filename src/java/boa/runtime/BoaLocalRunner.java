@@ -0,0 +1,498 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileAlreadyExistsException;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileRecordReader;
+import org.apache.log4j.Logger;
+
+import boa.functions.BoaAstIntrinsics;
+import boa.io.BoaOutputCommitter;
+import boa.io.EmitKey;
+import boa.io.EmitValue;
+
+/**
+ * Runs a {@link BoaRunner} job inside this process, without Hadoop's job
+ * runner.
+ *
+ * The input splits are read by a pool of threads, each running the job's
+ * {@link BoaMapper} on one split at a time.  Map outputs are kept in memory
+ * and combined by the job's {@link BoaCombiner} whenever a thread has
+ * buffered too many of them, then merged and reduced by its
+ * {@link BoaReducer}.  As on Hadoop, each output variable is reduced into its
+ * own part file, numbered by its {@link BoaPartitioner} partition, with its
+ * keys in sorted order.  Nothing is sorted, spilled or compressed on disk.
+ *
+ * Boa programs and intrinsics keep their state in static fields, so each
+ * thread loads its own copy of the job and the Boa runtime classes.  The
+ * caches of the intrinsics, which on Hadoop each JVM or task has to itself,
+ * are then one per thread here, so their configured sizes are divided
+ * between the threads.
+ */
+public class BoaLocalRunner {
+	protected static final Logger LOG = Logger.getLogger(BoaLocalRunner.class);
+
+	/** the number of map threads, defaults to the number of processors */
+	public static final String THREADS = "boa.local.threads";
+
+	/** how many map outputs a thread buffers before combining them */
+	public static final String COMBINE_RECORDS = "boa.local.combine.records";
+
+	/** how many splits to aim for per thread, so threads finish together */
+	private static final int SPLITS_PER_THREAD = 4;
+
+	/** class name prefixes loaded once and shared by all threads */
+	private static final String[] SHARED = { "boa.types.", "boa.datagen." };
+
+	public static enum LOCALCOUNTER {
+		SPLITS,
+		MAP_OUTPUT_RECORDS,
+		COMBINE_OUTPUT_RECORDS,
+		REDUCE_INPUT_GROUPS,
+		REDUCE_INPUT_RECORDS,
+		REDUCE_OUTPUT_RECORDS,
+	};
+
+	private final BoaRunner runner;
+	private final Configuration conf;
+	private final Counters counters = new Counters();
+
+	/**
+	 * Construct a {@link BoaLocalRunner}.
+	 *
+	 * @param runner the job to run
+	 * @param conf the configuration of the job
+	 */
+	public BoaLocalRunner(final BoaRunner runner, final Configuration conf) {
+		this.runner = runner;
+		this.conf = conf;
+	}
+
+	/**
+	 * Returns the configuration of one of the map threads, with the sizes of
+	 * the intrinsics' caches divided between them.
+	 *
+	 * @param threads the number of map threads
+	 */
+	private Configuration getTaskConf(final int threads) {
+		final Configuration conf = new Configuration(this.conf);
+		conf.setLong(BoaAstIntrinsics.REPO_CACHE_BYTES, this.conf.getLong(BoaAstIntrinsics.REPO_CACHE_BYTES, BoaAstIntrinsics.DEFAULT_REPO_CACHE_BYTES) / threads);
+		conf.setLong(BoaAstIntrinsics.BLOB_CACHE_BYTES, this.conf.getLong(BoaAstIntrinsics.BLOB_CACHE_BYTES, BoaAstIntrinsics.DEFAULT_BLOB_CACHE_BYTES) / threads);
+		conf.setLong(BoaAstIntrinsics.AST_CACHE_BYTES, this.conf.getLong(BoaAstIntrinsics.AST_CACHE_BYTES, BoaAstIntrinsics.DEFAULT_AST_CACHE_BYTES) / threads);
+		return conf;
+	}
+
+	/**
+	 * Runs the job and waits for it to finish.
+	 *
+	 * @param ins the input sequence files
+	 * @param out the output directory, which must not exist
+	 * @return true if the job succeeded
+	 */
+	public boolean run(final Path[] ins, final Path out) throws IOException, InterruptedException {
+		final FileSystem outFs = out.getFileSystem(this.conf);
+		if (outFs.exists(out))
+			throw new FileAlreadyExistsException("Output directory " + out + " already exists");
+
+		final int threads = Math.max(1, this.conf.getInt(THREADS, Runtime.getRuntime().availableProcessors()));
+		final Queue<InputSplit> splits = new ConcurrentLinkedQueue<InputSplit>(getSplits(ins, threads));
+		System.err.println("LOCAL : " + splits.size() + " splits, " + threads + " threads");
+
+		final URL[] urls = getClassPath();
+		final ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final List<Future<DataOutputBuffer>> results = new ArrayList<Future<DataOutputBuffer>>();
+		final List<Counters> taskCounters = new ArrayList<Counters>();
+		final List<URLClassLoader> loaders = new ArrayList<URLClassLoader>();
+		final TreeMap<EmitKey, List<EmitValue>> groups = new TreeMap<EmitKey, List<EmitValue>>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				final URLClassLoader loader = new IsolatingClassLoader(urls, this.runner.getClass().getClassLoader());
+				loaders.add(loader);
+				final Counters c = new Counters();
+				taskCounters.add(c);
+
+				@SuppressWarnings("unchecked")
+				final Callable<DataOutputBuffer> task = (Callable<DataOutputBuffer>) loader.loadClass(MapTask.class.getName())
+						.getConstructor(String.class, Configuration.class, Queue.class, Counters.class, int.class)
+						.newInstance(this.runner.getClass().getName(), getTaskConf(threads), splits, c, i);
+				results.add(pool.submit(task));
+			}
+
+			for (final Future<DataOutputBuffer> f : results)
+				read(f.get(), groups);
+		} catch (final ExecutionException e) {
+			LOG.error("map failure", e.getCause());
+			BoaOutputCommitter.lastSeenEx = e.getCause();
+			System.err.println("JOB FINISHED: Failed");
+			return false;
+		} catch (final ReflectiveOperationException e) {
+			throw new IOException("could not load job " + this.runner.getClass().getName(), e);
+		} finally {
+			pool.shutdownNow();
+			for (final URLClassLoader loader : loaders)
+				loader.close();
+		}
+
+		for (final Counters c : taskCounters)
+			this.counters.incrAllCounters(c);
+
+		// loading the job's reducer names its output variables in the partitioner
+		final BoaReducer reducer = this.runner.getReducer();
+		reducer.setConf(this.conf);
+		final List<TreeMap<EmitKey, List<EmitValue>>> partitions = new ArrayList<TreeMap<EmitKey, List<EmitValue>>>();
+		for (int i = Math.max(1, BoaPartitioner.getVariableCount()); i > 0; i--)
+			partitions.add(new TreeMap<EmitKey, List<EmitValue>>());
+		for (final Map.Entry<EmitKey, List<EmitValue>> e : groups.entrySet())
+			partitions.get(BoaPartitioner.getPartitionForVariable(e.getKey().getName())).put(e.getKey(), e.getValue());
+		groups.clear();
+
+		for (int i = 0; i < partitions.size(); i++) {
+			final OutputStream stream = outFs.create(new Path(out, "part-r-" + String.format("%05d", i)));
+			try {
+				final RecordWriter<Text, NullWritable> writer = new RecordWriter<Text, NullWritable>() {
+					@Override
+					public void write(final Text key, final NullWritable value) throws IOException {
+						stream.write(key.getBytes(), 0, key.getLength());
+						stream.write('\n');
+						counters.findCounter(LOCALCOUNTER.REDUCE_OUTPUT_RECORDS).increment(1);
+					}
+
+					@Override
+					public void close(final TaskAttemptContext context) { }
+				};
+
+				reduce(reducer, partitions.get(i), writer, this.conf, new TaskAttemptID("local", 0, false, i, 0), this.counters);
+			} finally {
+				stream.close();
+			}
+			partitions.set(i, null);
+		}
+
+		System.err.println("JOB FINISHED: Success");
+		return true;
+	}
+
+	/**
+	 * Returns the counters of the job, once it has run.
+	 */
+	public Counters getCounters() {
+		return this.counters;
+	}
+
+	/**
+	 * Splits the input so that each thread gets a few splits, unless the job
+	 * asks for smaller ones.
+	 */
+	private List<InputSplit> getSplits(final Path[] ins, final int threads) throws IOException {
+		final Job job = new Job(new Configuration(this.conf));
+		// the job's configuration may already name its inputs, so replace them
+		FileInputFormat.setInputPaths(job, ins);
+		long total = 0;
+		for (final Path in : ins)
+			total += in.getFileSystem(this.conf).getContentSummary(in).getLength();
+
+		final Configuration c = job.getConfiguration();
+		final long perThread = Math.max(1, total / (threads * SPLITS_PER_THREAD));
+		c.setLong("mapred.max.split.size", Math.min(c.getLong("mapred.max.split.size", Long.MAX_VALUE), perThread));
+		return new SequenceFileInputFormat<Text, BytesWritable>().getSplits(job);
+	}
+
+	/**
+	 * Returns where the job's classes and the Boa runtime are loaded from.
+	 */
+	private URL[] getClassPath() throws IOException {
+		final List<URL> urls = new ArrayList<URL>();
+		for (final Class<?> c : new Class<?>[] { this.runner.getClass(), BoaLocalRunner.class }) {
+			if (c.getProtectionDomain().getCodeSource() == null)
+				throw new IOException("can not find where " + c.getName() + " is loaded from");
+			final URL url = c.getProtectionDomain().getCodeSource().getLocation();
+			if (!urls.contains(url))
+				urls.add(url);
+		}
+		return urls.toArray(new URL[urls.size()]);
+	}
+
+	/**
+	 * Adds serialized map outputs to the groups.
+	 */
+	private static void read(final DataOutputBuffer buffer, final TreeMap<EmitKey, List<EmitValue>> groups) throws IOException {
+		final DataInputBuffer in = new DataInputBuffer();
+		in.reset(buffer.getData(), buffer.getLength());
+		while (in.getPosition() < buffer.getLength()) {
+			final EmitKey key = new EmitKey();
+			key.readFields(in);
+			final EmitValue value = new EmitValue();
+			value.readFields(in);
+			add(groups, key, value);
+		}
+	}
+
+	private static void write(final TreeMap<EmitKey, List<EmitValue>> groups, final DataOutputBuffer out) throws IOException {
+		for (final Map.Entry<EmitKey, List<EmitValue>> e : groups.entrySet())
+			for (final EmitValue value : e.getValue()) {
+				e.getKey().write(out);
+				value.write(out);
+			}
+	}
+
+	private static void add(final TreeMap<EmitKey, List<EmitValue>> groups, final EmitKey key, final EmitValue value) {
+		List<EmitValue> values = groups.get(key);
+		if (values == null) {
+			values = new ArrayList<EmitValue>();
+			groups.put(key, values);
+		}
+		values.add(value);
+	}
+
+	/**
+	 * Runs each group through a reducer or combiner, in key order.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static void reduce(final Reducer<EmitKey, EmitValue, ?, ?> reducer, final TreeMap<EmitKey, List<EmitValue>> groups, final RecordWriter writer, final Configuration conf, final TaskAttemptID id, final Counters counters) throws IOException, InterruptedException {
+		final Reducer.Context context = ReduceContexts.create(reducer, conf, id, writer, new Reporter(counters), counters.findCounter(LOCALCOUNTER.REDUCE_INPUT_GROUPS), counters.findCounter(LOCALCOUNTER.REDUCE_INPUT_RECORDS));
+
+		for (final Map.Entry<EmitKey, List<EmitValue>> e : groups.entrySet()) {
+			counters.findCounter(LOCALCOUNTER.REDUCE_INPUT_GROUPS).increment(1);
+			counters.findCounter(LOCALCOUNTER.REDUCE_INPUT_RECORDS).increment(e.getValue().size());
+			if (reducer instanceof BoaCombiner)
+				((BoaCombiner) reducer).reduce(e.getKey(), e.getValue(), context);
+			else
+				((BoaReducer) reducer).reduce(e.getKey(), e.getValue(), context);
+		}
+	}
+
+	/**
+	 * Runs the mapper of a job over splits taken from a shared queue until it
+	 * is empty, and returns the combined, serialized map outputs.
+	 *
+	 * Each instance is loaded by its own {@link IsolatingClassLoader}, so
+	 * only classes from Java, Hadoop and {@link #SHARED} cross between it and
+	 * the {@link BoaLocalRunner} that made it.
+	 */
+	public static class MapTask implements Callable<DataOutputBuffer> {
+		private final String runnerClass;
+		private final Configuration conf;
+		private final Queue<InputSplit> splits;
+		private final Counters counters;
+		private final int id;
+
+		/** outputs of variables the combiner can not combine */
+		private final TreeMap<EmitKey, List<EmitValue>> uncombined = new TreeMap<EmitKey, List<EmitValue>>();
+		/** outputs waiting to be combined, and how many there are */
+		private TreeMap<EmitKey, List<EmitValue>> buffer = new TreeMap<EmitKey, List<EmitValue>>();
+		private long buffered = 0;
+		private long limit;
+		private TaskAttemptID taskId;
+
+		public MapTask(final String runnerClass, final Configuration conf, final Queue<InputSplit> splits, final Counters counters, final int id) {
+			this.runnerClass = runnerClass;
+			this.conf = conf;
+			this.splits = splits;
+			this.counters = counters;
+			this.id = id;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		public DataOutputBuffer call() throws Exception {
+			final ClassLoader loader = getClass().getClassLoader();
+			this.conf.setClassLoader(loader);
+			final BoaRunner runner = (BoaRunner) Class.forName(this.runnerClass, true, loader).getDeclaredConstructor().newInstance();
+			final long combineRecords = this.conf.getLong(COMBINE_RECORDS, 100000);
+			this.limit = combineRecords;
+			final BoaCombiner combiner = runner.getCombiner();
+			combiner.setConf(this.conf);
+
+			final RecordWriter<EmitKey, EmitValue> writer = new RecordWriter<EmitKey, EmitValue>() {
+				@Override
+				public void write(final EmitKey key, final EmitValue value) throws IOException, InterruptedException {
+					counters.findCounter(LOCALCOUNTER.MAP_OUTPUT_RECORDS).increment(1);
+					if (!combiner.aggregators.containsKey(key.getName())) {
+						add(uncombined, key, value);
+						return;
+					}
+
+					add(buffer, key, value);
+					if (++buffered > limit) {
+						combine(combiner);
+						// if most keys are distinct, combining again soon would not shrink the buffer
+						limit = Math.max(combineRecords, 2 * buffered);
+					}
+				}
+
+				@Override
+				public void close(final TaskAttemptContext context) { }
+			};
+
+			int attempt = 0;
+			InputSplit split;
+			while ((split = this.splits.poll()) != null) {
+				this.taskId = new TaskAttemptID("local", 0, true, this.id, attempt++);
+				final RecordReader<Text, BytesWritable> reader = new SequenceFileRecordReader<Text, BytesWritable>();
+				reader.initialize(split, new TaskAttemptContext(this.conf, this.taskId));
+
+				final Mapper mapper = runner.getMapper();
+				if (mapper instanceof Configurable)
+					((Configurable) mapper).setConf(this.conf);
+				try {
+					mapper.run(mapper.new Context(this.conf, this.taskId, reader, writer, null, new Reporter(this.counters), split));
+				} finally {
+					reader.close();
+				}
+				this.counters.findCounter(LOCALCOUNTER.SPLITS).increment(1);
+			}
+			if (this.taskId != null)
+				this.combine(combiner);
+
+			final DataOutputBuffer out = new DataOutputBuffer();
+			write(this.buffer, out);
+			write(this.uncombined, out);
+			return out;
+		}
+
+		/**
+		 * Replaces the buffered map outputs with their combined values.
+		 */
+		private void combine(final BoaCombiner combiner) throws IOException, InterruptedException {
+			final TreeMap<EmitKey, List<EmitValue>> combined = new TreeMap<EmitKey, List<EmitValue>>();
+			this.buffered = 0;
+			final Counters ignored = new Counters();
+			reduce(combiner, this.buffer, new RecordWriter<EmitKey, EmitValue>() {
+				@Override
+				public void write(final EmitKey key, final EmitValue value) {
+					add(combined, key, value);
+					buffered++;
+				}
+
+				@Override
+				public void close(final TaskAttemptContext context) { }
+			}, this.conf, this.taskId, ignored);
+			this.counters.findCounter(LOCALCOUNTER.COMBINE_OUTPUT_RECORDS).increment(this.buffered);
+
+			this.buffer = combined;
+		}
+	}
+
+	/**
+	 * Reports counters into a {@link Counters}.
+	 */
+	private static class Reporter extends StatusReporter {
+		private final Counters counters;
+
+		Reporter(final Counters counters) {
+			this.counters = counters;
+		}
+
+		@Override
+		public Counter getCounter(final Enum<?> name) {
+			return this.counters.findCounter(name);
+		}
+
+		@Override
+		public Counter getCounter(final String group, final String name) {
+			return this.counters.findCounter(group, name);
+		}
+
+		@Override
+		public void progress() { }
+
+		@Override
+		public void setStatus(final String status) { }
+	}
+
+	/**
+	 * Loads Boa classes itself instead of asking its parent first, so each
+	 * loader has its own copy of their static state.
+	 */
+	private static class IsolatingClassLoader extends URLClassLoader {
+		static {
+			ClassLoader.registerAsParallelCapable();
+		}
+
+		IsolatingClassLoader(final URL[] urls, final ClassLoader parent) {
+			super(urls, parent);
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+			if (!isolated(name))
+				return super.loadClass(name, resolve);
+
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> c = findLoadedClass(name);
+				if (c == null)
+					try {
+						c = findClass(name);
+					} catch (final ClassNotFoundException e) {
+						return super.loadClass(name, resolve);
+					}
+				if (resolve)
+					resolveClass(c);
+				return c;
+			}
+		}
+
+		private static boolean isolated(final String name) {
+			if (!name.startsWith("boa."))
+				return false;
+			for (final String prefix : SHARED)
+				if (name.startsWith(prefix))
+					return false;
+			return true;
+		}
+	}
+}
@@ -38,6 +38,10 @@ public abstract class BoaMapper extends Mapper<Text, BytesWritable, EmitKey, Emi
 
 	private Configuration conf;
 	protected Context context;
+	protected BoaTaskContext runtime;
+
+	private BoaCombiner combiner;
+	private InMapperCombiner inMapperCombiner;
 
 	/** {@inheritDoc} */
 	@Override
@@ -57,5 +61,47 @@ public abstract class BoaMapper extends Mapper<Text, BytesWritable, EmitKey, Emi
 		super.setup(context);
 
 		this.context = context;
+		this.runtime = BoaTaskContext.open(context);
+		if (this.combiner != null) {
+			this.inMapperCombiner = new InMapperCombiner(this.combiner, context);
+			if (!this.inMapperCombiner.isEnabled())
+				this.inMapperCombiner = null;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void cleanup(final Mapper<Text, BytesWritable, EmitKey, EmitValue>.Context context) throws IOException, InterruptedException {
+		try {
+			if (this.inMapperCombiner != null)
+				this.inMapperCombiner.flush();
+
+			super.cleanup(context);
+		} finally {
+			this.runtime.close();
+		}
+	}
+
+	/**
+	 * Sets the combiner whose aggregators combine this mapper's output in
+	 * memory, see {@link InMapperCombiner}.  Must be called before
+	 * {@link #setup(Mapper.Context)}.
+	 *
+	 * @param combiner the job's combiner
+	 */
+	protected void setCombiner(final BoaCombiner combiner) {
+		this.combiner = combiner;
+	}
+
+	/**
+	 * Emits a value to an output variable, combining it in memory first if
+	 * the variable's aggregator can combine.
+	 *
+	 * @param key the key to emit to
+	 * @param value the value to emit
+	 */
+	protected void emit(final EmitKey key, final EmitValue value) throws IOException, InterruptedException {
+		if (this.inMapperCombiner == null || !this.inMapperCombiner.add(key, value))
+			this.context.write(key, value);
 	}
 }
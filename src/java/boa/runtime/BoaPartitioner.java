@@ -16,6 +16,8 @@
  */
 package boa.runtime;
 
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.Partitioner;
 
 import boa.io.EmitKey;
@@ -25,20 +27,57 @@ import boa.io.EmitValue;
  * A {@link Partitioner} that assigns each
  * output variable to its own reducer.
  *
+ * If the job sets {@link #SPLITS_PER_VARIABLE} to more than one, each output
+ * variable instead gets that many consecutive partitions and its keys are
+ * hashed by index across them.  {@link boa.io.BoaOutputCommitter} merges the
+ * partitions back into one file per variable, sorted by key as a single
+ * reducer's would be, when the job commits.
+ *
  * @author rdyer
  * @author hungc
  */
-public class BoaPartitioner extends Partitioner<EmitKey, EmitValue> {
+public class BoaPartitioner extends Partitioner<EmitKey, EmitValue> implements Configurable {
+	/**
+	 * The configuration key holding the number of reducers per output variable.
+	 */
+	public static final String SPLITS_PER_VARIABLE = "boa.reduce.splits";
+
 	private static String[] outputVariableNames = new String[0];
 
+	private Configuration conf;
+	private int splits = 1;
+
+	/** {@inheritDoc} */
+	@Override
+	public Configuration getConf() {
+		return this.conf;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void setConf(final Configuration conf) {
+		this.conf = conf;
+		this.splits = getSplitsPerVariable(conf);
+	}
+
 	public int getPartition(final EmitKey key, final EmitValue value, final int num) {
-		return getPartitionForVariable(key.getName());
+		final int partition = getPartitionForVariable(key.getName());
+		if (this.splits == 1)
+			return partition;
+		return partition * this.splits + (key.getIndex().hashCode() & Integer.MAX_VALUE) % this.splits;
 	}
 
 	public static void setVariableNames(final String[] names) {
 		outputVariableNames = names;
 	}
 
+	/**
+	 * Returns the number of output variables, each with its own partition.
+	 */
+	public static int getVariableCount() {
+		return outputVariableNames.length;
+	}
+
 	public static String getVariableFromPartition(final int pIndex) {
 		if (pIndex >= outputVariableNames.length)
 			return "part-r-" + String.format("%05d", pIndex);
@@ -53,4 +92,8 @@ public class BoaPartitioner extends Partitioner<EmitKey, EmitValue> {
 		}
 		return 0;
 	}
+
+	public static int getSplitsPerVariable(final Configuration conf) {
+		return Math.max(1, conf.getInt(SPLITS_PER_VARIABLE, 1));
+	}
 }
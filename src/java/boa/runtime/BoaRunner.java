@@ -108,6 +108,8 @@ public abstract class BoaRunner extends Configured implements Tool {
 
 		job.setMapOutputKeyClass(EmitKey.class);
 		job.setMapOutputValueClass(EmitValue.class);
+		job.setSortComparatorClass(EmitKey.Comparator.class);
+		job.setGroupingComparatorClass(EmitKey.Comparator.class);
 
 		job.setOutputFormatClass(BoaOutputFormat.class);
 		job.setOutputKeyClass(Text.class);
@@ -138,6 +140,16 @@ public abstract class BoaRunner extends Configured implements Tool {
 										.hasArg()
 										.withArgName("INPUT")
 										.create("c"));
+		options.addOption(org.apache.commons.cli.OptionBuilder.withLongOpt("reducers")
+										.withDescription("number of reduce tasks per output variable")
+										.hasArg()
+										.withArgName("NUM")
+										.create("r"));
+		options.addOption(org.apache.commons.cli.OptionBuilder.withLongOpt("threads")
+										.withDescription("run the job in this process with NUM map threads, instead of submitting it to Hadoop")
+										.hasArg()
+										.withArgName("NUM")
+										.create("t"));
 	}
 
 	protected static Options getOptions() { return options; }
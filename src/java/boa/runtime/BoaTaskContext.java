@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+
+/**
+ * The mutable state of one map task: its Hadoop context, random numbers,
+ * graph node ids and labels, and the readers and caches of the intrinsics.
+ *
+ * Intrinsics are static functions called by name from generated code, so
+ * the context of a task is bound to the thread running it by
+ * {@link #open(TaskInputOutputContext)} and looked up with {@link #get()}
+ * rather than passed to every call.  Tasks running on different threads of
+ * one JVM then share nothing but what is explicitly shared, such as the
+ * read-only map indexes of {@link boa.io.SharedMapFileReaders}.  A thread
+ * with no task bound, such as a test, gets a context of its own without a
+ * Hadoop context.
+ *
+ * Intrinsics keep their own state in the context with
+ * {@link #getState(Class)} and {@link #putState(Class, Object)}, keyed by a
+ * class private to them.  States that are {@link Closeable} are closed,
+ * newest first, when the task is.
+ */
+public class BoaTaskContext implements Closeable {
+	private static final ThreadLocal<BoaTaskContext> current = new ThreadLocal<BoaTaskContext>() {
+		@Override
+		protected BoaTaskContext initialValue() {
+			return new BoaTaskContext(null);
+		}
+	};
+
+	private final TaskInputOutputContext<?, ?, ?, ?> context;
+	private final Random random = new Random();
+	private final Map<Class<?>, Object> states = new LinkedHashMap<Class<?>, Object>();
+
+	private int lastNodeId = -1;
+	private final Map<String, Integer> idOfLabel = new HashMap<String, Integer>();
+	private final Map<Integer, String> labelOfId = new HashMap<Integer, String>();
+
+	private BoaTaskContext(final TaskInputOutputContext<?, ?, ?, ?> context) {
+		this.context = context;
+	}
+
+	/**
+	 * Returns the context of the task running on this thread.
+	 */
+	public static BoaTaskContext get() {
+		return current.get();
+	}
+
+	/**
+	 * Starts a task on this thread, replacing any context bound to it.
+	 *
+	 * @param context the Hadoop context of the task
+	 * @return the context of the task
+	 */
+	public static BoaTaskContext open(final TaskInputOutputContext<?, ?, ?, ?> context) {
+		final BoaTaskContext task = new BoaTaskContext(context);
+		current.set(task);
+		return task;
+	}
+
+	/**
+	 * Returns the Hadoop context of the task, or null if there is none.
+	 */
+	public TaskInputOutputContext<?, ?, ?, ?> getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Returns the configuration of the task, or null if there is none.
+	 */
+	public Configuration getConfiguration() {
+		return this.context == null ? null : this.context.getConfiguration();
+	}
+
+	/**
+	 * Increments a counter of the task, if it has a Hadoop context.
+	 *
+	 * @param counter the counter
+	 * @param amount how much to add
+	 */
+	public void incrementCounter(final Enum<?> counter, final long amount) {
+		if (this.context != null && amount > 0)
+			this.context.getCounter(counter).increment(amount);
+	}
+
+	/**
+	 * Returns the random number generator of the task.
+	 */
+	public Random getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * Returns the id of the next graph node built by the task.
+	 */
+	public int nextNodeId() {
+		return ++this.lastNodeId;
+	}
+
+	/**
+	 * Numbers the next graph node built by the task from 0 again.
+	 */
+	public void resetNodeIds() {
+		this.lastNodeId = -1;
+	}
+
+	/**
+	 * Returns the id of a label, giving it the next id if it has none.
+	 *
+	 * @param label the label
+	 * @return its id, starting from 1
+	 */
+	public int getLabelId(final String label) {
+		Integer id = this.idOfLabel.get(label);
+		if (id == null) {
+			id = this.idOfLabel.size() + 1;
+			this.idOfLabel.put(label, id);
+			this.labelOfId.put(id, label);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the label with an id, or null if no label has it.
+	 */
+	public String getLabel(final int id) {
+		return this.labelOfId.get(id);
+	}
+
+	/**
+	 * Returns the state kept under a key, or null if there is none.
+	 *
+	 * @param key the class of the state
+	 */
+	public <T> T getState(final Class<T> key) {
+		return key.cast(this.states.get(key));
+	}
+
+	/**
+	 * Keeps a state for the rest of the task.
+	 *
+	 * @param key the class of the state
+	 * @param state the state
+	 * @return the state
+	 */
+	public <T> T putState(final Class<T> key, final T state) {
+		this.states.put(key, state);
+		return state;
+	}
+
+	/**
+	 * Stops keeping a state, without closing it.
+	 *
+	 * @param key the class of the state
+	 * @return the state, or null if there was none
+	 */
+	public <T> T removeState(final Class<T> key) {
+		return key.cast(this.states.remove(key));
+	}
+
+	/**
+	 * Closes every state of the task, newest first, and unbinds it from this
+	 * thread.
+	 */
+	@Override
+	public void close() throws IOException {
+		final List<Object> states = new ArrayList<Object>(this.states.values());
+		this.states.clear();
+
+		IOException error = null;
+		for (int i = states.size() - 1; i >= 0; i--)
+			if (states.get(i) instanceof Closeable)
+				try {
+					((Closeable) states.get(i)).close();
+				} catch (final IOException e) {
+					if (error == null)
+						error = e;
+				}
+
+		if (current.get() == this)
+			current.remove();
+		if (error != null)
+			throw error;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+
+import boa.aggregators.Aggregator;
+import boa.aggregators.AggregatorSpec;
+import boa.aggregators.FinishedException;
+import boa.io.EmitKey;
+import boa.io.EmitValue;
+
+/**
+ * Combines the output of a {@link BoaMapper} in memory, before it is written.
+ *
+ * Every output variable with an aggregator that can combine (see
+ * {@link AggregatorSpec#canCombine()}) gets a table from {@link EmitKey} to
+ * the values emitted to it.  Once a key has {@link #VALUES_PER_KEY} values
+ * they are combined in place by the variable's aggregator, the same way
+ * {@link BoaCombiner} does, or written out if combining barely shrinks them.
+ * When the tables grow past the size set by {@link #BYTES}, and at the end of
+ * the task, every key is combined and written to the mapper's context.
+ */
+public class InMapperCombiner {
+	/** the most bytes the tables may take before they are flushed, 0 disables combining in the mapper */
+	public static final String BYTES = "boa.map.combine.bytes";
+
+	/** how many values a key may have before they are combined */
+	protected static final int VALUES_PER_KEY = 64;
+
+	public static enum INMAPPERCOUNTER {
+		INPUT_RECORDS,
+		OUTPUT_RECORDS,
+		FLUSHES,
+	};
+
+	private final Map<String, Aggregator> aggregators;
+	private final Map<String, Map<EmitKey, List<EmitValue>>> tables = new HashMap<String, Map<EmitKey, List<EmitValue>>>();
+	private final TaskInputOutputContext<?, ?, EmitKey, EmitValue> context;
+	@SuppressWarnings("rawtypes")
+	private final Reducer.Context combining;
+	private final long capacity;
+
+	private long size = 0;
+	private long inputs = 0;
+	private long outputs = 0;
+	private List<EmitValue> collected;
+
+	/**
+	 * Construct an {@link InMapperCombiner}.
+	 *
+	 * @param combiner the job's combiner, whose aggregators are used
+	 * @param context the context of the mapper
+	 */
+	public InMapperCombiner(final BoaCombiner combiner, final TaskInputOutputContext<?, ?, EmitKey, EmitValue> context) throws IOException, InterruptedException {
+		this.aggregators = combiner.aggregators;
+		this.context = context;
+		this.capacity = context.getConfiguration().getLong(BYTES, 16 * 1024 * 1024);
+
+		final RecordWriter<EmitKey, EmitValue> writer = new RecordWriter<EmitKey, EmitValue>() {
+			@Override
+			public void write(final EmitKey key, final EmitValue value) {
+				collected.add(value);
+			}
+
+			@Override
+			public void close(final TaskAttemptContext context) { }
+		};
+		final StatusReporter reporter = new StatusReporter() {
+			@Override
+			public Counter getCounter(final Enum<?> name) {
+				return context.getCounter(name);
+			}
+
+			@Override
+			public Counter getCounter(final String group, final String name) {
+				return context.getCounter(group, name);
+			}
+
+			@Override
+			public void progress() {
+				context.progress();
+			}
+
+			@Override
+			public void setStatus(final String status) {
+				context.setStatus(status);
+			}
+		};
+		final Counter ignored = new Counter() { };
+		this.combining = ReduceContexts.create(combiner, context.getConfiguration(), context.getTaskAttemptID(), writer, reporter, ignored, ignored);
+	}
+
+	/**
+	 * Returns true if combining in the mapper is enabled.
+	 */
+	public boolean isEnabled() {
+		return this.capacity > 0 && !this.aggregators.isEmpty();
+	}
+
+	/**
+	 * Adds a value to the table of its output variable.
+	 *
+	 * @param key the key emitted to
+	 * @param value the value emitted
+	 * @return false if the variable can not be combined, and the value must
+	 *         be written as is
+	 */
+	public boolean add(final EmitKey key, final EmitValue value) throws IOException, InterruptedException {
+		final Aggregator a = this.aggregators.get(key.getName());
+		if (a == null)
+			return false;
+
+		Map<EmitKey, List<EmitValue>> table = this.tables.get(key.getName());
+		if (table == null) {
+			table = new HashMap<EmitKey, List<EmitValue>>();
+			this.tables.put(key.getName(), table);
+		}
+
+		List<EmitValue> values = table.get(key);
+		if (values == null) {
+			values = new ArrayList<EmitValue>();
+			table.put(key, values);
+			this.size += sizeOf(key);
+		}
+		values.add(value);
+		this.size += sizeOf(value);
+		this.inputs++;
+
+		if (values.size() >= VALUES_PER_KEY) {
+			final List<EmitValue> combined = this.combine(a, key, values);
+			this.size -= sizeOf(values);
+			if (combined.size() > VALUES_PER_KEY / 2) {
+				table.remove(key);
+				this.size -= sizeOf(key);
+				this.write(key, combined);
+			} else {
+				table.put(key, combined);
+				this.size += sizeOf(combined);
+			}
+		}
+
+		if (this.size > this.capacity)
+			this.flush();
+
+		return true;
+	}
+
+	/**
+	 * Combines every key and writes the results to the mapper's context,
+	 * emptying the tables.
+	 */
+	public void flush() throws IOException, InterruptedException {
+		if (this.inputs == 0)
+			return;
+
+		for (final Map.Entry<String, Map<EmitKey, List<EmitValue>>> t : this.tables.entrySet()) {
+			final Aggregator a = this.aggregators.get(t.getKey());
+			for (final Map.Entry<EmitKey, List<EmitValue>> e : t.getValue().entrySet())
+				this.write(e.getKey(), e.getValue().size() > 1 ? this.combine(a, e.getKey(), e.getValue()) : e.getValue());
+		}
+
+		this.context.getCounter(INMAPPERCOUNTER.INPUT_RECORDS).increment(this.inputs);
+		this.context.getCounter(INMAPPERCOUNTER.OUTPUT_RECORDS).increment(this.outputs);
+		this.context.getCounter(INMAPPERCOUNTER.FLUSHES).increment(1);
+
+		this.tables.clear();
+		this.size = 0;
+		this.inputs = 0;
+		this.outputs = 0;
+	}
+
+	private void write(final EmitKey key, final List<EmitValue> values) throws IOException, InterruptedException {
+		for (final EmitValue value : values)
+			this.context.write(key, value);
+		this.outputs += values.size();
+	}
+
+	/**
+	 * Runs the values of a key through an aggregator in combining mode.
+	 */
+	private List<EmitValue> combine(final Aggregator a, final EmitKey key, final List<EmitValue> values) throws IOException, InterruptedException {
+		this.collected = new ArrayList<EmitValue>();
+
+		a.setCombining(true);
+		a.start(key);
+		a.setContext(this.combining);
+
+		for (final EmitValue value : values)
+			try {
+				a.aggregate(value);
+			} catch (final FinishedException e) {
+				// we are done
+				return this.collected;
+			} catch (final IOException e) {
+				throw e;
+			} catch (final InterruptedException e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw new RuntimeException(e);
+			}
+
+		a.finish();
+		return this.collected;
+	}
+
+	/**
+	 * Estimates how many bytes of memory a key takes.
+	 */
+	private static long sizeOf(final EmitKey key) {
+		return 64 + 2 * (key.getName().length() + key.getIndex().length());
+	}
+
+	/**
+	 * Estimates how many bytes of memory a value takes.
+	 */
+	private static long sizeOf(final EmitValue value) {
+		long size = 48;
+		if (value.getType() == EmitValue.TYPE_STRING || value.getType() == EmitValue.TYPE_TUPLE)
+			for (final String s : value.getData())
+				size += 40 + 2 * s.length();
+		if (value.getMetadata() != null)
+			size += 40 + 2 * value.getMetadata().length();
+		return size;
+	}
+
+	private static long sizeOf(final List<EmitValue> values) {
+		long size = 0;
+		for (final EmitValue value : values)
+			size += sizeOf(value);
+		return size;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * The value a traversal computed for each node of a graph, keyed by node id.
+ *
+ * The nodes of a graph are numbered from 0, so values are kept in an array
+ * indexed by id instead of a map of boxed ids.  Ids too large to index, if
+ * any, are kept in a map.
+ *
+ * @param <T> the type of the values
+ */
+public class NodeValues<T> {
+	/** ids from this one up are kept in the map */
+	private static final int MAX_INDEXED = 1 << 20;
+
+	private Object[] values;
+	private final BitSet present;
+	private HashMap<Long, T> others = null;
+
+	public NodeValues() {
+		this.values = new Object[64];
+		this.present = new BitSet();
+	}
+
+	/**
+	 * Copies the values of another {@link NodeValues}.
+	 */
+	public NodeValues(final NodeValues<T> that) {
+		this.values = Arrays.copyOf(that.values, that.values.length);
+		this.present = (BitSet) that.present.clone();
+		if (that.others != null)
+			this.others = new HashMap<Long, T>(that.others);
+	}
+
+	private static boolean isIndexed(final long id) {
+		return id >= 0 && id < MAX_INDEXED;
+	}
+
+	public boolean containsKey(final long id) {
+		if (isIndexed(id))
+			return this.present.get((int) id);
+		return this.others != null && this.others.containsKey(id);
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(final long id) {
+		if (isIndexed(id))
+			return (int) id < this.values.length ? (T) this.values[(int) id] : null;
+		return this.others == null ? null : this.others.get(id);
+	}
+
+	/**
+	 * Sets the value of a node.
+	 *
+	 * @return the previous value, or null if there was none
+	 */
+	public T put(final long id, final T value) {
+		if (!isIndexed(id)) {
+			if (this.others == null)
+				this.others = new HashMap<Long, T>();
+			return this.others.put(id, value);
+		}
+
+		final int i = (int) id;
+		if (i >= this.values.length)
+			this.values = Arrays.copyOf(this.values, Math.max(i + 1, 2 * this.values.length));
+		final T prev = get(id);
+		this.values[i] = value;
+		this.present.set(i);
+		return prev;
+	}
+
+	public int size() {
+		return this.present.cardinality() + (this.others == null ? 0 : this.others.size());
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(this.values, null);
+		this.present.clear();
+		this.others = null;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import com.google.protobuf.WireFormat;
+
+/**
+ * Parses protocol buffer messages keeping only some of their fields.
+ *
+ * Each message type given to {@link #keep(Descriptor, String...)} is parsed
+ * field by field: fields that are not kept are skipped without being
+ * decoded, and kept fields of other partially kept types are parsed the same
+ * way.  Every other message type is parsed in full.  Messages are built
+ * with {@link Message.Builder#buildPartial()}, so skipped required fields
+ * are allowed.
+ */
+public class PartialMessageParser {
+	private final Map<Descriptor, Set<Integer>> kept = new HashMap<Descriptor, Set<Integer>>();
+
+	/**
+	 * Keeps only the named fields of a message type.  If a name is not a
+	 * field of the type, the type is parsed in full.
+	 *
+	 * @param type the message type
+	 * @param names the names of the fields to keep
+	 * @return this parser
+	 */
+	public PartialMessageParser keep(final Descriptor type, final String... names) {
+		final Set<Integer> numbers = new HashSet<Integer>();
+		for (final String name : names) {
+			final FieldDescriptor fd = type.findFieldByName(name);
+			if (fd == null)
+				return this;
+			numbers.add(fd.getNumber());
+		}
+		this.kept.put(type, numbers);
+		return this;
+	}
+
+	/**
+	 * Returns true if no message type is partially kept.
+	 */
+	public boolean isEmpty() {
+		return this.kept.isEmpty();
+	}
+
+	/**
+	 * Parses a message.
+	 *
+	 * @param builder an empty builder for the message
+	 * @param bytes the serialized message
+	 * @param off the offset of the message in the bytes
+	 * @param len the length of the message
+	 * @return the message
+	 */
+	public Message parse(final Message.Builder builder, final byte[] bytes, final int off, final int len) throws IOException {
+		merge(builder, bytes, off, len);
+		return builder.buildPartial();
+	}
+
+	private void merge(final Message.Builder builder, final byte[] bytes, final int off, final int len) throws IOException {
+		final Descriptor type = builder.getDescriptorForType();
+		final Set<Integer> numbers = this.kept.get(type);
+		if (numbers == null) {
+			mergeRaw(builder, bytes, off, len);
+			return;
+		}
+
+		final CodedInputStream in = CodedInputStream.newInstance(bytes, off, len);
+		// consecutive kept fields are merged together, without copying them
+		int start = -1, end = -1;
+		while (true) {
+			final int pos = in.getTotalBytesRead();
+			final int tag = in.readTag();
+			if (tag == 0)
+				break;
+
+			final FieldDescriptor fd = type.findFieldByNumber(WireFormat.getTagFieldNumber(tag));
+			if (fd == null || !numbers.contains(fd.getNumber())) {
+				in.skipField(tag);
+				continue;
+			}
+
+			// the low three bits of a tag are its wire type
+			if (fd.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+					&& this.kept.containsKey(fd.getMessageType())
+					&& (tag & 7) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+				if (start >= 0) {
+					mergeRaw(builder, bytes, off + start, end - start);
+					start = -1;
+				}
+
+				final int length = in.readRawVarint32();
+				final Message.Builder field = builder.newBuilderForField(fd);
+				if (!fd.isRepeated() && builder.hasField(fd))
+					field.mergeFrom((Message) builder.getField(fd));
+				merge(field, bytes, off + in.getTotalBytesRead(), length);
+				in.skipRawBytes(length);
+
+				if (fd.isRepeated())
+					builder.addRepeatedField(fd, field.buildPartial());
+				else
+					builder.setField(fd, field.buildPartial());
+				continue;
+			}
+
+			in.skipField(tag);
+			if (start < 0 || end != pos) {
+				if (start >= 0)
+					mergeRaw(builder, bytes, off + start, end - start);
+				start = pos;
+			}
+			end = in.getTotalBytesRead();
+		}
+
+		if (start >= 0)
+			mergeRaw(builder, bytes, off + start, end - start);
+	}
+
+	private static void mergeRaw(final Message.Builder builder, final byte[] bytes, final int off, final int len) throws IOException {
+		final CodedInputStream in = CodedInputStream.newInstance(bytes, off, len);
+		// defaults to 64, really big ASTs require more
+		in.setRecursionLimit(Integer.MAX_VALUE);
+		builder.mergeFrom(in);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.runtime;
+
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.mapred.RawKeyValueIterator;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.util.Progress;
+
+import boa.io.EmitKey;
+import boa.io.EmitValue;
+
+/**
+ * Makes {@link Reducer.Context}s for running reducers and aggregators outside
+ * of a reduce task.  The groups are passed to the reducer by the caller, so
+ * the contexts have no input of their own.
+ */
+final class ReduceContexts {
+	private ReduceContexts() {
+	}
+
+	/**
+	 * Makes a context that writes a reducer's output to a writer.
+	 *
+	 * @param reducer the reducer the context is for
+	 * @param conf the configuration of the task
+	 * @param id the id of the task
+	 * @param writer where the output goes
+	 * @param reporter where counters are kept
+	 * @param groups counts the groups read, if the context reads any
+	 * @param records counts the values read, if the context reads any
+	 * @return the context
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static Reducer.Context create(final Reducer<EmitKey, EmitValue, ?, ?> reducer, final Configuration conf, final TaskAttemptID id, final RecordWriter writer, final StatusReporter reporter, final Counter groups, final Counter records) throws IOException, InterruptedException {
+		return ((Reducer) reducer).new Context(conf, id, EMPTY, groups, records, writer, null, reporter, new EmitKey(), EmitKey.class, EmitValue.class);
+	}
+
+	private static final RawKeyValueIterator EMPTY = new RawKeyValueIterator() {
+		@Override
+		public DataInputBuffer getKey() { return null; }
+
+		@Override
+		public DataInputBuffer getValue() { return null; }
+
+		@Override
+		public boolean next() { return false; }
+
+		@Override
+		public void close() { }
+
+		@Override
+		public Progress getProgress() { return null; }
+	};
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.compiler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.Tool;
+import org.junit.After;
+import org.junit.Before;
+
+import boa.compiler.ast.Start;
+import boa.compiler.transforms.InheritedAttributeTransformer;
+import boa.compiler.transforms.LocalAggregationTransformer;
+import boa.compiler.transforms.VariableDeclRenameTransformer;
+import boa.compiler.transforms.VisitorOptimizingTransformer;
+import boa.compiler.visitors.CodeGeneratingVisitor;
+import boa.types.Toplevel.Project;
+
+/**
+ * The base of tests that compile Boa programs and run them end to end with
+ * the {@link boa.runtime.BoaLocalRunner}, on projects written to a temporary
+ * input directory.
+ */
+public abstract class LocalRunnerBaseTest extends BaseTest {
+	protected File root;
+	protected File in;
+
+	@Before
+	public void createRoot() throws IOException {
+		root = Files.createTempDirectory("boa-local").toFile();
+		in = new File(root, "in");
+		in.mkdirs();
+	}
+
+	@After
+	public void deleteRoot() throws IOException {
+		delete(root);
+	}
+
+	/**
+	 * Writes the projects to the input directory, replacing any written before.
+	 */
+	protected void writeProjects(final List<Project> projects) throws IOException {
+		final Configuration conf = new Configuration();
+		final SequenceFile.Writer w = SequenceFile.createWriter(FileSystem.getLocal(conf), conf, new Path(in.getPath(), "projects.seq"), Text.class, BytesWritable.class);
+		try {
+			for (final Project p : projects)
+				w.append(new Text(p.getId()), new BytesWritable(p.toByteArray()));
+		} finally {
+			w.close();
+		}
+	}
+
+	/**
+	 * Generates the Java source of a program's job, named {@code boa.Test}.
+	 */
+	protected String generate(final String program) throws IOException {
+		final Start p = typecheck(program).ast;
+		new VariableDeclRenameTransformer().start(p);
+		new InheritedAttributeTransformer().start(p);
+		new LocalAggregationTransformer().start(p);
+		new VisitorOptimizingTransformer().start(p);
+
+		final CodeGeneratingVisitor cg = new CodeGeneratingVisitor("Test", 64 * 1024 * 1024, 0, false);
+		cg.start(p);
+		return cg.getCode();
+	}
+
+	/**
+	 * Compiles a program's job and loads it.
+	 */
+	protected Class<?> compile(final String program) throws Exception {
+		return compile(generate(program), "classes");
+	}
+
+	/**
+	 * Compiles the source of a job and loads it.
+	 *
+	 * @param source the source generated for the job
+	 * @param name the name of the directory to compile to, so several jobs can be loaded
+	 */
+	protected Class<?> compile(final String source, final String name) throws Exception {
+		final File classes = new File(root, name);
+		final File src = new File(classes, "boa/Test.java");
+		src.getParentFile().mkdirs();
+		try (final BufferedOutputStream o = new BufferedOutputStream(new FileOutputStream(src))) {
+			o.write(source.getBytes());
+		}
+
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, "-nowarn", "-cp", System.getProperty("java.class.path"), "-d", classes.getPath(), src.getPath()));
+
+		// left open, the job's classes are loaded from it by the runner's threads
+		final URLClassLoader loader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader());
+		return loader.loadClass("boa.Test");
+	}
+
+	/**
+	 * Runs a job on the input and returns the lines of each part file, in order.
+	 *
+	 * @param job the job
+	 * @param conf the configuration of the job
+	 * @param name the name of the run, for its output directory
+	 * @param threads the number of map threads
+	 */
+	protected List<List<String>> runParts(final Class<?> job, final Configuration conf, final String name, final int threads) throws Exception {
+		final Tool tool = (Tool) job.getDeclaredConstructor().newInstance();
+		tool.setConf(conf);
+		final File out = new File(root, name);
+		assertEquals(0, tool.run(new String[] { in.getPath(), out.getPath(), "--threads", Integer.toString(threads) }));
+
+		final List<List<String>> parts = new ArrayList<List<String>>();
+		File part;
+		while ((part = new File(out, String.format("part-r-%05d", parts.size()))).exists())
+			parts.add(Files.readAllLines(part.toPath(), StandardCharsets.UTF_8));
+		return parts;
+	}
+
+	/**
+	 * Runs a job on the input and returns the lines of every part file.
+	 */
+	protected List<String> run(final Class<?> job, final Configuration conf, final String name, final int threads) throws Exception {
+		final List<String> lines = new ArrayList<String>();
+		for (final List<String> part : runParts(job, conf, name, threads))
+			lines.addAll(part);
+		return lines;
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.compiler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.Token;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.STGroupFile;
+
+import boa.compiler.CompilationCache;
+import boa.compiler.visitors.AbstractCodeGeneratingVisitor;
+import boa.parser.BoaLexer;
+
+/**
+ * Tests the keys of programs in the {@link CompilationCache}, and storing
+ * and evicting programs.
+ */
+public class TestCompilationCache {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static String hash(final String program, final String className) throws IOException {
+		final List<Token> tokens = new ArrayList<Token>(new BoaLexer(new ANTLRInputStream(program)).getAllTokens());
+		return CompilationCache.hash(tokens, className, false, new ArrayList<File>());
+	}
+
+	private static Map<String, byte[]> files(final int size) {
+		final Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+		// random bytes, so the zip files do not compress smaller than the size
+		final byte[] source = new byte[size];
+		new Random(size).nextBytes(source);
+		files.put("boa/P.java", source);
+		files.put("boa/P.class", new byte[] { 1, 2, 3 });
+		return files;
+	}
+
+	@Test
+	public void testKeys() throws IOException {
+		final String key = hash("o: output sum of int;\no << 1;\n", "P");
+		assertEquals(key, hash("# a comment\no:output sum of int;   o << 1;", "P"));
+		assertNotEquals(key, hash("o: output sum of int;\no << 2;\n", "P"));
+		assertNotEquals(key, hash("o: output sum of int;\no << 1;\n", "Q"));
+	}
+
+	@Test
+	public void testTemplates() throws IOException {
+		final String program = "o: output sum of int;\no << 1;\n";
+		final String key = hash(program, "P");
+		final CompilationCache cache = new CompilationCache(folder.newFolder(), 1024 * 1024, 24 * 60 * 60 * 1000);
+		cache.put(key, files(10));
+
+		final STGroup stg = AbstractCodeGeneratingVisitor.stg;
+		try {
+			final File template = folder.newFile("BoaJava.stg");
+			FileUtils.copyFile(new File("templates/BoaJava.stg"), template);
+			AbstractCodeGeneratingVisitor.stg = new STGroupFile("templates/BoaJavaHadoop.stg");
+			AbstractCodeGeneratingVisitor.stg.importTemplates(new STGroupFile(template.getPath()));
+
+			// the same templates read from elsewhere make the same key
+			assertEquals(key, hash(program, "P"));
+
+			// a changed template misses the cache
+			FileUtils.writeStringToFile(template, "\n", StandardCharsets.UTF_8, true);
+			final String changed = hash(program, "P");
+			assertNotEquals(key, changed);
+			assertNull(cache.get(changed));
+		} finally {
+			AbstractCodeGeneratingVisitor.stg = stg;
+		}
+		assertEquals(key, hash(program, "P"));
+	}
+
+	@Test
+	public void testStore() throws IOException {
+		final CompilationCache cache = new CompilationCache(folder.getRoot(), 1024 * 1024, 24 * 60 * 60 * 1000);
+		assertNull(cache.get("a"));
+
+		cache.put("a", files(10));
+		final Map<String, byte[]> files = cache.get("a");
+		assertEquals(files(10).keySet(), files.keySet());
+		for (final Map.Entry<String, byte[]> e : files(10).entrySet())
+			assertArrayEquals(e.getValue(), files.get(e.getKey()));
+	}
+
+	@Test
+	public void testEvict() throws IOException {
+		final CompilationCache cache = new CompilationCache(folder.getRoot(), 3000, 24 * 60 * 60 * 1000);
+		cache.put("a", files(1000));
+		cache.put("b", files(1000));
+		new File(folder.getRoot(), "a.zip").setLastModified(System.currentTimeMillis() - 60 * 1000);
+		new File(folder.getRoot(), "b.zip").setLastModified(System.currentTimeMillis() - 30 * 1000);
+
+		// the least recently used program no longer fits
+		cache.put("c", files(1000));
+		assertNull(cache.get("a"));
+		assertEquals(2, cache.get("b").size());
+		assertEquals(2, cache.get("c").size());
+
+		// programs past the maximum age are evicted
+		new File(folder.getRoot(), "b.zip").setLastModified(System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000L);
+		cache.evict();
+		assertNull(cache.get("b"));
+		assertEquals(2, cache.get("c").size());
+	}
+
+	@Test
+	public void testPrivate() throws IOException {
+		final File dir = new File(folder.getRoot(), "cache");
+		final CompilationCache cache = new CompilationCache(dir, 1024 * 1024, 24 * 60 * 60 * 1000);
+		cache.put("a", files(10));
+		assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(dir.toPath()));
+
+		// a cache others can write to may hold planted classes, so it is not used
+		Files.setPosixFilePermissions(dir.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+		assertNull(cache.get("a"));
+		cache.put("b", files(10));
+		assertFalse(new File(dir, "b.zip").exists());
+	}
+}
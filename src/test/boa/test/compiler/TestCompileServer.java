@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.compiler.BoaCompileServer;
+
+/**
+ * Tests compiling programs through a {@link BoaCompileServer}: that the
+ * errors of a compile are sent back to the client, and that connections
+ * beyond those it serves and queues are turned away.
+ */
+public class TestCompileServer {
+	private File dir;
+	private ServerSocket socket;
+	private BoaCompileServer server;
+	private Thread serving;
+
+	/** The reply to one compile: its error lines, then its status line. */
+	private static class Reply {
+		final List<String> errors = new ArrayList<String>();
+		String status;
+
+		String errors() {
+			final StringBuilder sb = new StringBuilder();
+			for (final String line : this.errors)
+				sb.append(line).append('\n');
+			return sb.toString();
+		}
+	}
+
+	private static class Client implements AutoCloseable {
+		private final Socket socket;
+		private final BufferedReader in;
+		private final PrintStream out;
+
+		Client(final ServerSocket server) throws IOException {
+			this.socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+			this.socket.setSoTimeout(120 * 1000);
+			this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+			this.out = new PrintStream(this.socket.getOutputStream(), true);
+		}
+
+		Reply read() throws IOException {
+			final Reply reply = new Reply();
+			String line;
+			while ((line = this.in.readLine()) != null && line.startsWith("# "))
+				reply.errors.add(line.substring(2));
+			reply.status = line;
+			return reply;
+		}
+
+		Reply compile(final String options) throws IOException {
+			this.out.println(options);
+			return read();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.socket.close();
+		}
+	}
+
+	private void start(final int threads, final int queued) throws IOException {
+		this.server = new BoaCompileServer(new ArrayList<String>(), threads, queued);
+		this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		this.serving = new Thread() {
+			@Override
+			public void run() {
+				try {
+					server.serve(socket);
+				} catch (final IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		this.serving.start();
+	}
+
+	/** Writes a program under the server's directory, returning its relative path. */
+	private String program(final String name, final String source) throws IOException {
+		final File f = new File(this.dir, name + ".boa");
+		FileUtils.writeStringToFile(f, source, StandardCharsets.UTF_8);
+		return f.getPath();
+	}
+
+	private String options(final String name, final String source) throws IOException {
+		// the runtime jar is only copied into the program's jar
+		final File runtime = new File(this.dir, "boa-runtime.jar");
+		FileUtils.writeStringToFile(runtime, "runtime", StandardCharsets.UTF_8);
+		return "-i " + program(name, source) + " -o " + new File(this.dir, name + ".jar").getPath() + " -n " + name + " -j " + runtime.getPath();
+	}
+
+	@Before
+	public void createDirectory() throws IOException {
+		// the server only takes paths under its working directory
+		this.dir = new File(new File(".").getCanonicalFile().toPath().relativize(Files.createTempDirectory(new File("build").getCanonicalFile().toPath(), "compile-server").toAbsolutePath()).toString());
+	}
+
+	@After
+	public void stop() throws Exception {
+		if (this.socket != null)
+			this.socket.close();
+		if (this.serving != null)
+			this.serving.join(10 * 1000);
+		if (this.server != null)
+			this.server.close();
+		FileUtils.deleteDirectory(this.dir);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		start(2, 2);
+
+		final PrintStream err = System.err;
+		final ByteArrayOutputStream serverErr = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(serverErr, true));
+		try (final Client client = new Client(this.socket)) {
+			Reply reply = client.compile(options("Good", "o: output sum of int;\no << 1;\n"));
+			assertTrue(reply.status + "\n" + reply.errors(), reply.status.startsWith("OK "));
+			assertEquals("", reply.errors());
+			assertTrue(new File(this.dir, "Good.jar").isFile());
+
+			// errors in the program
+			reply = client.compile(options("Bad", "o: output sum of int;\no << \"a\";\n"));
+			assertTrue(reply.status, reply.status.startsWith("FAILED "));
+			assertTrue(reply.errors(), reply.errors().contains("typecheck"));
+			assertFalse(new File(this.dir, "Bad.jar").exists());
+
+			// a compile failing for another reason, here writing the jar over a directory, sends back why
+			reply = client.compile(options("Unwritable", "o: output sum of int;\no << 1;\n").replace("Unwritable.jar", ""));
+			assertTrue(reply.status, reply.status.startsWith("FAILED ") && reply.status.contains("compilation failed"));
+			assertTrue(reply.errors(), reply.errors().contains("FileNotFoundException"));
+
+			reply = client.compile("-i /etc/passwd -n Outside");
+			assertTrue(reply.status, reply.status.startsWith("FAILED -i must be a relative path"));
+
+			// the server still compiles after failures
+			reply = client.compile(options("Again", "o: output sum of int;\no << 2;\n"));
+			assertTrue(reply.status + "\n" + reply.errors(), reply.status.startsWith("OK "));
+		} finally {
+			System.setErr(err);
+		}
+		// the errors went to the client, not the server's console
+		assertFalse(serverErr.toString(), serverErr.toString().contains("FileNotFoundException"));
+	}
+
+	@Test
+	public void testBusy() throws Exception {
+		start(1, 1);
+
+		try (final Client first = new Client(this.socket)) {
+			// the first connection is served, which it shows by compiling
+			final Reply reply = first.compile(options("First", "o: output sum of int;\no << 1;\n"));
+			assertTrue(reply.status + "\n" + reply.errors(), reply.status.startsWith("OK "));
+
+			try (final Client second = new Client(this.socket); final Client third = new Client(this.socket)) {
+				// the second connection waits in the queue, the third is turned away
+				assertEquals("FAILED the server is busy", third.read().status);
+
+				final String options = options("Second", "o: output sum of int;\no << 1;\n");
+				first.close();
+				assertTrue(second.compile(options).status.startsWith("OK "));
+			}
+		}
+	}
+}
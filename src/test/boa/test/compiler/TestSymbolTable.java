@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.compiler;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import boa.compiler.SymbolTable;
+import boa.types.BoaInt;
+
+/**
+ * Tests that {@link SymbolTable#reset()} forgets the names programs
+ * declared, so programs compiled one after another in one JVM do not see
+ * each other's names, and keeps the built-in ones.
+ */
+public class TestSymbolTable extends BaseTest {
+	private static final String DECLARES = "type T = int;\n"
+			+ "g := function(x: int): int { return x; };\n"
+			+ "o: output sum of int;\n"
+			+ "o << g(1);\n";
+
+	@Test
+	public void testResetForgetsDeclarations() throws IOException {
+		typecheck(DECLARES);
+		final SymbolTable st = new SymbolTable();
+		assertTrue(st.hasType("T"));
+
+		SymbolTable.reset();
+		final SymbolTable after = new SymbolTable();
+		assertFalse(after.hasType("T"));
+		assertFalse(after.hasGlobalFunction("g"));
+
+		// the same program compiles again, as in a new JVM, and the next does not see its function
+		typecheck(DECLARES);
+		typecheck("o: output sum of int;\no << g(1);\n", "no such function g([int])");
+	}
+
+	@Test
+	public void testResetKeepsBuiltins() throws IOException {
+		SymbolTable.reset();
+		final SymbolTable st = new SymbolTable();
+		assertTrue(st.hasType("int"));
+		assertTrue(st.hasGlobal("input"));
+		assertTrue(st.hasGlobalFunction("len"));
+		assertNotNull(st.getAggregator("sum", new BoaInt()));
+	}
+
+	@Test
+	public void testDeclaredGlobalsAreForgotten() throws IOException {
+		final SymbolTable st = new SymbolTable();
+		st.set("declared", new BoaInt(), true);
+		assertTrue(new SymbolTable().hasGlobal("declared"));
+
+		SymbolTable.reset();
+		assertFalse(new SymbolTable().hasGlobal("declared"));
+
+		// initializing again forgets them too, and reset goes back to it
+		st.set("declared", new BoaInt(), true);
+		SymbolTable.initialize(new ArrayList<URL>());
+		assertFalse(new SymbolTable().hasGlobal("declared"));
+		SymbolTable.reset();
+		assertTrue(new SymbolTable().hasGlobalFunction("len"));
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.datagen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import boa.datagen.util.LineCounter;
+
+/**
+ * Tests the code, comment and blank lines counted by {@link LineCounter}.
+ */
+public class TestLineCounter {
+	private static void check(final String path, final String content, final int code, final int comment, final int blank) {
+		final LineCounter.Counts counts = LineCounter.count(path, content);
+		assertEquals("code", code, counts.code);
+		assertEquals("comment", comment, counts.comment);
+		assertEquals("blank", blank, counts.blank);
+	}
+
+	@Test
+	public void testJava() {
+		check("A.java",
+				"/**\n" +
+				" * doc\n" +
+				" */\n" +
+				"class A {\n" +
+				"\n" +
+				"\t// comment\n" +
+				"\tint x = 1; // trailing\n" +
+				"\t/* one */ int y;\n" +
+				"}\n", 4, 4, 1);
+	}
+
+	@Test
+	public void testJavaStrings() {
+		check("A.java",
+				"String s = \"// not a comment\";\n" +
+				"String t = \"\\\"/*\";\n" +
+				"char c = '\"';\n" +
+				"// done\n", 3, 1, 0);
+	}
+
+	@Test
+	public void testBlankLinesInBlockComment() {
+		check("A.java", "/*\n\n*/\nint x;", 1, 2, 1);
+	}
+
+	@Test
+	public void testXml() {
+		check("pom.xml",
+				"<?xml version=\"1.0\"?>\r\n" +
+				"<!-- a\r\n" +
+				"     b -->\r\n" +
+				"\r\n" +
+				"<project/>\r\n", 2, 2, 1);
+	}
+
+	@Test
+	public void testText() {
+		check("README.TXT", "a // b\n\n/* c */", 2, 0, 1);
+	}
+
+	@Test
+	public void testOther() {
+		assertNull(LineCounter.count("A.js", "var x;"));
+	}
+
+	@Test
+	public void testEmpty() {
+		check("A.java", "", 0, 0, 0);
+	}
+
+	@Test
+	public void testFormat() {
+		// only ohcount's row for the file, without its header
+		assertEquals("java                      1          2      66.7%          1          4  src/A.java",
+				LineCounter.count("src/A.java", "// a\n// b\n\nint x;\n").format("src/A.java"));
+	}
+}
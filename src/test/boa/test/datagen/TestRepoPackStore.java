@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.datagen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.datagen.RepoPackStore;
+
+/**
+ * Tests storing repositories with {@link RepoPackStore} and reading them back,
+ * both in place from a local store and through the node-local copies made for
+ * a store on another file system.
+ */
+public class TestRepoPackStore {
+	/** A local file system that claims not to be one, as HDFS would. */
+	private static class RemoteFileSystem extends FilterFileSystem {
+		RemoteFileSystem(final FileSystem local) {
+			super(local);
+		}
+
+		@Override
+		public URI getUri() {
+			return URI.create("remote:///");
+		}
+	}
+
+	private File root;
+	private Configuration conf;
+	private FileSystem local;
+
+	@Before
+	public void createRoot() throws IOException {
+		root = Files.createTempDirectory("boa-repopack").toFile();
+		conf = new Configuration();
+		conf.set("boa.repo.pack.local", new File(root, "node").getPath());
+		local = FileSystem.getLocal(conf);
+	}
+
+	@After
+	public void deleteRoot() {
+		FileUtils.deleteQuietly(root);
+	}
+
+	/** Creates a repository with one commit holding the given file. */
+	private File createRepository(final String name, final String content) throws Exception {
+		final File work = new File(root, "work-" + name);
+		final Git git = Git.init().setDirectory(work).call();
+		try {
+			Files.write(new File(work, "file.txt").toPath(), content.getBytes(StandardCharsets.UTF_8));
+			git.add().addFilepattern("file.txt").call();
+			git.commit().setMessage("add file").setAuthor("a", "a@example.com").setCommitter("a", "a@example.com").call();
+		} finally {
+			git.close();
+		}
+		return new File(work, ".git");
+	}
+
+	private static String readFile(final Repository repo) throws IOException {
+		final ObjectId head = repo.resolve("HEAD");
+		final RevWalk revWalk = new RevWalk(repo);
+		try {
+			final RevCommit commit = revWalk.parseCommit(head);
+			final TreeWalk walk = TreeWalk.forPath(repo, "file.txt", commit.getTree());
+			assertNotNull(walk);
+			return new String(repo.open(walk.getObjectId(0)).getBytes(), StandardCharsets.UTF_8);
+		} finally {
+			revWalk.close();
+		}
+	}
+
+	private Path store(final FileSystem fs, final String name, final String content) throws Exception {
+		final Path target = new Path(new File(root, "store/" + RepoPackStore.DIR + "/" + name).getPath());
+		final long size = RepoPackStore.write(fs, target, createRepository(name, content));
+		assertTrue(size > 0);
+		return target;
+	}
+
+	private File[] nodeCopies() {
+		final File[] copies = new File(root, "node/boa-repopack").listFiles();
+		return copies == null ? new File[0] : copies;
+	}
+
+	@Test
+	public void testLocalStoreOpenedInPlace() throws Exception {
+		final Path target = store(local, "1", "hello");
+
+		final Repository repo = RepoPackStore.open(local, target, conf);
+		try {
+			assertEquals(new File(target.toUri().getPath()).getCanonicalFile(), repo.getDirectory().getCanonicalFile());
+			assertEquals("hello", readFile(repo));
+		} finally {
+			RepoPackStore.close(repo);
+		}
+		assertEquals(0, nodeCopies().length);
+		assertTrue(new File(target.toUri().getPath()).isDirectory());
+	}
+
+	@Test
+	public void testMissing() throws Exception {
+		assertNull(RepoPackStore.open(local, new Path(new File(root, "missing").getPath()), conf));
+	}
+
+	@Test
+	public void testRemoteStoreCopiedOncePerNode() throws Exception {
+		final FileSystem remote = new RemoteFileSystem(local);
+		final Path target = store(remote, "2", "remote content");
+
+		final Repository first = RepoPackStore.open(remote, target, conf);
+		final File copy;
+		try {
+			assertEquals("remote content", readFile(first));
+			assertEquals(1, nodeCopies().length);
+			copy = first.getDirectory();
+		} finally {
+			RepoPackStore.close(first);
+		}
+
+		// the copy outlives the repository and is reused by the next open
+		assertTrue(copy.isDirectory());
+		final long copied = copy.lastModified();
+		Files.write(new File(copy, "marker").toPath(), new byte[0]);
+
+		final Repository second = RepoPackStore.open(remote, target, conf);
+		try {
+			assertEquals(copy.getCanonicalFile(), second.getDirectory().getCanonicalFile());
+			assertTrue("not copied again", new File(copy, "marker").exists());
+			assertTrue(copy.lastModified() >= copied);
+			assertEquals("remote content", readFile(second));
+		} finally {
+			RepoPackStore.close(second);
+		}
+		assertEquals(1, nodeCopies().length);
+	}
+
+	@Test
+	public void testLocalCopiesTrimmed() throws Exception {
+		// room for a single copy only
+		conf.setLong("boa.repo.pack.local.bytes", 1);
+		final FileSystem remote = new RemoteFileSystem(local);
+		final Path a = store(remote, "a", "a");
+		final Path b = store(remote, "b", "b");
+		final Path c = store(remote, "c", "c");
+
+		final Repository ra = RepoPackStore.open(remote, a, conf);
+		final File copyA = ra.getDirectory();
+
+		// a is still open, so opening b must not remove it
+		final Repository rb = RepoPackStore.open(remote, b, conf);
+		final File copyB = rb.getDirectory();
+		assertTrue(copyA.isDirectory());
+		assertTrue(copyB.isDirectory());
+		assertEquals("a", readFile(ra));
+
+		RepoPackStore.close(ra);
+		RepoPackStore.close(rb);
+
+		// neither is in use any more, so opening c removes both
+		final Repository rc = RepoPackStore.open(remote, c, conf);
+		try {
+			assertEquals("c", readFile(rc));
+			assertFalse(copyA.exists());
+			assertFalse(copyB.exists());
+			assertEquals(1, nodeCopies().length);
+		} finally {
+			RepoPackStore.close(rc);
+		}
+	}
+}
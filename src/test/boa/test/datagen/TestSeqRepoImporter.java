@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.datagen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import boa.datagen.DefaultProperties;
+import boa.datagen.RepoPackStore;
+import boa.datagen.SeqCombiner;
+import boa.datagen.SeqRepoImporter;
+import boa.types.Code.CodeRepository;
+import boa.types.Diff.ChangedFile;
+import boa.types.Toplevel.Project;
+
+/**
+ * Imports repositories of different sizes with several workers, which take
+ * the largest first, and combines their output, checking that the repository
+ * keys of each worker ascend and that every project points to its own
+ * repository.
+ */
+public class TestSeqRepoImporter {
+	private static final int PROJECTS = 8;
+
+	private static File root;
+	// the object id of the one file of each project
+	private static final Map<String, String> blobs = new HashMap<String, String>();
+
+	@BeforeClass
+	public static void createRoot() throws IOException {
+		root = Files.createTempDirectory("boa-import").toFile();
+		// the importer reads its settings once, when it is loaded
+		System.setProperty("gh.json.path", new File(root, "json").getPath());
+		System.setProperty("gh.svn.path", new File(root, "git").getPath());
+		System.setProperty("output.path", new File(root, "out").getPath());
+		System.setProperty("num.threads", "3");
+		DefaultProperties.STORE_ASTS = false;
+		DefaultProperties.STORE_REPO_PACKS = true;
+	}
+
+	@AfterClass
+	public static void deleteRoot() {
+		FileUtils.deleteQuietly(root);
+	}
+
+	/** Creates a repository whose one file has the given size. */
+	private static File createRepository(final String name, final int bytes) throws Exception {
+		final File work = new File(root, "work/" + name);
+		final Git git = Git.init().setDirectory(work).call();
+		try {
+			// random, so the pack is about as large as the file
+			final byte[] content = new byte[bytes];
+			new Random(bytes).nextBytes(content);
+			Files.write(new File(work, "file.bin").toPath(), content);
+			git.add().addFilepattern("file.bin").call();
+			blobs.put("o/" + name, new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, content).getName());
+			git.commit().setMessage("add file").setAuthor("a", "a@example.com").setCommitter("a", "a@example.com").call();
+		} finally {
+			git.close();
+		}
+		return new File(work, ".git");
+	}
+
+	private static void writeMetadata() throws Exception {
+		final StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < PROJECTS; i++) {
+			// sizes in KB, in no order, so workers do not take them as queued
+			final int size = 1 + (i * 5) % PROJECTS;
+			final File repo = createRepository("p" + i, size * 1024);
+			if (i > 0)
+				json.append(',');
+			json.append("{\"id\": \"" + i + "\", \"full_name\": \"o/p" + i + "\", \"name\": \"p" + i + "\"")
+				.append(", \"html_url\": \"http://example.com/p" + i + "\", \"homepage\": \"\"")
+				.append(", \"owner\": {\"type\": \"User\"}, \"default_branch\": \"master\"")
+				.append(", \"language\": \"Java\", \"fork\": false, \"size\": " + size)
+				.append(", \"clone_url\": \"" + repo.toURI() + "\"}");
+		}
+		json.append("]");
+		final File dir = new File(root, "json");
+		dir.mkdirs();
+		Files.write(new File(dir, "page.json").toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+		new File(root, "out/project").mkdirs();
+	}
+
+	private static Project parse(final BytesWritable value) throws IOException {
+		return Project.parseFrom(Arrays.copyOf(value.getBytes(), value.getLength()));
+	}
+
+	private static long repoKey(final Project p) {
+		final CodeRepository cr = p.getCodeRepositories(0);
+		assertFalse(p.getName(), cr.getHeadSnapshotList().isEmpty());
+		final long key = cr.getHeadSnapshot(0).getRepoKey();
+		assertTrue(p.getName(), key > 0);
+		for (final ChangedFile cf : cr.getHeadSnapshotList())
+			assertEquals(p.getName(), key, cf.getRepoKey());
+		return key;
+	}
+
+	private static String readFile(final Repository repo) throws IOException {
+		final RevWalk revWalk = new RevWalk(repo);
+		try {
+			final RevCommit commit = revWalk.parseCommit(repo.resolve("HEAD"));
+			final TreeWalk walk = TreeWalk.forPath(repo, "file.bin", commit.getTree());
+			assertNotNull(walk);
+			return walk.getObjectId(0).getName();
+		} finally {
+			revWalk.close();
+		}
+	}
+
+	@Test
+	public void testImportAndCombine() throws Exception {
+		writeMetadata();
+		SeqRepoImporter.main(new String[0]);
+
+		final String out = new File(root, "out").getPath();
+		final Configuration conf = new Configuration();
+		final FileSystem fs = FileSystem.getLocal(conf);
+
+		// SeqCombiner appends each worker's keys in the order they were written
+		int imported = 0;
+		for (final File f : new File(out, "project").listFiles()) {
+			if (!f.getName().endsWith(".seq"))
+				continue;
+			final SequenceFile.Reader r = new SequenceFile.Reader(fs, new Path(f.getPath()), conf);
+			try {
+				final Text key = new Text();
+				final BytesWritable value = new BytesWritable();
+				long last = 0;
+				while (r.next(key, value)) {
+					final long repoKey = repoKey(parse(value));
+					assertTrue(f.getName() + ": " + repoKey + " after " + last, repoKey > last);
+					last = repoKey;
+					imported++;
+				}
+			} finally {
+				r.close();
+			}
+		}
+		assertEquals(PROJECTS, imported);
+
+		SeqCombiner.main(new String[] { out });
+
+		final Map<String, Project> projects = new HashMap<String, Project>();
+		final SequenceFile.Reader r = new SequenceFile.Reader(fs, new Path(out, "projects.seq"), conf);
+		try {
+			final Text key = new Text();
+			final BytesWritable value = new BytesWritable();
+			while (r.next(key, value))
+				projects.put(key.toString(), parse(value));
+		} finally {
+			r.close();
+		}
+		assertEquals(PROJECTS, projects.size());
+
+		final Set<Long> keys = new HashSet<Long>();
+		for (final Project p : projects.values()) {
+			final long repoKey = repoKey(p);
+			assertTrue(p.getName() + " shares its repository", keys.add(repoKey));
+
+			// the stored repository is the project's own
+			final Repository repo = RepoPackStore.open(fs, new Path(out + "/" + RepoPackStore.DIR + "/" + repoKey), conf);
+			assertNotNull(p.getName(), repo);
+			try {
+				assertEquals(p.getName(), blobs.get(p.getName()), readFile(repo));
+			} finally {
+				RepoPackStore.close(repo);
+			}
+		}
+	}
+}
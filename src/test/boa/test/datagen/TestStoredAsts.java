@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.datagen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.SequenceFile.CompressionType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.datagen.scm.AbstractConnector;
+import boa.datagen.scm.GitConnector;
+import boa.datagen.util.JavaErrorCheckVisitor;
+import boa.datagen.util.JavaVisitor;
+import boa.types.Ast.ASTRoot;
+import boa.types.Code.Revision;
+import boa.types.Diff.ChangedFile;
+import boa.types.Diff.ChangedFile.FileKind;
+import boa.types.Shared.ChangeKind;
+
+/**
+ * Tests the ASTs a {@link GitConnector} stores for the Java files of a
+ * repository: every file must point to the AST of its own contents, whether
+ * the blob was parsed for it or its AST was reused from an earlier file with
+ * the same blob.
+ */
+public class TestStoredAsts {
+	private static final String A1 = "class A { int x; }";
+	private static final String A2 = "class A { int y; }";
+	private static final String B = "class B { void m() {} }";
+	private static final String BAD = "class Bad { void m( }";
+	private static final String D = "class D { }";
+
+	private File root;
+
+	@Before
+	public void createRoot() throws IOException {
+		root = Files.createTempDirectory("boa-asts").toFile();
+	}
+
+	@After
+	public void deleteRoot() {
+		FileUtils.deleteQuietly(root);
+		AbstractConnector.setParseThreads(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * The files of each commit, a null content deletes the file.  Blobs come
+	 * back through reverts, renames and copies.
+	 */
+	private static List<Map<String, String>> history() {
+		final List<Map<String, String>> commits = new ArrayList<Map<String, String>>();
+		Map<String, String> c = new LinkedHashMap<String, String>();
+		c.put("A.java", A1);
+		c.put("B.java", B);
+		c.put("Bad.java", BAD);
+		c.put("readme.txt", "read me");
+		commits.add(c);
+
+		c = new LinkedHashMap<String, String>();
+		c.put("A.java", A2);
+		commits.add(c);
+
+		c = new LinkedHashMap<String, String>();
+		c.put("A.java", A1);
+		c.put("B.java", null);
+		c.put("C.java", B);
+		commits.add(c);
+
+		c = new LinkedHashMap<String, String>();
+		c.put("Bad2.java", BAD);
+		c.put("D.java", D);
+		commits.add(c);
+
+		c = new LinkedHashMap<String, String>();
+		c.put("A.java", A2);
+		commits.add(c);
+		return commits;
+	}
+
+	/** Creates the repository and returns the contents of every commit. */
+	private List<Map<String, String>> createRepository(final File work, final List<Map<String, String>> commits) throws Exception {
+		final List<Map<String, String>> states = new ArrayList<Map<String, String>>();
+		final Map<String, String> state = new HashMap<String, String>();
+		final Git git = Git.init().setDirectory(work).call();
+		try {
+			int n = 0;
+			for (final Map<String, String> commit : commits) {
+				for (final Map.Entry<String, String> e : commit.entrySet()) {
+					if (e.getValue() == null) {
+						git.rm().addFilepattern(e.getKey()).call();
+						state.remove(e.getKey());
+					} else {
+						final File file = new File(work, e.getKey());
+						file.getParentFile().mkdirs();
+						Files.write(file.toPath(), e.getValue().getBytes(StandardCharsets.UTF_8));
+						git.add().addFilepattern(e.getKey()).call();
+						state.put(e.getKey(), e.getValue());
+					}
+				}
+				git.commit().setMessage("commit " + n++).setAuthor("a", "a@example.com").setCommitter("a", "a@example.com").call();
+				states.add(new HashMap<String, String>(state));
+			}
+		} finally {
+			git.close();
+		}
+		return states;
+	}
+
+	/** What the importer stored for a repository. */
+	static class Stored {
+		final List<Revision> revisions = new ArrayList<Revision>();
+		final List<ChangedFile> head = new ArrayList<ChangedFile>();
+		final Map<Long, ASTRoot> asts = new LinkedHashMap<Long, ASTRoot>();
+		long reused, saved;
+	}
+
+	private Stored importRepository(final File gitDir, final String name) throws IOException {
+		final Configuration conf = new Configuration();
+		final FileSystem fs = FileSystem.getLocal(conf);
+		final Path astPath = new Path(new File(root, name + "-ast").getPath());
+		final SequenceFile.Writer astWriter = SequenceFile.createWriter(fs, conf, astPath, LongWritable.class, BytesWritable.class, CompressionType.BLOCK);
+		final SequenceFile.Writer commitWriter = SequenceFile.createWriter(fs, conf, new Path(new File(root, name + "-commit").getPath()), LongWritable.class, BytesWritable.class, CompressionType.BLOCK);
+		final SequenceFile.Writer contentWriter = SequenceFile.createWriter(fs, conf, new Path(new File(root, name + "-source").getPath()), LongWritable.class, BytesWritable.class, CompressionType.BLOCK);
+
+		final Stored stored = new Stored();
+		final GitConnector conn = new GitConnector(gitDir.getPath(), name, astWriter, 1, commitWriter, 1, contentWriter, 1, 0);
+		try {
+			for (final Object rev : conn.getRevisions(name))
+				stored.revisions.add((Revision) rev);
+			stored.head.addAll(conn.buildHeadSnapshot());
+			stored.reused = conn.getAstsReused();
+			stored.saved = conn.getAstBytesSaved();
+		} finally {
+			conn.close();
+			astWriter.close();
+			commitWriter.close();
+			contentWriter.close();
+		}
+
+		final SequenceFile.Reader r = new SequenceFile.Reader(fs, astPath, conf);
+		try {
+			final LongWritable key = new LongWritable();
+			final BytesWritable value = new BytesWritable();
+			while (r.next(key, value))
+				stored.asts.put(key.get(), ASTRoot.parseFrom(Arrays.copyOf(value.getBytes(), value.getLength())));
+		} finally {
+			r.close();
+		}
+		return stored;
+	}
+
+	/** Parses a file as the importer does, returning null if it has errors. */
+	private static ASTRoot parse(final String content, final FileKind[] kind) {
+		final ASTParser parser = ASTParser.newParser(AST.JLS8);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setSource(content.toCharArray());
+		final Map<?, ?> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.VERSION_1_8, options);
+		parser.setCompilerOptions(options);
+		final CompilationUnit cu = (CompilationUnit) parser.createAST(null);
+
+		final JavaErrorCheckVisitor errorCheck = new JavaErrorCheckVisitor();
+		cu.accept(errorCheck);
+		if (errorCheck.hasError) {
+			kind[0] = FileKind.SOURCE_JAVA_ERROR;
+			return null;
+		}
+
+		final JavaVisitor visitor = new JavaVisitor(content);
+		final ASTRoot ast = ASTRoot.newBuilder().addNamespaces(visitor.getNamespaces(cu)).build();
+		switch (visitor.getAstLevel()) {
+		case JavaVisitor.JLS2:
+			kind[0] = FileKind.SOURCE_JAVA_JLS2;
+			break;
+		case JavaVisitor.JLS3:
+			kind[0] = FileKind.SOURCE_JAVA_JLS3;
+			break;
+		case JavaVisitor.JLS4:
+			kind[0] = FileKind.SOURCE_JAVA_JLS4;
+			break;
+		case JavaVisitor.JLS8:
+			kind[0] = FileKind.SOURCE_JAVA_JLS8;
+			break;
+		default:
+			kind[0] = FileKind.SOURCE_JAVA_ERROR;
+		}
+		return ast;
+	}
+
+	private static void checkFile(final Stored stored, final ChangedFile cf, final Map<String, String> state) {
+		if (!cf.getName().endsWith(".java"))
+			return;
+		final String content = state.get(cf.getName());
+		assertNotNull(cf.getName(), content);
+
+		final FileKind[] kind = new FileKind[1];
+		final ASTRoot expected = parse(content, kind);
+		assertEquals(cf.getName(), kind[0], cf.getKind());
+		if (expected == null) {
+			assertFalse(cf.getName(), cf.getAst());
+		} else {
+			assertTrue(cf.getName(), cf.getAst());
+			assertEquals(cf.getName(), expected, stored.asts.get(cf.getKey()));
+		}
+	}
+
+	@Test
+	public void testReusedAstsMatchTheirBlobs() throws Exception {
+		final File work = new File(root, "work");
+		final List<Map<String, String>> states = createRepository(work, history());
+		final Stored stored = importRepository(new File(work, ".git"), "reuse");
+
+		assertEquals(states.size(), stored.revisions.size());
+		for (int i = 0; i < states.size(); i++)
+			for (final ChangedFile cf : stored.revisions.get(i).getFilesList())
+				if (cf.getChange() != ChangeKind.DELETED)
+					checkFile(stored, cf, states.get(i));
+		assertEquals(states.get(states.size() - 1).size(), stored.head.size());
+		for (final ChangedFile cf : stored.head)
+			checkFile(stored, cf, states.get(states.size() - 1));
+
+		// one record per blob that parses: the two versions of A, B and D
+		assertEquals(4, stored.asts.size());
+		// A and C in the third commit, A in the last, and A, C and D in the head snapshot
+		assertEquals(6, stored.reused);
+		assertTrue(stored.saved > 0);
+	}
+
+	/**
+	 * A longer history of files that change often, some back to an earlier
+	 * version and some to one that does not parse.
+	 */
+	private static List<Map<String, String>> randomHistory(final long seed) {
+		final Random random = new Random(seed);
+		final List<Map<String, String>> commits = new ArrayList<Map<String, String>>();
+		for (int i = 0; i < 40; i++) {
+			final Map<String, String> c = new LinkedHashMap<String, String>();
+			for (int n = 1 + random.nextInt(4); n > 0; n--) {
+				final int f = random.nextInt(15);
+				final int v = random.nextInt(i + 1);
+				c.put("src/F" + f + ".java", v % 9 == 8 ? "class F" + f + " { int m( }" : "class F" + f + " { int f" + v + "; void m" + v + "() { f" + v + " = " + i % 3 + "; } }");
+			}
+			commits.add(c);
+		}
+		return commits;
+	}
+
+	@Test
+	public void testSameOutputWithParseThreads() throws Exception {
+		final File work = new File(root, "work");
+		createRepository(work, randomHistory(14));
+
+		AbstractConnector.setParseThreads(0);
+		final Stored serial = importRepository(new File(work, ".git"), "serial");
+		AbstractConnector.setParseThreads(4);
+		final Stored parallel = importRepository(new File(work, ".git"), "parallel");
+
+		assertEquals(serial.revisions, parallel.revisions);
+		assertEquals(serial.head, parallel.head);
+		// the same records, under the same keys, in the same order
+		assertEquals(new ArrayList<Map.Entry<Long, ASTRoot>>(serial.asts.entrySet()), new ArrayList<Map.Entry<Long, ASTRoot>>(parallel.asts.entrySet()));
+		assertEquals(serial.reused, parallel.reused);
+		assertTrue(serial.reused > 0);
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static boa.functions.BoaAstIntrinsics.parse;
+
+import java.util.Random;
+
+import boa.graphs.cfg.CFG;
+import boa.types.Ast.ASTRoot;
+import boa.types.Ast.Method;
+
+/**
+ * Writes random Java method bodies for the graph tests to compare against
+ * brute-force computations: nested branches, loops and switches over a few
+ * variables, with breaks, continues and returns where Java allows them.
+ */
+final class RandomMethods {
+	private static final String[] STATEMENTS = {
+		"a0();", "a1(x);", "x = y + 1;", "y = x * z;", "z = f(x, z);", "x = x + 1;", "y = 0;",
+	};
+
+	private static final String[] CONDITIONS = { "c()", "x > 0", "y < z" };
+
+	private RandomMethods() {
+	}
+
+	static Method method(final String body) {
+		final ASTRoot root = parse("class A { void m() { " + body + " } }");
+		return root.getNamespaces(0).getDeclarations(0).getMethods(0);
+	}
+
+	/**
+	 * Returns the CFG of a method body, or null if it could not be built.
+	 */
+	static CFG cfg(final String body) {
+		return new CFG(method(body)).get();
+	}
+
+	static String body(final Random random) {
+		final StringBuilder sb = new StringBuilder();
+		block(random, sb, 0, false, false);
+		return sb.toString();
+	}
+
+	private static String condition(final Random random) {
+		return CONDITIONS[random.nextInt(CONDITIONS.length)];
+	}
+
+	/**
+	 * Writes a random block of statements, with breaks, continues and
+	 * returns only where Java allows them and only as the last statement.
+	 */
+	private static void block(final Random random, final StringBuilder sb, final int depth, final boolean inLoop, final boolean inSwitch) {
+		final int count = 1 + random.nextInt(depth > 2 ? 2 : 4);
+		for (int i = 0; i < count; i++) {
+			final boolean last = i == count - 1;
+			final int kind = depth > 3 ? 0 : random.nextInt(last ? 11 : 8);
+			switch (kind) {
+			case 0:
+			case 1:
+				sb.append(STATEMENTS[random.nextInt(STATEMENTS.length)]);
+				break;
+			case 2:
+				sb.append("if (" + condition(random) + ") {");
+				block(random, sb, depth + 1, inLoop, inSwitch);
+				sb.append("}");
+				if (random.nextBoolean()) {
+					sb.append(" else {");
+					block(random, sb, depth + 1, inLoop, inSwitch);
+					sb.append("}");
+				}
+				break;
+			case 3:
+				sb.append("while (" + condition(random) + ") {");
+				block(random, sb, depth + 1, true, false);
+				sb.append("}");
+				break;
+			case 4:
+				sb.append("do {");
+				block(random, sb, depth + 1, true, false);
+				sb.append("} while (" + condition(random) + ");");
+				break;
+			case 5:
+				sb.append("for (int i = 0; " + condition(random) + "; i++) {");
+				block(random, sb, depth + 1, true, false);
+				sb.append("}");
+				break;
+			case 6:
+				sb.append("switch (x) {");
+				final int cases = 1 + random.nextInt(3);
+				for (int c = 0; c < cases; c++) {
+					sb.append("case " + c + ":");
+					block(random, sb, depth + 1, inLoop, true);
+				}
+				if (random.nextBoolean()) {
+					sb.append("default:");
+					block(random, sb, depth + 1, inLoop, true);
+				}
+				sb.append("}");
+				break;
+			case 7:
+				sb.append("{");
+				block(random, sb, depth + 1, inLoop, inSwitch);
+				sb.append("}");
+				break;
+			case 8:
+				sb.append(inLoop || inSwitch ? "break;" : "a0();");
+				break;
+			case 9:
+				sb.append(inLoop ? "continue;" : "a1(y);");
+				break;
+			default:
+				sb.append("return;");
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.datagen.RepoPackStore;
+import boa.functions.BoaAstIntrinsics;
+import boa.functions.BoaAstIntrinsics.ASTCACHECOUNTER;
+import boa.runtime.BoaTaskContext;
+import boa.types.Diff.ChangedFile;
+import boa.types.Shared.ChangeKind;
+
+/**
+ * Tests that the ASTs {@link BoaAstIntrinsics#getASTRoot(ChangedFile)} parses
+ * are shared with the tasks that follow, and that failed parses are only
+ * kept for the task they failed in.
+ */
+public class TestAstCache {
+	private static final String GOOD = "class Good { int x; }";
+	private static final String BAD = "class Bad { void m( }";
+
+	private File root;
+	private Configuration conf;
+
+	@Before
+	public void createRepository() throws Exception {
+		root = Files.createTempDirectory("boa-astcache").toFile();
+		final File work = new File(root, "work");
+		final Git git = Git.init().setDirectory(work).call();
+		try {
+			for (final String name : new String[] { "Good", "Bad" }) {
+				Files.write(new File(work, name + ".java").toPath(), content(name).getBytes(StandardCharsets.UTF_8));
+				git.add().addFilepattern(name + ".java").call();
+			}
+			git.commit().setMessage("add files").setAuthor("a", "a@example.com").setCommitter("a", "a@example.com").call();
+		} finally {
+			git.close();
+		}
+
+		conf = new Configuration();
+		conf.set("boa.ast.dir", new File(root, "ast").getPath());
+		RepoPackStore.write(FileSystem.getLocal(conf), new Path(new File(root, "ast/" + RepoPackStore.DIR + "/1").getPath()), new File(work, ".git"));
+	}
+
+	@After
+	public void deleteRoot() throws IOException {
+		BoaTaskContext.get().close();
+		FileUtils.deleteQuietly(root);
+	}
+
+	private static String content(final String name) {
+		return name.equals("Good") ? GOOD : BAD;
+	}
+
+	private static ChangedFile file(final String name) {
+		final String id = new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, content(name).getBytes(StandardCharsets.UTF_8)).name();
+		return ChangedFile.newBuilder()
+				.setName(name + ".java")
+				.setKind(ChangedFile.FileKind.SOURCE_JAVA_JLS8)
+				.setChange(ChangeKind.ADDED)
+				.setKey(0)
+				.setAst(false)
+				.setRepoKey(1)
+				.setObjectId(id)
+				.build();
+	}
+
+	/** Starts a task on this thread, returning the counters it reports into. */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Counters startTask(final int id) throws Exception {
+		final Counters counters = new Counters();
+		final StatusReporter reporter = new StatusReporter() {
+			@Override
+			public Counter getCounter(final Enum<?> name) {
+				return counters.findCounter(name);
+			}
+
+			@Override
+			public Counter getCounter(final String group, final String name) {
+				return counters.findCounter(group, name);
+			}
+
+			@Override
+			public void progress() { }
+
+			@Override
+			public void setStatus(final String status) { }
+		};
+		final Mapper mapper = new Mapper();
+		BoaAstIntrinsics.setup(mapper.new Context(conf, new TaskAttemptID("test", 0, true, id, 0), null, null, null, reporter, null));
+		return counters;
+	}
+
+	private static void endTask() throws IOException {
+		BoaAstIntrinsics.cleanup(null);
+		BoaTaskContext.get().close();
+	}
+
+	private static long count(final Counters counters, final ASTCACHECOUNTER counter) {
+		return counters.findCounter(counter).getValue();
+	}
+
+	@Test
+	public void testFailedParsesOnlyKeptForTheirTask() throws Exception {
+		Counters counters = startTask(0);
+		assertEquals(0, BoaAstIntrinsics.getASTRoot(file("Bad")).getNamespacesCount());
+		final int namespaces = BoaAstIntrinsics.getASTRoot(file("Good")).getNamespacesCount();
+		assertTrue(namespaces > 0);
+		assertEquals(2, count(counters, ASTCACHECOUNTER.PARSES));
+
+		// the task does not parse either again
+		assertEquals(0, BoaAstIntrinsics.getASTRoot(file("Bad")).getNamespacesCount());
+		assertEquals(namespaces, BoaAstIntrinsics.getASTRoot(file("Good")).getNamespacesCount());
+		assertEquals(2, count(counters, ASTCACHECOUNTER.PARSES));
+		endTask();
+
+		// the next task gets the AST that parsed from the shared cache, and parses the failed one again
+		counters = startTask(1);
+		assertEquals(namespaces, BoaAstIntrinsics.getASTRoot(file("Good")).getNamespacesCount());
+		assertEquals(1, count(counters, ASTCACHECOUNTER.MEMORY_HITS));
+		assertEquals(0, BoaAstIntrinsics.getASTRoot(file("Bad")).getNamespacesCount());
+		assertEquals(1, count(counters, ASTCACHECOUNTER.MEMORY_HITS));
+		assertEquals(1, count(counters, ASTCACHECOUNTER.PARSES));
+		endTask();
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGNode;
+import boa.graphs.cfg.CompactCFG;
+import boa.types.Control.Node.NodeType;
+
+/**
+ * Tests that {@link CompactCFG} holds the same nodes, edges and variables as
+ * the {@link CFG} it is made from, and that a CFG changed after its compact
+ * form was made makes it again.
+ */
+public class TestCompactCFG {
+	private static final int METHODS = 300;
+
+	/** A CFG built by hand through the methods the builder uses. */
+	private static class Graph extends CFG {
+		void add(final CFGNode node) {
+			addNode(node);
+		}
+
+		void remove(final CFGNode node) {
+			removeNode(node);
+		}
+
+		void connect(final CFGNode src, final CFGNode dest) {
+			createNewEdge(src, dest);
+		}
+	}
+
+	private static List<Integer> ids(final List<CFGNode> nodes) {
+		final List<Integer> ids = new ArrayList<Integer>();
+		for (final CFGNode n : nodes)
+			ids.add(n.getNodeId());
+		Collections.sort(ids);
+		return ids;
+	}
+
+	private static void check(final CFG cfg) {
+		final CompactCFG g = cfg.getCompact();
+		assertSame(g, cfg.getCompact());
+		assertEquals(cfg.getNodes().size(), g.getNodeCount());
+		assertEquals(cfg.getNodes().size(), g.size());
+
+		int edges = 0;
+		for (final CFGNode node : cfg.getNodes()) {
+			final int id = node.getNodeId();
+			assertSame(node, g.getNode(id));
+			assertSame(node, cfg.getNode(id));
+
+			final List<Integer> succs = new ArrayList<Integer>();
+			for (int i = 0; i < g.getSuccessorCount(id); i++)
+				succs.add(g.getSuccessor(id, i));
+			assertEquals("successors of " + id, ids(node.getSuccessors()), succs);
+			edges += succs.size();
+
+			final List<Integer> preds = new ArrayList<Integer>();
+			for (int i = 0; i < g.getPredecessorCount(id); i++)
+				preds.add(g.getPredecessor(id, i));
+			assertEquals("predecessors of " + id, ids(node.getPredecessors()), preds);
+
+			final BitSet uses = new BitSet();
+			for (final String var : node.getUseVariables())
+				uses.set(g.getVariableId(var));
+			assertEquals("uses of " + id, uses, g.getUseVariableIds(id));
+
+			final String def = node.getDefVariables();
+			if (def == null || def.isEmpty())
+				assertEquals("def of " + id, -1, g.getDefVariableId(id));
+			else
+				assertEquals("def of " + id, def, g.getVariable(g.getDefVariableId(id)));
+		}
+		assertEquals(edges, g.getEdgeCount());
+		assertNull(g.getNode(-1));
+		assertNull(g.getNode(g.size()));
+		assertEquals(-1, g.getVariableId("no such variable"));
+	}
+
+	@Test
+	public void testRandomMethods() {
+		final Random random = new Random(2);
+		for (int i = 0; i < METHODS; i++) {
+			final CFG cfg = RandomMethods.cfg(RandomMethods.body(random));
+			if (cfg != null && !cfg.getNodes().isEmpty())
+				check(cfg);
+		}
+	}
+
+	@Test
+	public void testChangedAfterCompacting() {
+		final Graph graph = new Graph();
+		final CFGNode a = new CFGNode("a", NodeType.OTHER, "", "a");
+		final CFGNode b = new CFGNode("b", NodeType.OTHER, "", "b");
+		final CFGNode c = new CFGNode("c", NodeType.OTHER, "", "c");
+		graph.add(a);
+		graph.add(b);
+
+		assertSame(b, graph.getNode(b.getNodeId()));
+		assertNull(graph.getNode(c.getNodeId()));
+		assertEquals(0, graph.getCompact().getEdgeCount());
+
+		// nodes and edges added after the compact form was made are in it
+		graph.add(c);
+		graph.connect(a, b);
+		graph.connect(b, c);
+		assertSame(c, graph.getNode(c.getNodeId()));
+		assertEquals(2, graph.getCompact().getEdgeCount());
+		assertEquals(1, graph.getCompact().getSuccessorCount(b.getNodeId()));
+		check(graph);
+
+		graph.remove(c);
+		assertNull(graph.getNode(c.getNodeId()));
+		assertEquals(2, graph.getCompact().getNodeCount());
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.Test;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGEdge;
+import boa.graphs.cfg.CFGNode;
+import boa.graphs.trees.DTree;
+import boa.graphs.trees.Dominators;
+import boa.graphs.trees.PDTree;
+import boa.graphs.trees.TreeNode;
+
+/**
+ * Tests {@link Dominators}, {@link DTree} and {@link PDTree} against the
+ * definition of dominance, on random methods: a node dominates another if
+ * every path from the entry to it goes through the node, that is if removing
+ * the node leaves the other unreachable.
+ *
+ * @see RandomMethods
+ */
+public class TestDominators {
+	private static final int METHODS = 1000;
+
+	/** The nodes reachable from a root without going through a removed node. */
+	private static BitSet reachable(final CFGNode[] nodes, final int root, final int removed, final boolean post) {
+		final BitSet seen = new BitSet(nodes.length);
+		if (root == removed)
+			return seen;
+		final Deque<Integer> work = new ArrayDeque<Integer>();
+		seen.set(root);
+		work.push(root);
+		while (!work.isEmpty()) {
+			final CFGNode node = nodes[work.pop()];
+			for (final CFGEdge e : post ? node.getInEdges() : node.getOutEdges()) {
+				final int n = (post ? e.getSrc() : e.getDest()).getNodeId();
+				if (n != removed && !seen.get(n)) {
+					seen.set(n);
+					work.push(n);
+				}
+			}
+		}
+		return seen;
+	}
+
+	/**
+	 * Computes the immediate (post-)dominators from the definition: the
+	 * strict dominators of a node are the nodes without which it can not be
+	 * reached, and the immediate one is the strict dominator dominated by all
+	 * the others.
+	 */
+	private static int[] bruteForce(final CFG cfg, final boolean post) {
+		final CFGNode[] nodes = cfg.sortNodes();
+		final int n = nodes.length;
+		final int root = post ? n - 1 : 0;
+		final BitSet all = reachable(nodes, root, -1, post);
+
+		final BitSet[] doms = new BitSet[n];
+		for (int v = 0; v < n; v++)
+			doms[v] = new BitSet(n);
+		for (int d = 0; d < n; d++) {
+			final BitSet without = reachable(nodes, root, d, post);
+			for (int v = all.nextSetBit(0); v >= 0; v = all.nextSetBit(v + 1))
+				if (v != d && !without.get(v))
+					doms[v].set(d);
+		}
+
+		final int[] idom = new int[n];
+		Arrays.fill(idom, Dominators.NONE);
+		for (int v = all.nextSetBit(0); v >= 0; v = all.nextSetBit(v + 1))
+			for (int d = doms[v].nextSetBit(0); d >= 0; d = doms[v].nextSetBit(d + 1))
+				if (doms[d].cardinality() == doms[v].cardinality() - 1)
+					idom[v] = d;
+		return idom;
+	}
+
+	private static void check(final String body) throws Exception {
+		final CFG cfg = RandomMethods.cfg(body);
+		if (cfg == null || cfg.getNodes().isEmpty())
+			return;
+
+		// the ids the dominator arrays are indexed by
+		final int n = cfg.getNodes().size();
+		assertEquals(body, 0, cfg.getEntryNode().getNodeId());
+		assertEquals(body, n - 1, cfg.getExitNode().getNodeId());
+
+		final int[] idoms = bruteForce(cfg, false);
+		final int[] ipdoms = bruteForce(cfg, true);
+		assertEquals(body, Arrays.toString(idoms), Arrays.toString(Dominators.immediateDominators(cfg)));
+		assertEquals(body, Arrays.toString(ipdoms), Arrays.toString(Dominators.immediatePostDominators(cfg)));
+
+		final DTree dtree = new DTree(cfg);
+		assertEquals(body, 0, dtree.getRootNode().getNodeId());
+		for (int v = 0; v < n; v++) {
+			final TreeNode idom = dtree.getImmediateDominator(v);
+			if (idoms[v] == Dominators.NONE)
+				assertNull(body + ": node " + v, idom);
+			else
+				assertEquals(body + ": node " + v, idoms[v], idom.getNodeId());
+		}
+
+		// nodes that can not reach the exit hang from it
+		final PDTree pdtree = new PDTree(cfg);
+		assertEquals(body, n - 1, pdtree.getRootNode().getNodeId());
+		assertEquals(body, n, pdtree.getNodes().size());
+		for (int v = 0; v < n - 1; v++)
+			assertEquals(body + ": node " + v, ipdoms[v] == Dominators.NONE ? n - 1 : ipdoms[v], pdtree.getImmediatePostDominator(v).getNodeId());
+	}
+
+	@Test
+	public void testRandomMethods() throws Exception {
+		final Random random = new Random(1);
+		for (int i = 0; i < METHODS; i++) {
+			check(RandomMethods.body(random));
+		}
+	}
+
+	@Test
+	public void testLoopBody() throws Exception {
+		// 0 entry, 1 while, 2 a0(), 3 a1(), 4 a2(), 5 exit
+		final CFG cfg = RandomMethods.cfg("while (c()) { a0(); a1(); } a2();");
+		assertEquals(6, cfg.getNodes().size());
+
+		final DTree dtree = new DTree(cfg);
+		assertEquals(0, dtree.getImmediateDominator(1).getNodeId());
+		assertEquals(1, dtree.getImmediateDominator(2).getNodeId());
+		assertEquals(2, dtree.getImmediateDominator(3).getNodeId());
+		assertEquals(1, dtree.getImmediateDominator(4).getNodeId());
+		assertEquals(4, dtree.getImmediateDominator(5).getNodeId());
+
+		// the body of the loop is post-dominated by its next statement, not the loop's
+		final PDTree pdtree = new PDTree(cfg);
+		assertEquals(1, pdtree.getImmediatePostDominator(0).getNodeId());
+		assertEquals(4, pdtree.getImmediatePostDominator(1).getNodeId());
+		assertEquals(3, pdtree.getImmediatePostDominator(2).getNodeId());
+		assertEquals(1, pdtree.getImmediatePostDominator(3).getNodeId());
+		assertEquals(5, pdtree.getImmediatePostDominator(4).getNodeId());
+	}
+
+	@Test
+	public void testIdsChecked() throws Exception {
+		final CFG cfg = RandomMethods.cfg("a0(); if (c()) a1(); a2();");
+		assertNotNull(cfg);
+		cfg.getExitNode().setId(cfg.getNodes().size() + 3);
+		try {
+			new PDTree(cfg);
+			fail("ids not checked");
+		} catch (final IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("not numbered"));
+		}
+	}
+}
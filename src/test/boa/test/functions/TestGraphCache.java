@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static boa.functions.BoaGraphIntrinsics.getcdg;
+import static boa.functions.BoaGraphIntrinsics.getcfg;
+import static boa.functions.BoaGraphIntrinsics.getddg;
+import static boa.functions.BoaGraphIntrinsics.getdtree;
+import static boa.functions.BoaGraphIntrinsics.getpdg;
+import static boa.functions.BoaGraphIntrinsics.getpdgslice;
+import static boa.functions.BoaGraphIntrinsics.getpdtree;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.pdg.PDG;
+import boa.graphs.pdg.PDGEdge;
+import boa.graphs.pdg.PDGNode;
+import boa.graphs.slicers.PDGSlicer;
+import boa.runtime.BoaTaskContext;
+import boa.types.Ast.Method;
+
+/**
+ * Tests that the graph intrinsics hand out the graphs they cached for a
+ * method again, and that slicing with normalization leaves the PDGs handed
+ * out before unchanged.
+ */
+public class TestGraphCache {
+	private static final String BODY = "int x = f(); int y = x + 1; if (y > 0) { x = y * 2; } g(x, y);";
+
+	@After
+	public void closeTask() throws Exception {
+		BoaTaskContext.get().close();
+	}
+
+	/** Everything of a node a normalization changes. */
+	private static String contents(final PDGNode node) {
+		return node.getNodeId() + " " + node.getDefVariable() + " " + node.getUseVariables()
+				+ " " + (node.hasStmt() ? node.getStmt() : "") + " " + (node.hasExpr() ? node.getExpr() : "");
+	}
+
+	private static List<String> contents(final PDG pdg) {
+		final List<String> contents = new ArrayList<String>();
+		for (final PDGNode node : pdg.sortNodes()) {
+			contents.add(contents(node));
+			for (final PDGEdge e : node.getOutEdges())
+				contents.add(node.getNodeId() + " -" + e.getLabel() + "/" + e.getKind() + "-> " + e.getDest().getNodeId());
+		}
+		return contents;
+	}
+
+	/** The id of the node defining a variable first. */
+	private static int definition(final PDG pdg, final String var) {
+		for (final PDGNode node : pdg.sortNodes())
+			if (var.equals(node.getDefVariable()))
+				return node.getNodeId();
+		throw new AssertionError("no definition of " + var);
+	}
+
+	private static boolean normalized(final PDGSlicer slice) {
+		for (final PDGNode node : slice.getSlice())
+			if (node.getDefVariable() != null && node.getDefVariable().startsWith("var$"))
+				return true;
+		return false;
+	}
+
+	@Test
+	public void testHits() throws Exception {
+		final Method m = RandomMethods.method(BODY);
+		final CFG cfg = getcfg(m);
+		assertNotNull(cfg);
+		assertSame(cfg, getcfg(m));
+		assertSame(getdtree(m), getdtree(m));
+		assertSame(getpdtree(m), getpdtree(m));
+		assertSame(getcdg(m), getcdg(m));
+		assertSame(getddg(m), getddg(m));
+		assertSame(getpdg(m), getpdg(m));
+		assertSame(getpdg(m), getpdg(m, false));
+
+		// the graphs of the cached CFG are the cached ones, those of another are not
+		assertSame(getcdg(m), getcdg(cfg));
+		assertSame(getddg(m), getddg(cfg));
+		final CFG other = RandomMethods.cfg(BODY);
+		assertNotSame(getcdg(m), getcdg(other));
+		assertNotSame(getddg(m), getddg(other));
+
+		// the parameters as statements make other graphs
+		assertNotSame(getpdg(m), getpdg(m, true));
+		assertSame(getpdg(m, true), getpdg(m, true));
+
+		// a new task starts with no graphs
+		BoaTaskContext.get().close();
+		assertNotSame(cfg, getcfg(m));
+	}
+
+	@Test
+	public void testSliceOfPdgLeavesItUnchanged() throws Exception {
+		final Method m = RandomMethods.method(BODY);
+		final PDG pdg = getpdg(m);
+		final List<String> before = contents(pdg);
+
+		final PDGSlicer slice = getpdgslice(pdg, (long) definition(pdg, "x"), true);
+		assertTrue(slice.getTotalNodes() > 1);
+		assertTrue(normalized(slice));
+		for (final PDGNode node : slice.getSlice())
+			assertNotSame(pdg.getNode(node.getNodeId()), node);
+
+		assertEquals(before, contents(pdg));
+		assertFalse(pdg.isNormalized());
+		assertSame(pdg, getpdg(m));
+
+		// a slice that is not normalized is of the PDG itself
+		final PDGSlicer plain = getpdgslice(pdg, (long) definition(pdg, "x"), false);
+		assertFalse(normalized(plain));
+		for (final PDGNode node : plain.getSlice())
+			assertSame(pdg.getNode(node.getNodeId()), node);
+	}
+
+	@Test
+	public void testSliceOfMethodLeavesPdgUnchanged() throws Exception {
+		final Method m = RandomMethods.method(BODY);
+		final PDG pdg = getpdg(m);
+		final List<String> before = contents(pdg);
+
+		final PDGSlicer slice = getpdgslice(m, (long) definition(pdg, "y"), true);
+		assertTrue(normalized(slice));
+
+		assertEquals(before, contents(pdg));
+		assertSame(pdg, getpdg(m));
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		final PDG pdg = new PDG(RandomMethods.cfg(BODY));
+		final PDG copy = new PDG(pdg);
+		assertEquals(contents(pdg), contents(copy));
+		assertEquals(pdg.getTotalEdges(), copy.getTotalEdges());
+		assertEquals(pdg.getEntryNode().getNodeId(), copy.getEntryNode().getNodeId());
+		assertSame(copy.getNode(0), copy.getEntryNode());
+		for (final PDGNode node : copy.getNodes())
+			assertNotSame(pdg.getNode(node.getNodeId()), node);
+
+		copy.normalize();
+		assertTrue(copy.isNormalized());
+		assertFalse(pdg.isNormalized());
+		assertEquals(contents(new PDG(RandomMethods.cfg(BODY))), contents(pdg));
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import boa.functions.LRUCache;
+
+/**
+ * Tests the eviction order and size accounting of {@link LRUCache}, which
+ * holds the opened repositories and blob contents of getcontent.
+ */
+public class TestLRUCache {
+	/** A cache of strings sized by their length, recording evictions. */
+	private static class StringCache extends LRUCache<String, String> {
+		final List<String> evicted = new ArrayList<String>();
+
+		StringCache(final long capacity) {
+			super(capacity);
+		}
+
+		@Override
+		protected long sizeOf(final String value) {
+			return value.length();
+		}
+
+		@Override
+		protected void evicted(final String key, final String value) {
+			this.evicted.add(key);
+		}
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		final StringCache c = new StringCache(3);
+		c.put("a", "1");
+		c.put("b", "2");
+		c.put("c", "3");
+		assertEquals("1", c.get("a"));
+
+		c.put("d", "4");
+		assertEquals(Arrays.asList("b"), c.evicted);
+
+		c.put("e", "5");
+		assertEquals(Arrays.asList("b", "c"), c.evicted);
+
+		assertTrue(c.contains("a"));
+		assertTrue(c.contains("d"));
+		assertTrue(c.contains("e"));
+		assertEquals(3, c.count());
+		assertEquals(3, c.size());
+		assertEquals(2, c.getEvictions());
+	}
+
+	@Test
+	public void testContainsDoesNotTouch() {
+		final StringCache c = new StringCache(2);
+		c.put("a", "1");
+		c.put("b", "2");
+		assertTrue(c.contains("a"));
+
+		c.put("c", "3");
+		assertEquals(Arrays.asList("a"), c.evicted);
+	}
+
+	@Test
+	public void testSizeAccounting() {
+		final StringCache c = new StringCache(10);
+		c.put("a", "xxxx");
+		c.put("b", "yyy");
+		assertEquals(7, c.size());
+
+		// replacing a value releases the old one and counts only the new size
+		c.put("a", "z");
+		assertEquals(4, c.size());
+		assertEquals(Arrays.asList("a"), c.evicted);
+
+		c.remove("b");
+		assertEquals(1, c.size());
+		assertEquals(1, c.count());
+
+		c.remove("missing");
+		assertEquals(1, c.size());
+
+		// an explicit size overrides sizeOf
+		c.put("c", "q", 6);
+		assertEquals(7, c.size());
+
+		c.clear();
+		assertEquals(0, c.size());
+		assertEquals(0, c.count());
+		assertEquals(Arrays.asList("a", "b", "a", "c"), c.evicted);
+	}
+
+	@Test
+	public void testEvictsSeveralForOneLargeValue() {
+		final StringCache c = new StringCache(6);
+		c.put("a", "11");
+		c.put("b", "22");
+		c.put("c", "33");
+
+		c.put("d", "44444");
+		assertEquals(Arrays.asList("a", "b", "c"), c.evicted);
+		assertEquals(5, c.size());
+	}
+
+	@Test
+	public void testOversizedValueKeptAlone() {
+		final StringCache c = new StringCache(4);
+		c.put("a", "1");
+		c.put("big", "123456789");
+
+		assertFalse(c.contains("a"));
+		assertEquals("123456789", c.get("big"));
+		assertEquals(9, c.size());
+		assertEquals(1, c.count());
+
+		c.put("b", "2");
+		assertFalse(c.contains("big"));
+		assertEquals(1, c.size());
+	}
+
+	@Test
+	public void testShrinkingCapacityEvicts() {
+		final StringCache c = new StringCache(5);
+		for (final String k : new String[] { "a", "b", "c", "d", "e" })
+			c.put(k, k);
+		c.get("a");
+
+		c.setCapacity(2);
+		assertEquals(Arrays.asList("b", "c", "d"), c.evicted);
+		assertEquals(2, c.size());
+		assertTrue(c.contains("a"));
+		assertTrue(c.contains("e"));
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		final LRUCache<String, String> c = new LRUCache<String, String>(2);
+		assertNull(c.get("a"));
+		c.put("a", "1");
+		assertEquals("1", c.get("a"));
+		assertEquals("1", c.get("a"));
+		assertEquals(2, c.getHits());
+		assertEquals(1, c.getMisses());
+
+		// by default every value counts as one, so the capacity is a count
+		c.put("b", "22222");
+		c.put("c", "3");
+		assertEquals(2, c.count());
+		assertEquals(2, c.size());
+		assertFalse(c.contains("a"));
+	}
+}
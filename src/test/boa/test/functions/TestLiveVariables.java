@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGNode;
+import boa.graphs.ddg.DDG;
+import boa.graphs.ddg.DDGNode;
+
+/**
+ * Tests the live variable analysis the {@link DDG} forms its def-use chains
+ * from, against following every path from each definition: a definition
+ * reaches every use of its variable along a path on which no other node
+ * defines the variable first.
+ */
+public class TestLiveVariables {
+	private static final int METHODS = 500;
+
+	private static boolean defines(final CFGNode node, final String var) {
+		return var.equals(node.getDefVariables());
+	}
+
+	/**
+	 * Returns the ids of the nodes each node's definition reaches a use in.
+	 * The entry and exit are left out, as the DDG leaves them out.
+	 */
+	private static Map<Integer, Set<Integer>> bruteForce(final CFG cfg) {
+		final Map<Integer, Set<Integer>> chains = new TreeMap<Integer, Set<Integer>>();
+		final int exit = cfg.getExitNode().getNodeId();
+		for (final CFGNode def : cfg.getNodes()) {
+			final String var = def.getDefVariables();
+			if (def.getNodeId() == 0 || def.getNodeId() == exit || var == null || var.isEmpty())
+				continue;
+
+			final Set<Integer> uses = new TreeSet<Integer>();
+			final BitSet seen = new BitSet();
+			final Deque<CFGNode> work = new ArrayDeque<CFGNode>();
+			for (final CFGNode s : def.getSuccessors())
+				if (!seen.get(s.getNodeId())) {
+					seen.set(s.getNodeId());
+					work.push(s);
+				}
+			while (!work.isEmpty()) {
+				final CFGNode node = work.pop();
+				if (node.getUseVariables().contains(var))
+					uses.add(node.getNodeId());
+				// a node defining the variable again hides the definition from what follows
+				if (defines(node, var))
+					continue;
+				for (final CFGNode s : node.getSuccessors())
+					if (!seen.get(s.getNodeId())) {
+						seen.set(s.getNodeId());
+						work.push(s);
+					}
+			}
+			if (!uses.isEmpty())
+				chains.put(def.getNodeId(), uses);
+		}
+		return chains;
+	}
+
+	private static Map<Integer, Set<Integer>> chains(final DDG ddg) {
+		final Map<Integer, Set<Integer>> chains = new TreeMap<Integer, Set<Integer>>();
+		for (final Map.Entry<DDGNode, Set<DDGNode>> e : ddg.getDefUseChain().entrySet()) {
+			final Set<Integer> uses = new TreeSet<Integer>();
+			for (final DDGNode n : e.getValue())
+				uses.add(n.getNodeId());
+			chains.put(e.getKey().getNodeId(), uses);
+		}
+		return chains;
+	}
+
+	private static boolean check(final String body) throws Exception {
+		final CFG cfg = RandomMethods.cfg(body);
+		if (cfg == null || cfg.getNodes().isEmpty())
+			return false;
+		final Map<Integer, Set<Integer>> expected = bruteForce(cfg);
+		assertEquals(body, expected, chains(new DDG(cfg)));
+		return !expected.isEmpty();
+	}
+
+	@Test
+	public void testRandomMethods() throws Exception {
+		final Random random = new Random(3);
+		int withChains = 0;
+		for (int i = 0; i < METHODS; i++)
+			if (check(RandomMethods.body(random)))
+				withChains++;
+		assertTrue(withChains + " methods with def-use chains", withChains > METHODS / 4);
+	}
+
+	@Test
+	public void testLoop() throws Exception {
+		// the definition in the loop reaches its own use, around the loop
+		check("x = 0; while (x > 0) { a1(x); x = x + 1; } a1(x);");
+		check("x = 0; do { y = x; x = y + 1; } while (c()); a1(y);");
+	}
+}
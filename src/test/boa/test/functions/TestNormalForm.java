@@ -17,8 +17,11 @@
 package boa.test.functions;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static boa.functions.BoaAstIntrinsics.parseexpression;
 
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -492,4 +495,31 @@ public class TestNormalForm {
 	public void testDNF() throws Exception {
 		assertEquals(dnf, BoaNormalFormIntrinsics.dnf(e));
 	}
+
+	@Test
+	public void testMemoized() throws Exception {
+		// an equal expression shares the normal forms already computed
+		final Expression copy = e.toBuilder().build();
+		assertSame(BoaNormalFormIntrinsics.cnf(e), BoaNormalFormIntrinsics.cnf(copy));
+		assertSame(BoaNormalFormIntrinsics.dnf(e), BoaNormalFormIntrinsics.dnf(copy));
+		assertEquals(dnf, BoaNormalFormIntrinsics.dnf(copy));
+	}
+
+	private WeakReference<Expression> normalizeCopy() throws Exception {
+		final Expression copy = e.toBuilder().build();
+		assertEquals(cnf, BoaNormalFormIntrinsics.cnf(copy));
+		return new WeakReference<Expression>(copy);
+	}
+
+	@Test
+	public void testCopiesNotKept() throws Exception {
+		BoaNormalFormIntrinsics.cnf(e);
+		// an expression equal to an interned one is not kept once the caller drops it
+		final WeakReference<Expression> copy = normalizeCopy();
+		for (int i = 0; i < 100 && copy.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(copy.get());
+	}
 }
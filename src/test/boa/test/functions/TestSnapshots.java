@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.functions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+
+import boa.functions.BoaIntrinsics;
+import boa.runtime.BoaTaskContext;
+import boa.types.Code.CodeRepository;
+import boa.types.Code.Revision;
+import boa.types.Diff.ChangedFile;
+import boa.types.Diff.ChangedFile.FileKind;
+import boa.types.Shared.ChangeKind;
+import boa.types.Shared.Person;
+
+/**
+ * Tests that snapshots replayed from checkpoints, and incremental snapshots
+ * built from the previous one, hold the same files, in the same order, as a
+ * full replay of first-parent history back to the root.
+ */
+public class TestSnapshots {
+	/** More revisions than several checkpoint intervals. */
+	private static final int REVISIONS = 400;
+
+	@After
+	public void closeTask() throws IOException {
+		BoaTaskContext.get().close();
+	}
+
+	/**
+	 * Builds a repository whose revisions add, modify, copy, rename, merge
+	 * and delete files drawn from a small pool, with branches and merges so
+	 * that first-parent history is not simply the previous revision.
+	 */
+	private static CodeRepository repository(final long seed) {
+		final Random random = new Random(seed);
+		final Person person = Person.newBuilder().setUsername("a").build();
+		final CodeRepository.Builder cr = CodeRepository.newBuilder()
+				.setUrl("test")
+				.setKind(CodeRepository.RepositoryKind.GIT)
+				.setHead(REVISIONS - 1);
+
+		for (int r = 0; r < REVISIONS; r++) {
+			final Revision.Builder rev = Revision.newBuilder()
+					.setId("r" + r)
+					.setCommitter(person)
+					.setCommitDate(r)
+					.setLog("");
+			if (r > 0) {
+				// mostly linear, with the odd branch off an older revision
+				rev.addParents(random.nextInt(8) == 0 ? random.nextInt(r) : r - 1);
+				if (r > 1 && random.nextInt(6) == 0)
+					rev.addParents(random.nextInt(r));
+			}
+
+			final int files = 1 + random.nextInt(r == 0 ? 20 : 5);
+			for (int f = 0; f < files; f++) {
+				final String name = "f" + random.nextInt(40) + (random.nextBoolean() ? ".java" : ".txt");
+				final ChangedFile.Builder cf = ChangedFile.newBuilder()
+						.setName(name)
+						.setKind(name.endsWith(".java") ? FileKind.SOURCE_JAVA_JLS8 : FileKind.TEXT)
+						.setKey(r * 100L + f)
+						.setAst(false);
+				final ChangeKind[] kinds = { ChangeKind.ADDED, ChangeKind.MODIFIED, ChangeKind.COPIED, ChangeKind.DELETED, ChangeKind.RENAMED, ChangeKind.MERGED };
+				final ChangeKind ck = r == 0 ? ChangeKind.ADDED : kinds[random.nextInt(kinds.length)];
+				cf.setChange(ck);
+				if (ck == ChangeKind.RENAMED) {
+					cf.addChanges(ChangeKind.RENAMED);
+					cf.addPreviousNames("f" + random.nextInt(40) + ".java");
+				} else if (ck == ChangeKind.MERGED) {
+					cf.addChanges(ChangeKind.MODIFIED);
+					cf.addPreviousNames("");
+					cf.addChanges(random.nextBoolean() ? ChangeKind.DELETED : ChangeKind.RENAMED);
+					cf.addPreviousNames("f" + random.nextInt(40) + ".txt");
+				}
+				rev.addFiles(cf);
+			}
+			cr.addRevisions(rev);
+		}
+
+		cr.addAllHeadSnapshot(fullReplay(cr.build(), REVISIONS - 1));
+		return cr.build();
+	}
+
+	/**
+	 * The snapshot as it was computed before checkpoints: every revision of
+	 * first-parent history, newest first, applied to one growing list.
+	 */
+	private static List<ChangedFile> fullReplay(final CodeRepository cr, final int index, final String... kinds) {
+		final List<ChangedFile> snapshot = new ArrayList<ChangedFile>();
+		final Set<String> adds = new HashSet<String>(), dels = new HashSet<String>();
+		final Set<Integer> visited = new HashSet<Integer>();
+		int offset = index;
+		while (visited.add(offset)) {
+			final Revision commit = cr.getRevisions(offset);
+			for (final ChangedFile cf : commit.getFilesList()) {
+				final String name = cf.getName();
+				final boolean undecided = !adds.contains(name) && !dels.contains(name);
+				switch (cf.getChange()) {
+				case DELETED:
+					if (undecided)
+						dels.add(name);
+					break;
+				case MERGED:
+				case RENAMED:
+					if (undecided) {
+						adds.add(name);
+						if (included(cf, kinds))
+							snapshot.add(cf);
+					}
+					for (int i = 0; i < cf.getChangesCount(); i++) {
+						final ChangeKind pck = cf.getChanges(i);
+						if (cf.getChange() == ChangeKind.MERGED && pck != ChangeKind.DELETED && pck != ChangeKind.RENAMED)
+							continue;
+						String prev = cf.getPreviousNames(i);
+						if (prev.isEmpty())
+							prev = name;
+						if (!adds.contains(prev) && !dels.contains(prev))
+							dels.add(prev);
+					}
+					break;
+				default:
+					if (undecided) {
+						adds.add(name);
+						if (included(cf, kinds))
+							snapshot.add(cf);
+					}
+					break;
+				}
+			}
+			if (commit.getParentsCount() == 0)
+				break;
+			offset = commit.getParents(0);
+		}
+		return snapshot;
+	}
+
+	private static boolean included(final ChangedFile cf, final String... kinds) {
+		if (kinds.length == 0)
+			return true;
+		for (final String kind : kinds)
+			if (cf.getKind().name().startsWith(kind) || cf.getName().endsWith(kind))
+				return true;
+		return false;
+	}
+
+	private static void check(final CodeRepository cr, final int index) {
+		final String msg = "revision " + index;
+		assertEquals(msg, fullReplay(cr, index), Arrays.asList(BoaIntrinsics.getSnapshotByIndex(cr, index, new String[0])));
+		assertEquals(msg, fullReplay(cr, index, "SOURCE_JAVA"), Arrays.asList(BoaIntrinsics.getSnapshotByIndex(cr, index, "SOURCE_JAVA")));
+		assertEquals(msg, fullReplay(cr, index, ".txt"), Arrays.asList(BoaIntrinsics.getSnapshot(cr, cr.getRevisions(index), ".txt")));
+	}
+
+	@Test
+	public void testAscending() {
+		final CodeRepository cr = repository(1);
+		for (int i = 0; i < REVISIONS; i++)
+			check(cr, i);
+	}
+
+	@Test
+	public void testDescending() {
+		final CodeRepository cr = repository(2);
+		for (int i = REVISIONS - 1; i >= 0; i--)
+			check(cr, i);
+	}
+
+	@Test
+	public void testRandomOrder() {
+		final CodeRepository cr = repository(3);
+		final List<Integer> order = new ArrayList<Integer>();
+		for (int i = 0; i < REVISIONS; i++)
+			order.add(i);
+		Collections.shuffle(order, new Random(3));
+		for (final int i : order)
+			check(cr, i);
+	}
+
+	@Test
+	public void testSwitchingRepositories() {
+		// checkpoints of one repository must never answer for another
+		final CodeRepository a = repository(4), b = repository(5);
+		for (int i = REVISIONS - 1; i >= 0; i -= 7) {
+			check(a, i);
+			check(b, i);
+		}
+	}
+
+	private static void checkIncremental(final CodeRepository cr, final int index) {
+		final String msg = "revision " + index;
+		assertEquals(msg, fullReplay(cr, index), Arrays.asList(BoaIntrinsics.getIncrementalSnapshotByIndex(cr, index)));
+		// asking again for the same revision returns the same files
+		assertEquals(msg, fullReplay(cr, index, "SOURCE_JAVA"), Arrays.asList(BoaIntrinsics.getIncrementalSnapshotByIndex(cr, index, "SOURCE_JAVA")));
+	}
+
+	private static void checkIncrementalRevision(final CodeRepository cr, final int index) {
+		final String msg = "revision " + index;
+		assertEquals(msg, fullReplay(cr, index), Arrays.asList(BoaIntrinsics.getIncrementalSnapshot(cr, cr.getRevisions(index))));
+		assertEquals(msg, fullReplay(cr, index, ".txt"), Arrays.asList(BoaIntrinsics.getIncrementalSnapshot(cr, cr.getRevisions(index), ".txt")));
+	}
+
+	@Test
+	public void testIncrementalAscending() {
+		final CodeRepository cr = repository(6);
+		for (int i = 0; i < REVISIONS; i++)
+			checkIncremental(cr, i);
+	}
+
+	@Test
+	public void testIncrementalRevisionsAscending() {
+		final CodeRepository cr = repository(7);
+		for (int i = 0; i < REVISIONS; i++)
+			checkIncrementalRevision(cr, i);
+	}
+
+	@Test
+	public void testIncrementalOutOfOrder() {
+		// jumps that are not to a child of the previous revision replay in full
+		final CodeRepository cr = repository(8);
+		final Random random = new Random(8);
+		for (int n = 0; n < REVISIONS; n++) {
+			final int i = random.nextInt(REVISIONS);
+			if (random.nextBoolean())
+				checkIncremental(cr, i);
+			else
+				checkIncrementalRevision(cr, i);
+		}
+	}
+
+	@Test
+	public void testIncrementalSwitchingRepositories() {
+		final CodeRepository a = repository(9), b = repository(10);
+		for (int i = 0; i < REVISIONS; i++) {
+			checkIncremental(a, i);
+			checkIncrementalRevision(b, i);
+		}
+	}
+}
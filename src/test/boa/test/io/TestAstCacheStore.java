@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.MapFile;
+import org.apache.hadoop.io.Text;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.io.AstCacheStore;
+
+/**
+ * Tests storing serialized ASTs in an {@link AstCacheStore}, reading them
+ * back from the buffer and from segments, and merging segments.
+ */
+public class TestAstCacheStore {
+	private File root;
+	private Configuration conf;
+	private FileSystem fs;
+
+	@Before
+	public void createRoot() throws IOException {
+		root = Files.createTempDirectory("boa-astcache").toFile();
+		conf = new Configuration();
+		fs = FileSystem.getLocal(conf);
+	}
+
+	@After
+	public void deleteRoot() {
+		FileUtils.deleteQuietly(root);
+	}
+
+	private AstCacheStore open(final long bufferBytes) throws IOException {
+		return new AstCacheStore(fs, new Path(root.getPath()), conf, bufferBytes);
+	}
+
+	private static byte[] ast(final String id) {
+		return ("ast of " + id).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private int segments() {
+		int n = 0;
+		for (final File f : new File(root, AstCacheStore.VERSION).listFiles())
+			if (f.getName().startsWith("part-"))
+				n++;
+		return n;
+	}
+
+	private File segment() {
+		for (final File f : new File(root, AstCacheStore.VERSION).listFiles())
+			if (f.getName().startsWith("part-"))
+				return f;
+		return null;
+	}
+
+	private int entries(final File segment) throws IOException {
+		final MapFile.Reader r = new MapFile.Reader(fs, segment.getPath(), conf);
+		try {
+			int n = 0;
+			final Text k = new Text();
+			final BytesWritable v = new BytesWritable();
+			while (r.next(k, v))
+				n++;
+			return n;
+		} finally {
+			r.close();
+		}
+	}
+
+	/** Writes one segment holding the given ids, as one task would. */
+	private void writeSegment(final String... ids) throws IOException {
+		final AstCacheStore store = open(1024 * 1024);
+		for (final String id : ids)
+			store.put(id, ast(id));
+		store.close();
+	}
+
+	@Test
+	public void testGetAndPut() throws IOException {
+		final AstCacheStore store = open(1024 * 1024);
+		assertNull(store.get("a"));
+		store.put("a", ast("a"));
+		store.put("b", ast("b"));
+		// still buffered
+		assertEquals(0, segments());
+		assertArrayEquals(ast("a"), store.get("a"));
+
+		store.flush();
+		assertEquals(1, segments());
+		assertArrayEquals(ast("a"), store.get("a"));
+		assertArrayEquals(ast("b"), store.get("b"));
+		assertNull(store.get("c"));
+		store.close();
+		assertEquals(2, store.getStored());
+
+		final AstCacheStore reopened = open(1024 * 1024);
+		try {
+			assertArrayEquals(ast("a"), reopened.get("a"));
+			assertArrayEquals(ast("b"), reopened.get("b"));
+			assertNull(reopened.get("c"));
+		} finally {
+			reopened.close();
+		}
+		assertEquals(0, reopened.getStored());
+	}
+
+	@Test
+	public void testFullBufferFlushes() throws IOException {
+		final AstCacheStore store = open(20);
+		for (int i = 0; i < 5; i++)
+			store.put("id" + i, ast("id" + i));
+		assertTrue("segments " + segments(), segments() >= 2);
+		for (int i = 0; i < 5; i++)
+			assertArrayEquals(ast("id" + i), store.get("id" + i));
+		store.close();
+	}
+
+	@Test
+	public void testOtherVersionsNotRead() throws IOException {
+		final AstCacheStore store = open(1024 * 1024);
+		assertEquals(new Path(new Path(root.getPath()), AstCacheStore.VERSION), store.getDirectory());
+		store.put("a", ast("a"));
+		store.close();
+
+		// as if written by a parser of another version
+		assertTrue(new File(root, AstCacheStore.VERSION).renameTo(new File(root, "v0-old")));
+		final AstCacheStore reopened = open(1024 * 1024);
+		try {
+			assertNull(reopened.get("a"));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testSegmentsMergedOnClose() throws IOException {
+		conf.setInt(AstCacheStore.MAX_SEGMENTS, 3);
+		writeSegment("a", "b");
+		writeSegment("b", "c");
+		writeSegment("c", "d");
+		assertEquals(3, segments());
+
+		// one past the limit, so closing merges them all
+		writeSegment("a", "e");
+		assertEquals(1, segments());
+		assertEquals(5, entries(segment()));
+
+		final AstCacheStore store = open(1024 * 1024);
+		try {
+			for (final String id : new String[] { "a", "b", "c", "d", "e" })
+				assertArrayEquals(ast(id), store.get(id));
+			assertNull(store.get("f"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testOpenStoreOutlivesMerge() throws IOException {
+		writeSegment("a");
+		writeSegment("b");
+		final AstCacheStore store = open(1024 * 1024);
+		try {
+			assertEquals(2, AstCacheStore.merge(fs, store.getDirectory(), conf));
+			assertEquals(1, segments());
+			// the segments it opened are gone, reading them is not an error
+			store.get("a");
+			assertNull(store.get("c"));
+		} finally {
+			store.close();
+		}
+
+		final AstCacheStore reopened = open(1024 * 1024);
+		try {
+			assertArrayEquals(ast("a"), reopened.get("a"));
+			assertArrayEquals(ast("b"), reopened.get("b"));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testMergeSkippedWhileLocked() throws IOException {
+		conf.setInt(AstCacheStore.MAX_SEGMENTS, 1);
+		final File lock = new File(new File(root, AstCacheStore.VERSION), "_merging");
+		lock.getParentFile().mkdirs();
+		assertTrue(lock.createNewFile());
+
+		writeSegment("a");
+		writeSegment("b");
+		assertEquals(2, segments());
+
+		// a lock left by a task that died long ago is taken over
+		assertTrue(lock.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+		writeSegment("c");
+		assertEquals(1, segments());
+		assertEquals(3, entries(segment()));
+		assertFalse(lock.exists());
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.hadoop.io.WritableComparator;
+import org.junit.Test;
+
+import boa.io.EmitKey;
+
+/**
+ * Tests that the raw {@link EmitKey} comparator agrees with
+ * {@link EmitKey#compareTo(EmitKey)}.
+ */
+public class TestEmitKey {
+	private static final String[] NAMES = { "counts", "count", "AddedFiles", "z" };
+	private static final String[] INDICES = { "[]", "[a]", "[b]", "[ab]", "[Java]", "[é]", "[￮]", "[😀]", "[😀a]", "[a][b]", "[10]", "[9]" };
+
+	private static byte[] serialize(final EmitKey k) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		k.write(new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static void check(final EmitKey a, final EmitKey b) throws IOException {
+		final byte[] ba = serialize(a);
+		final byte[] bb = serialize(b);
+		final WritableComparator c = WritableComparator.get(EmitKey.class);
+
+		assertEquals(a + " vs " + b, Integer.signum(a.compareTo(b)), Integer.signum(c.compare(ba, 0, ba.length, bb, 0, bb.length)));
+		assertEquals(a + " vs " + b, Integer.signum(a.compareTo(b)), Integer.signum(a.compare(ba, 0, ba.length, bb, 0, bb.length)));
+	}
+
+	@Test
+	public void testFixedKeys() throws IOException {
+		for (final String n1 : NAMES)
+			for (final String i1 : INDICES)
+				for (final String n2 : NAMES)
+					for (final String i2 : INDICES)
+						check(new EmitKey(i1, n1), new EmitKey(i2, n2));
+	}
+
+	@Test
+	public void testRandomKeys() throws IOException {
+		final Random r = new Random(42);
+		for (int i = 0; i < 10000; i++)
+			check(new EmitKey(randomIndex(r), NAMES[r.nextInt(NAMES.length)]), new EmitKey(randomIndex(r), NAMES[r.nextInt(NAMES.length)]));
+	}
+
+	private static String randomIndex(final Random r) {
+		final StringBuilder sb = new StringBuilder("[");
+		final int len = r.nextInt(6);
+		for (int i = 0; i < len; i++) {
+			switch (r.nextInt(4)) {
+			case 0: sb.append((char) ('a' + r.nextInt(26))); break;
+			case 1: sb.append((char) (0x80 + r.nextInt(0x700))); break;
+			case 2: sb.append((char) (0xe000 + r.nextInt(0x1ffe))); break;
+			default: sb.appendCodePoint(0x10000 + r.nextInt(0x1000)); break;
+			}
+		}
+		return sb.append(']').toString();
+	}
+}
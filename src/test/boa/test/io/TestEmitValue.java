@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import boa.io.EmitValue;
+
+/**
+ * Tests that every kind of {@link EmitValue} datum and metadatum survives
+ * {@link EmitValue#write} and {@link EmitValue#readFields}.
+ */
+public class TestEmitValue {
+	private static List<EmitValue> values() {
+		final List<EmitValue> values = new ArrayList<EmitValue>();
+
+		final String[] strings = { "", "foo", "é😀" };
+		final String[] tuple = { "a", "", "c" };
+		final long[] longs = { 0, 1, -1, 300, Long.MAX_VALUE, Long.MIN_VALUE };
+		final double[] doubles = { 0.0, -0.5, 1e300, Double.NaN, Double.NEGATIVE_INFINITY };
+
+		for (final String s : strings) {
+			values.add(new EmitValue(s));
+			values.add(new EmitValue(s, "meta"));
+			values.add(new EmitValue(s, ""));
+			for (final long m : longs)
+				values.add(new EmitValue(s, m));
+			for (final double m : doubles)
+				values.add(new EmitValue(s, m));
+		}
+
+		values.add(new EmitValue(tuple));
+		values.add(new EmitValue(tuple, "meta"));
+		values.add(new EmitValue(new Object[] { 1L, "x", 2.5 }, null));
+
+		for (final long l : longs) {
+			values.add(new EmitValue(l));
+			values.add(new EmitValue(l, "meta"));
+			for (final long m : longs)
+				values.add(new EmitValue(l, m));
+			for (final double m : doubles)
+				values.add(new EmitValue(l, m));
+		}
+
+		for (final double d : doubles) {
+			values.add(new EmitValue(d));
+			values.add(new EmitValue(d, "meta"));
+			for (final long m : longs)
+				values.add(new EmitValue(d, m));
+			for (final double m : doubles)
+				values.add(new EmitValue(d, m));
+		}
+
+		for (final boolean b : new boolean[] { true, false }) {
+			values.add(new EmitValue(b));
+			values.add(new EmitValue(b, "meta"));
+			values.add(new EmitValue(b, 7L));
+			values.add(new EmitValue(b, 0.25));
+		}
+
+		return values;
+	}
+
+	private static byte[] serialize(final EmitValue v) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		v.write(new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static void read(final EmitValue v, final byte[] bytes) throws IOException {
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		v.readFields(in);
+		assertEquals("trailing bytes", -1, in.read());
+	}
+
+	private static void check(final EmitValue expected, final EmitValue actual) {
+		final String msg = expected.toString();
+
+		assertEquals(msg, expected.getType(), actual.getType());
+		if (expected.getType() == EmitValue.TYPE_LONG)
+			assertEquals(msg, expected.getLong(), actual.getLong());
+		else if (expected.getType() == EmitValue.TYPE_DOUBLE)
+			assertEquals(msg, Double.doubleToLongBits(expected.getDouble()), Double.doubleToLongBits(actual.getDouble()));
+		assertArrayEquals(msg, expected.getData(), actual.getData());
+
+		// an empty metadatum is not written, so it reads back as none
+		if ("".equals(expected.getMetadata())) {
+			assertEquals(msg, EmitValue.METADATA_NONE, actual.getMetadataType());
+			assertEquals(msg, null, actual.getMetadata());
+			return;
+		}
+
+		assertEquals(msg, expected.getMetadataType(), actual.getMetadataType());
+		if (expected.getMetadataType() == EmitValue.METADATA_LONG)
+			assertEquals(msg, expected.getLongMetadata(), actual.getLongMetadata());
+		else if (expected.getMetadataType() == EmitValue.METADATA_DOUBLE)
+			assertEquals(msg, Double.doubleToLongBits(expected.getDoubleMetadata()), Double.doubleToLongBits(actual.getDoubleMetadata()));
+		assertEquals(msg, expected.getMetadata(), actual.getMetadata());
+		assertEquals(msg, expected, actual);
+		assertEquals(msg, expected.hashCode(), actual.hashCode());
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		for (final EmitValue v : values()) {
+			final EmitValue copy = new EmitValue();
+			read(copy, serialize(v));
+			check(v, copy);
+		}
+	}
+
+	@Test
+	public void testReuse() throws IOException {
+		// Hadoop reuses one value object for every record of a reduce, so no
+		// field of one value may leak into the next
+		final List<EmitValue> values = values();
+		final EmitValue reused = new EmitValue();
+		for (int i = 0; i < values.size(); i++) {
+			final EmitValue v = values.get((i * 37) % values.size());
+			read(reused, serialize(v));
+			check(v, reused);
+		}
+	}
+
+	@Test
+	public void testNumericMetadataText() {
+		assertEquals("42", new EmitValue("x", 42L).getMetadata());
+		assertEquals("2.5", new EmitValue(1L, 2.5).getMetadata());
+		assertEquals(new EmitValue("x", "42"), new EmitValue("x", 42L));
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.MapFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.io.PrefetchingMapFileReader;
+
+/**
+ * Tests that {@link PrefetchingMapFileReader} returns the same values as a
+ * plain lookup whatever order keys are read in, and that it reads little
+ * more than is asked for.
+ */
+public class TestPrefetchingMapFileReader {
+	/** the map holds the even keys from 0 to 2 * (KEYS - 1) */
+	private static final int KEYS = 2000;
+
+	private File root;
+	private Configuration conf;
+	private FileSystem fs;
+	private PrefetchingMapFileReader reader;
+
+	@Before
+	public void createMap() throws IOException {
+		root = Files.createTempDirectory("boa-prefetch").toFile();
+		conf = new Configuration();
+		fs = FileSystem.getLocal(conf);
+
+		final MapFile.Writer w = new MapFile.Writer(conf, fs, new File(root, "map").getPath(), LongWritable.class, BytesWritable.class);
+		try {
+			for (long k = 0; k < KEYS; k++)
+				w.append(new LongWritable(2 * k), new BytesWritable(valueOf(2 * k)));
+		} finally {
+			w.close();
+		}
+	}
+
+	@After
+	public void deleteMap() throws IOException {
+		if (reader != null)
+			reader.close();
+		FileUtils.deleteQuietly(root);
+	}
+
+	private static byte[] valueOf(final long k) {
+		return ("value " + k).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private PrefetchingMapFileReader open(final long windowBytes) throws IOException {
+		reader = new PrefetchingMapFileReader(new MapFile.Reader(fs, new File(root, "map").getPath(), conf), windowBytes);
+		return reader;
+	}
+
+	private static List<Long> keys(final long from, final long to, final long step) {
+		final List<Long> keys = new ArrayList<Long>();
+		for (long k = from; k < to; k += step)
+			keys.add(k);
+		return keys;
+	}
+
+	private static void assertValue(final PrefetchingMapFileReader r, final long k) throws IOException {
+		final BytesWritable value = new BytesWritable();
+		assertTrue("key " + k, r.get(k, value));
+		assertEquals("key " + k, new String(valueOf(k), StandardCharsets.UTF_8), new String(value.getBytes(), 0, value.getLength(), StandardCharsets.UTF_8));
+	}
+
+	private static void assertMissing(final PrefetchingMapFileReader r, final long k) throws IOException {
+		assertFalse("key " + k, r.get(k, new BytesWritable()));
+	}
+
+	@Test
+	public void testSortedScanHits() throws IOException {
+		final PrefetchingMapFileReader r = open(1024 * 1024);
+		final List<Long> keys = keys(0, 2 * KEYS, 6);
+		r.prefetch(keys);
+
+		for (final long k : keys)
+			assertValue(r, k);
+
+		// the batches double, so reading n keys in order takes about log n seeks
+		assertTrue("seeks " + r.getSeeks(), r.getSeeks() <= 10);
+		assertEquals(keys.size(), r.getPrefetched());
+		assertEquals(keys.size() - r.getSeeks(), r.getHits());
+	}
+
+	@Test
+	public void testUnannouncedOrderAndMixedKeys() throws IOException {
+		final PrefetchingMapFileReader r = open(1024 * 1024);
+		r.prefetch(Arrays.asList(400L, 20L, 200L, 10L));
+
+		assertValue(r, 10);
+		assertValue(r, 20);
+		// keys that were not announced are looked up directly
+		assertValue(r, 30);
+		assertMissing(r, 31);
+		assertValue(r, 200);
+		assertValue(r, 400);
+	}
+
+	@Test
+	public void testBackwardsSeek() throws IOException {
+		// a window too small to keep everything, read from the end backwards
+		final PrefetchingMapFileReader r = open(64);
+		final List<Long> keys = keys(0, 2 * KEYS, 2);
+		r.prefetch(keys);
+
+		for (int i = keys.size() - 1; i >= 0; i -= 37)
+			assertValue(r, keys.get(i));
+
+		// and forwards again after a seek back to the start
+		for (int i = 0; i < 100; i++)
+			assertValue(r, keys.get(i));
+		assertValue(r, keys.get(keys.size() - 1));
+		assertValue(r, keys.get(0));
+	}
+
+	@Test
+	public void testEndOfFile() throws IOException {
+		final PrefetchingMapFileReader r = open(1024 * 1024);
+		final long last = 2 * (KEYS - 1);
+		r.prefetch(Arrays.asList(last - 2, last - 1, last, last + 1, last + 2, 5L));
+
+		assertValue(r, last - 2);
+		assertMissing(r, last - 1);
+		assertValue(r, last);
+		assertMissing(r, last + 1);
+		assertMissing(r, last + 2);
+		assertMissing(r, 5);
+		assertValue(r, last);
+	}
+
+	@Test
+	public void testPrefetchBoundedByRequests() throws IOException {
+		// a whole snapshot is announced, but only a few files are read
+		final PrefetchingMapFileReader r = open(64L * 1024 * 1024);
+		final List<Long> keys = keys(0, 2 * KEYS, 2);
+		r.prefetch(keys);
+
+		for (int i = 0; i < 3; i++)
+			assertValue(r, keys.get(i * 100));
+		assertTrue("prefetched " + r.getPrefetched(), r.getPrefetched() <= 3 * 4);
+
+		// announcing again starts from a small batch again
+		r.prefetch(keys);
+		assertValue(r, keys.get(1000));
+		assertTrue("prefetched " + r.getPrefetched(), r.getPrefetched() <= 4 * 4);
+
+		// reading everything in order reads at most about twice what was asked
+		r.prefetch(keys);
+		final long before = r.getPrefetched();
+		for (int i = 0; i < 100; i++)
+			assertValue(r, keys.get(1500 + i));
+		assertTrue("prefetched " + (r.getPrefetched() - before), r.getPrefetched() - before <= 2 * 100 + 4);
+	}
+}
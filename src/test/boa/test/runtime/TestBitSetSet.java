@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static boa.functions.BoaAstIntrinsics.parse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import boa.functions.BoaIntrinsics;
+import boa.graphs.cdg.CDG;
+import boa.graphs.cdg.CDGNode;
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGNode;
+import boa.graphs.ddg.DDG;
+import boa.graphs.ddg.DDGNode;
+import boa.graphs.pdg.PDG;
+import boa.graphs.pdg.PDGNode;
+import boa.runtime.BitSetSet;
+import boa.runtime.BoaAbstractTraversal;
+import boa.types.Ast.Method;
+import boa.types.Graph.Traversal.TraversalDirection;
+import boa.types.Graph.Traversal.TraversalKind;
+
+/**
+ * Tests that {@link BitSetSet}s, and the set intrinsics given them, hold the
+ * same values as {@link HashSet}s.
+ */
+public class TestBitSetSet {
+	private static final String[] VALUES = { "a", "b", "c", "x@1", "x@2", "y@3", "" };
+
+	private static HashSet<String> random(final Random r, final HashSet<String> s) {
+		for (final String v : VALUES)
+			if (r.nextBoolean())
+				s.add(v);
+		return s;
+	}
+
+	private static void check(final HashSet<String> expected, final HashSet<String> actual) {
+		assertEquals(expected, new HashSet<String>(actual));
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		assertEquals(expected.size(), actual.size());
+	}
+
+	@Test
+	public void testOperations() {
+		final Random r = new Random(42);
+		final BitSetSet.Universe universe = new BitSetSet.Universe();
+		for (int i = 0; i < 1000; i++) {
+			final HashSet<String> h1 = random(r, new HashSet<String>());
+			final HashSet<String> h2 = random(r, new HashSet<String>());
+			final HashSet<String> b1 = new BitSetSet<String>(universe, h1);
+			// the other set is of the same universe, of another, or not a bitset
+			final HashSet<String> b2;
+			switch (i % 3) {
+			case 0: b2 = new BitSetSet<String>(universe, h2); break;
+			case 1: b2 = new BitSetSet<String>(new BitSetSet.Universe(), h2); break;
+			default: b2 = new HashSet<String>(h2); break;
+			}
+
+			check(h1, b1);
+			check(BoaIntrinsics.set_union(h1, h2), BoaIntrinsics.set_union(b1, b2));
+			check(BoaIntrinsics.set_union(h2, h1), BoaIntrinsics.set_union(b2, b1));
+			check(BoaIntrinsics.set_intersect(h1, h2), BoaIntrinsics.set_intersect(b1, b2));
+			check(BoaIntrinsics.set_difference(h1, h2), BoaIntrinsics.set_difference(b1, b2));
+			check(BoaIntrinsics.set_difference(h2, h1), BoaIntrinsics.set_difference(b2, b1));
+			check(BoaIntrinsics.set_symdiff(h1, h2), BoaIntrinsics.set_symdiff(b1, b2));
+			assertEquals(h1.containsAll(h2), b1.containsAll(b2));
+			assertEquals(h1.equals(h2), b1.equals(b2));
+			assertTrue(BoaIntrinsics.set_union(b1, h2) instanceof BitSetSet);
+			assertTrue(BoaIntrinsics.set_union(h2, b1) instanceof BitSetSet);
+		}
+	}
+
+	/** Records the universe of the sets made while visiting each node. */
+	private static class Universes extends BoaAbstractTraversal<HashSet<String>> {
+		final List<BitSetSet.Universe> universes = new ArrayList<BitSetSet.Universe>();
+
+		Universes() {
+			super(false, false);
+		}
+
+		private void visit() {
+			this.universes.add(new BitSetSet<String>().getUniverse());
+		}
+
+		@Override
+		public void traverse(final CFGNode node, final boolean flag) {
+			visit();
+		}
+
+		@Override
+		public void traverse(final CDGNode node, final boolean flag) {
+			visit();
+		}
+
+		@Override
+		public void traverse(final DDGNode node, final boolean flag) {
+			visit();
+		}
+
+		@Override
+		public void traverse(final PDGNode node, final boolean flag) {
+			visit();
+		}
+
+		BitSetSet.Universe of(final Object graph) throws Exception {
+			this.universes.clear();
+			if (graph instanceof CFG)
+				traverse((CFG) graph, TraversalDirection.FORWARD, TraversalKind.DFS);
+			else if (graph instanceof CDG)
+				traverse((CDG) graph, TraversalDirection.FORWARD, TraversalKind.DFS);
+			else if (graph instanceof DDG)
+				traverse((DDG) graph, TraversalDirection.FORWARD, TraversalKind.DFS);
+			else
+				traverse((PDG) graph, TraversalDirection.FORWARD, TraversalKind.DFS);
+			assertFalse(this.universes.isEmpty());
+			for (final BitSetSet.Universe u : this.universes)
+				assertSame(this.universes.get(0), u);
+			return this.universes.get(0);
+		}
+	}
+
+	@Test
+	public void testUniversePerGraph() throws Exception {
+		final Method m = parse("class A { void m() { int x = 1; if (x > 0) x = x + 1; f(x); } }")
+				.getNamespaces(0).getDeclarations(0).getMethods(0);
+		final CFG cfg = new CFG(m).get();
+		final Object[] graphs = { cfg, new CDG(cfg), new DDG(cfg), new PDG(cfg), new CDG(cfg) };
+
+		final Universes t = new Universes();
+		BitSetSet.Universe last = new BitSetSet<String>().getUniverse();
+		for (final Object g : graphs) {
+			// every kind of graph starts a universe of its own, kept while it is traversed again
+			final BitSetSet.Universe u = t.of(g);
+			assertNotSame(g.getClass().getSimpleName(), last, u);
+			assertSame(g.getClass().getSimpleName(), u, t.of(g));
+			last = u;
+		}
+	}
+
+	@Test
+	public void testMutation() {
+		final Random r = new Random(7);
+		final HashSet<String> h = new HashSet<String>();
+		final HashSet<String> b = new BitSetSet<String>(new BitSetSet.Universe());
+		for (int i = 0; i < 1000; i++) {
+			final String v = VALUES[r.nextInt(VALUES.length)];
+			if (r.nextBoolean())
+				assertEquals(h.add(v), b.add(v));
+			else
+				assertEquals(h.remove(v), b.remove(v));
+			assertEquals(h.contains(v), b.contains(v));
+			check(h, b);
+		}
+
+		@SuppressWarnings("unchecked")
+		final HashSet<String> copy = (HashSet<String>) b.clone();
+		copy.add("new");
+		check(h, b);
+		assertTrue(copy instanceof BitSetSet);
+		assertEquals(h.size() + 1, copy.size());
+		assertEquals(h.size(), b.toArray(new String[0]).length);
+	}
+}
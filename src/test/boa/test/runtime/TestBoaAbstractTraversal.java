@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import boa.graphs.cfg.CFG;
+import boa.graphs.cfg.CFGNode;
+import boa.runtime.BoaAbstractFixP;
+import boa.runtime.BoaAbstractTraversal;
+import boa.types.Ast.Expression;
+import boa.types.Ast.Expression.ExpressionKind;
+import boa.types.Ast.Method;
+import boa.types.Ast.Statement;
+import boa.types.Ast.Statement.StatementKind;
+import boa.types.Graph.Traversal.TraversalDirection;
+import boa.types.Graph.Traversal.TraversalKind;
+
+/**
+ * Tests the worklist traversals of {@link BoaAbstractTraversal} on CFGs
+ * bigger than the 3500 nodes traversals used to stop at: that the postorder
+ * they start from is the one a recursive search gives, that the worklists
+ * first take nodes in that order, and that they stop at the same fixpoint
+ * as iterating over every node until nothing changes.
+ */
+public class TestBoaAbstractTraversal {
+	private static final int VARIABLES = 16;
+
+	private static final Comparator<CFGNode> BY_ID = new Comparator<CFGNode>() {
+		@Override
+		public int compare(final CFGNode a, final CFGNode b) {
+			return Integer.compare(a.getNodeId(), b.getNodeId());
+		}
+	};
+
+	// while (c) { if (c) v = v; else v = v; v = v; [while (c) v = v;] v = v; } repeated
+	private static CFG cfg(final int loops) {
+		final Statement.Builder body = Statement.newBuilder().setKind(StatementKind.BLOCK);
+		int v = 0;
+		for (int i = 0; i < loops; i++) {
+			final Statement branch = Statement.newBuilder().setKind(StatementKind.IF).addConditions(variable("c"))
+					.addStatements(assign(v++)).addStatements(assign(v++)).build();
+			final Statement.Builder loop = Statement.newBuilder().setKind(StatementKind.BLOCK)
+					.addStatements(branch).addStatements(assign(v++));
+			if (i % 3 == 0)
+				loop.addStatements(Statement.newBuilder().setKind(StatementKind.WHILE).addConditions(variable("c")).addStatements(assign(v++)));
+			loop.addStatements(assign(v++));
+			body.addStatements(Statement.newBuilder().setKind(StatementKind.WHILE).addConditions(variable("c")).addStatements(loop));
+		}
+		final Method m = Method.newBuilder().setName("m").setReturnType(boa.types.Ast.Type.newBuilder().setName("void")
+				.setKind(boa.types.Ast.TypeKind.PRIMITIVE)).addStatements(body).build();
+		return new CFG(m).get();
+	}
+
+	private static Expression variable(final String name) {
+		return Expression.newBuilder().setKind(ExpressionKind.VARACCESS).setVariable(name).build();
+	}
+
+	private static Statement assign(final int i) {
+		final Expression e = Expression.newBuilder().setKind(ExpressionKind.ASSIGN)
+				.addExpressions(variable("v" + i % VARIABLES)).addExpressions(variable("v" + (i + 1) % VARIABLES)).build();
+		return Statement.newBuilder().setKind(StatementKind.EXPRESSION).addExpressions(e).build();
+	}
+
+	private static List<CFGNode> neighbors(final CFGNode node, final boolean forward) {
+		return forward ? node.getSuccessors() : node.getPredecessors();
+	}
+
+	private static HashSet<String> transfer(final CFGNode node, final boolean forward, final Map<Integer, HashSet<String>> values) {
+		final HashSet<String> assigned = new HashSet<String>();
+		for (final CFGNode n : neighbors(node, !forward)) {
+			final HashSet<String> in = values.get(n.getNodeId());
+			if (in != null)
+				assigned.addAll(in);
+		}
+		if (node.hasExpr() && node.getExpr().getKind() == ExpressionKind.ASSIGN)
+			assigned.add(node.getExpr().getExpressions(0).getVariable());
+		return assigned;
+	}
+
+	/**
+	 * The variables that may be assigned by or before each node, or by or
+	 * after it when traversed backward, and the order nodes are traversed in.
+	 */
+	private static class AssignedVariables extends BoaAbstractTraversal<HashSet<String>> {
+		final boolean forward;
+		final List<Integer> visits = new ArrayList<Integer>();
+		private final Map<Integer, HashSet<String>> values = new HashMap<Integer, HashSet<String>>();
+
+		AssignedVariables(final boolean forward) {
+			super(true, true);
+			this.forward = forward;
+		}
+
+		@Override
+		public void traverse(final CFGNode node, final boolean flag) throws Exception {
+			this.visits.add(node.getNodeId());
+			final HashSet<String> assigned = transfer(node, this.forward, this.values);
+			this.values.put(node.getNodeId(), assigned);
+			if (flag)
+				currentResult = new HashSet<String>(assigned);
+			outputMapObj.put(node.getId(), new HashSet<String>(assigned));
+		}
+	}
+
+	private static class SameVariables extends BoaAbstractFixP {
+		@Override
+		public boolean invoke(final Object curr, final Object prev) throws Exception {
+			return curr.equals(prev);
+		}
+	}
+
+	/** Iterates over every node, in id order, until no value changes. */
+	private static Map<Integer, HashSet<String>> fixpoint(final CFG cfg, final boolean forward) {
+		final List<CFGNode> nodes = new ArrayList<CFGNode>(cfg.getNodes());
+		Collections.sort(nodes, BY_ID);
+		final Map<Integer, HashSet<String>> values = new HashMap<Integer, HashSet<String>>();
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (final CFGNode node : nodes) {
+				final HashSet<String> value = transfer(node, forward, values);
+				if (!value.equals(values.put(node.getNodeId(), value)))
+					changed = true;
+			}
+		}
+		return values;
+	}
+
+	/** Postorder by a recursive search, taking neighbors from the highest id down. */
+	private static void postorder(final CFGNode node, final boolean forward, final BitSet visited, final List<Integer> order) {
+		visited.set(node.getNodeId());
+		final List<CFGNode> next = neighbors(node, forward);
+		Collections.sort(next, Collections.reverseOrder(BY_ID));
+		for (final CFGNode n : next)
+			if (!visited.get(n.getNodeId()))
+				postorder(n, forward, visited, order);
+		order.add(node.getNodeId());
+	}
+
+	private static List<Integer> postorder(final CFGNode start, final boolean forward) throws InterruptedException {
+		final List<Integer> order = new ArrayList<Integer>();
+		// the search is as deep as the graph is long
+		final Thread t = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				postorder(start, forward, new BitSet(), order);
+			}
+		}, "postorder", 256L * 1024 * 1024);
+		t.start();
+		t.join();
+		return order;
+	}
+
+	private static List<Integer> ids(final List<CFGNode> nodes) {
+		final List<Integer> ids = new ArrayList<Integer>();
+		for (final CFGNode n : nodes)
+			ids.add(n.getNodeId());
+		return ids;
+	}
+
+	/** The nodes in the order they were first traversed. */
+	private static List<Integer> firstVisits(final List<Integer> visits) {
+		final List<Integer> first = new ArrayList<Integer>();
+		final BitSet seen = new BitSet();
+		for (final int id : visits)
+			if (!seen.get(id)) {
+				seen.set(id);
+				first.add(id);
+			}
+		return first;
+	}
+
+	private static AssignedVariables traverse(final CFG cfg, final boolean forward, final TraversalKind kind) throws Exception {
+		final AssignedVariables t = new AssignedVariables(forward);
+		t.traverse(cfg, forward ? TraversalDirection.FORWARD : TraversalDirection.BACKWARD, kind, new SameVariables());
+		return t;
+	}
+
+	private static void assertFixpoint(final CFG cfg, final AssignedVariables t) throws Exception {
+		final Map<Integer, HashSet<String>> expected = fixpoint(cfg, t.forward);
+		for (final CFGNode node : cfg.getNodes()) {
+			assertNotNull("node " + node.getNodeId(), t.getValue(node));
+			assertEquals("node " + node.getNodeId(), expected.get(node.getNodeId()), t.getValue(node));
+		}
+	}
+
+	@Test
+	public void testPostorder() throws Exception {
+		final CFG cfg = cfg(1000);
+		assertTrue(cfg.getNodes().size() > 3500);
+
+		final HashSet<Long> visited = new HashSet<Long>();
+		final List<CFGNode> order = BoaAbstractTraversal.postorder(cfg.getCompact(), cfg.getEntryNode().getNodeId(), true, visited);
+		assertEquals(postorder(cfg.getEntryNode(), true), ids(order));
+		assertEquals(cfg.getNodes().size(), order.size());
+		assertEquals(cfg.getNodes().size(), visited.size());
+		assertEquals(cfg.getEntryNode(), order.get(order.size() - 1));
+	}
+
+	@Test
+	public void testPostorderBackward() throws Exception {
+		final CFG cfg = cfg(1000);
+		final List<CFGNode> order = BoaAbstractTraversal.postorder(cfg.getCompact(), cfg.getExitNode().getNodeId(), false, new HashSet<Long>());
+		assertEquals(postorder(cfg.getExitNode(), false), ids(order));
+		assertEquals(cfg.getNodes().size(), order.size());
+		assertEquals(cfg.getExitNode(), order.get(order.size() - 1));
+	}
+
+	@Test
+	public void testWorklistReversePostorder() throws Exception {
+		final CFG cfg = cfg(1000);
+		final List<Integer> rpo = postorder(cfg.getEntryNode(), true);
+		Collections.reverse(rpo);
+
+		for (final boolean forward : new boolean[] { true, false }) {
+			final AssignedVariables t = traverse(cfg, forward, TraversalKind.WORKLIST_REVERSEPOSTORDER);
+			assertEquals(rpo, firstVisits(t.visits));
+			assertFixpoint(cfg, t);
+			if (forward)
+				// taking nodes in reverse postorder goes round each loop a few times, not once per node after it
+				assertTrue(t.visits.size() + " visits", t.visits.size() < 4 * cfg.getNodes().size());
+		}
+	}
+
+	@Test
+	public void testWorklistPostorder() throws Exception {
+		final CFG cfg = cfg(1000);
+		final List<Integer> po = postorder(cfg.getEntryNode(), true);
+
+		for (final boolean forward : new boolean[] { true, false }) {
+			final AssignedVariables t = traverse(cfg, forward, TraversalKind.WORKLIST_POSTORDER);
+			// the first pass takes every node in postorder before any is taken again
+			assertEquals(po, t.visits.subList(0, po.size()));
+			assertFixpoint(cfg, t);
+		}
+	}
+
+	@Test
+	public void testIterative() throws Exception {
+		final CFG cfg = cfg(200);
+		for (final boolean forward : new boolean[] { true, false })
+			assertFixpoint(cfg, traverse(cfg, forward, TraversalKind.ITERATIVE));
+	}
+}
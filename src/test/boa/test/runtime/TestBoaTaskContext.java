@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.junit.After;
+import org.junit.Test;
+
+import boa.io.EmitKey;
+import boa.io.EmitValue;
+import boa.runtime.BoaMapper;
+import boa.runtime.BoaTaskContext;
+
+/**
+ * Tests that each thread has a {@link BoaTaskContext} of its own, and that
+ * the states kept in it are closed when its task is.
+ */
+public class TestBoaTaskContext {
+	/** A state that records when it is closed. */
+	private static class Recorder implements Closeable {
+		private final String name;
+		private final List<String> closed;
+		private final boolean fail;
+
+		Recorder(final String name, final List<String> closed, final boolean fail) {
+			this.name = name;
+			this.closed = closed;
+			this.fail = fail;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.closed.add(this.name);
+			if (this.fail)
+				throw new IOException(this.name);
+		}
+	}
+
+	private static class First extends Recorder {
+		First(final List<String> closed, final boolean fail) {
+			super("first", closed, fail);
+		}
+	}
+
+	private static class Second extends Recorder {
+		Second(final List<String> closed, final boolean fail) {
+			super("second", closed, fail);
+		}
+	}
+
+	/** Exposes the setup and cleanup of a {@link BoaMapper}. */
+	private static class Task extends BoaMapper {
+		void start(final Context context) throws IOException, InterruptedException {
+			setup(context);
+		}
+
+		void finish(final Context context) throws IOException, InterruptedException {
+			cleanup(context);
+		}
+	}
+
+	@After
+	public void closeTask() throws IOException {
+		BoaTaskContext.get().close();
+	}
+
+	@Test
+	public void testThreadsHaveTheirOwnContext() throws Exception {
+		final BoaTaskContext main = BoaTaskContext.get();
+		assertSame(main, BoaTaskContext.get());
+		main.putState(String.class, "main");
+		main.nextNodeId();
+		main.nextNodeId();
+		final int label = main.getLabelId("main");
+
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<BoaTaskContext>> results = new ArrayList<Future<BoaTaskContext>>();
+			for (int i = 0; i < 4; i++) {
+				final String name = "thread" + i;
+				results.add(pool.submit(new Callable<BoaTaskContext>() {
+					@Override
+					public BoaTaskContext call() throws Exception {
+						final BoaTaskContext task = BoaTaskContext.open(null);
+						assertSame(task, BoaTaskContext.get());
+						// nothing kept by another thread is seen here
+						assertNull(task.getState(String.class));
+						assertEquals(0, task.nextNodeId());
+						assertEquals(1, task.getLabelId(name));
+						task.putState(String.class, name);
+						Thread.sleep(10);
+						assertEquals(name, task.getState(String.class));
+						task.close();
+						return task;
+					}
+				}));
+			}
+			final List<BoaTaskContext> tasks = new ArrayList<BoaTaskContext>();
+			for (final Future<BoaTaskContext> f : results) {
+				final BoaTaskContext task = f.get();
+				assertNotSame(main, task);
+				for (final BoaTaskContext other : tasks)
+					assertNotSame(other, task);
+				tasks.add(task);
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertSame(main, BoaTaskContext.get());
+		assertEquals("main", main.getState(String.class));
+		assertEquals(2, main.nextNodeId());
+		assertEquals(label, main.getLabelId("main"));
+		assertNull(main.getLabel(2));
+	}
+
+	@Test
+	public void testCloseClosesStatesNewestFirst() throws IOException {
+		final List<String> closed = new ArrayList<String>();
+		final BoaTaskContext task = BoaTaskContext.open(null);
+		task.putState(First.class, new First(closed, false));
+		task.putState(String.class, "not closeable");
+		task.putState(Second.class, new Second(closed, false));
+		final Second removed = task.removeState(Second.class);
+		task.putState(Second.class, removed);
+
+		task.close();
+		assertEquals(Arrays.asList("second", "first"), closed);
+		assertNull(task.getState(First.class));
+
+		// the thread gets a new context once the task is closed
+		assertNotSame(task, BoaTaskContext.get());
+		assertNull(BoaTaskContext.get().getState(String.class));
+	}
+
+	@Test
+	public void testCloseClosesEveryStateOnFailure() {
+		final List<String> closed = new ArrayList<String>();
+		final BoaTaskContext task = BoaTaskContext.open(null);
+		task.putState(First.class, new First(closed, true));
+		task.putState(Second.class, new Second(closed, true));
+
+		try {
+			task.close();
+			fail("no exception");
+		} catch (final IOException e) {
+			assertEquals("second", e.getMessage());
+		}
+		assertEquals(Arrays.asList("second", "first"), closed);
+		assertNotSame(task, BoaTaskContext.get());
+	}
+
+	@Test
+	public void testMapperCleanupClosesTask() throws Exception {
+		final List<String> closed = new ArrayList<String>();
+		final Configuration conf = new Configuration();
+		conf.set("boa.test.task", "mapper");
+		final Task mapper = new Task();
+		mapper.setConf(conf);
+		final Mapper<Text, BytesWritable, EmitKey, EmitValue>.Context context = mapper.new Context(conf, new TaskAttemptID("test", 0, true, 0, 0), null, null, null, null, null);
+
+		mapper.start(context);
+		final BoaTaskContext task = BoaTaskContext.get();
+		assertSame(context, task.getContext());
+		assertEquals("mapper", task.getConfiguration().get("boa.test.task"));
+		task.putState(First.class, new First(closed, false));
+
+		mapper.finish(context);
+		assertEquals(Arrays.asList("first"), closed);
+		assertNotSame(task, BoaTaskContext.get());
+		assertNull(BoaTaskContext.get().getContext());
+
+		// the next task starts clean
+		mapper.start(context);
+		assertNotSame(task, BoaTaskContext.get());
+		assertNull(BoaTaskContext.get().getState(First.class));
+		mapper.finish(context);
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Test;
+
+import boa.runtime.InMapperCombiner;
+import boa.test.compiler.LocalRunnerBaseTest;
+import boa.types.Toplevel.Project;
+
+/**
+ * Tests that combining map outputs in memory with {@link InMapperCombiner}
+ * gives the same job output as writing every map output as is.
+ *
+ * The same program is run with the {@link boa.runtime.BoaLocalRunner} with
+ * combining in the mapper disabled, with tables so small they are flushed
+ * after a few keys, and with the default size.
+ */
+public class TestInMapperCombiner extends LocalRunnerBaseTest {
+	private static final String[] LANGUAGES = { "C", "Go", "Java", "Rust", "Shell" };
+
+	private void writeProjects(final int count) throws IOException {
+		final List<Project> projects = new ArrayList<Project>();
+		for (int i = 0; i < count; i++)
+			projects.add(Project.newBuilder()
+					.setId(Integer.toString(i))
+					.setName("p" + i)
+					.setProjectUrl("http://example.com/" + i)
+					.setKind(Project.ForgeKind.OTHER)
+					.addProgrammingLanguages(LANGUAGES[i % LANGUAGES.length])
+					.setStars((i * 37) % 101)
+					.setForks(i % 7)
+					.build());
+		writeProjects(projects);
+	}
+
+	/**
+	 * Runs a job, returning the lines of every part file.
+	 *
+	 * @param job the job
+	 * @param name the name of the run, for its output directory
+	 * @param combineBytes the size of the in-mapper tables, or null for the default
+	 */
+	private List<String> run(final Class<?> job, final String name, final Long combineBytes) throws Exception {
+		final Configuration conf = new Configuration();
+		if (combineBytes != null)
+			conf.setLong(InMapperCombiner.BYTES, combineBytes);
+		// one thread, so values of collections arrive in the same order every run
+		return run(job, conf, "out-" + name, 1);
+	}
+
+	private void check(final String program) throws Exception {
+		final Class<?> job = compile(program);
+		final List<String> uncombined = run(job, "uncombined", 0L);
+		assertFalse("no output", uncombined.isEmpty());
+		assertEquals("flushed often", uncombined, run(job, "small", 4096L));
+		assertEquals("default size", uncombined, run(job, "default", null));
+	}
+
+	@Test
+	public void testCombinableAggregators() throws Exception {
+		// few keys with many values each, so values are combined in place
+		writeProjects(3000);
+		check("s: output sum[string] of int;\n" +
+				"fs: output sum of float;\n" +
+				"m: output mean[string] of int;\n" +
+				"fm: output mean[string] of float;\n" +
+				"t: output top(3)[string] of string weight int;\n" +
+				"b: output bottom(2) of string weight float;\n" +
+				"mx: output maximum(2)[string] of string weight int;\n" +
+				"mn: output minimum(3) of string weight int;\n" +
+				"q: output quantile(4)[string] of int;\n" +
+				"fq: output quantile(3) of float;\n" +
+				"st: output set[string] of int;\n" +
+				"p: Project = input;\n" +
+				"lang := p.programming_languages[0];\n" +
+				"s[lang] << p.stars;\n" +
+				"fs << p.stars * 0.25;\n" +
+				"m[lang] << p.stars;\n" +
+				"fm[lang] << p.stars * 0.5;\n" +
+				"t[lang] << p.name weight p.stars;\n" +
+				"b << p.name weight p.stars * 0.25;\n" +
+				"mx[lang] << p.name weight p.forks;\n" +
+				"mn << p.name weight p.stars;\n" +
+				"q[lang] << p.stars;\n" +
+				"fq << p.stars * 0.5;\n" +
+				"st[lang] << p.forks;\n");
+	}
+
+	@Test
+	public void testManyKeysAndUncombinable() throws Exception {
+		// a key per project, mixed with variables that can not be combined
+		writeProjects(2000);
+		check("s: output sum[string] of int;\n" +
+				"c: output collection[string] of string;\n" +
+				"md: output median[string] of int;\n" +
+				"t: output sum of int;\n" +
+				"p: Project = input;\n" +
+				"s[p.name] << p.stars;\n" +
+				"s[p.programming_languages[0]] << 1;\n" +
+				"if (p.stars == 0) c[p.programming_languages[0]] << p.name;\n" +
+				"md[p.programming_languages[0]] << p.forks;\n" +
+				"t << 1;\n");
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026, Hridesh Rajan, Robert Dyer,
+ *                 and Iowa State University of Science and Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Test;
+
+import boa.runtime.BoaPartitioner;
+import boa.test.compiler.LocalRunnerBaseTest;
+import boa.types.Toplevel.Project;
+
+/**
+ * Runs a small Boa program end to end with the {@link boa.runtime.BoaLocalRunner}.
+ */
+public class TestLocalRunner extends LocalRunnerBaseTest {
+	private static final String COUNTS =
+			"counts: output sum[string] of int;\n" +
+			"total: output sum of int;\n" +
+			"p: Project = input;\n" +
+			"counts[p.name] << 1;\n" +
+			"total << 1;\n";
+
+	private void writeProjects(final String... names) throws IOException {
+		final List<Project> projects = new ArrayList<Project>();
+		for (int i = 0; i < names.length; i++)
+			projects.add(Project.newBuilder()
+					.setId(Integer.toString(i))
+					.setName(names[i])
+					.setProjectUrl("http://example.com/" + names[i])
+					.setKind(Project.ForgeKind.OTHER)
+					.build());
+		writeProjects(projects);
+	}
+
+	/**
+	 * Runs a program and returns the lines of each part file, in order.
+	 */
+	private List<List<String>> runParts(final String program, final String... names) throws Exception {
+		writeProjects(names);
+		return runParts(compile(program), new Configuration(), "out", 2);
+	}
+
+	private List<String> run(final String... names) throws Exception {
+		writeProjects(names);
+		return run(compile(COUNTS), new Configuration(), "out", 2);
+	}
+
+	@Test
+	public void testRun() throws Exception {
+		assertEquals(Arrays.asList("counts[a] = 2", "counts[b] = 1", "total[] = 3"), run("a", "b", "a"));
+	}
+
+	@Test
+	public void testManySplits() throws Exception {
+		// enough input for each thread to get several splits
+		final String[] names = new String[20000];
+		for (int i = 0; i < names.length; i++)
+			names[i] = i % 2 == 0 ? "even" : "odd";
+		assertEquals(Arrays.asList("counts[even] = 10000", "counts[odd] = 10000", "total[] = 20000"), run(names));
+	}
+
+	@Test
+	public void testOnePartPerVariable() throws Exception {
+		// declared out of alphabetical order, one of them with no output
+		final List<List<String>> parts = runParts(
+				"zeta: output sum of int;\n" +
+				"alpha: output sum[string] of int;\n" +
+				"never: output sum of int;\n" +
+				"mid: output top(1) of string weight int;\n" +
+				"p: Project = input;\n" +
+				"zeta << 1;\n" +
+				"alpha[p.name] << 2;\n" +
+				"if (p.name == \"none\") never << 1;\n" +
+				"mid << p.name weight 1;\n",
+				"b", "a", "b");
+
+		// as on Hadoop, part n holds the variable the partitioner sends to reducer n
+		assertEquals(4, parts.size());
+		final List<List<String>> expected = new ArrayList<List<String>>();
+		for (int i = 0; i < parts.size(); i++) {
+			final String name = BoaPartitioner.getVariableFromPartition(i);
+			assertEquals(i, BoaPartitioner.getPartitionForVariable(name));
+			if (name.equals("zeta"))
+				expected.add(Arrays.asList("zeta[] = 3"));
+			else if (name.equals("alpha"))
+				expected.add(Arrays.asList("alpha[a] = 2", "alpha[b] = 4"));
+			else if (name.equals("never"))
+				expected.add(Arrays.<String>asList());
+			else if (name.equals("mid"))
+				expected.add(Arrays.asList("mid[] = b, 2.0"));
+			else
+				fail("unexpected variable " + name);
+		}
+		assertEquals(expected, parts);
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import boa.runtime.NodeValues;
+
+/**
+ * Tests that {@link NodeValues} behaves as the map of node ids it replaced.
+ */
+public class TestNodeValues {
+	@Test
+	public void testPutAndGet() {
+		final NodeValues<String> values = new NodeValues<String>();
+		assertTrue(values.isEmpty());
+		assertNull(values.get(0));
+		assertFalse(values.containsKey(0));
+
+		assertNull(values.put(3, "a"));
+		assertEquals("a", values.put(3, "b"));
+		assertEquals("b", values.get(3));
+		assertTrue(values.containsKey(3));
+		assertFalse(values.containsKey(2));
+		assertEquals(1, values.size());
+
+		// a null value is still a value
+		assertNull(values.put(5, null));
+		assertTrue(values.containsKey(5));
+		assertNull(values.get(5));
+		assertEquals(2, values.size());
+	}
+
+	@Test
+	public void testLargeAndNegativeIds() {
+		final NodeValues<Long> values = new NodeValues<Long>();
+		final long[] ids = { 0, 63, 64, 1000, (1 << 20) - 1, 1 << 20, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+		for (final long id : ids)
+			assertNull(values.put(id, id));
+		assertEquals(ids.length, values.size());
+		for (final long id : ids) {
+			assertTrue("id " + id, values.containsKey(id));
+			assertEquals(Long.valueOf(id), values.get(id));
+		}
+		assertFalse(values.containsKey(65));
+		assertFalse(values.containsKey((1 << 20) + 1));
+		assertFalse(values.containsKey(-2));
+	}
+
+	@Test
+	public void testSameAsMap() {
+		final Random random = new Random(1);
+		final NodeValues<Integer> values = new NodeValues<Integer>();
+		final Map<Long, Integer> map = new HashMap<Long, Integer>();
+		for (int i = 0; i < 20000; i++) {
+			final long id = random.nextInt(10) == 0 ? random.nextLong() : random.nextInt(5000);
+			final Integer value = random.nextInt(50) == 0 ? null : i;
+			assertEquals(map.put(id, value), values.put(id, value));
+		}
+		assertEquals(map.size(), values.size());
+		for (final Map.Entry<Long, Integer> e : map.entrySet()) {
+			assertTrue(values.containsKey(e.getKey()));
+			assertEquals(e.getValue(), values.get(e.getKey()));
+		}
+		for (long id = 0; id < 6000; id++)
+			assertEquals(map.containsKey(id), values.containsKey(id));
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		final NodeValues<String> values = new NodeValues<String>();
+		values.put(1, "a");
+		values.put(1L << 40, "far");
+
+		final NodeValues<String> copy = new NodeValues<String>(values);
+		copy.put(1, "b");
+		copy.put(2, "c");
+		copy.put(1L << 40, "farther");
+		copy.put(100000, "d");
+
+		assertEquals("a", values.get(1));
+		assertFalse(values.containsKey(2));
+		assertFalse(values.containsKey(100000));
+		assertEquals("far", values.get(1L << 40));
+		assertEquals(2, values.size());
+		assertEquals(4, copy.size());
+	}
+
+	@Test
+	public void testClear() {
+		final NodeValues<String> values = new NodeValues<String>();
+		values.put(1, "a");
+		values.put(500, "b");
+		values.put(-7, "c");
+		values.clear();
+		assertTrue(values.isEmpty());
+		assertFalse(values.containsKey(1));
+		assertNull(values.get(500));
+		assertNull(values.get(-7));
+
+		values.put(500, "d");
+		assertEquals(1, values.size());
+		assertEquals("d", values.get(500));
+	}
+}
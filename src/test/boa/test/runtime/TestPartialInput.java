@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.runtime.PartialMessageParser;
+import boa.test.compiler.LocalRunnerBaseTest;
+import boa.types.Code.CodeRepository;
+import boa.types.Code.Revision;
+import boa.types.Diff.ChangedFile;
+import boa.types.Shared.ChangeKind;
+import boa.types.Shared.Person;
+import boa.types.Toplevel.Project;
+
+/**
+ * Tests that decoding only the project fields a program reads, as found by
+ * {@link boa.compiler.visitors.FieldUsageVisitor} and done by
+ * {@link PartialMessageParser}, gives the same output as decoding whole
+ * projects.
+ *
+ * Each program is run twice with the {@link boa.runtime.BoaLocalRunner}: as
+ * written, and with a statement added that passes the project to a function,
+ * which makes the compiler decode it in full.
+ */
+public class TestPartialInput extends LocalRunnerBaseTest {
+	@Before
+	public void writeProjects() throws IOException {
+		writeProjects(projects());
+	}
+
+	private static Person person(final String name) {
+		return Person.newBuilder().setUsername(name).setEmail(name + "@example.com").build();
+	}
+
+	private static List<Project> projects() {
+		final List<Project> projects = new ArrayList<Project>();
+		for (int i = 0; i < 4; i++) {
+			final Project.Builder p = Project.newBuilder()
+					.setId(Integer.toString(i))
+					.setName("project" + i)
+					.setProjectUrl("http://example.com/" + i)
+					.setHomepageUrl("http://home.example.com/" + i)
+					.setKind(Project.ForgeKind.GITHUB)
+					.addProgrammingLanguages(i % 2 == 0 ? "Java" : "C")
+					.addProgrammingLanguages("Shell")
+					.addMaintainers(person("m" + i))
+					.setStars(10 * i);
+
+			for (int r = 0; r <= i % 3; r++) {
+				final CodeRepository.Builder cr = CodeRepository.newBuilder()
+						.setUrl("http://example.com/" + i + "/" + r + ".git")
+						.setKind(r == 1 ? CodeRepository.RepositoryKind.SVN : CodeRepository.RepositoryKind.GIT)
+						.setHead(2);
+				for (int v = 0; v < 3; v++) {
+					final Revision.Builder rev = Revision.newBuilder()
+							.setId(i + "-" + r + "-" + v)
+							.setAuthor(person("a" + (v % 2)))
+							.setCommitter(person("c" + ((i + v) % 3)))
+							.setCommitDate(1000 * v)
+							.setLog(v == 1 ? "fix bug" : "change " + v);
+					if (v > 0)
+						rev.addParents(v - 1);
+					for (int f = 0; f <= v; f++)
+						rev.addFiles(ChangedFile.newBuilder()
+								.setName("src/F" + f + (f % 2 == 0 ? ".java" : ".txt"))
+								.setKind(f % 2 == 0 ? ChangedFile.FileKind.SOURCE_JAVA_JLS8 : ChangedFile.FileKind.TEXT)
+								.setChange(v == 0 ? ChangeKind.ADDED : (f == v ? ChangeKind.DELETED : ChangeKind.MODIFIED))
+								.setKey(0)
+								.setAst(false));
+					cr.addRevisions(rev);
+				}
+				p.addCodeRepositories(cr);
+			}
+			projects.add(p.build());
+		}
+		return projects;
+	}
+
+	/**
+	 * Compiles and runs a program, returning the lines of every output file.
+	 *
+	 * @param program the program
+	 * @param partial whether the input is expected to be decoded partially
+	 * @param name the name of the run, for its class and output directories
+	 */
+	private List<String> run(final String program, final boolean partial, final String name) throws Exception {
+		final String source = generate(program);
+		assertEquals(partial, source.contains(".keep("));
+		return run(compile(source, "classes-" + name), new Configuration(), "out-" + name, 2);
+	}
+
+	private void check(final String program) throws Exception {
+		final List<String> partial = run(program, true, "partial");
+		final List<String> full = run(program + "fullyused := def(p);\n", false, "full");
+		assertFalse("no output", full.isEmpty());
+		assertEquals(full, partial);
+	}
+
+	@Test
+	public void testTopLevelFields() throws Exception {
+		check("names: output sum[string][string] of int;\n" +
+				"p: Project = input;\n" +
+				"names[p.name][p.homepage_url] << p.stars;\n" +
+				"foreach (i: int; def(p.programming_languages[i]))\n" +
+				"	names[p.name][p.programming_languages[i]] << len(p.maintainers);\n");
+	}
+
+	@Test
+	public void testNestedSelectors() throws Exception {
+		check("commits: output sum[string] of int;\n" +
+				"fixes: output sum[string][string] of int;\n" +
+				"p: Project = input;\n" +
+				"foreach (i: int; p.code_repositories[i].kind == RepositoryKind.GIT)\n" +
+				"	for (j := 0; j < getrevisionscount(p.code_repositories[i]); j++) {\n" +
+				"		rev := getrevision(p.code_repositories[i], j);\n" +
+				"		if (isfixingrevision(rev.log)) {\n" +
+				"			commits[rev.committer.username] << 1;\n" +
+				"			fixes[p.name][rev.id] << len(rev.files);\n" +
+				"		}\n" +
+				"	}\n");
+	}
+
+	@Test
+	public void testCopiesIntoVariables() throws Exception {
+		check("urls: output sum[string][string] of int;\n" +
+				"p: Project = input;\n" +
+				"repos := p.code_repositories;\n" +
+				"foreach (i: int; repos[i].url != \"\") {\n" +
+				"	r := repos[i];\n" +
+				"	if (r.kind == RepositoryKind.GIT)\n" +
+				"		urls[p.name][r.url] << r.head;\n" +
+				"}\n" +
+				"m := p.maintainers;\n" +
+				"foreach (i: int; m[i].username != \"\")\n" +
+				"	urls[p.name][m[i].email] << 1;\n");
+	}
+
+	@Test
+	public void testRepositoryPassedToFunction() throws Exception {
+		// the repositories are decoded in full, the rest of the project not
+		check("counts: output sum[string] of int;\n" +
+				"p: Project = input;\n" +
+				"exists (i: int; match(`^java$`, lowercase(p.programming_languages[i])))\n" +
+				"	foreach (j: int; p.code_repositories[j].kind == RepositoryKind.GIT)\n" +
+				"		counts[p.code_repositories[j].url] << getrevisionscount(p.code_repositories[j]);\n");
+	}
+
+	@Test
+	public void testParserKeepsOnlyNamedFields() throws Exception {
+		final Project full = projects().get(2);
+		final byte[] bytes = full.toByteArray();
+
+		final Project partial = (Project) new PartialMessageParser()
+				.keep(Project.getDescriptor(), "name", "code_repositories")
+				.keep(CodeRepository.getDescriptor(), "url", "revisions")
+				.keep(Revision.getDescriptor(), "log")
+				.parse(Project.newBuilder(), bytes, 0, bytes.length);
+
+		assertEquals(full.getName(), partial.getName());
+		assertFalse(partial.hasProjectUrl());
+		assertEquals(0, partial.getProgrammingLanguagesCount());
+		assertEquals(full.getCodeRepositoriesCount(), partial.getCodeRepositoriesCount());
+		for (int i = 0; i < full.getCodeRepositoriesCount(); i++) {
+			final CodeRepository cr = full.getCodeRepositories(i), pcr = partial.getCodeRepositories(i);
+			assertEquals(cr.getUrl(), pcr.getUrl());
+			assertFalse(pcr.hasHead());
+			assertEquals(cr.getRevisionsCount(), pcr.getRevisionsCount());
+			for (int j = 0; j < cr.getRevisionsCount(); j++) {
+				assertEquals(cr.getRevisions(j).getLog(), pcr.getRevisions(j).getLog());
+				assertFalse(pcr.getRevisions(j).hasCommitter());
+				assertEquals(0, pcr.getRevisions(j).getFilesCount());
+			}
+		}
+	}
+
+	@Test
+	public void testParserWithoutPartialTypes() throws Exception {
+		final Project full = projects().get(1);
+		final byte[] bytes = full.toByteArray();
+
+		final PartialMessageParser parser = new PartialMessageParser();
+		assertTrue(parser.isEmpty());
+		assertEquals(full, parser.parse(Project.newBuilder(), bytes, 0, bytes.length));
+
+		// a field the type does not have keeps it whole
+		parser.keep(Project.getDescriptor(), "name", "no_such_field");
+		assertTrue(parser.isEmpty());
+		assertEquals(full, parser.parse(Project.newBuilder(), bytes, 0, bytes.length));
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026, Robert Dyer,
+ *                 and Bowling Green State University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boa.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.JobID;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import boa.io.BoaOutputCommitter;
+import boa.io.EmitKey;
+import boa.runtime.BoaPartitioner;
+import boa.test.compiler.BaseTest;
+
+/**
+ * Tests running several reducers per output variable: the partitioner keeps
+ * each variable's keys in its own range of partitions, and the committer
+ * merges each range back into one part file per variable.
+ */
+public class TestReduceSplits extends BaseTest {
+	private static final String[] VARIABLES = { "a", "b", "c" };
+
+	private File root;
+
+	@Before
+	public void createRoot() throws IOException {
+		root = Files.createTempDirectory("boa-splits").toFile();
+		BoaPartitioner.setVariableNames(VARIABLES);
+	}
+
+	@After
+	public void deleteRoot() throws IOException {
+		BoaPartitioner.setVariableNames(new String[0]);
+		delete(root);
+	}
+
+	private static BoaPartitioner partitioner(final int splits) {
+		final Configuration conf = new Configuration();
+		conf.setInt(BoaPartitioner.SPLITS_PER_VARIABLE, splits);
+		final BoaPartitioner p = new BoaPartitioner();
+		p.setConf(conf);
+		return p;
+	}
+
+	@Test
+	public void testOneSplit() {
+		final BoaPartitioner p = partitioner(1);
+		for (int v = 0; v < VARIABLES.length; v++)
+			for (int i = 0; i < 100; i++)
+				assertEquals(v, p.getPartition(new EmitKey("[" + i + "]", VARIABLES[v]), null, VARIABLES.length));
+	}
+
+	@Test
+	public void testSeveralSplits() {
+		final int splits = 4;
+		final BoaPartitioner p = partitioner(splits);
+
+		for (int v = 0; v < VARIABLES.length; v++) {
+			final Set<Integer> used = new HashSet<Integer>();
+			for (int i = 0; i < 1000; i++) {
+				final EmitKey key = new EmitKey("[" + i + "]", VARIABLES[v]);
+				final int partition = p.getPartition(key, null, VARIABLES.length * splits);
+
+				// a variable's keys stay within its own range of partitions
+				assertEquals(key.toString(), v, partition / splits);
+				// and every record of one key goes to the same reducer
+				assertEquals(key.toString(), partition, p.getPartition(new EmitKey("[" + i + "]", VARIABLES[v]), null, VARIABLES.length * splits));
+
+				used.add(partition);
+			}
+			assertEquals("variable " + VARIABLES[v] + " uses every split", splits, used.size());
+		}
+	}
+
+	@Test
+	public void testSplitsAtLeastOne() {
+		final Configuration conf = new Configuration();
+		assertEquals(1, BoaPartitioner.getSplitsPerVariable(conf));
+		conf.setInt(BoaPartitioner.SPLITS_PER_VARIABLE, 0);
+		assertEquals(1, BoaPartitioner.getSplitsPerVariable(conf));
+		conf.setInt(BoaPartitioner.SPLITS_PER_VARIABLE, 3);
+		assertEquals(3, BoaPartitioner.getSplitsPerVariable(conf));
+	}
+
+	private void commit(final int splits) throws IOException {
+		final Configuration conf = new Configuration();
+		conf.setInt(BoaPartitioner.SPLITS_PER_VARIABLE, splits);
+		final Path out = new Path(root.getPath());
+		final BoaOutputCommitter committer = new BoaOutputCommitter(out, new TaskAttemptContext(conf, new TaskAttemptID()));
+		committer.commitJob(new JobContext(conf, new JobID()));
+	}
+
+	private void writePart(final int part, final String... lines) throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		for (final String line : lines)
+			sb.append(line).append('\n');
+		Files.write(new File(root, String.format("part-r-%05d", part)).toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String[] readPart(final int part) throws IOException {
+		return Files.readAllLines(new File(root, String.format("part-r-%05d", part)).toPath(), StandardCharsets.UTF_8).toArray(new String[0]);
+	}
+
+	@Test
+	public void testMergeSplits() throws IOException {
+		// three variables with two reducers each, one of them with no output
+		writePart(0, "a[x] = 1");
+		writePart(1, "a[y] = 2", "a[z] = 3");
+		writePart(2);
+		writePart(3);
+		writePart(4, "c[] = 4");
+		writePart(5, "c[q] = 5");
+
+		commit(2);
+
+		assertEquals(Arrays.asList("a[x] = 1", "a[y] = 2", "a[z] = 3"), Arrays.asList(readPart(0)));
+		assertEquals(0, readPart(1).length);
+		assertEquals(Arrays.asList("c[] = 4", "c[q] = 5"), Arrays.asList(readPart(2)));
+		for (int part = 3; part < 6; part++)
+			assertFalse("part " + part + " was merged away", new File(root, String.format("part-r-%05d", part)).exists());
+		for (final String f : root.list())
+			assertFalse(f, f.startsWith("_merge-"));
+	}
+
+	@Test
+	public void testMergeKeepsKeysSorted() throws IOException {
+		// each reducer's part is sorted by key, and a key may have several lines
+		writePart(0, "a[a] = 1", "a[c] = z, 3", "a[c] = b, 2", "a[f] = 6");
+		writePart(1, "a[] = 0", "a[b] = 2", "a[d] = 4", "a[e] = 5");
+		writePart(2, "a[cc] = 7", "a[g] = 8");
+		for (int part = 3; part < 9; part++)
+			writePart(part);
+
+		commit(3);
+
+		assertEquals(Arrays.asList("a[] = 0", "a[a] = 1", "a[b] = 2", "a[c] = z, 3", "a[c] = b, 2", "a[cc] = 7", "a[d] = 4", "a[e] = 5", "a[f] = 6", "a[g] = 8"),
+				Arrays.asList(readPart(0)));
+	}
+
+	@Test
+	public void testNoMergeWithOneSplit() throws IOException {
+		writePart(0, "a[x] = 1");
+		writePart(1, "b[x] = 2");
+		writePart(2, "c[x] = 3");
+
+		commit(1);
+
+		assertEquals(Arrays.asList("a[x] = 1"), Arrays.asList(readPart(0)));
+		assertEquals(Arrays.asList("b[x] = 2"), Arrays.asList(readPart(1)));
+		assertEquals(Arrays.asList("c[x] = 3"), Arrays.asList(readPart(2)));
+		assertTrue(new File(root, "part-r-00002").exists());
+	}
+}